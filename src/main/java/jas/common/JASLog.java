@@ -79,6 +79,13 @@ public class JASLog {
         log(Level.ERROR, format, data);
     }
 
+    /**
+     * Logs the message as an error along with the stack trace of the cause
+     */
+    public void severe(Throwable cause, String format, Object... data) {
+        myLog.log(Level.ERROR, String.format(format, data), cause);
+    }
+
     public void debug(Level level, String format, Object... data) {
         if (DEBUG.isEnabled()) {
             log(level, format, data);
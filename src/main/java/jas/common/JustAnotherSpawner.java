@@ -9,6 +9,9 @@ import jas.common.helper.ReflectionHelper;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.proxy.CommonProxy;
+import jas.spawner.modern.spawner.BlockView;
+import jas.spawner.modern.spawner.PlayerIndex;
+import jas.spawner.modern.spawner.ThreadTags;
 import jas.spawner.modern.spawner.biome.structure.StructureInterpreterHelper;
 import jas.spawner.refactor.ExperimentalProfile;
 
@@ -39,6 +42,7 @@ import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPostInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 
 @Mod(modid = DefaultProps.MODID, name = DefaultProps.MODNAME, dependencies = "after:*", useMetadata = true)
@@ -146,6 +150,18 @@ public class JustAnotherSpawner {
 		}
 	}
 
+	@EventHandler
+	public void serverStop(FMLServerStoppingEvent event) {
+		currentProfile.serverStop(event);
+	}
+
+	@SubscribeEvent
+	public void worldUnload(WorldEvent.Unload event) {
+		BlockView.unload(event.world);
+		PlayerIndex.unload(event.world);
+		ThreadTags.unload(event.world);
+	}
+
 	@SubscribeEvent
 	public void worldLoad(WorldEvent.Load event) {
 		GameRules gameRule = event.world.getGameRules();
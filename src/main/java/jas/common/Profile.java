@@ -6,6 +6,7 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 
 /**
  * Configurable World Settings - Each Profile supports a unique configuration file layout
@@ -16,6 +17,11 @@ public interface Profile {
 
 	public void serverStart(FMLServerStartingEvent event);
 
+	/**
+	 * Called before the worlds are unloaded; settings still being saved must be written before returning
+	 */
+	public void serverStop(FMLServerStoppingEvent event);
+
 	public void saveToConfig(File configDirectory, World world);
 
 	public void loadFromConfig(File configDirectory, World world);
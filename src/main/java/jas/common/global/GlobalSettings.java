@@ -33,6 +33,20 @@ public class GlobalSettings {
     public int chunkCountDistance = 8;
     @SerializedName("Generate Zero-Weight Spawn Entries")
     public boolean shouldGenerateZeroSpawnEntries;
+    @SerializedName("Maintain entity counts incrementally")
+    public boolean useEntityCountIndex = true;
+    @SerializedName("Entity count reconcile tick spacing")
+    public int entityCountReconcileTicks = 20;
+    @SerializedName("Entity count self-check tick spacing (0 to disable)")
+    public int entityCountSelfCheckTicks = 0;
+    @SerializedName("Spawner time budget per world per tick in nanoseconds (0 to disable)")
+    public long spawnerTickBudgetNanos = 10000000L;
+    @SerializedName("Spawn candidate worker threads (0 to evaluate on the main thread)")
+    public int spawnWorkerThreads = 0;
+    @SerializedName("Re-check off-thread spawn candidates on the main thread")
+    public boolean verifySpawnSnapshots = false;
+    @SerializedName("Despawn time budget per world per tick in nanoseconds (0 to disable)")
+    public long despawnTickBudgetNanos = 2000000L;
     public GlobalSettings() {
         spawnerTickSpacing = 0;
         globalSortCreatureByBiome = true;
@@ -42,6 +56,13 @@ public class GlobalSettings {
         disabledVanillaChunkSpawning = true;
         chunkSpawnDistance = 8;
         chunkCountDistance = 8;
+        useEntityCountIndex = true;
+        entityCountReconcileTicks = 20;
+        entityCountSelfCheckTicks = 0;
+        spawnerTickBudgetNanos = 10000000L;
+        spawnWorkerThreads = 0;
+        verifySpawnSnapshots = false;
+        despawnTickBudgetNanos = 2000000L;
 //        spawningProfile = profileMVEL;
     }
 }
\ No newline at end of file
@@ -0,0 +1,500 @@
+package jas.common.helper;
+
+import jas.common.JASLog;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Level;
+import org.mvel2.CompileException;
+import org.mvel2.MVEL;
+import org.mvel2.ParserContext;
+import org.mvel2.compiler.ExecutableStatement;
+import org.mvel2.integration.VariableResolverFactory;
+import org.mvel2.optimizers.AccessorOptimizer;
+import org.mvel2.optimizers.OptimizerFactory;
+
+/**
+ * Compiles every MVEL expression read from the configuration. Expressions are compiled against the type of the context
+ * object they are evaluated with, and the ASM optimizer is used for the accessors of these expressions, and only
+ * these, so evaluation calls the context directly instead of through reflection.
+ *
+ * Before compiling, the fields, getters and methods an expression reads from the context, and from values whose type
+ * is known from the context, are checked against those types. An expression naming a member that does not exist is
+ * rejected when the configuration is loaded rather than failing, or silently evaluating false, the first time it is
+ * evaluated. The only names accepted without being members of the context are variables the expression declares, $ and
+ * projection variables, packages of classes that load, and names starting with an upper case letter, taken as classes.
+ */
+public final class ExpressionCompiler {
+	private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList("true", "false", "null", "nil",
+			"empty", "if", "else", "while", "until", "for", "foreach", "do", "def", "function", "return", "new", "var",
+			"in", "is", "instanceof", "contains", "soundslike", "strsim", "convertable_to", "with", "assert", "isdef",
+			"import", "import_static", "and", "or", "this"));
+	/* Variables assigned within the expression, and the parameters and loop variables it declares */
+	private static final Pattern ASSIGNMENT = Pattern.compile("([A-Za-z_$][\\w$]*)\\s*=(?!=)");
+	private static final Pattern LOOP_VARIABLE = Pattern.compile("(?:foreach|for)\\s*\\(\\s*(?:\\w+\\s+)?(\\w+)\\s*:");
+	private static final Pattern FUNCTION = Pattern.compile("(?:def|function)\\s+(\\w+)\\s*\\(([^)]*)\\)");
+	/* Element the left side of a projection, (name in collection), is read from */
+	private static final Pattern PROJECTION = Pattern
+			.compile("\\(\\s*([A-Za-z_$][\\w$]*)(?:\\([^()]*\\))?[^()]*?\\s+in\\s");
+	/* Optimizer used for the accessors of compiled expressions, null to leave them to the MVEL default */
+	private static final Class<? extends AccessorOptimizer> ACCESSOR_OPTIMIZER = asmOptimizer();
+
+	/**
+	 * The ASM optimizer writes class files for the Java version it runs on, and does not recognise versions past 1.x. It
+	 * may also be disabled by the user with MVEL's own property.
+	 */
+	private static Class<? extends AccessorOptimizer> asmOptimizer() {
+		String javaVersion = System.getProperty("java.version", "");
+		if (Boolean.getBoolean("mvel2.disable.jit") || !javaVersion.startsWith("1.")) {
+			return null;
+		}
+		try {
+			return OptimizerFactory.getAccessorCompiler("ASM").getClass();
+		} catch (RuntimeException e) {
+			JASLog.log().warning("Unable to use the ASM optimizer for expressions, falling back to reflection: %s",
+					e.getMessage());
+			return null;
+		}
+	}
+
+	private ExpressionCompiler() {
+	}
+
+	/**
+	 * @param expression Expression to compile
+	 * @param contextType Type of the context object the expression is evaluated with
+	 * @param source Description of where the expression was read from, used for diagnostics
+	 * @throws IllegalArgumentException if the expression reads a member a type known from the context does not have,
+	 *             or a root that is neither a member of the context nor a name it accepts otherwise
+	 * @throws CompileException if the expression is not valid MVEL
+	 */
+	public static Serializable compile(String expression, Class<?> contextType, String source) {
+		long startTime = System.nanoTime();
+		List<String> unresolved = members(expression, contextType).unresolved;
+		if (!unresolved.isEmpty()) {
+			JASLog.log().severe("Expression for %s references unknown %s: %s", source,
+					unresolved.size() > 1 ? "members" : "member", expression);
+			for (String member : unresolved) {
+				JASLog.log().severe("    %s is not a public field, getter or method", member);
+			}
+			throw new IllegalArgumentException(String.format("Expression for %s references unknown member %s: %s",
+					source, unresolved.get(0), expression));
+		}
+
+		ParserContext parserContext = new ParserContext();
+		parserContext.addInput("this", contextType);
+		Serializable compiled;
+		try {
+			compiled = MVEL.compileExpression(expression, parserContext);
+		} catch (CompileException e) {
+			JASLog.log().severe("Expression for %s could not be compiled: %s", source, expression);
+			JASLog.log().severe("    %s", e.getMessage());
+			throw e;
+		}
+		JASLog.log().debug(Level.INFO, "Compiled expression for %s against %s in %sus: %s", source,
+				contextType.getSimpleName(), (System.nanoTime() - startTime) / 1000, expression);
+		return ACCESSOR_OPTIMIZER != null ? new OptimizedStatement((ExecutableStatement) compiled) : compiled;
+	}
+
+	/**
+	 * Members of the context an expression reads
+	 */
+	public static final class ExpressionMembers {
+		/** Paths of the members read from the context, such as lgcy.height or posX */
+		public final Set<String> paths;
+		/**
+		 * False if the expression also reads values that could not be traced to the context: static classes, created
+		 * objects, or members of values whose type is only known when evaluated
+		 */
+		public final boolean isComplete;
+		/* Members that do not exist, as Owner.member */
+		private final List<String> unresolved;
+
+		private ExpressionMembers(Set<String> paths, boolean isComplete, List<String> unresolved) {
+			this.paths = Collections.unmodifiableSet(paths);
+			this.isComplete = isComplete;
+			this.unresolved = unresolved;
+		}
+	}
+
+	/* Value of a chain segment: the type it evaluates to, null if unknown, and its path from the context */
+	private static final class Segment {
+		static final Segment UNKNOWN = new Segment(null, null);
+
+		final Class<?> type;
+		final String path;
+
+		Segment(Class<?> type, String path) {
+			this.type = type;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * Walks the identifier chains of the expression, resolving each segment against the type of the previous one. Roots
+	 * are resolved against the context type. Chains whose type cannot be known without evaluating, such as generic
+	 * returns, maps, parenthesised expressions or static class references, are not followed past that point.
+	 */
+	public static ExpressionMembers members(String expression, Class<?> contextType) {
+		Set<String> paths = new HashSet<String>();
+		boolean isComplete = isCheckable(contextType);
+		List<String> unresolved = new ArrayList<String>();
+		Set<String> variables = declaredVariables(expression);
+		/* Value each open parenthesis evaluates to when closed */
+		LinkedList<Segment> openParentheses = new LinkedList<Segment>();
+		/* Last completed chain segment */
+		Segment last = Segment.UNKNOWN;
+		/* Method call whose arguments are about to open */
+		Segment pendingCall = Segment.UNKNOWN;
+		boolean isMemberAccess = false;
+		/* Next root is not read from the context: a type after new or import, or a variable isdef checks for */
+		boolean isRootExempt = false;
+
+		int index = 0;
+		int length = expression.length();
+		while (index < length) {
+			char character = expression.charAt(index);
+			if (Character.isWhitespace(character)) {
+				index++;
+			} else if (character == '\'' || character == '"') {
+				index = skipString(expression, index);
+				last = Segment.UNKNOWN;
+				isMemberAccess = false;
+			} else if (Character.isDigit(character)) {
+				while (index < length
+						&& (Character.isLetterOrDigit(expression.charAt(index)) || expression.charAt(index) == '.')) {
+					index++;
+				}
+				last = Segment.UNKNOWN;
+				isMemberAccess = false;
+			} else if (character == '.') {
+				index++;
+				/* Null-safe access, a.?b */
+				if (index < length && expression.charAt(index) == '?') {
+					index++;
+				}
+				isMemberAccess = true;
+			} else if (character == '(') {
+				openParentheses.push(pendingCall);
+				pendingCall = Segment.UNKNOWN;
+				last = Segment.UNKNOWN;
+				isMemberAccess = false;
+				index++;
+			} else if (character == ')') {
+				last = openParentheses.isEmpty() ? Segment.UNKNOWN : openParentheses.pop();
+				isMemberAccess = false;
+				index++;
+			} else if (Character.isJavaIdentifierStart(character)) {
+				int start = index;
+				while (index < length && Character.isJavaIdentifierPart(expression.charAt(index))) {
+					index++;
+				}
+				String name = expression.substring(start, index);
+				boolean isCall = nextNonWhitespace(expression, index) == '(';
+
+				Class<?> owner;
+				String ownerPath = null;
+				if (isMemberAccess) {
+					owner = last.type;
+					ownerPath = last.path;
+					if (owner == null || !isCheckable(owner)) {
+						isComplete = false;
+					}
+				} else if (name.equals("this")) {
+					last = new Segment(contextType, null);
+					isRootExempt = false;
+					continue;
+				} else if (isRootExempt || name.equals("new") || Character.isUpperCase(name.charAt(0))) {
+					owner = null;
+					isComplete = false;
+				} else if (KEYWORDS.contains(name) || variables.contains(name) || name.charAt(0) == '$') {
+					owner = null;
+				} else {
+					owner = contextType;
+				}
+
+				Segment member = Segment.UNKNOWN;
+				if (owner != null && isCheckable(owner)) {
+					Class<?> memberType = isCall ? methodType(owner, name) : propertyType(owner, name);
+					if (memberType != null) {
+						member = new Segment(memberType != Unknown.class ? memberType : null,
+								ownerPath != null ? ownerPath + "." + name : name);
+						paths.add(member.path);
+					} else if (!isMemberAccess && isPackageOfClass(expression, start)) {
+						/* Package of a class, as in java.lang.Math.max(a, b) */
+						isComplete = false;
+					} else {
+						unresolved.add(owner.getSimpleName() + "." + name);
+					}
+				}
+				pendingCall = isCall ? member : Segment.UNKNOWN;
+				last = isCall ? Segment.UNKNOWN : member;
+				isMemberAccess = false;
+				isRootExempt = name.equals("new") || name.equals("import") || name.equals("import_static")
+						|| name.equals("isdef");
+			} else {
+				/* Operators, inline arrays and indexing end the chain */
+				last = Segment.UNKNOWN;
+				pendingCall = Segment.UNKNOWN;
+				isMemberAccess = false;
+				isRootExempt = false;
+				index++;
+			}
+		}
+		return new ExpressionMembers(paths, isComplete, unresolved);
+	}
+
+	/** Marks a type that cannot be known without evaluating the expression */
+	private static final class Unknown {
+	}
+
+	private static boolean isCheckable(Class<?> type) {
+		return type != Object.class && !type.isPrimitive() && !type.isArray() && !Map.class.isAssignableFrom(type);
+	}
+
+	/**
+	 * @return Return type of the public method, Unknown if overloads disagree, null if no such method exists
+	 */
+	private static Class<?> methodType(Class<?> owner, String name) {
+		Class<?> returnType = null;
+		for (Method method : owner.getMethods()) {
+			if (method.getName().equals(name)) {
+				if (returnType == null) {
+					returnType = method.getReturnType();
+				} else if (returnType != method.getReturnType()) {
+					returnType = Unknown.class;
+				}
+			}
+		}
+		return returnType;
+	}
+
+	/**
+	 * @return Type of the public field, getter or parameterless method, null if none exist
+	 */
+	private static Class<?> propertyType(Class<?> owner, String name) {
+		for (Field field : owner.getFields()) {
+			if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+				return field.getType();
+			}
+		}
+		String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		for (Method method : owner.getMethods()) {
+			if (method.getParameterTypes().length == 0
+					&& (method.getName().equals(name) || method.getName().equals("get" + capitalized) || method
+							.getName().equals("is" + capitalized))) {
+				return method.getReturnType();
+			}
+		}
+		return null;
+	}
+
+	private static Set<String> declaredVariables(String expression) {
+		Set<String> variables = new HashSet<String>();
+		Matcher matcher = ASSIGNMENT.matcher(expression);
+		while (matcher.find()) {
+			variables.add(matcher.group(1));
+		}
+		matcher = LOOP_VARIABLE.matcher(expression);
+		while (matcher.find()) {
+			variables.add(matcher.group(1));
+		}
+		matcher = FUNCTION.matcher(expression);
+		while (matcher.find()) {
+			variables.add(matcher.group(1));
+			for (String parameter : matcher.group(2).split(",")) {
+				variables.add(parameter.trim());
+			}
+		}
+		matcher = PROJECTION.matcher(expression);
+		while (matcher.find()) {
+			variables.add(matcher.group(1));
+		}
+		return variables;
+	}
+
+	/**
+	 * @return True if the dotted name starting at the index begins with the name of a class that can be loaded, making
+	 *         its first part the root of a package
+	 */
+	private static boolean isPackageOfClass(String expression, int index) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = ExpressionCompiler.class.getClassLoader();
+		}
+		StringBuilder className = new StringBuilder();
+		int length = expression.length();
+		while (index < length && Character.isJavaIdentifierStart(expression.charAt(index))) {
+			int start = index;
+			while (index < length && Character.isJavaIdentifierPart(expression.charAt(index))) {
+				index++;
+			}
+			if (className.length() > 0) {
+				className.append('.');
+			}
+			className.append(expression, start, index);
+			if (className.indexOf(".") >= 0 && isLoadable(className.toString(), classLoader)) {
+				return true;
+			}
+			if (index >= length || expression.charAt(index) != '.') {
+				break;
+			}
+			index++;
+		}
+		return false;
+	}
+
+	private static boolean isLoadable(String className, ClassLoader classLoader) {
+		try {
+			Class.forName(className, false, classLoader);
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	private static int skipString(String expression, int index) {
+		char quote = expression.charAt(index++);
+		while (index < expression.length()) {
+			char character = expression.charAt(index++);
+			if (character == '\\') {
+				index++;
+			} else if (character == quote) {
+				break;
+			}
+		}
+		return index;
+	}
+
+	private static char nextNonWhitespace(String expression, int index) {
+		while (index < expression.length()) {
+			if (!Character.isWhitespace(expression.charAt(index))) {
+				return expression.charAt(index);
+			}
+			index++;
+		}
+		return 0;
+	}
+
+	/**
+	 * Compiled expression that has MVEL create its accessors with the ACCESSOR_OPTIMIZER. The optimizer is set for the
+	 * evaluating thread only while the expression is evaluated, so other users of MVEL keep their own.
+	 */
+	private static final class OptimizedStatement implements ExecutableStatement {
+		private final ExecutableStatement statement;
+
+		OptimizedStatement(ExecutableStatement statement) {
+			this.statement = statement;
+		}
+
+		@Override
+		public Object getValue(Object ctx, VariableResolverFactory variableFactory) {
+			Class<? extends AccessorOptimizer> previous = useOptimizer();
+			try {
+				return statement.getValue(ctx, variableFactory);
+			} finally {
+				restoreOptimizer(previous);
+			}
+		}
+
+		@Override
+		public Object getValue(Object ctx, Object elCtx, VariableResolverFactory variableFactory) {
+			Class<? extends AccessorOptimizer> previous = useOptimizer();
+			try {
+				return statement.getValue(ctx, elCtx, variableFactory);
+			} finally {
+				restoreOptimizer(previous);
+			}
+		}
+
+		@Override
+		public Object setValue(Object ctx, Object elCtx, VariableResolverFactory variableFactory, Object value) {
+			return statement.setValue(ctx, elCtx, variableFactory, value);
+		}
+
+		/**
+		 * @return Optimizer the thread had been set to use, null if it was left to the MVEL default
+		 */
+		private static Class<? extends AccessorOptimizer> useOptimizer() {
+			Class<? extends AccessorOptimizer> previous = null;
+			if (OptimizerFactory.isThreadAccessorOptimizerInitialized()) {
+				previous = OptimizerFactory.getThreadAccessorOptimizer().getClass();
+			}
+			OptimizerFactory.setThreadAccessorOptimizer(ACCESSOR_OPTIMIZER);
+			return previous;
+		}
+
+		private static void restoreOptimizer(Class<? extends AccessorOptimizer> previous) {
+			if (previous != null) {
+				OptimizerFactory.setThreadAccessorOptimizer(previous);
+			} else {
+				OptimizerFactory.clearThreadAccessorOptimizer();
+			}
+		}
+
+		@Override
+		public void setKnownIngressType(Class type) {
+			statement.setKnownIngressType(type);
+		}
+
+		@Override
+		public void setKnownEgressType(Class type) {
+			statement.setKnownEgressType(type);
+		}
+
+		@Override
+		public Class getKnownIngressType() {
+			return statement.getKnownIngressType();
+		}
+
+		@Override
+		public Class getKnownEgressType() {
+			return statement.getKnownEgressType();
+		}
+
+		@Override
+		public boolean isExplicitCast() {
+			return statement.isExplicitCast();
+		}
+
+		@Override
+		public boolean isConvertableIngressEgress() {
+			return statement.isConvertableIngressEgress();
+		}
+
+		@Override
+		public void computeTypeConversionRule() {
+			statement.computeTypeConversionRule();
+		}
+
+		@Override
+		public boolean intOptimized() {
+			return statement.intOptimized();
+		}
+
+		@Override
+		public boolean isLiteralOnly() {
+			return statement.isLiteralOnly();
+		}
+
+		@Override
+		public boolean isEmptyStatement() {
+			return statement.isEmptyStatement();
+		}
+	}
+}
@@ -9,11 +9,15 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.channels.FileChannel;
+import java.util.Arrays;
 
 import com.google.common.base.Optional;
 
 public class FileUtilities {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
 
     public static final void copy(File source, File destination) {
         if (source.isDirectory()) {
@@ -82,7 +86,84 @@ public class FileUtilities {
         return OptionalCloseable.absent();
     }
 
+    /**
+     * Replaces the contents of the file, unless it already holds exactly those contents. The contents are written to a
+     * temporary file next to it which is then renamed over the file, so a crash while writing leaves the previous file
+     * intact rather than half written. Where the rename cannot replace the file, the file is first moved to a backup;
+     * {@link #restoreInterruptedWrite(File)} recovers it if a crash leaves neither in place.
+     * 
+     * @return True if the file was written, false if it was unchanged
+     */
+    public static boolean writeIfChanged(File file, String contents) throws IOException {
+        /* Same encoding FileWriter uses, so files are unchanged from those written before */
+        byte[] bytes = contents.getBytes();
+        if (file.isFile() && file.length() == bytes.length && Arrays.equals(readBytes(file), bytes)) {
+            return false;
+        }
+        file.getParentFile().mkdirs();
+        File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+        FileOutputStream output = new FileOutputStream(tempFile);
+        try {
+            output.write(bytes);
+            output.getFD().sync();
+        } finally {
+            output.close();
+        }
+        /* Windows will not rename over an existing file */
+        if (!tempFile.renameTo(file)) {
+            File backupFile = new File(file.getPath() + BACKUP_SUFFIX);
+            backupFile.delete();
+            if (!file.renameTo(backupFile) || !tempFile.renameTo(file)) {
+                if (!file.exists()) {
+                    backupFile.renameTo(file);
+                }
+                tempFile.delete();
+                throw new IOException("Unable to replace " + file.getPath());
+            }
+            backupFile.delete();
+        }
+        return true;
+    }
+
+    /**
+     * Puts the file back in place if a crash interrupted {@link #writeIfChanged(File, String)} after it moved the
+     * previous file to its backup. The new contents are restored if they are there, since the backup is only made once
+     * they are completely written, else the previous contents.
+     * 
+     * @return True if the file exists
+     */
+    public static boolean restoreInterruptedWrite(File file) {
+        if (file.exists()) {
+            return true;
+        }
+        File backupFile = new File(file.getPath() + BACKUP_SUFFIX);
+        if (!backupFile.exists()) {
+            return false;
+        }
+        File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+        if ((tempFile.exists() && tempFile.renameTo(file)) || backupFile.renameTo(file)) {
+            backupFile.delete();
+        }
+        return file.exists();
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        InputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = input.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+        } finally {
+            input.close();
+        }
+        return bytes;
+    }
+
     public static OptionalCloseable<FileReaderPlus> createReader(File file, boolean createIfAbsent) {
+        restoreInterruptedWrite(file);
         try {
             if (createIfAbsent && !file.exists()) {
                 file.getParentFile().mkdirs();
@@ -152,6 +233,18 @@ public class FileUtilities {
             return new File[0];
         }
         directory.mkdirs();
+        File[] backupFiles = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String filename) {
+                return filename.endsWith(suffix + BACKUP_SUFFIX);
+            }
+        });
+        if (backupFiles != null) {
+            for (File backupFile : backupFiles) {
+                String path = backupFile.getPath();
+                restoreInterruptedWrite(new File(path.substring(0, path.length() - BACKUP_SUFFIX.length())));
+            }
+        }
         return directory.listFiles(new FilenameFilter() {
             @Override
             public boolean accept(File dir, String filename) {
@@ -0,0 +1,67 @@
+package jas.common.helper;
+
+import jas.common.JASLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Contents of config files collected while settings are serialized and written to disk afterwards, so whatever guards
+ * the settings only needs to be held while they are serialized and not while the files are written.
+ */
+public final class FileWriteBatch {
+	/* Held while a batch writes, so two batches never write the same file, or its temporary file, at once */
+	private static final Object WRITE_LOCK = new Object();
+
+	private final List<File> clearedDirectories = new ArrayList<File>();
+	private final LinkedHashMap<File, String> fileContents = new LinkedHashMap<File, String>();
+
+	/**
+	 * Deletes the files in the directory when the batch is written, before any file is written
+	 */
+	public void clearDirectory(File directory) {
+		clearedDirectories.add(directory);
+	}
+
+	/**
+	 * Sets the contents the file is written with, replacing any set earlier in the batch
+	 */
+	public void add(File file, String contents) {
+		fileContents.put(file, contents);
+	}
+
+	/**
+	 * Clears the directories and writes every file whose contents differ from those on disk. A file that cannot be
+	 * written is logged and the remaining files are still written.
+	 *
+	 * @see FileUtilities#writeIfChanged(File, String)
+	 * @return Number of files written
+	 */
+	public int write() {
+		synchronized (WRITE_LOCK) {
+			for (File directory : clearedDirectories) {
+				File[] files = directory.listFiles();
+				if (files != null) {
+					for (File file : files) {
+						file.delete();
+					}
+				}
+			}
+			int writtenFiles = 0;
+			for (Entry<File, String> entry : fileContents.entrySet()) {
+				try {
+					if (FileUtilities.writeIfChanged(entry.getKey(), entry.getValue())) {
+						writtenFiles++;
+					}
+				} catch (IOException e) {
+					JASLog.log().severe("Unable to save %s: %s", entry.getKey().getPath(), e.getMessage());
+				}
+			}
+			return writtenFiles;
+		}
+	}
+}
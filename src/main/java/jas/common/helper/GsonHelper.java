@@ -4,6 +4,7 @@ import jas.common.helper.FileUtilities.FileReaderPlus;
 import jas.common.helper.FileUtilities.OptionalCloseable;
 import jas.spawner.modern.DefaultProps;
 
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.lang.reflect.Constructor;
@@ -110,6 +111,19 @@ public class GsonHelper {
 		}
 	}
 
+	/**
+	 * Adds the JSON of the object to the batch, to be written to the file once the batch is written
+	 * 
+	 * @see FileWriteBatch#write()
+	 */
+	public static <T> void writeToGson(FileWriteBatch writes, File file, T object, Gson gson) {
+		writes.add(file, gson.toJson(object));
+	}
+
+	public static <T> void writeToGson(FileWriteBatch writes, File file, T object, Type type, Gson gson) {
+		writes.add(file, gson.toJson(object, type));
+	}
+
 	/**
 	 * Helper for unwrapping JsonElements, returns empty JSON is provided element is not a JsonObject
 	 */
@@ -0,0 +1,146 @@
+package jas.common.helper;
+
+import jas.common.JASLog;
+import jas.common.helper.FileUtilities.FileReaderPlus;
+import jas.common.helper.FileUtilities.OptionalCloseable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.gson.Gson;
+
+/**
+ * Parses the configuration files of a registry on a pool of reader threads. Files are independent of each other, only
+ * what is built from them depends on other registries, so parsing is done in parallel while the parsed objects are
+ * returned in file order for the registry to build from on the calling thread, in the same order as before.
+ *
+ * The time spent reading each file is written to the debug log, and a summary of each registry to the info log.
+ */
+public final class ParallelConfigReader {
+	/* Seconds reader threads are kept alive without files to read */
+	private static final long KEEP_ALIVE_SECONDS = 10;
+	private static final int READER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private static ThreadPoolExecutor executor;
+
+	private ParallelConfigReader() {
+	}
+
+	/**
+	 * Reads every file as {@link GsonHelper#readOrCreateFromGson} would. The Gson, and any type adapters registered with
+	 * it, is shared by the reader threads and must not keep state between files.
+	 *
+	 * @param description Name of what is read, such as the registry, used for the log
+	 * @return Object read from each file, in the order of the files
+	 * @throws RuntimeException thrown while reading any of the files, such as invalid JSON
+	 */
+	public static <T> List<T> readAll(File[] files, final Class<T> object, final Gson gson, String description,
+			final Object... creationArgs) {
+		long startTime = System.nanoTime();
+		final long[] fileNanos = new long[files.length];
+		List<T> results = new ArrayList<T>(files.length);
+		if (files.length == 1) {
+			/* Not worth handing to another thread */
+			results.add(read(files[0], object, gson, creationArgs));
+			fileNanos[0] = System.nanoTime() - startTime;
+		} else {
+			List<Future<T>> pending = new ArrayList<Future<T>>(files.length);
+			for (int i = 0; i < files.length; i++) {
+				final File file = files[i];
+				final int index = i;
+				pending.add(executor().submit(new Callable<T>() {
+					@Override
+					public T call() {
+						long fileStart = System.nanoTime();
+						T result = read(file, object, gson, creationArgs);
+						fileNanos[index] = System.nanoTime() - fileStart;
+						return result;
+					}
+				}));
+			}
+			for (Future<T> future : pending) {
+				results.add(await(future, pending));
+			}
+		}
+
+		long parseNanos = 0;
+		int slowest = 0;
+		for (int i = 0; i < files.length; i++) {
+			JASLog.log().debug(Level.INFO, "Read %s in %sus", files[i].getName(), fileNanos[i] / 1000);
+			parseNanos += fileNanos[i];
+			if (fileNanos[i] > fileNanos[slowest]) {
+				slowest = i;
+			}
+		}
+		if (files.length > 0) {
+			JASLog.log().info("Read %s %s files in %sms (%sms across reader threads, slowest %s in %sms)",
+					files.length, description, (System.nanoTime() - startTime) / 1000000, parseNanos / 1000000,
+					files[slowest].getName(), fileNanos[slowest] / 1000000);
+		}
+		return results;
+	}
+
+	private static <T> T read(File file, Class<T> object, Gson gson, Object[] creationArgs) {
+		OptionalCloseable<FileReaderPlus> reader = FileUtilities.createReader(file, false);
+		try {
+			return GsonHelper.readOrCreateFromGson(reader, object, gson, creationArgs);
+		} finally {
+			/* Left open by readOrCreateFromGson if parsing failed */
+			reader.close();
+		}
+	}
+
+	private static <T> T await(Future<T> future, List<Future<T>> pending) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel(pending);
+			throw new IllegalStateException("Interrupted while reading configuration files", e);
+		} catch (ExecutionException e) {
+			cancel(pending);
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static void cancel(List<? extends Future<?>> pending) {
+		for (Future<?> future : pending) {
+			future.cancel(false);
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor executor() {
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(READER_THREADS, READER_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ReaderThreadFactory());
+			/* Files are only read on load, the threads are not kept around in between */
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	private static final class ReaderThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "JAS Config Reader-" + threadNumber.getAndIncrement());
+			/* Must not keep the server from shutting down */
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -11,6 +11,7 @@ import java.io.File;
 
 import net.minecraft.world.World;
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 
 /**
@@ -36,6 +37,10 @@ public class CardProfile implements Profile {
 		loadFromConfig(JustAnotherSpawner.getModConfigDirectory(), event.getServer().worldServers[0]);
 	}
 
+	@Override
+	public void serverStop(FMLServerStoppingEvent event) {
+	}
+
 	@Override
 	public void loadFromConfig(File configDirectory, World world) {
 		// worldSettings = new WorldSettings(configDirectory, world, importedSpawnList);
@@ -16,6 +16,7 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import cpw.mods.fml.common.FMLCommonHandler;
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 
 public class TAGProfile implements Profile {
 	private static WorldSettings worldSettings;
@@ -41,6 +42,10 @@ public class TAGProfile implements Profile {
 		loadFromConfig(JustAnotherSpawner.getModConfigDirectory(), event.getServer().worldServers[0]);
 	}
 
+	@Override
+	public void serverStop(FMLServerStoppingEvent event) {
+	}
+
 	@Override
 	public void loadFromConfig(File configDirectory, World world) {
 		worldSettings = new WorldSettings(configDirectory, world, importedSpawnList);
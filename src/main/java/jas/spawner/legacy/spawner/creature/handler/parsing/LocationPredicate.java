@@ -0,0 +1,22 @@
+package jas.spawner.legacy.spawner.creature.handler.parsing;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+
+/**
+ * Parsed chainable compiled with its values resolved, see
+ * {@link jas.spawner.legacy.spawner.creature.handler.parsing.keys.KeyParser#compile(TypeValuePair, java.util.HashMap)}
+ */
+public interface LocationPredicate {
+
+    /**
+     * Equivalent to KeyParser.isValidLocation with the TypeValuePair and valueCache the predicate was compiled from
+     * 
+     * @param world World being evaluated
+     * @param entity Entity being processed. May be Null where not applicable.
+     * @param xCoord X coord location in the world
+     * @param yCoord Y coord location in the world
+     * @param zCoord Z coord location in the world
+     */
+    public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord);
+}
@@ -0,0 +1,56 @@
+package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
+
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+
+/**
+ * Compiled form of the keys that test every block in a range around the location, [isInverted, ..., rangeX, rangeY,
+ * rangeZ] with an optional [offsetX, offsetY, offsetZ]. Invalid if any block matches, or with the key inverted if any
+ * block does not match. Values of any other length are always valid.
+ */
+abstract class BlockAreaPredicate implements LocationPredicate {
+    private final boolean isInverted;
+    private final boolean hasRange;
+    private final int rangeX, rangeY, rangeZ;
+    private final int offsetX, offsetY, offsetZ;
+
+    /**
+     * @param rangeIndex Index of rangeX in the values
+     */
+    BlockAreaPredicate(Object[] values, int rangeIndex) {
+        this.isInverted = (Boolean) values[0];
+        this.hasRange = values.length == rangeIndex + 3 || values.length == rangeIndex + 6;
+        this.rangeX = hasRange ? (Integer) values[rangeIndex] : 0;
+        this.rangeY = hasRange ? (Integer) values[rangeIndex + 1] : 0;
+        this.rangeZ = hasRange ? (Integer) values[rangeIndex + 2] : 0;
+        boolean hasOffset = values.length == rangeIndex + 6;
+        this.offsetX = hasOffset ? (Integer) values[rangeIndex + 3] : 0;
+        this.offsetY = hasOffset ? (Integer) values[rangeIndex + 4] : 0;
+        this.offsetZ = hasOffset ? (Integer) values[rangeIndex + 5] : 0;
+    }
+
+    @Override
+    public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+        if (!hasRange) {
+            return true;
+        }
+        for (int i = -rangeX; i <= rangeX; i++) {
+            for (int k = -rangeZ; k <= rangeZ; k++) {
+                for (int j = -rangeY; j <= rangeY; j++) {
+                    int x = xCoord + offsetX + i;
+                    int y = yCoord + offsetY + j;
+                    int z = zCoord + offsetZ + k;
+                    if (isMatch(world, world.getBlock(x, y, z), x, y, z) != isInverted) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    abstract boolean isMatch(World world, Block block, int xCoord, int yCoord, int zCoord);
+}
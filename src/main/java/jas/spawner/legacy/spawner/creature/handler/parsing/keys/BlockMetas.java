@@ -0,0 +1,67 @@
+package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.block.Block;
+
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Block and meta pairs parsed by {@link jas.spawner.legacy.spawner.creature.handler.parsing.OptionalParser#parseBlock},
+ * with the block names resolved once. Names that do not resolve to a block are left out.
+ */
+final class BlockMetas {
+    private final Block[] blocks;
+    private final int[] metas;
+
+    private BlockMetas(Block[] blocks, int[] metas) {
+        this.blocks = blocks;
+        this.metas = metas;
+    }
+
+    public static BlockMetas resolve(ListMultimap<String, Integer> iDMetas) {
+        List<Block> blocks = new ArrayList<Block>();
+        List<Integer> metas = new ArrayList<Integer>();
+        for (String blockKey : iDMetas.keySet()) {
+            Block searchBlock = Block.getBlockFromName(blockKey);
+            if (searchBlock == null) {
+                continue;
+            }
+            for (Integer metaValue : iDMetas.get(blockKey)) {
+                blocks.add(searchBlock);
+                metas.add(metaValue);
+            }
+        }
+        int[] metaArray = new int[metas.size()];
+        for (int i = 0; i < metaArray.length; i++) {
+            metaArray[i] = metas.get(i);
+        }
+        return new BlockMetas(blocks.toArray(new Block[blocks.size()]), metaArray);
+    }
+
+    public boolean isEmpty() {
+        return blocks.length == 0;
+    }
+
+    public boolean contains(Block block, int meta) {
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] == block && metas[i] == meta) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the block is any of the pairs, so its metadata only needs to be read when it could match
+     */
+    public boolean containsBlock(Block block) {
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] == block) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
 
@@ -44,4 +45,22 @@ public abstract class KeyParser {
      */
     public abstract boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord,
             int zCoord, TypeValuePair typeValuePair, HashMap<String, Object> valueCache);
+
+    /**
+     * Compiles a parsed chainable into a predicate equivalent to
+     * {@link #isValidLocation(World, EntityLiving, int, int, int, TypeValuePair, HashMap)} with the same pair and
+     * valueCache. Keys that do not resolve their values ahead of time interpret the pair on each evaluation.
+     * 
+     * @param typeValuePair Pair containing parsed Key and Values
+     * @param valueCache Map of values from the parent tag, fully parsed
+     */
+    public LocationPredicate compile(final TypeValuePair typeValuePair, final HashMap<String, Object> valueCache) {
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                return KeyParser.this.isValidLocation(world, entity, xCoord, yCoord, zCoord, typeValuePair,
+                        valueCache);
+            }
+        };
+    }
 }
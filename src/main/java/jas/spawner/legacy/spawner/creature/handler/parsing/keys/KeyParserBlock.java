@@ -1,5 +1,6 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.OptionalParser;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettingsBase;
@@ -88,4 +89,37 @@ public class KeyParserBlock extends KeyParserBase {
         }
         return true;
     }
+
+    @Override
+    public LocationPredicate compile(TypeValuePair typeValuePair, HashMap<String, Object> valueCache) {
+        @SuppressWarnings("unchecked")
+        final BlockMetas blockMetas = BlockMetas.resolve((ListMultimap<String, Integer>) typeValuePair.getValue());
+        Integer xRange = (Integer) valueCache.get(Key.blockRangeX.key);
+        Integer yRange = (Integer) valueCache.get(Key.blockRangeY.key);
+        Integer zRange = (Integer) valueCache.get(Key.blockRangeZ.key);
+        final int rangeX = xRange == null ? OptionalSettingsBase.defaultBlockRange : xRange;
+        final int rangeY = yRange == null ? OptionalSettingsBase.defaultBlockRange : yRange;
+        final int rangeZ = zRange == null ? OptionalSettingsBase.defaultBlockRange : zRange;
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                if (blockMetas.isEmpty()) {
+                    return true;
+                }
+                for (int i = -rangeX; i <= rangeX; i++) {
+                    for (int k = -rangeZ; k <= rangeZ; k++) {
+                        for (int j = -rangeY; j <= rangeY; j++) {
+                            Block block = world.getBlock(xCoord + i, yCoord + j, zCoord + k);
+                            if (blockMetas.containsBlock(block)
+                                    && blockMetas.contains(block,
+                                            world.getBlockMetadata(xCoord + i, yCoord + j, zCoord + k))) {
+                                return false;
+                            }
+                        }
+                    }
+                }
+                return true;
+            }
+        };
+    }
 }
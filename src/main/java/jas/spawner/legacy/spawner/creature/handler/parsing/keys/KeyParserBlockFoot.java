@@ -1,5 +1,6 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.OptionalParser;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
@@ -65,4 +66,18 @@ public class KeyParserBlockFoot extends KeyParserBase {
         }
         return foundMatch ? false : true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public LocationPredicate compile(TypeValuePair typeValuePair, HashMap<String, Object> valueCache) {
+        @SuppressWarnings("unchecked")
+        final BlockMetas blockMetas = BlockMetas.resolve((ListMultimap<String, Integer>) typeValuePair.getValue());
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                Block block = world.getBlock(xCoord, yCoord - 1, zCoord);
+                return !(blockMetas.containsBlock(block) && blockMetas.contains(block,
+                        world.getBlockMetadata(xCoord, yCoord - 1, zCoord)));
+            }
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
 import jas.common.JASLog;
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
 
@@ -45,4 +46,16 @@ public abstract class KeyParserBoolean extends KeyParserBase {
     }
 
     public abstract boolean getValue(EntityLiving entity, World world, int xCoord, int yCoord, int zCoord);
-}
\ No newline at end of file
+
+    @Override
+    public LocationPredicate compile(TypeValuePair typeValuePair, HashMap<String, Object> valueCache) {
+        final boolean isInverted = (Boolean) typeValuePair.getValue();
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                boolean value = getValue(entity, world, xCoord, yCoord, zCoord);
+                return isInverted ? value : !value;
+            }
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
 import jas.common.JASLog;
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.ParsingHelper;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
@@ -58,4 +59,18 @@ public abstract class KeyParserIntArray extends KeyParserBase {
     }
 
     public abstract boolean isValid(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord, int[] args);
+
+    @Override
+    public LocationPredicate compile(TypeValuePair typeValuePair, HashMap<String, Object> valueCache) {
+        Object[] values = (Object[]) typeValuePair.getValue();
+        final boolean isInverted = (Boolean) values[0];
+        final int[] args = (int[]) values[1];
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                boolean isValid = isValid(world, entity, xCoord, yCoord, zCoord, args);
+                return isInverted ? isValid : !isValid;
+            }
+        };
+    }
 }
@@ -1,6 +1,7 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
 import jas.common.JASLog;
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.ParsingHelper;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
@@ -8,6 +9,7 @@ import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSett
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import net.minecraft.block.Block;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.world.World;
 
@@ -108,4 +110,14 @@ public class KeyParserNormalCube extends KeyParserBase {
         }
         return true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public LocationPredicate compile(TypeValuePair typeValuePair, HashMap<String, Object> valueCache) {
+        return new BlockAreaPredicate((Object[]) typeValuePair.getValue(), 1) {
+            @Override
+            boolean isMatch(World world, Block block, int xCoord, int yCoord, int zCoord) {
+                return block.isNormalCube();
+            }
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.keys;
 
 import jas.common.JASLog;
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
 import jas.spawner.legacy.spawner.creature.handler.parsing.ParsingHelper;
 import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
@@ -51,13 +52,35 @@ public abstract class KeyParserRange extends KeyParserBase {
         int minRange = (Integer) values[1];
         int maxRange = (Integer) values[2];
 
-        boolean isValid = !(current <= maxRange && current >= minRange);
+        boolean isValid = isInRange(current, minRange, maxRange);
+        return isInverted ? isValid : !isValid;
+    }
+
+    @Override
+    public LocationPredicate compile(final TypeValuePair typeValuePair, final HashMap<String, Object> valueCache) {
+        Object[] values = (Object[]) typeValuePair.getValue();
+        final boolean isInverted = (Boolean) values[0];
+        final int minRange = (Integer) values[1];
+        final int maxRange = (Integer) values[2];
+        return new LocationPredicate() {
+            @Override
+            public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+                int current = getCurrent(world, entity, xCoord, yCoord, zCoord, typeValuePair, valueCache);
+                boolean isValid = isInRange(current, minRange, maxRange);
+                return isInverted ? isValid : !isValid;
+            }
+        };
+    }
+
+    /**
+     * A minimum above the maximum wraps around, i.e. 12 to 2 is within range for anything but 3 to 11
+     */
+    private static boolean isInRange(int current, int minRange, int maxRange) {
         if (minRange <= maxRange) {
-            isValid = (current <= maxRange && current >= minRange);
+            return current <= maxRange && current >= minRange;
         } else {
-            isValid = !(current < minRange && current > maxRange);
+            return !(current < minRange && current > maxRange);
         }
-        return isInverted ? isValid : !isValid;
     }
 
     abstract int getCurrent(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord,
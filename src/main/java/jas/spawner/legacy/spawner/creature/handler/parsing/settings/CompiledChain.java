@@ -0,0 +1,58 @@
+package jas.spawner.legacy.spawner.creature.handler.parsing.settings;
+
+import jas.spawner.legacy.spawner.creature.handler.parsing.LocationPredicate;
+import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
+import jas.spawner.legacy.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
+
+import java.util.HashMap;
+import java.util.List;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+
+/**
+ * Parsed chainables of an OptionalSettings compiled into predicates, so values are resolved once instead of on every
+ * check. Evaluated with the same short-circuiting as the interpreted chain: an & key is skipped while the outcome is
+ * true, an | key ends the chain as false while the outcome is false.
+ */
+final class CompiledChain implements LocationPredicate {
+    private final LocationPredicate[] predicates;
+    /* Whether each key is & with the outcome so far, otherwise | */
+    private final boolean[] isAnd;
+
+    private CompiledChain(LocationPredicate[] predicates, boolean[] isAnd) {
+        this.predicates = predicates;
+        this.isAnd = isAnd;
+    }
+
+    /**
+     * @param valueCache Values of the parent tag, must be fully parsed as predicates may read them once
+     */
+    public static CompiledChain compile(List<TypeValuePair> parsedChainable, List<Operand> operandvalue,
+            HashMap<String, Object> valueCache) {
+        LocationPredicate[] predicates = new LocationPredicate[parsedChainable.size()];
+        boolean[] isAnd = new boolean[parsedChainable.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            TypeValuePair typeValuePair = parsedChainable.get(i);
+            predicates[i] = typeValuePair.getType().keyParser.compile(typeValuePair, valueCache);
+            isAnd[i] = operandvalue.get(i) == Operand.AND;
+        }
+        return new CompiledChain(predicates, isAnd);
+    }
+
+    @Override
+    public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
+        boolean outcome = true;
+        for (int i = 0; i < predicates.length; i++) {
+            if (i != 0) {
+                if (isAnd[i] && outcome) {
+                    continue;
+                } else if (!isAnd[i] && !outcome) {
+                    return false;
+                }
+            }
+            outcome = predicates[i].isValidLocation(world, entity, xCoord, yCoord, zCoord);
+        }
+        return outcome;
+    }
+}
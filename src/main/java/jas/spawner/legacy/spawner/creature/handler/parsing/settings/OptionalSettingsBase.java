@@ -1,7 +1,6 @@
 package jas.spawner.legacy.spawner.creature.handler.parsing.settings;
 
 import jas.common.JASLog;
-import jas.spawner.legacy.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.legacy.spawner.creature.handler.parsing.keys.Key;
 import jas.spawner.legacy.spawner.creature.handler.parsing.keys.KeyParser.KeyType;
 
@@ -18,6 +17,8 @@ public abstract class OptionalSettingsBase extends OptionalSettings {
     public static int defaultBlockRange = 3;
     public static int defaultSpawnRate = 40;
 
+    private CompiledChain compiledChain;
+
     public OptionalSettingsBase(String parseableString, EnumSet<Key> validKeys) {
         super(parseableString, validKeys);
         parseString();
@@ -96,21 +97,12 @@ public abstract class OptionalSettingsBase extends OptionalSettings {
      * @return
      */
     public boolean isValidLocation(World world, EntityLiving entity, int xCoord, int yCoord, int zCoord) {
-        boolean outcome = true;
-        for (int i = 0; i < parsedChainable.size(); i++) {
-            TypeValuePair typeValuePair = parsedChainable.get(i);
-            if (i != 0) {
-                if (operandvalue.get(i) == Operand.AND && outcome == true) {
-                    continue;
-                } else if (operandvalue.get(i) == Operand.OR && outcome == false) {
-                    return false;
-                }
-            }
-
-            Key key = typeValuePair.getType();
-            outcome = key.keyParser.isValidLocation(world, entity, xCoord, yCoord, zCoord, typeValuePair, valueCache);
+        CompiledChain chain = compiledChain;
+        if (chain == null) {
+            /* Compiled on first use, once every value of the tag has been parsed */
+            chain = compiledChain = CompiledChain.compile(parsedChainable, operandvalue, valueCache);
         }
-        return outcome;
+        return chain.isValidLocation(world, entity, xCoord, yCoord, zCoord);
     }
 
     /**
@@ -0,0 +1,219 @@
+package jas.spawner.modern;
+
+import jas.common.JASLog;
+import jas.spawner.modern.spawner.CountInfo;
+import jas.spawner.modern.spawner.CustomSpawner;
+import jas.spawner.modern.spawner.PlayerIndex;
+import jas.spawner.modern.spawner.creature.handler.ClassHandlers;
+import jas.spawner.modern.spawner.creature.handler.LivingHandler;
+import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Despawn checks of the entities of one world. Entities handled by a LivingHandler with despawning are registered when
+ * they join the world, grouped by that handler, and checked each time they have lived another {@link #CHECK_INTERVAL}
+ * ticks, as they were when every entity checked itself during its own update.
+ *
+ * Due checks are run from the world tick in batches, sharing one count and one player index. Checks left when the tick
+ * budget runs out are run first on the following tick. Entities that died or were unloaded are dropped when next due.
+ */
+public final class DespawnScheduler {
+	/** Ticks an entity lives between despawn checks, and the age each check adds */
+	public static final int CHECK_INTERVAL = 60;
+	/* Checks run between looks at the clock */
+	private static final int BATCH_SIZE = 32;
+
+	private final World world;
+	/* Registry, and its version, the groups were resolved against */
+	private LivingHandlerRegistry livingHandlerRegistry;
+	private int registryVersion;
+	private final LinkedHashMap<LivingHandler, HandlerGroup> groups = new LinkedHashMap<LivingHandler, HandlerGroup>();
+	/* Due checks not yet run, grouped by handler in the order they became due */
+	private final ArrayList<ManagedEntity> pending = new ArrayList<ManagedEntity>();
+	private long checks;
+	private long deferredTicks;
+
+	private static final class HandlerGroup {
+		final LivingHandler handler;
+		/* Entities by the phase of the world time their next check falls on */
+		final ArrayList<ManagedEntity>[] phases;
+
+		@SuppressWarnings("unchecked")
+		HandlerGroup(LivingHandler handler) {
+			this.handler = handler;
+			this.phases = new ArrayList[CHECK_INTERVAL];
+			for (int i = 0; i < phases.length; i++) {
+				phases[i] = new ArrayList<ManagedEntity>();
+			}
+		}
+	}
+
+	private static final class ManagedEntity {
+		final EntityLiving entity;
+		final HandlerGroup group;
+		/* Value of ticksExisted at which the entity is next checked */
+		int nextCheckAge;
+
+		ManagedEntity(EntityLiving entity, HandlerGroup group) {
+			this.entity = entity;
+			this.group = group;
+			this.nextCheckAge = nextCheckAge(entity);
+		}
+	}
+
+	public DespawnScheduler(World world) {
+		this.world = world;
+		rebuild();
+	}
+
+	public World world() {
+		return world;
+	}
+
+	/**
+	 * Registers an entity joining the world, if any of its handlers despawn it
+	 */
+	public void track(EntityLiving entity) {
+		if (!isCurrent()) {
+			rebuild();
+		}
+		register(entity);
+	}
+
+	/**
+	 * Runs the checks due this tick, and those left over from previous ticks, until the deadline passes
+	 *
+	 * @param deadline System.nanoTime after which no further batch is started
+	 */
+	public void tick(long deadline) {
+		if (!isCurrent()) {
+			rebuild();
+		}
+		int phase = (int) (world.getTotalWorldTime() % CHECK_INTERVAL);
+		for (HandlerGroup group : groups.values()) {
+			pending.addAll(group.phases[phase]);
+			group.phases[phase].clear();
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		/* Counting is only worth it once an entity is actually due, rather than only paused */
+		CountInfo countInfo = null;
+		PlayerIndex players = PlayerIndex.of(world);
+		int index = 0;
+		while (index < pending.size()) {
+			int batchEnd = Math.min(index + BATCH_SIZE, pending.size());
+			for (; index < batchEnd; index++) {
+				ManagedEntity managed = pending.get(index);
+				EntityLiving entity = managed.entity;
+				if (!isLoaded(entity)) {
+					continue;
+				}
+				/* Entities outside of the updated area do not age, and are not checked, until they update again */
+				if (entity.ticksExisted >= managed.nextCheckAge) {
+					if (countInfo == null) {
+						countInfo = CustomSpawner.spawnCounter.countEntities(world);
+					}
+					managed.group.handler.despawnEntity(entity, countInfo, players);
+					managed.nextCheckAge = nextCheckAge(entity);
+					checks++;
+					if (entity.isDead) {
+						continue;
+					}
+				}
+				schedule(managed);
+			}
+			if (System.nanoTime() > deadline) {
+				break;
+			}
+		}
+		if (countInfo != null) {
+			countInfo.release();
+		}
+		pending.subList(0, index).clear();
+		if (!pending.isEmpty()) {
+			deferredTicks++;
+			JASLog.log().debug(Level.INFO,
+					"Despawning in dimension %s ran out of time; %s checks deferred to the next tick",
+					world.provider.dimensionId, pending.size());
+		}
+	}
+
+	/**
+	 * @return Number of despawn checks run
+	 */
+	public long getChecks() {
+		return checks;
+	}
+
+	/**
+	 * @return Number of ticks in which due checks ran out of budget and were continued on a later tick
+	 */
+	public long getDeferredTicks() {
+		return deferredTicks;
+	}
+
+	private boolean isCurrent() {
+		return MVELProfile.worldSettings().livingHandlerRegistry() == livingHandlerRegistry
+				&& livingHandlerRegistry.version() == registryVersion;
+	}
+
+	/**
+	 * Regroups every loaded entity under the current handlers, after the handlers have been reloaded or changed
+	 */
+	private void rebuild() {
+		livingHandlerRegistry = MVELProfile.worldSettings().livingHandlerRegistry();
+		registryVersion = livingHandlerRegistry.version();
+		groups.clear();
+		pending.clear();
+		for (Object entity : world.loadedEntityList) {
+			if (entity instanceof EntityLiving && !((EntityLiving) entity).isDead) {
+				register((EntityLiving) entity);
+			}
+		}
+	}
+
+	private void register(EntityLiving entity) {
+		@SuppressWarnings("unchecked")
+		Class<? extends EntityLiving> entityClass = (Class<? extends EntityLiving>) entity.getClass();
+		ClassHandlers livingHandlers = livingHandlerRegistry.getClassHandlers(entityClass);
+		if (!livingHandlers.isDespawnable()) {
+			return;
+		}
+		for (int i = 0; i < livingHandlers.size(); i++) {
+			LivingHandler livingHandler = livingHandlers.get(i);
+			if (livingHandler.getDespawning() != null && livingHandler.getDespawning().isPresent()) {
+				HandlerGroup group = groups.get(livingHandler);
+				if (group == null) {
+					group = new HandlerGroup(livingHandler);
+					groups.put(livingHandler, group);
+				}
+				schedule(new ManagedEntity(entity, group));
+			}
+		}
+	}
+
+	/* Queues the entity on the tick it reaches its next check age, or the next interval if it has stopped ageing */
+	private void schedule(ManagedEntity managed) {
+		int delay = Math.max(1, Math.min(CHECK_INTERVAL, managed.nextCheckAge - managed.entity.ticksExisted));
+		int phase = (int) ((world.getTotalWorldTime() + delay) % CHECK_INTERVAL);
+		managed.group.phases[phase].add(managed);
+	}
+
+	/* Entities removed from the world, including by unloading their chunk, are no longer known by their ID */
+	private boolean isLoaded(EntityLiving entity) {
+		return !entity.isDead && entity.worldObj == world && world.getEntityByID(entity.getEntityId()) == entity;
+	}
+
+	private static int nextCheckAge(EntityLiving entity) {
+		return (entity.ticksExisted / CHECK_INTERVAL + 1) * CHECK_INTERVAL;
+	}
+}
@@ -1,11 +1,11 @@
 package jas.spawner.modern;
 
-import jas.spawner.modern.spawner.CountInfo;
+import jas.common.JustAnotherSpawner;
 import jas.spawner.modern.spawner.CustomSpawner;
-import jas.spawner.modern.spawner.creature.handler.LivingHandler;
+import jas.spawner.modern.spawner.creature.handler.ClassHandlers;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 
-import java.util.List;
+import java.util.HashMap;
 
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
@@ -14,50 +14,57 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.event.entity.EntityEvent.EntityConstructing;
-import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.living.LivingSpawnEvent.AllowDespawn;
 import net.minecraftforge.event.world.WorldEvent;
 import cpw.mods.fml.common.eventhandler.Event.Result;
+import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.TickEvent.Phase;
 import cpw.mods.fml.common.gameevent.TickEvent.ServerTickEvent;
 import cpw.mods.fml.common.gameevent.TickEvent.WorldTickEvent;
 import cpw.mods.fml.relauncher.Side;
 
+/**
+ * Despawns entities through a {@link DespawnScheduler} for each loaded server world. Needs to be registered to both the
+ * Forge and FML event buses.
+ */
 public class EntityDespawner {
 
-	CountInfo countInfo = null;
+	/* Despawn schedulers by dimension */
+	private final HashMap<Integer, DespawnScheduler> schedulers = new HashMap<Integer, DespawnScheduler>();
 
-	@SubscribeEvent
-	public void countUpdater(WorldTickEvent event) {
-		if (event.side != Side.SERVER || event.phase == Phase.END) {
+	/* Entities are only registered with schedulers that exist, a new scheduler registers every loaded entity */
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void entityJoinWorld(EntityJoinWorldEvent event) {
+		if (event.world.isRemote || !(event.entity instanceof EntityLiving)) {
 			return;
 		}
-		World world = event.world;
-		updateCountInfo(world);
+		DespawnScheduler scheduler = schedulers.get(event.world.provider.dimensionId);
+		if (scheduler != null && scheduler.world() == event.world) {
+			scheduler.track((EntityLiving) event.entity);
+		}
 	}
 
-	private void updateCountInfo(World world) {
-		countInfo = CustomSpawner.spawnCounter.countEntities(world);
+	@SubscribeEvent
+	public void worldTick(WorldTickEvent event) {
+		if (event.side != Side.SERVER || event.phase != Phase.END || MVELProfile.worldSettings() == null) {
+			return;
+		}
+		DespawnScheduler scheduler = schedulers.get(event.world.provider.dimensionId);
+		if (scheduler == null || scheduler.world() != event.world) {
+			scheduler = new DespawnScheduler(event.world);
+			schedulers.put(event.world.provider.dimensionId, scheduler);
+		}
+		long tickBudget = JustAnotherSpawner.globalSettings().despawnTickBudgetNanos;
+		scheduler.tick(tickBudget > 0 ? System.nanoTime() + tickBudget : CustomSpawner.NO_DEADLINE);
 	}
 
 	@SubscribeEvent
-	public void despawner(LivingUpdateEvent event) {
-		if (event.entityLiving instanceof EntityLiving && event.entityLiving.ticksExisted % 60 == 0
-				&& !event.entityLiving.worldObj.isRemote) {
-			LivingHandlerRegistry livingHandlerRegistry = MVELProfile.worldSettings().livingHandlerRegistry();
-			if (countInfo == null) {
-				updateCountInfo(event.entityLiving.worldObj);
-			}
-			@SuppressWarnings("unchecked")
-			List<LivingHandler> livingHandlers = livingHandlerRegistry
-					.getLivingHandlers((Class<? extends EntityLiving>) event.entityLiving.getClass());
-			for (LivingHandler livingHandler : livingHandlers) {
-				if (livingHandler != null && livingHandler.getDespawning() != null
-						&& livingHandler.getDespawning().isPresent()) {
-					livingHandler.despawnEntity((EntityLiving) event.entityLiving, countInfo);
-				}
-			}
+	public void worldUnload(WorldEvent.Unload event) {
+		DespawnScheduler scheduler = schedulers.get(event.world.provider.dimensionId);
+		if (scheduler != null && scheduler.world() == event.world) {
+			schedulers.remove(event.world.provider.dimensionId);
 		}
 	}
 
@@ -66,13 +73,10 @@ public class EntityDespawner {
 		if (!event.entity.worldObj.isRemote) {
 			LivingHandlerRegistry livingHandlerRegistry = MVELProfile.worldSettings().livingHandlerRegistry();
 			@SuppressWarnings("unchecked")
-			List<LivingHandler> livingHandlers = livingHandlerRegistry
-					.getLivingHandlers((Class<? extends EntityLiving>) event.entityLiving.getClass());
-			for (LivingHandler livingHandler : livingHandlers) {
-				if (livingHandler != null && livingHandler.getDespawning() != null
-						&& livingHandler.getDespawning().isPresent()) {
-					event.setResult(Result.DENY);
-				}
+			ClassHandlers livingHandlers = livingHandlerRegistry
+					.getClassHandlers((Class<? extends EntityLiving>) event.entityLiving.getClass());
+			if (livingHandlers.isDespawnable()) {
+				event.setResult(Result.DENY);
 			}
 		}
 	}
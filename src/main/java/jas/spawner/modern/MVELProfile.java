@@ -10,10 +10,12 @@ import jas.spawner.modern.command.CommandJAS;
 import jas.spawner.modern.eventspawn.EventSpawnRegistry;
 import jas.spawner.modern.eventspawn.EventSpawnTrigger;
 import jas.spawner.modern.spawner.ChunkSpawner;
+import jas.spawner.modern.spawner.EntityCountTracker;
 import jas.spawner.modern.spawner.SpawnerTicker;
 import jas.spawner.modern.spawner.biome.structure.StructureInterpreterNether;
 import jas.spawner.modern.spawner.biome.structure.StructureInterpreterOverworldStructures;
 import jas.spawner.modern.spawner.biome.structure.StructureInterpreterSwamp;
+import jas.spawner.modern.spawner.creature.type.BiomeCapCache;
 import jas.spawner.modern.world.WorldSettings;
 
 import java.io.File;
@@ -22,12 +24,16 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import cpw.mods.fml.common.FMLCommonHandler;
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 
 public class MVELProfile implements Profile {
 	private static WorldSettings worldSettings;
 	private static BiomeBlacklist biomeBlacklist;
 	private static ImportedSpawnList importedSpawnList;
+	private static EntityCountTracker entityCountTracker;
+	private static SpawnerTicker spawnerTicker;
+	private static BiomeCapCache biomeCapCache = new BiomeCapCache();
 	public static final String PROFILE_FOLDER = "BASIC/";
 
 	public MVELProfile(BiomeBlacklist biomeBlacklist, ImportedSpawnList importedSpawnList) {
@@ -38,12 +44,19 @@ public class MVELProfile implements Profile {
 
 	@Override
 	public void init() {
-		MinecraftForge.EVENT_BUS.register(new EntityDespawner());
+		EntityDespawner entityDespawner = new EntityDespawner();
+		MinecraftForge.EVENT_BUS.register(entityDespawner);
+		FMLCommonHandler.instance().bus().register(entityDespawner);
+		entityCountTracker = new EntityCountTracker();
+		MinecraftForge.EVENT_BUS.register(entityCountTracker);
+		FMLCommonHandler.instance().bus().register(entityCountTracker);
 		EventSpawnTrigger spawnTrigger = new EventSpawnTrigger(this);
 		MinecraftForge.EVENT_BUS.register(spawnTrigger);
 		FMLCommonHandler.instance().bus().register(spawnTrigger);
 		MinecraftForge.TERRAIN_GEN_BUS.register(new ChunkSpawner(biomeBlacklist));
-		FMLCommonHandler.instance().bus().register(new SpawnerTicker(biomeBlacklist));
+		spawnerTicker = new SpawnerTicker(biomeBlacklist);
+		FMLCommonHandler.instance().bus().register(spawnerTicker);
+		MinecraftForge.EVENT_BUS.register(biomeCapCache);
 		MinecraftForge.EVENT_BUS.post(new CompatibilityRegistrationEvent(new CompatabilityRegister()));
 	}
 
@@ -51,7 +64,15 @@ public class MVELProfile implements Profile {
 	public void serverStart(FMLServerStartingEvent event) {
 		event.registerServerCommand(new CommandJAS(biomeBlacklist));
 		loadFromConfig(JustAnotherSpawner.getModConfigDirectory(), event.getServer().worldServers[0]);
-		saveToConfig(JustAnotherSpawner.getModConfigDirectory(), event.getServer().worldServers[0]);
+		/* Writes defaults for anything new since the files were last saved, without holding up the server start */
+		worldSettings.requestSave();
+	}
+
+	@Override
+	public void serverStop(FMLServerStoppingEvent event) {
+		if (worldSettings != null) {
+			worldSettings.flushSaves();
+		}
 	}
 
 	@Override
@@ -63,6 +84,7 @@ public class MVELProfile implements Profile {
 			profileDir = new File(jasConfigDirectory, DefaultProps.MODDIR + DefaultProps.WORLDSETTINGSDIR);
 		}
 		worldSettings = new WorldSettings(profileDir, server, importedSpawnList);
+		biomeCapCache.clear();
 	}
 
 	@Override
@@ -85,6 +107,18 @@ public class MVELProfile implements Profile {
 		return worldSettings;
 	}
 
+	public static EntityCountTracker entityCountTracker() {
+		return entityCountTracker;
+	}
+
+	public static SpawnerTicker spawnerTicker() {
+		return spawnerTicker;
+	}
+
+	public static BiomeCapCache biomeCapCache() {
+		return biomeCapCache;
+	}
+
 	@SubscribeEvent
 	public void VanillaStructureCompataiblity(CompatibilityRegistrationEvent event) {
 		StructureInterpreter overworld = new StructureInterpreterOverworldStructures();
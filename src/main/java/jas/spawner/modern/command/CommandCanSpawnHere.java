@@ -4,7 +4,6 @@ import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.spawner.CountInfo;
 import jas.spawner.modern.spawner.CustomSpawner;
 import jas.spawner.modern.spawner.Tags;
-import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.modern.spawner.biome.structure.StructureHandler;
 import jas.spawner.modern.spawner.creature.entry.BiomeSpawnListRegistry;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
@@ -199,7 +198,7 @@ public class CommandCanSpawnHere extends CommandJasBase {
     private String getMatchingBiomeSpawnListEntries(String livingGroupID, Entity entity, CreatureType livingType,
             Collection<SpawnListEntry> matchingSpawnListEntries) {
         BiomeGenBase biome = entity.worldObj.getBiomeGenForCoords((int) entity.posX, (int) entity.posZ);
-        String packageBiome = BiomeHelper.getPackageName(biome);
+        String packageBiome = MVELProfile.worldSettings().biomeGroupRegistry().pckgNameOf(biome);
 
         BiomeSpawnListRegistry biomeSpawnListRegistry = MVELProfile.worldSettings().biomeSpawnListRegistry();
         for (SpawnListEntry spawnListEntry : biomeSpawnListRegistry.getSpawnListFor(livingType.typeID, packageBiome)) {
@@ -87,15 +87,14 @@ public class CommandCountCap extends CommandJasBase {
 			while (iterator.hasNext()) {
 				CreatureType entityType = iterator.next();
 				if (typeName.equals("*") || entityType.typeID.equalsIgnoreCase(typeName)) {
-					int typeCount = countInfo.getGlobalEntityTypeCount(entityType.typeID);
+					int typeCount = countInfo.getGlobalEntityTypeCount(entityType.typeIndex);
 					if (!foundMatch) {
 						foundMatch = true;
 						worldTypeContents.append(" ");
 					} else {
 						worldTypeContents.append(", ");
 					}
-					int entityTypeCap = entityType.maxNumberOfCreature * countInfo.eligibleChunkLocations().size()
-							/ 256;
+					int entityTypeCap = entityType.maxNumberOfCreature * countInfo.eligibleChunkCount() / 256;
 					worldTypeContents.append("\u00A7r").append(entityType.typeID).append(":")
 							.append(typeCount >= entityTypeCap ? "\u00A74" : "\u00A72").append(typeCount)
 							.append("\u00A7r").append("/").append(entityTypeCap);
@@ -3,10 +3,13 @@ package jas.spawner.modern.command;
 import jas.common.JustAnotherSpawner;
 import jas.common.global.BiomeBlacklist;
 import jas.spawner.modern.MVELProfile;
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkStatMap;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.modern.spawner.CountInfo;
-import jas.spawner.modern.spawner.EntityCounter;
 import jas.spawner.modern.spawner.Tags;
 import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+import jas.spawner.modern.spawner.EntityFactory;
 import jas.spawner.modern.spawner.creature.entry.BiomeSpawnListRegistry;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
@@ -16,7 +19,6 @@ import jas.spawner.modern.spawner.creature.type.CreatureType;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -90,20 +92,21 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 		default:
 			throw new WrongUsageException("commands.jascanspawnhere.usage", new Object[0]);
 		}
-		HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = determineChunksForSpawnering(targetPlayer,
+		ChunkStatMap eligibleChunksForSpawning = determineChunksForSpawnering(targetPlayer,
 				JustAnotherSpawner.globalSettings().chunkSpawnDistance);
 
 		Iterator<CreatureType> typeIterator = MVELProfile.worldSettings().creatureTypeRegistry()
 				.getCreatureTypes();
 		StringBuilder resultMessage = new StringBuilder();
 		resultMessage.append("SpawnList after ").append("\u00A7b").append(cycles).append(" cycles").append("\u00A7r");
+		CountIndex countIndex = MVELProfile.worldSettings().countIndex();
 		while (typeIterator.hasNext()) {
-			CountInfo reportCount = new CountInfo(eligibleChunksForSpawning, new EntityCounter(), new EntityCounter());
+			CountInfo reportCount = new CountInfo(eligibleChunksForSpawning, countIndex);
 			CreatureType creatureType = typeIterator.next();
 			if (!desiredCreatureType.equals("*") && !desiredCreatureType.equals(creatureType.typeID)) {
 				continue;
 			}
-			CountInfo countInfo = new CountInfo(eligibleChunksForSpawning, new EntityCounter(), new EntityCounter());
+			CountInfo countInfo = new CountInfo(eligibleChunksForSpawning, countIndex);
 			LivingHandlerRegistry livingHandlerRegistry = MVELProfile.worldSettings().livingHandlerRegistry();
 			BiomeSpawnListRegistry biomeSpawnListRegistry = MVELProfile.worldSettings().biomeSpawnListRegistry();
 			attemptSpawnCreaturesInChunks(cycles, targetPlayer.worldObj, MVELProfile.worldSettings()
@@ -111,14 +114,18 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 					creatureType, biomeBlacklist, countInfo, reportCount);
 
 			float totalCount = 0;
-			for (String key : reportCount.getGlobalEntityClassCountKeysSet()) {
-				int count = reportCount.getGlobalEntityClassCount(key);
-				totalCount += count;
+			for (int classIndex = 0; classIndex < countIndex.classCount(); classIndex++) {
+				totalCount += reportCount.getGlobalEntityClassCount(classIndex);
 			}
 			resultMessage.append(". \u00A7b").append(creatureType.typeID).append("\u00A7r");
 			resultMessage.append(" spawned ").append("\u00A79").append((int) totalCount).append("\u00A7r").append(" {");
-			for (String key : reportCount.getGlobalEntityClassCountKeysSet()) {
-				float count = reportCount.getGlobalEntityClassCount(key);
+			for (int classIndex = 0; classIndex < countIndex.classCount(); classIndex++) {
+				float count = reportCount.getGlobalEntityClassCount(classIndex);
+				if (count <= 0) {
+					continue;
+				}
+				String key = MVELProfile.worldSettings().livingGroupRegistry().entityClasstoJASName()
+						.get(countIndex.entityClass(classIndex));
 				resultMessage.append(" \u00A7a").append(key).append("\u00A7r").append(": ");
 				resultMessage.append("\u00A79").append((int) count).append("\u00A7r");
 				resultMessage.append("[").append("\u00A79").append((int) (count / totalCount * 100)).append("\u00A7r")
@@ -129,9 +136,8 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 		commandSender.addChatMessage(new ChatComponentText(resultMessage.toString()));
 	}
 
-	private final HashMap<ChunkCoordIntPair, ChunkStat> determineChunksForSpawnering(EntityPlayer entityplayer,
-			int chunkDistance) {
-		HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = new HashMap<ChunkCoordIntPair, ChunkStat>();
+	private final ChunkStatMap determineChunksForSpawnering(EntityPlayer entityplayer, int chunkDistance) {
+		ChunkStatMap eligibleChunksForSpawning = new ChunkStatMap((2 * chunkDistance + 1) * (2 * chunkDistance + 1));
 		int posX = MathHelper.floor_double(entityplayer.posX / 16.0D);
 		int posZ = MathHelper.floor_double(entityplayer.posZ / 16.0D);
 
@@ -139,9 +145,8 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 			for (int zOffset = -chunkDistance; zOffset <= chunkDistance; ++zOffset) {
 				boolean flag3 = xOffset == -chunkDistance || xOffset == chunkDistance || zOffset == -chunkDistance
 						|| zOffset == chunkDistance;
-				ChunkCoordIntPair chunkcoordintpair = new ChunkCoordIntPair(xOffset + posX, zOffset + posZ);
 				ChunkStat chunkStat = new ChunkStat(flag3);
-				eligibleChunksForSpawning.put(chunkcoordintpair, chunkStat);
+				eligibleChunksForSpawning.put(ChunkKey.of(xOffset + posX, zOffset + posZ), chunkStat);
 			}
 		}
 		return eligibleChunksForSpawning;
@@ -158,6 +163,7 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 			LivingHandlerRegistry livingHandlerRegistry, BiomeSpawnListRegistry biomeSpawnListRegistry,
 			CreatureType creatureType, BiomeBlacklist blacklist, CountInfo countInfo, CountInfo reportCount) {
 		ChunkCoordinates serverOriginPoint = worldServer.getSpawnPoint();
+		Tags tags = new Tags(worldServer, countInfo, 0, 0, 0);
 		List<ChunkCoordIntPair> eligibleChunksForSpawning = new ArrayList<ChunkCoordIntPair>(
 				countInfo.eligibleChunkLocations());
 		for (int cycle = 0; cycle < maxCycles; cycle++) {
@@ -206,7 +212,7 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 							if (spawnlistentry == null) {
 								break;
 							}
-							Tags tags = new Tags(worldServer, countInfo, startSpawningPoint.chunkPosX,
+							tags.reset(worldServer, countInfo, startSpawningPoint.chunkPosX,
 									startSpawningPoint.chunkPosY, startSpawningPoint.chunkPosZ);
 							livingToSpawn = livingHandlerRegistry.getRandomEntity(spawnlistentry.livingGroupID,
 									worldServer.rand, tags);
@@ -231,19 +237,15 @@ public class CommandEffectiveSpawnList extends CommandJasBase {
 						float spawnX = spawningPoint.chunkPosX + 0.5F;
 						float spawnY = spawningPoint.chunkPosY;
 						float spawnZ = spawningPoint.chunkPosZ + 0.5F;
-						EntityLiving entityliving;
-						try {
-							entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-									new Object[] { worldServer });
-						} catch (Exception exception) {
-							exception.printStackTrace();
+						EntityLiving entityliving = EntityFactory.construct(livingToSpawn, worldServer);
+						if (entityliving == null) {
 							return;
 						}
 						entityliving.setLocationAndAngles(spawnX, spawnY, spawnZ,
 								worldServer.rand.nextFloat() * 360.0F, 0.0F);
 
 						if (spawnlistentry.getLivingHandler().getCanSpawnHere(entityliving, spawnlistentry, countInfo)) {
-							reportCount.countSpawn(entityliving, creatureType.typeID);
+							reportCount.countSpawn(entityliving, creatureType.typeIndex);
 							
 							if (countInfo.getEntitiesSpawnedThisLoop() >= spawnlistentry.packSize) {
 								continue;
@@ -43,7 +43,16 @@ public final class CommandJAS extends CommandJasBase {
         if (base == null || base.getCommandName() == null || commands.containsKey(base.getCommandName())) {
             throw new IllegalArgumentException("Commands cannot be null");
         }
-        commands.put(base.getCommandName(), new CommandWrapper(base));
+        CommandWrapper wrapper = new CommandWrapper(base);
+        commands.put(base.getCommandName(), wrapper);
+        List<?> aliases = base.getCommandAliases();
+        if (aliases != null) {
+            for (Object alias : aliases) {
+                if (!commands.containsKey(alias)) {
+                    commands.put((String) alias, wrapper);
+                }
+            }
+        }
     }
 
     private static class CommandWrapper {
@@ -6,17 +6,26 @@ import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.modification.ModLoadConfig;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import net.minecraft.command.ICommandSender;
 import net.minecraft.command.WrongUsageException;
 import net.minecraft.server.MinecraftServer;
 
+/**
+ * Writes any settings changed in memory and reads every registry back from the configuration files
+ */
 public class CommandLoadConfig extends CommandJasBase {
     public String getCommandName() {
         return "loadconfig";
     }
 
+    @Override
+    public List<String> getCommandAliases() {
+        return Arrays.asList("reload");
+    }
+
     /**
      * Return the required permission level for this command.
      */
@@ -3,7 +3,6 @@ package jas.spawner.modern.command;
 import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.spawner.CountInfo;
 import jas.spawner.modern.spawner.CustomSpawner;
-import jas.spawner.modern.spawner.creature.handler.LivingGroupRegistry;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 
@@ -58,10 +57,10 @@ public class CommandLocate extends CommandJasBase {
         CountInfo info = CustomSpawner.spawnCounter.countEntities(targetPlayer.worldObj);
         while (iterator.hasNext()) {
             Entity entity = iterator.next();
-            LivingGroupRegistry groupRegistry = MVELProfile.worldSettings().livingGroupRegistry();
             LivingHandlerRegistry handlerRegistry = MVELProfile.worldSettings().livingHandlerRegistry();
-			List<LivingHandler> livingHandlers = handlerRegistry.getLivingHandlers(groupRegistry.EntityClasstoJASName
-					.get(entity.getClass()));
+			@SuppressWarnings("unchecked")
+			List<LivingHandler> livingHandlers = handlerRegistry
+					.getLivingHandlers((Class<? extends EntityLiving>) entity.getClass());
 			for (LivingHandler livingHandler : livingHandlers) {
 				if (livingHandler != null
 						&& (entityTarget.equals("*") || livingHandler.creatureTypeID.equals(entityTarget))
@@ -1,14 +1,16 @@
 package jas.spawner.modern.eventspawn;
 
+import jas.common.helper.ExpressionCompiler;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
+import jas.common.helper.ParallelConfigReader;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.eventspawn.EventSpawnTrigger.EventTrigger;
 import jas.spawner.modern.world.WorldProperties;
 
 import java.io.File;
 import java.io.Serializable;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -16,8 +18,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
 
-import org.mvel2.MVEL;
-
 import com.google.gson.Gson;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -25,7 +25,6 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
-import com.google.gson.reflect.TypeToken;
 
 public class EventSpawnRegistry {
 
@@ -51,16 +50,21 @@ public class EventSpawnRegistry {
 		public EventSpawn(EventTrigger trigger, String expression) {
 			this.trigger = trigger;
 			this.expression = expression;
-			this.compiled = MVEL.compileExpression(expression);
 			this.fileName = "default.cfg";
+			this.compiled = compile();
 		}
 
 		public Serializable expression() {
 			if (compiled == null) {
-				compiled = MVEL.compileExpression(expression);
+				compiled = compile();
 			}
 			return compiled;
 		}
+
+		private Serializable compile() {
+			return ExpressionCompiler.compile(expression, trigger.contextType, "EventSpawn " + trigger + " in "
+					+ fileName);
+		}
 	}
 	
 	private WorldProperties worldProperties;
@@ -74,13 +78,12 @@ public class EventSpawnRegistry {
 		Gson gson = GsonHelper.createGson(true);
 		File fileFolder = getFile(configDirectory, worldProperties.getFolderConfiguration().saveName, "");
 		File[] files = FileUtilities.getFileInDirectory(fileFolder, ".cfg");
-		for (File file : files) {
-			Type listType = new TypeToken<ArrayList<EventSpawn>>() {
-			}.getType();
-			EventSpawn[] readEventSpawns = GsonHelper.readOrCreateFromGson(FileUtilities.createReader(file, false),
-					EventSpawn[].class, gson);
-			for (EventSpawn eventSpawn : readEventSpawns) {
-				eventSpawn.fileName = file.getName();
+		List<EventSpawn[]> readFiles = ParallelConfigReader.readAll(files, EventSpawn[].class, gson, "EventSpawn");
+		for (int i = 0; i < files.length; i++) {
+			for (EventSpawn eventSpawn : readFiles.get(i)) {
+				eventSpawn.fileName = files[i].getName();
+				/* Compiled on load so mistakes in the expression are reported when the file is read */
+				eventSpawn.expression();
 				List<EventSpawn> events = eventSpawns.get(eventSpawn.trigger);
 				if (events == null) {
 					events = new ArrayList<EventSpawnRegistry.EventSpawn>();
@@ -105,7 +108,7 @@ public class EventSpawnRegistry {
 		return new File(configDirectory, filePath);
 	}
 
-	public void saveToConfig(File configDirectory) {
+	public void saveToConfig(File configDirectory, FileWriteBatch writes) {
 		Gson gson = GsonHelper.createGson(true);
 		HashMap<String, ArrayList<EventSpawn>> fileNameToEventSpawns = new HashMap<String, ArrayList<EventSpawn>>();
 		for (List<EventSpawn> eventSpawns : this.eventSpawns.values()) {
@@ -121,7 +124,7 @@ public class EventSpawnRegistry {
 
 		for (Entry<String, ArrayList<EventSpawn>> entry : fileNameToEventSpawns.entrySet()) {
 			File file = getFile(configDirectory, worldProperties.getFolderConfiguration().saveName, entry.getKey());
-			GsonHelper.writeToGson(FileUtilities.createWriter(file, true), entry.getValue(), gson);
+			GsonHelper.writeToGson(writes, file, entry.getValue(), gson);
 		}
 	}
 }
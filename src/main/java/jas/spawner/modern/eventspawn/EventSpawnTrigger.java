@@ -6,6 +6,7 @@ import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.eventspawn.EventSpawnRegistry.EventSpawn;
 import jas.spawner.modern.eventspawn.context.BlockContext;
 import jas.spawner.modern.eventspawn.context.ContextHelper;
+import jas.spawner.modern.eventspawn.context.EventContext;
 import jas.spawner.modern.eventspawn.context.LivingDeathContext;
 import jas.spawner.modern.eventspawn.context.PlayerSleepContext;
 
@@ -23,7 +24,18 @@ import cpw.mods.fml.relauncher.Side;
 
 public class EventSpawnTrigger {
 	public enum EventTrigger {
-		LIVING_DEATH, BLOCK_BREAK, SLEEP, BREAK_CROP, BREAK_TREE;
+		LIVING_DEATH(LivingDeathContext.class),
+		BLOCK_BREAK(BlockContext.class),
+		SLEEP(PlayerSleepContext.class),
+		BREAK_CROP(BlockContext.class),
+		BREAK_TREE(BlockContext.class);
+
+		/** Type of the context the trigger's expressions are evaluated with */
+		public final Class<? extends EventContext> contextType;
+
+		EventTrigger(Class<? extends EventContext> contextType) {
+			this.contextType = contextType;
+		}
 	}
 
 	private MVELProfile profile;
@@ -1,6 +1,7 @@
 package jas.spawner.modern.eventspawn;
 
 import jas.common.JASLog;
+import jas.spawner.modern.spawner.EntityFactory;
 import jas.spawner.modern.spawner.creature.handler.LivingGroupRegistry;
 
 import java.util.ArrayList;
@@ -85,12 +86,8 @@ public class MultiSpawnBuilder implements SpawnBuilder {
 						data.entityMapping);
 				return;
 			}
-			EntityLiving entityliving;
-			try {
-				entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-						new Object[] { world });
-			} catch (Exception exception) {
-				exception.printStackTrace();
+			EntityLiving entityliving = EntityFactory.construct(livingToSpawn, world);
+			if (entityliving == null) {
 				return;
 			}
 			entityliving.setLocationAndAngles(groupPosX + data.spawnPosX, groupPosY + data.spawnPosY, groupPosZ
@@ -1,6 +1,7 @@
 package jas.spawner.modern.eventspawn;
 
 import jas.common.JASLog;
+import jas.spawner.modern.spawner.EntityFactory;
 import jas.spawner.modern.spawner.creature.handler.LivingGroupRegistry;
 
 import java.util.Random;
@@ -48,12 +49,8 @@ public class SingleSpawnBuilder implements SpawnBuilder {
 					entityMapping);
 			return;
 		}
-		EntityLiving entityliving;
-		try {
-			entityliving = livingToSpawn.getConstructor(new Class[] { World.class })
-					.newInstance(new Object[] { world });
-		} catch (Exception exception) {
-			exception.printStackTrace();
+		EntityLiving entityliving = EntityFactory.construct(livingToSpawn, world);
+		if (entityliving == null) {
 			return;
 		}
 		entityliving.setLocationAndAngles(spawnPosX, spawnPosY, spawnPosZ, world.rand.nextFloat() * 360.0F, 0.0F);
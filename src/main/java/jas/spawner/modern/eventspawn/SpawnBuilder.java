@@ -9,5 +9,7 @@ public interface SpawnBuilder {
 	
 	public SpawnBuilder offset(double offsetX, double offsetY, double offsetZ);
 	
+	public SpawnBuilder alsoSpawn(String entityMapping, double offsetX, double offsetY, double offsetZ);
+	
 	public void spawn(World world, LivingGroupRegistry groupRegistry);
 }
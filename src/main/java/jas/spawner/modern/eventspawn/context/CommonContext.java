@@ -1,5 +1,6 @@
 package jas.spawner.modern.eventspawn.context;
 
+import jas.spawner.modern.spawner.BlockView;
 import jas.spawner.modern.spawner.FunctionsObjective;
 import jas.spawner.modern.spawner.FunctionsTime;
 import jas.spawner.modern.spawner.FunctionsLegacy;
@@ -18,23 +19,41 @@ import net.minecraft.world.World;
 
 public abstract class CommonContext implements Context {
 	protected World world;
+	protected BlockView blocks;
 
-	public final int posX;
-	public final int posY;
-	public final int posZ;
+	public int posX;
+	public int posY;
+	public int posZ;
 
-	public final FunctionsObjective obj;
-	public final FunctionsLegacy lgcy;
-	public final FunctionsUtility util;
-	public final WorldAccessor wrld;
-	public final TagsTime time;
-	public final TagsSearch search;
+	public FunctionsObjective obj;
+	public FunctionsLegacy lgcy;
+	public FunctionsUtility util;
+	public WorldAccessor wrld;
+	public TagsTime time;
+	public TagsSearch search;
 
 	public CommonContext(World world, int posX, int posY, int posZ) {
-		this.world = world;
+		bindWorld(world);
 		this.posX = posX;
 		this.posY = posY;
 		this.posZ = posZ;
+	}
+
+	/**
+	 * Moves the context to the provided position. The world functions are only recreated if the world has changed.
+	 */
+	protected void setPosition(World world, int posX, int posY, int posZ) {
+		if (world != this.world) {
+			bindWorld(world);
+		}
+		this.posX = posX;
+		this.posY = posY;
+		this.posZ = posZ;
+	}
+
+	private void bindWorld(World world) {
+		this.world = world;
+		this.blocks = BlockView.of(world);
 		obj = new FunctionsObjective(world, this);
 		lgcy = new FunctionsLegacy(world, this);
 		util = new FunctionsUtility(world, this);
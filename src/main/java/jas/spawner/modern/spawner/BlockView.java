@@ -0,0 +1,214 @@
+package jas.spawner.modern.spawner;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.minecraft.block.Block;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.common.util.ForgeDirection;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Block and metadata reads of a world for spawn checks. The chunk of the last read is kept so neighbouring reads skip
+ * the chunk provider lookup, and while a spawn cycle is open reads are memoized so repeated checks of the same
+ * coordinate, such as the valid medium followed by the surface checks and tag searches, only read the chunk once.
+ *
+ * Memoized reads are dropped when the cycle ends, after every spawned entity and whenever a read loads a chunk, as
+ * population may place blocks in neighbouring chunks. Only used on the thread that owns the world.
+ *
+ * A view references its world, so it is removed by {@link #unload(World)} when the world unloads rather than left to
+ * the weak map.
+ */
+public final class BlockView implements IBlockAccess {
+	private static final Map<World, BlockView> views = new WeakHashMap<World, BlockView>();
+	/* Direct mapped, a colliding read replaces the previous entry */
+	private static final int CACHE_SIZE = 1 << 12;
+	private static final int CACHE_MASK = CACHE_SIZE - 1;
+
+	private final World world;
+	private final long[] keys = new long[CACHE_SIZE];
+	private final int[] stamps = new int[CACHE_SIZE];
+	private final Block[] blocks = new Block[CACHE_SIZE];
+	private final byte[] metadata = new byte[CACHE_SIZE];
+	/* Entries are valid while their stamp matches; incremented to invalidate every entry at once */
+	private int stamp = 1;
+	private int openCycles;
+
+	private Chunk chunk;
+	private int chunkX;
+	private int chunkZ;
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * @return Block view of the world
+	 */
+	public static synchronized BlockView of(World world) {
+		BlockView view = views.get(world);
+		if (view == null) {
+			view = new BlockView(world);
+			views.put(world, view);
+		}
+		return view;
+	}
+
+	/**
+	 * Drops the view of the world, called when the world unloads
+	 */
+	public static synchronized void unload(World world) {
+		views.remove(world);
+	}
+
+	private BlockView(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Starts memoizing reads. Each call must be paired with {@link #endCycle()}.
+	 */
+	public void beginCycle() {
+		if (openCycles++ == 0) {
+			invalidate();
+		}
+	}
+
+	public void endCycle() {
+		if (openCycles > 0 && --openCycles == 0) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Drops memoized reads, to be called after anything that may have changed blocks
+	 */
+	public void invalidate() {
+		if (++stamp == 0) {
+			stamp = 1;
+		}
+	}
+
+	/**
+	 * @return Number of reads answered from memoized reads
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return Number of reads that went to the chunk
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public Block getBlock(int x, int y, int z) {
+		return blocks[lookup(x, y, z)];
+	}
+
+	@Override
+	public int getBlockMetadata(int x, int y, int z) {
+		return metadata[lookup(x, y, z)];
+	}
+
+	/**
+	 * @return Index of the cache entry holding the block and metadata at the coordinate
+	 */
+	private int lookup(int x, int y, int z) {
+		long key = (long) (x & 0x3FFFFFF) << 34 | (long) (z & 0x3FFFFFF) << 8 | (y & 255);
+		int slot = (int) (key ^ key >>> 21 ^ key >>> 42) * 0x9E3779B9 >>> 20 & CACHE_MASK;
+		if (openCycles > 0 && stamps[slot] == stamp && keys[slot] == key) {
+			hits++;
+			return slot;
+		}
+		misses++;
+		read(x, y, z, slot);
+		keys[slot] = key;
+		stamps[slot] = openCycles > 0 ? stamp : 0;
+		return slot;
+	}
+
+	private void read(int x, int y, int z, int slot) {
+		if (x < -30000000 || z < -30000000 || x >= 30000000 || z >= 30000000 || y < 0 || y >= 256) {
+			blocks[slot] = Blocks.air;
+			metadata[slot] = 0;
+			return;
+		}
+		ExtendedBlockStorage section = chunk(x >> 4, z >> 4).getBlockStorageArray()[y >> 4];
+		if (section == null) {
+			blocks[slot] = Blocks.air;
+			metadata[slot] = 0;
+		} else {
+			blocks[slot] = section.getBlockByExtId(x & 15, y & 15, z & 15);
+			metadata[slot] = (byte) section.getExtBlockMetadata(x & 15, y & 15, z & 15);
+		}
+	}
+
+	private Chunk chunk(int chunkX, int chunkZ) {
+		if (chunk == null || !chunk.isChunkLoaded || this.chunkX != chunkX || this.chunkZ != chunkZ) {
+			boolean isLoaded = world.getChunkProvider().chunkExists(chunkX, chunkZ);
+			chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			if (!isLoaded) {
+				invalidate();
+			}
+		}
+		return chunk;
+	}
+
+	@Override
+	public TileEntity getTileEntity(int x, int y, int z) {
+		return world.getTileEntity(x, y, z);
+	}
+
+	@Override
+	public int isBlockProvidingPowerTo(int x, int y, int z, int side) {
+		return world.isBlockProvidingPowerTo(x, y, z, side);
+	}
+
+	@Override
+	public boolean isAirBlock(int x, int y, int z) {
+		return getBlock(x, y, z).isAir(this, x, y, z);
+	}
+
+	@Override
+	public boolean isSideSolid(int x, int y, int z, ForgeDirection side, boolean _default) {
+		if (x < -30000000 || z < -30000000 || x >= 30000000 || z >= 30000000) {
+			return _default;
+		}
+		return getBlock(x, y, z).isSideSolid(this, x, y, z, side);
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public int getLightBrightnessForSkyBlocks(int x, int y, int z, int minBlockLight) {
+		return world.getLightBrightnessForSkyBlocks(x, y, z, minBlockLight);
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public BiomeGenBase getBiomeGenForCoords(int x, int z) {
+		return world.getBiomeGenForCoords(x, z);
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public int getHeight() {
+		return world.getHeight();
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public boolean extendedLevelsInChunkCache() {
+		return world.extendedLevelsInChunkCache();
+	}
+}
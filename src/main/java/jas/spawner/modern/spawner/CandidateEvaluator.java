@@ -0,0 +1,182 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.JASLog;
+import jas.common.JustAnotherSpawner;
+import jas.common.global.BiomeBlacklist;
+import jas.spawner.modern.spawner.ChunkStatMap.KeyPermutation;
+import jas.spawner.modern.spawner.creature.type.CreatureType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.minecraft.world.World;
+
+/**
+ * Evaluates the location checks of spawn candidates on a pool of worker threads against snapshots of the chunks they
+ * read, so the main thread only has to run the checks that need entities, counts or expressions. With no worker
+ * threads configured candidates are evaluated lazily on the main thread instead.
+ *
+ * In verification mode every candidate evaluated off-thread is evaluated again against the live world, which decides
+ * the outcome, and disagreements are counted to measure how stale snapshots get.
+ */
+public final class CandidateEvaluator {
+	/* Chunks evaluated by each worker per batch */
+	private static final int CHUNKS_PER_WORKER = 4;
+	/* Verified candidates between summaries written to the log */
+	private static final int VERIFICATION_LOG_INTERVAL = 10000;
+
+	private ExecutorService executor;
+	private int executorThreads;
+	private long verifiedCount;
+	private long staleCount;
+
+	/**
+	 * Chunks of a spawn cycle whose candidates have been drawn and submitted for evaluation
+	 */
+	public static final class Batch {
+		private final List<SpawnCandidates> candidates;
+		private final List<Future<?>> evaluations;
+
+		private Batch(List<SpawnCandidates> candidates, List<Future<?>> evaluations) {
+			this.candidates = candidates;
+			this.evaluations = evaluations;
+		}
+
+		/**
+		 * Waits for the workers to finish. Candidates a worker failed to evaluate are left to the main thread.
+		 */
+		public List<SpawnCandidates> await() {
+			for (Future<?> evaluation : evaluations) {
+				try {
+					evaluation.get();
+				} catch (ExecutionException e) {
+					JASLog.log().severe("Error evaluating spawn candidates off-thread, falling back to main thread: %s",
+							e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			return candidates;
+		}
+	}
+
+	/**
+	 * @return True if batches are evaluated by worker threads, and are worth drawing ahead of spawning
+	 */
+	public boolean hasWorkers() {
+		return JustAnotherSpawner.globalSettings().spawnWorkerThreads > 0;
+	}
+
+	public boolean isVerifying() {
+		return JustAnotherSpawner.globalSettings().verifySpawnSnapshots;
+	}
+
+	/**
+	 * Draws the candidates of the next chunks from the cursor and, if worker threads are configured, starts their
+	 * evaluation. Edge chunks are skipped. The main thread draws one chunk at a time, as it is about to spawn in it,
+	 * when there are no workers.
+	 */
+	public Batch nextBatch(World world, CreatureType creatureType, BiomeBlacklist blacklist, CountInfo countInfo,
+			KeyPermutation chunkCursor) {
+		int workerThreads = JustAnotherSpawner.globalSettings().spawnWorkerThreads;
+		int batchSize = workerThreads > 0 ? workerThreads * CHUNKS_PER_WORKER : 1;
+		List<SpawnCandidates> candidates = new ArrayList<SpawnCandidates>(batchSize);
+		while (candidates.size() < batchSize && chunkCursor.hasNext()) {
+			long chunkKey = chunkCursor.nextKey();
+			if (!countInfo.getChunkStat(chunkKey).isEdge) {
+				candidates.add(SpawnCandidates.draw(world, creatureType, chunkKey));
+			}
+		}
+		if (workerThreads <= 0 || candidates.isEmpty()) {
+			return new Batch(candidates, Collections.<Future<?>> emptyList());
+		}
+
+		final SpawnSnapshot snapshot = new SpawnSnapshot(world);
+		for (SpawnCandidates chunkCandidates : candidates) {
+			chunkCandidates.addTo(snapshot);
+		}
+		ExecutorService executor = executor(workerThreads);
+		List<Future<?>> evaluations = new ArrayList<Future<?>>(workerThreads);
+		for (int from = 0; from < candidates.size(); from += CHUNKS_PER_WORKER) {
+			evaluations.add(executor.submit(new Evaluation(
+					candidates.subList(from, Math.min(from + CHUNKS_PER_WORKER, candidates.size())), snapshot,
+					creatureType, blacklist)));
+		}
+		return new Batch(candidates, evaluations);
+	}
+
+	private static final class Evaluation implements Runnable {
+		private final List<SpawnCandidates> candidates;
+		private final SpawnSnapshot snapshot;
+		private final CreatureType creatureType;
+		private final BiomeBlacklist blacklist;
+
+		Evaluation(List<SpawnCandidates> candidates, SpawnSnapshot snapshot, CreatureType creatureType,
+				BiomeBlacklist blacklist) {
+			this.candidates = candidates;
+			this.snapshot = snapshot;
+			this.creatureType = creatureType;
+			this.blacklist = blacklist;
+		}
+
+		@Override
+		public void run() {
+			for (SpawnCandidates chunkCandidates : candidates) {
+				chunkCandidates.evaluate(snapshot, creatureType, blacklist);
+			}
+		}
+	}
+
+	/**
+	 * Records the outcome of re-checking a candidate evaluated off-thread against the live world
+	 */
+	void recordVerification(boolean isMatch) {
+		verifiedCount++;
+		if (!isMatch) {
+			staleCount++;
+		}
+		if (verifiedCount % VERIFICATION_LOG_INTERVAL == 0) {
+			JASLog.log().info("Spawn snapshot verification: %s of %s candidates differed from the live world (%.3f%%)",
+					staleCount, verifiedCount, 100.0D * staleCount / verifiedCount);
+		}
+	}
+
+	public long getVerifiedCount() {
+		return verifiedCount;
+	}
+
+	public long getStaleCount() {
+		return staleCount;
+	}
+
+	private ExecutorService executor(int workerThreads) {
+		if (executor == null || executorThreads != workerThreads) {
+			if (executor != null) {
+				executor.shutdown();
+			}
+			executor = Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
+			executorThreads = workerThreads;
+		}
+		return executor;
+	}
+
+	private static final class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "JAS Spawn Worker-" + threadNumber.getAndIncrement());
+			/* Must not keep the server from shutting down */
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package jas.spawner.modern.spawner;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.ChunkCoordIntPair;
+
+/**
+ * Chunk coordinates packed into a single long: chunkX in the upper 32 bits, chunkZ in the lower 32 bits. Used in place
+ * of ChunkCoordIntPair to avoid allocating a key object for every chunk lookup.
+ */
+public final class ChunkKey {
+
+	private ChunkKey() {
+	}
+
+	public static long of(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	public static long of(ChunkCoordIntPair chunkCoord) {
+		return of(chunkCoord.chunkXPos, chunkCoord.chunkZPos);
+	}
+
+	/**
+	 * Key of the chunk containing the provided block coordinates
+	 */
+	public static long ofBlock(int blockX, int blockZ) {
+		return of(blockX >> 4, blockZ >> 4);
+	}
+
+	/**
+	 * Key of the chunk containing the provided entities position
+	 */
+	public static long ofEntity(Entity entity) {
+		return of(MathHelper.floor_double(entity.posX) >> 4, MathHelper.floor_double(entity.posZ) >> 4);
+	}
+
+	public static int chunkX(long chunkKey) {
+		return (int) (chunkKey >> 32);
+	}
+
+	public static int chunkZ(long chunkKey) {
+		return (int) chunkKey;
+	}
+
+	public static ChunkCoordIntPair toChunkCoord(long chunkKey) {
+		return new ChunkCoordIntPair(chunkX(chunkKey), chunkZ(chunkKey));
+	}
+}
@@ -0,0 +1,132 @@
+package jas.spawner.modern.spawner;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from packed chunk coordinates (see {@link ChunkKey}) to values, used in place of a HashMap keyed
+ * by Long so lookups neither box the key nor allocate an entry. Null values are not supported.
+ */
+public final class ChunkKeyMap<V> {
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	/* Null marks an empty slot */
+	private Object[] values;
+	private int mask;
+	private int size;
+
+	public ChunkKeyMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(long chunkKey) {
+		int slot = slotFor(chunkKey);
+		Object value;
+		while ((value = values[slot]) != null) {
+			if (keys[slot] == chunkKey) {
+				return (V) value;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * @return Previous value associated with the key, null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long chunkKey, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("ChunkKeyMap does not support null values");
+		}
+		int slot = slotFor(chunkKey);
+		Object previous;
+		while ((previous = values[slot]) != null) {
+			if (keys[slot] == chunkKey) {
+				values[slot] = value;
+				return (V) previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = chunkKey;
+		values[slot] = value;
+		if (++size * 2 > values.length) {
+			rehash(values.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * @return Value associated with the key, null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long chunkKey) {
+		int slot = slotFor(chunkKey);
+		Object removed;
+		while ((removed = values[slot]) != null && keys[slot] != chunkKey) {
+			slot = (slot + 1) & mask;
+		}
+		if (removed == null) {
+			return null;
+		}
+		deleteSlot(slot);
+		size--;
+		return (V) removed;
+	}
+
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/* Backward shift deletion so that probe chains are not broken by the emptied slot */
+	private void deleteSlot(int hole) {
+		int slot = (hole + 1) & mask;
+		while (values[slot] != null) {
+			int ideal = slotFor(keys[slot]);
+			if (((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				keys[hole] = keys[slot];
+				values[hole] = values[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		values[hole] = null;
+	}
+
+	private int slotFor(long chunkKey) {
+		long hash = chunkKey * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = slotFor(oldKeys[i]);
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+}
@@ -0,0 +1,285 @@
+package jas.spawner.modern.spawner;
+
+import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Open addressing map from packed chunk coordinates (see {@link ChunkKey}) to ChunkStat. Lookups and insertions do not
+ * allocate, entries are stored densely in insertion order so they can be iterated by index.
+ */
+public final class ChunkStatMap {
+	private static final int EMPTY = -1;
+	private static final int MIN_CAPACITY = 16;
+
+	/* Hash slots containing the index of the entry, or EMPTY */
+	private int[] slots;
+	private int mask;
+
+	private long[] keys;
+	private ChunkStat[] values;
+	private int size;
+	/* Index buffer of randomOrder, allocated on first use */
+	private int[] order;
+	/* Tracker that handed out the map and the layout it was copied from, null if the map was not handed out by one */
+	EligibleChunks source;
+	ChunkStatMap sourceLayout;
+
+	public ChunkStatMap() {
+		this(MIN_CAPACITY);
+	}
+
+	public ChunkStatMap(int expectedSize) {
+		int entryCapacity = Math.max(expectedSize, MIN_CAPACITY);
+		keys = new long[entryCapacity];
+		values = new ChunkStat[entryCapacity];
+		allocateSlots(slotCapacityFor(entryCapacity));
+	}
+
+	private ChunkStatMap(int[] slots, long[] keys, ChunkStat[] values, int size) {
+		this.slots = slots;
+		this.mask = slots.length - 1;
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public ChunkStat get(long chunkKey) {
+		int index = indexOf(chunkKey);
+		return index != EMPTY ? values[index] : null;
+	}
+
+	public ChunkStat get(int chunkX, int chunkZ) {
+		return get(ChunkKey.of(chunkX, chunkZ));
+	}
+
+	public boolean containsKey(long chunkKey) {
+		return indexOf(chunkKey) != EMPTY;
+	}
+
+	/**
+	 * @return Previous value associated with the key, null if there was none
+	 */
+	public ChunkStat put(long chunkKey, ChunkStat chunkStat) {
+		int slot = slotFor(chunkKey);
+		int index;
+		while ((index = slots[slot]) != EMPTY) {
+			if (keys[index] == chunkKey) {
+				ChunkStat previous = values[index];
+				values[index] = chunkStat;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		keys[size] = chunkKey;
+		values[size] = chunkStat;
+		slots[slot] = size;
+		size++;
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the entry for the key. The last entry is moved into the vacated position, so positions of other entries
+	 * are not stable across removal.
+	 * 
+	 * @return Value associated with the key, null if there was none
+	 */
+	public ChunkStat remove(long chunkKey) {
+		int slot = slotFor(chunkKey);
+		int index;
+		while ((index = slots[slot]) != EMPTY && keys[index] != chunkKey) {
+			slot = (slot + 1) & mask;
+		}
+		if (index == EMPTY) {
+			return null;
+		}
+		ChunkStat removed = values[index];
+		deleteSlot(slot);
+		int last = size - 1;
+		if (index != last) {
+			keys[index] = keys[last];
+			values[index] = values[last];
+			int lastSlot = slotFor(keys[index]);
+			while (slots[lastSlot] != last) {
+				lastSlot = (lastSlot + 1) & mask;
+			}
+			slots[lastSlot] = index;
+		}
+		values[last] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Packed chunk key of the entry at the provided position in insertion order, [0, size)
+	 */
+	public long keyAt(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * ChunkStat of the entry at the provided position in insertion order, [0, size)
+	 */
+	public ChunkStat valueAt(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @return Copy of the keys contained in the map, in insertion order
+	 */
+	public long[] keys() {
+		return Arrays.copyOf(keys, size);
+	}
+
+	/**
+	 * @return Map with the same keys in the same order, each mapped to a new ChunkStat with the same edge flag and no
+	 *         counts
+	 */
+	public ChunkStatMap withNewChunkStats() {
+		ChunkStat[] chunkStats = new ChunkStat[Math.max(size, MIN_CAPACITY)];
+		for (int i = 0; i < size; i++) {
+			chunkStats[i] = new ChunkStat(values[i].isEdge);
+		}
+		return new ChunkStatMap(slots.clone(), Arrays.copyOf(keys, chunkStats.length), chunkStats, size);
+	}
+
+	/**
+	 * Clears the counts of every ChunkStat, keeping the keys and edge flags
+	 */
+	void resetCounts() {
+		for (int i = 0; i < size; i++) {
+			values[i].reset();
+		}
+	}
+
+	/**
+	 * Visits the keys in a random order without copying them. Permutations share one index buffer per map, so only one
+	 * should be in use at a time and the map must not be modified while it is.
+	 */
+	public KeyPermutation randomOrder(Random random) {
+		if (order == null || order.length != size) {
+			order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+		}
+		return new KeyPermutation(random);
+	}
+
+	/**
+	 * Fisher-Yates shuffle performed one step per key, so callers that stop early only pay for the keys they visit.
+	 * Each pass starts from the order the previous pass left behind, which does not bias the result.
+	 */
+	public final class KeyPermutation {
+		private final Random random;
+		private int position;
+
+		private KeyPermutation(Random random) {
+			this.random = random;
+		}
+
+		public boolean hasNext() {
+			return position < order.length;
+		}
+
+		/**
+		 * @return Number of keys not yet visited
+		 */
+		public int remaining() {
+			return order.length - position;
+		}
+
+		public long nextKey() {
+			int remaining = order.length - position;
+			if (remaining > 1) {
+				int swap = position + random.nextInt(remaining);
+				int index = order[swap];
+				order[swap] = order[position];
+				order[position] = index;
+			}
+			return keys[order[position++]];
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(slots, EMPTY);
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * @return Position of the entry in insertion order, or -1 if the key is not present
+	 */
+	public int indexOf(long chunkKey) {
+		int slot = slotFor(chunkKey);
+		int index;
+		while ((index = slots[slot]) != EMPTY) {
+			if (keys[index] == chunkKey) {
+				return index;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/* Backward shift deletion so that probe chains are not broken by the emptied slot */
+	private void deleteSlot(int hole) {
+		int slot = (hole + 1) & mask;
+		while (slots[slot] != EMPTY) {
+			int ideal = slotFor(keys[slots[slot]]);
+			if (((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+				slots[hole] = slots[slot];
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		slots[hole] = EMPTY;
+	}
+
+	private int slotFor(long chunkKey) {
+		long hash = chunkKey * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private void rehash(int slotCapacity) {
+		allocateSlots(slotCapacity);
+		for (int index = 0; index < size; index++) {
+			int slot = slotFor(keys[index]);
+			while (slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = index;
+		}
+	}
+
+	private void allocateSlots(int slotCapacity) {
+		slots = new int[slotCapacity];
+		Arrays.fill(slots, EMPTY);
+		mask = slotCapacity - 1;
+	}
+
+	/* Power of two with at least twice as many slots as entries to keep probe chains short */
+	private static int slotCapacityFor(int entryCapacity) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < entryCapacity * 2) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
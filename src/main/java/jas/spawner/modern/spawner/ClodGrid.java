@@ -0,0 +1,267 @@
+package jas.spawner.modern.spawner;
+
+import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summed-area tables over the eligible chunks used to answer clod (neighbourhood density) queries in constant time.
+ *
+ * Eligible chunks are grouped into islands: rectangles that contain every eligible chunk within clodSize of each other.
+ * Separate groups of players produce separate islands so the tables only cover chunks near players. A table per
+ * creature type is built on first use and updated in place as entities are counted.
+ */
+final class ClodGrid {
+	private final ChunkStatMap eligibleChunks;
+	private final int clodSize;
+	private final int typeCount;
+	private final Island[] islands;
+	/* Island of each entry in eligibleChunks, indexed by entry position */
+	private final int[] entryIsland;
+
+	private static final class Island {
+		final int minX;
+		final int minZ;
+		final int width;
+		final int depth;
+		/* Row major [z * width + x], null for chunks that are not eligible */
+		final ChunkStat[] cells;
+		/* Summed-area table of eligible chunks, [(z + 1) * (width + 1) + (x + 1)] */
+		final int[] eligibleSums;
+		/* Summed-area tables of entity type counts, allocated when a type is first queried */
+		final int[][] typeSums;
+
+		Island(int minX, int minZ, int maxX, int maxZ, int typeCount) {
+			this.minX = minX;
+			this.minZ = minZ;
+			this.width = maxX - minX + 1;
+			this.depth = maxZ - minZ + 1;
+			this.cells = new ChunkStat[width * depth];
+			this.eligibleSums = new int[(width + 1) * (depth + 1)];
+			this.typeSums = new int[typeCount][];
+		}
+
+		void buildEligibleSums() {
+			int stride = width + 1;
+			for (int z = 0; z < depth; z++) {
+				int rowSum = 0;
+				for (int x = 0; x < width; x++) {
+					rowSum += cells[z * width + x] != null ? 1 : 0;
+					eligibleSums[(z + 1) * stride + x + 1] = eligibleSums[z * stride + x + 1] + rowSum;
+				}
+			}
+		}
+
+		int[] typeSums(int typeIndex) {
+			int[] sums = typeSums[typeIndex];
+			if (sums == null) {
+				sums = new int[(width + 1) * (depth + 1)];
+				int stride = width + 1;
+				for (int z = 0; z < depth; z++) {
+					int rowSum = 0;
+					for (int x = 0; x < width; x++) {
+						ChunkStat chunkStat = cells[z * width + x];
+						rowSum += chunkStat != null ? chunkStat.getEntityTypeCount(typeIndex) : 0;
+						sums[(z + 1) * stride + x + 1] = sums[z * stride + x + 1] + rowSum;
+					}
+				}
+				typeSums[typeIndex] = sums;
+			}
+			return sums;
+		}
+
+		/**
+		 * Adds one to the count at the local position; every sum covering the position is updated
+		 */
+		void increment(int typeIndex, int localX, int localZ) {
+			int[] sums = typeSums[typeIndex];
+			if (sums == null) {
+				/* Table is built from the ChunkStat counts when first queried */
+				return;
+			}
+			int stride = width + 1;
+			for (int z = localZ + 1; z <= depth; z++) {
+				for (int x = localX + 1; x <= width; x++) {
+					sums[z * stride + x]++;
+				}
+			}
+		}
+
+		/**
+		 * Sum of the rectangle [x0, x1] x [z0, z1] in local coordinates, clipped to the island
+		 */
+		int sum(int[] sums, int x0, int z0, int x1, int z1) {
+			x0 = Math.max(x0, 0);
+			z0 = Math.max(z0, 0);
+			x1 = Math.min(x1, width - 1);
+			z1 = Math.min(z1, depth - 1);
+			if (x0 > x1 || z0 > z1) {
+				return 0;
+			}
+			int stride = width + 1;
+			return sums[(z1 + 1) * stride + x1 + 1] - sums[z0 * stride + x1 + 1] - sums[(z1 + 1) * stride + x0]
+					+ sums[z0 * stride + x0];
+		}
+	}
+
+	ClodGrid(ChunkStatMap eligibleChunks, int clodSize, int typeCount) {
+		this.eligibleChunks = eligibleChunks;
+		this.clodSize = clodSize;
+		this.typeCount = typeCount;
+		this.entryIsland = new int[eligibleChunks.size()];
+
+		int[][] bounds = mergeBounds(connectedBounds(), clodSize);
+		this.islands = new Island[bounds.length];
+		for (int i = 0; i < bounds.length; i++) {
+			islands[i] = new Island(bounds[i][0], bounds[i][1], bounds[i][2], bounds[i][3], typeCount);
+		}
+		for (int entry = 0; entry < eligibleChunks.size(); entry++) {
+			long chunkKey = eligibleChunks.keyAt(entry);
+			int chunkX = ChunkKey.chunkX(chunkKey);
+			int chunkZ = ChunkKey.chunkZ(chunkKey);
+			for (int i = 0; i < bounds.length; i++) {
+				if (contains(bounds[i], chunkX, chunkZ)) {
+					Island island = islands[i];
+					island.cells[(chunkZ - island.minZ) * island.width + chunkX - island.minX] = eligibleChunks
+							.valueAt(entry);
+					entryIsland[entry] = i;
+					break;
+				}
+			}
+		}
+		for (Island island : islands) {
+			island.buildEligibleSums();
+		}
+	}
+
+	/**
+	 * @return Number of entities of the type within clodSize of the chunk scaled up by the fraction of the area that is
+	 *         eligible, -1 if the chunk is not an eligible chunk
+	 */
+	int getClodEntityCount(long chunkKey, int typeIndex) {
+		int entry = eligibleChunks.indexOf(chunkKey);
+		if (entry < 0) {
+			return -1;
+		}
+		if (typeIndex < 0 || typeIndex >= typeCount) {
+			return 0;
+		}
+		Island island = islands[entryIsland[entry]];
+		int localX = ChunkKey.chunkX(chunkKey) - island.minX;
+		int localZ = ChunkKey.chunkZ(chunkKey) - island.minZ;
+		int x0 = localX - clodSize, z0 = localZ - clodSize, x1 = localX + clodSize, z1 = localZ + clodSize;
+		int entityTotal = island.sum(island.typeSums(typeIndex), x0, z0, x1, z1);
+		int chunksCounted = island.sum(island.eligibleSums, x0, z0, x1, z1);
+		return (int) ((entityTotal) * (2f * clodSize + 1) * (2f * clodSize + 1) / chunksCounted);
+	}
+
+	/**
+	 * Record an entity of the type counted in the eligible chunk at the provided entry position
+	 */
+	void countEntityType(int entry, int typeIndex) {
+		if (typeIndex < 0 || typeIndex >= typeCount) {
+			return;
+		}
+		long chunkKey = eligibleChunks.keyAt(entry);
+		Island island = islands[entryIsland[entry]];
+		island.increment(typeIndex, ChunkKey.chunkX(chunkKey) - island.minX, ChunkKey.chunkZ(chunkKey) - island.minZ);
+	}
+
+	int islandCount() {
+		return islands.length;
+	}
+
+	/**
+	 * Bounds {minX, minZ, maxX, maxZ} of each group of touching eligible chunks
+	 */
+	private List<int[]> connectedBounds() {
+		int size = eligibleChunks.size();
+		int[] parent = new int[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+		for (int i = 0; i < size; i++) {
+			long chunkKey = eligibleChunks.keyAt(i);
+			int chunkX = ChunkKey.chunkX(chunkKey);
+			int chunkZ = ChunkKey.chunkZ(chunkKey);
+			/* Half of the neighbourhood is sufficient as the other half is checked from the neighbour */
+			union(parent, i, eligibleChunks.indexOf(ChunkKey.of(chunkX + 1, chunkZ)));
+			union(parent, i, eligibleChunks.indexOf(ChunkKey.of(chunkX, chunkZ + 1)));
+			union(parent, i, eligibleChunks.indexOf(ChunkKey.of(chunkX + 1, chunkZ + 1)));
+			union(parent, i, eligibleChunks.indexOf(ChunkKey.of(chunkX + 1, chunkZ - 1)));
+		}
+
+		List<int[]> bounds = new ArrayList<int[]>();
+		int[] rootBounds = new int[size];
+		for (int i = 0; i < size; i++) {
+			int root = find(parent, i);
+			long chunkKey = eligibleChunks.keyAt(i);
+			int chunkX = ChunkKey.chunkX(chunkKey);
+			int chunkZ = ChunkKey.chunkZ(chunkKey);
+			if (root == i) {
+				rootBounds[i] = bounds.size();
+				bounds.add(new int[] { chunkX, chunkZ, chunkX, chunkZ });
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			long chunkKey = eligibleChunks.keyAt(i);
+			int[] bound = bounds.get(rootBounds[find(parent, i)]);
+			bound[0] = Math.min(bound[0], ChunkKey.chunkX(chunkKey));
+			bound[1] = Math.min(bound[1], ChunkKey.chunkZ(chunkKey));
+			bound[2] = Math.max(bound[2], ChunkKey.chunkX(chunkKey));
+			bound[3] = Math.max(bound[3], ChunkKey.chunkZ(chunkKey));
+		}
+		return bounds;
+	}
+
+	/**
+	 * Merges bounds that are within gap chunks of each other until no two remaining bounds are, so that a clod never
+	 * spans two islands
+	 */
+	private static int[][] mergeBounds(List<int[]> bounds, int gap) {
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int i = 0; i < bounds.size() && !merged; i++) {
+				for (int j = i + 1; j < bounds.size(); j++) {
+					int[] a = bounds.get(i);
+					int[] b = bounds.get(j);
+					if (a[0] - gap <= b[2] && b[0] - gap <= a[2] && a[1] - gap <= b[3] && b[1] - gap <= a[3]) {
+						a[0] = Math.min(a[0], b[0]);
+						a[1] = Math.min(a[1], b[1]);
+						a[2] = Math.max(a[2], b[2]);
+						a[3] = Math.max(a[3], b[3]);
+						bounds.remove(j);
+						merged = true;
+						break;
+					}
+				}
+			}
+		}
+		return bounds.toArray(new int[bounds.size()][]);
+	}
+
+	private static boolean contains(int[] bound, int chunkX, int chunkZ) {
+		return chunkX >= bound[0] && chunkX <= bound[2] && chunkZ >= bound[1] && chunkZ <= bound[3];
+	}
+
+	private static void union(int[] parent, int a, int b) {
+		if (b < 0) {
+			return;
+		}
+		int rootA = find(parent, a);
+		int rootB = find(parent, b);
+		if (rootA != rootB) {
+			parent[rootB] = rootA;
+		}
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+}
@@ -5,8 +5,6 @@ import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.spawner.tags.TagsCount;
 import jas.spawner.modern.spawner.tags.Context;
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.util.MathHelper;
-import net.minecraft.world.ChunkCoordIntPair;
 
 import com.google.common.collect.ImmutableBiMap;
 
@@ -23,31 +21,36 @@ public class CountAccessor implements TagsCount {
 		this.parent = parent;
 	}
 
-	private ChunkCoordIntPair blockPosToChunkPos() {
-		int posX = MathHelper.floor_double(parent.posX() / 16.0D);
-		int posZ = MathHelper.floor_double(parent.posZ() / 16.0D);
-		return new ChunkCoordIntPair(posX, posZ);
+	void setCountInfo(CountInfo info) {
+		this.info = info;
+	}
+
+	private long blockPosToChunkPos() {
+		return ChunkKey.ofBlock(parent.posX(), parent.posZ());
 	}
 
 	public int getLocalEntityTypeCount(String entityType) {
-		if (MVELProfile.worldSettings().creatureTypeRegistry().getCreatureType(entityType) == null) {
+		int typeIndex = info.countIndex().typeIndex(entityType);
+		if (typeIndex == CountIndex.UNKNOWN) {
 			JASLog.log().severe("CreatureType %s does not exist. getLocalEntityTypeCount will return 0.", entityType);
 		}
-		return info.getLocalEntityTypeCount(blockPosToChunkPos(), entityType);
+		return info.getLocalEntityTypeCount(blockPosToChunkPos(), typeIndex);
 	}
 
 	public int getLocalEntityClassCount(String entityJasName) {
 		ImmutableBiMap<String, Class<? extends EntityLiving>> mapping = MVELProfile.worldSettings()
 				.livingGroupRegistry().JASNametoEntityClass;
 		Class<?> entityClass = mapping.get(entityJasName);
-		return entityClass != null ? info.getLocalEntityClassCount(blockPosToChunkPos(), entityClass) : 0;
+		return entityClass != null ? info.getLocalEntityClassCount(blockPosToChunkPos(),
+				info.countIndex().classIndex(entityClass)) : 0;
 	}
 
 	public int getGlobalEntityTypeCount(String entityType) {
-		if (MVELProfile.worldSettings().creatureTypeRegistry().getCreatureType(entityType) == null) {
+		int typeIndex = info.countIndex().typeIndex(entityType);
+		if (typeIndex == CountIndex.UNKNOWN) {
 			JASLog.log().severe("CreatureType %s does not exist. getLocalEntityTypeCount will return 0.", entityType);
 		}
-		return info.getGlobalEntityTypeCount(entityType);
+		return info.getGlobalEntityTypeCount(typeIndex);
 	}
 
 	public int getGlobalEntityClassCount(String entityJasName) {
@@ -66,9 +69,10 @@ public class CountAccessor implements TagsCount {
 	}
 
 	public int clodCount(String entityType) {
-		if (MVELProfile.worldSettings().creatureTypeRegistry().getCreatureType(entityType) == null) {
+		int typeIndex = info.countIndex().typeIndex(entityType);
+		if (typeIndex == CountIndex.UNKNOWN) {
 			JASLog.log().severe("CreatureType %s does not exist. clodCount will return 0.", entityType);
 		}
-		return info.getClodEntityCount(blockPosToChunkPos(), entityType);
+		return info.getClodEntityCount(blockPosToChunkPos(), typeIndex);
 	}
 }
@@ -0,0 +1,73 @@
+package jas.spawner.modern.spawner;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Assigns dense int IDs to creature types and entity classes so counts can be stored in arrays instead of String keyed
+ * maps. Instances are immutable snapshots of the registries at the time they were built.
+ */
+public final class CountIndex {
+	public static final int UNKNOWN = -1;
+
+	private final ImmutableList<String> typeIDs;
+	private final ImmutableMap<String, Integer> typeIDToIndex;
+	private final ImmutableList<Class<?>> entityClasses;
+	private final IdentityHashMap<Class<?>, Integer> entityClassToIndex;
+
+	public CountIndex(List<String> typeIDsByIndex, List<? extends Class<?>> entityClassesByIndex) {
+		this.typeIDs = ImmutableList.copyOf(typeIDsByIndex);
+		ImmutableMap.Builder<String, Integer> typeBuilder = ImmutableMap.builder();
+		for (int i = 0; i < typeIDs.size(); i++) {
+			typeBuilder.put(typeIDs.get(i), i);
+		}
+		this.typeIDToIndex = typeBuilder.build();
+
+		this.entityClasses = ImmutableList.<Class<?>> copyOf(entityClassesByIndex);
+		this.entityClassToIndex = new IdentityHashMap<Class<?>, Integer>(entityClasses.size());
+		for (int i = 0; i < entityClasses.size(); i++) {
+			if (!entityClassToIndex.containsKey(entityClasses.get(i))) {
+				entityClassToIndex.put(entityClasses.get(i), i);
+			}
+		}
+	}
+
+	public int typeCount() {
+		return typeIDs.size();
+	}
+
+	public int classCount() {
+		return entityClasses.size();
+	}
+
+	/**
+	 * @return Index of the creature type, {@link #UNKNOWN} if the type does not exist
+	 */
+	public int typeIndex(String typeID) {
+		Integer index = typeIDToIndex.get(typeID);
+		if (index == null) {
+			index = typeIDToIndex.get(typeID.toUpperCase(Locale.ENGLISH));
+		}
+		return index != null ? index : UNKNOWN;
+	}
+
+	/**
+	 * @return Index of the entity class, {@link #UNKNOWN} if the class is not mapped
+	 */
+	public int classIndex(Class<?> entityClass) {
+		Integer index = entityClassToIndex.get(entityClass);
+		return index != null ? index : UNKNOWN;
+	}
+
+	public String typeID(int typeIndex) {
+		return typeIDs.get(typeIndex);
+	}
+
+	public Class<?> entityClass(int classIndex) {
+		return entityClasses.get(classIndex);
+	}
+}
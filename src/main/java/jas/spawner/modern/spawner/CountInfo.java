@@ -1,91 +1,262 @@
 package jas.spawner.modern.spawner;
 
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 import net.minecraft.entity.Entity;
-import net.minecraft.util.MathHelper;
 import net.minecraft.world.ChunkCoordIntPair;
 
 public final class CountInfo {
-	private HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning;
-	private EntityCounter globalCreatureTypeCount;
-	private EntityCounter globalCreatureClassCount;
+	// ClodSize could be customizable, but other values in testing didn't seem to work well
+	private static final int CLOD_SIZE = 2;
+
+	private ChunkStatMap eligibleChunksForSpawning;
+	private final CountIndex countIndex;
+	/* Counts indexed by CountIndex typeIndex and classIndex respectively */
+	private final int[] globalCreatureTypeCount;
+	private final int[] globalCreatureClassCount;
+
+	/* Built on the first clod query, once the initial count is complete */
+	private ClodGrid clodGrid;
 
 	private int entitiesSpawnedThisLoop; // Count of entities spawned in each chunk-spawn loop
 	private int entitiesPackSize; // Count of entities spawned of a particular SpawnListEntries
 
 	public static class ChunkStat {
+		private static final int[] NO_COUNTS = new int[0];
+
 		public final boolean isEdge;
-		public final EntityCounter entityClassCount = new EntityCounter();
-		public final EntityCounter entityTypeCount = new EntityCounter();
+		/* Allocated when the first entity is counted, most chunks contain no entities of interest */
+		private int[] entityClassCount = NO_COUNTS;
+		private int[] entityTypeCount = NO_COUNTS;
 
 		public ChunkStat(boolean isEdge) {
 			this.isEdge = isEdge;
 		}
+
+		public int getEntityTypeCount(int typeIndex) {
+			return typeIndex >= 0 && typeIndex < entityTypeCount.length ? entityTypeCount[typeIndex] : 0;
+		}
+
+		public int getEntityClassCount(int classIndex) {
+			return classIndex >= 0 && classIndex < entityClassCount.length ? entityClassCount[classIndex] : 0;
+		}
+
+		public void incrementEntityTypeCount(int typeIndex) {
+			if (typeIndex >= entityTypeCount.length) {
+				entityTypeCount = Arrays.copyOf(entityTypeCount, Math.max(typeIndex + 1, entityTypeCount.length * 2));
+			}
+			entityTypeCount[typeIndex]++;
+		}
+
+		public void incrementEntityClassCount(int classIndex) {
+			if (classIndex >= entityClassCount.length) {
+				entityClassCount = Arrays.copyOf(entityClassCount,
+						Math.max(classIndex + 1, entityClassCount.length * 2));
+			}
+			entityClassCount[classIndex]++;
+		}
+
+		void decrementEntityTypeCount(int typeIndex) {
+			if (typeIndex >= 0 && typeIndex < entityTypeCount.length && entityTypeCount[typeIndex] > 0) {
+				entityTypeCount[typeIndex]--;
+			}
+		}
+
+		void decrementEntityClassCount(int classIndex) {
+			if (classIndex >= 0 && classIndex < entityClassCount.length && entityClassCount[classIndex] > 0) {
+				entityClassCount[classIndex]--;
+			}
+		}
+
+		/**
+		 * Clears the counts, keeping the arrays already allocated for them
+		 */
+		void reset() {
+			Arrays.fill(entityTypeCount, 0);
+			Arrays.fill(entityClassCount, 0);
+		}
+
+		/**
+		 * Adds the counts of another ChunkStat to this one
+		 */
+		void addCounts(ChunkStat counts) {
+			for (int i = 0; i < counts.entityTypeCount.length; i++) {
+				if (counts.entityTypeCount[i] > 0) {
+					if (i >= entityTypeCount.length) {
+						entityTypeCount = Arrays.copyOf(entityTypeCount, counts.entityTypeCount.length);
+					}
+					entityTypeCount[i] += counts.entityTypeCount[i];
+				}
+			}
+			for (int i = 0; i < counts.entityClassCount.length; i++) {
+				if (counts.entityClassCount[i] > 0) {
+					if (i >= entityClassCount.length) {
+						entityClassCount = Arrays.copyOf(entityClassCount, counts.entityClassCount.length);
+					}
+					entityClassCount[i] += counts.entityClassCount[i];
+				}
+			}
+		}
+
+		boolean hasSameCounts(ChunkStat other) {
+			int typeLength = Math.max(entityTypeCount.length, other.entityTypeCount.length);
+			for (int i = 0; i < typeLength; i++) {
+				if (getEntityTypeCount(i) != other.getEntityTypeCount(i)) {
+					return false;
+				}
+			}
+			int classLength = Math.max(entityClassCount.length, other.entityClassCount.length);
+			for (int i = 0; i < classLength; i++) {
+				if (getEntityClassCount(i) != other.getEntityClassCount(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 
-	public CountInfo(HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning,
-			EntityCounter globalCreatureTypeCount, EntityCounter globalCreatureClassCount) {
+	public CountInfo(ChunkStatMap eligibleChunksForSpawning, CountIndex countIndex) {
 		this.eligibleChunksForSpawning = eligibleChunksForSpawning;
-		this.globalCreatureTypeCount = globalCreatureTypeCount;
-		this.globalCreatureClassCount = globalCreatureClassCount;
+		this.countIndex = countIndex;
+		this.globalCreatureTypeCount = new int[countIndex.typeCount()];
+		this.globalCreatureClassCount = new int[countIndex.classCount()];
 	}
 
-	public void countSpawn(Entity creature, String creatureType) {
-		int posX = MathHelper.floor_double(creature.posX / 16.0D);
-		int posZ = MathHelper.floor_double(creature.posZ / 16.0D);
+	public CountIndex countIndex() {
+		return countIndex;
+	}
+
+	/**
+	 * Hands the eligible chunks back to be reset and reused by the next count of the world. Only to be called by the
+	 * owner of the count, once nothing reads it any more.
+	 */
+	public void release() {
+		EligibleChunks.release(eligibleChunksForSpawning);
+	}
+
+	/**
+	 * Count an Entity of the provided type located in the provided chunk. Ignored if the type is UNKNOWN.
+	 */
+	public void countEntityType(long chunkKey, int typeIndex) {
+		if (typeIndex < 0) {
+			return;
+		}
+		int entry = eligibleChunksForSpawning.indexOf(chunkKey);
+		if (entry >= 0) {
+			eligibleChunksForSpawning.valueAt(entry).incrementEntityTypeCount(typeIndex);
+			if (clodGrid != null) {
+				clodGrid.countEntityType(entry, typeIndex);
+			}
+		}
+		globalCreatureTypeCount[typeIndex]++;
+	}
 
-		ChunkCoordIntPair pair = new ChunkCoordIntPair(posX, posZ);
-		ChunkStat chunkStat = eligibleChunksForSpawning.get(pair);
+	/**
+	 * Count an Entity of the provided class located in the provided chunk. Ignored if the class is UNKNOWN.
+	 */
+	public void countEntityClass(long chunkKey, int classIndex) {
+		if (classIndex < 0) {
+			return;
+		}
+		ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkKey);
 		if (chunkStat != null) {
-			chunkStat.entityClassCount.incrementOrPutIfAbsent(creatureType, 1);
-			chunkStat.entityClassCount.incrementOrPutIfAbsent(creature.getClass().getSimpleName(), 1);
+			chunkStat.incrementEntityClassCount(classIndex);
+		}
+		globalCreatureClassCount[classIndex]++;
+	}
+
+	/**
+	 * Adds the counts of a chunk to the global counts, used when counts are gathered per chunk rather than per entity
+	 */
+	void addGlobalCounts(ChunkStat counts) {
+		addGlobalCounts(counts.entityTypeCount, counts.entityClassCount);
+	}
+
+	void addGlobalCounts(int[] typeCounts, int[] classCounts) {
+		for (int i = Math.min(typeCounts.length, globalCreatureTypeCount.length) - 1; i >= 0; i--) {
+			globalCreatureTypeCount[i] += typeCounts[i];
+		}
+		for (int i = Math.min(classCounts.length, globalCreatureClassCount.length) - 1; i >= 0; i--) {
+			globalCreatureClassCount[i] += classCounts[i];
 		}
-		globalCreatureTypeCount.incrementOrPutIfAbsent(creatureType, 1);
-		globalCreatureClassCount.incrementOrPutIfAbsent(creature.getClass().getSimpleName(), 1);
+	}
+
+	public void countSpawn(Entity creature, String creatureType) {
+		countSpawn(creature, countIndex.typeIndex(creatureType));
+	}
+
+	public void countSpawn(Entity creature, int typeIndex) {
+		long chunkKey = ChunkKey.ofEntity(creature);
+		countEntityType(chunkKey, typeIndex);
+		countEntityClass(chunkKey, countIndex.classIndex(creature.getClass()));
 		++entitiesSpawnedThisLoop;
 		++entitiesPackSize;
 	}
 
 	public ChunkStat getChunkStat(ChunkCoordIntPair location) {
-		return eligibleChunksForSpawning.get(location);
+		return eligibleChunksForSpawning.get(ChunkKey.of(location));
+	}
+
+	public ChunkStat getChunkStat(long chunkKey) {
+		return eligibleChunksForSpawning.get(chunkKey);
+	}
+
+	/**
+	 * Eligible chunks keyed by packed chunk coordinates, see {@link ChunkKey}
+	 */
+	public ChunkStatMap eligibleChunks() {
+		return eligibleChunksForSpawning;
+	}
+
+	public int eligibleChunkCount() {
+		return eligibleChunksForSpawning.size();
 	}
 
+	/**
+	 * Creates a new Set of eligible chunk locations. Prefer {@link #eligibleChunks()} on performance sensitive paths.
+	 */
 	public Set<ChunkCoordIntPair> eligibleChunkLocations() {
-		return eligibleChunksForSpawning.keySet();
+		Set<ChunkCoordIntPair> locations = new HashSet<ChunkCoordIntPair>(eligibleChunksForSpawning.size());
+		for (int i = 0; i < eligibleChunksForSpawning.size(); i++) {
+			locations.add(ChunkKey.toChunkCoord(eligibleChunksForSpawning.keyAt(i)));
+		}
+		return locations;
 	}
 
 	public int getLocalEntityTypeCount(ChunkCoordIntPair location, String entityType) {
-		entityType = entityType.toUpperCase(Locale.ENGLISH);
-		return eligibleChunksForSpawning.get(location).entityTypeCount.getOrPutIfAbsent(entityType, 0).get();
+		return getLocalEntityTypeCount(ChunkKey.of(location), countIndex.typeIndex(entityType));
+	}
+
+	public int getLocalEntityTypeCount(long chunkKey, int typeIndex) {
+		ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkKey);
+		return chunkStat != null ? chunkStat.getEntityTypeCount(typeIndex) : 0;
 	}
 
 	public int getLocalEntityClassCount(ChunkCoordIntPair location, Class<?> entityClass) {
-		return eligibleChunksForSpawning.get(location).entityClassCount
-				.getOrPutIfAbsent(entityClass.getSimpleName(), 0).get();
+		return getLocalEntityClassCount(ChunkKey.of(location), countIndex.classIndex(entityClass));
+	}
+
+	public int getLocalEntityClassCount(long chunkKey, int classIndex) {
+		ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkKey);
+		return chunkStat != null ? chunkStat.getEntityClassCount(classIndex) : 0;
 	}
 
 	public int getGlobalEntityTypeCount(String entityType) {
-		entityType = entityType.toUpperCase(Locale.ENGLISH);
-		return globalCreatureTypeCount.getOrPutIfAbsent(entityType, 0).get();
+		return getGlobalEntityTypeCount(countIndex.typeIndex(entityType));
 	}
 
-	public Set<String> getGlobalEntityTypeCountKeysSet() {
-		return globalCreatureTypeCount.keySet();
+	public int getGlobalEntityTypeCount(int typeIndex) {
+		return typeIndex >= 0 ? globalCreatureTypeCount[typeIndex] : 0;
 	}
 
 	public int getGlobalEntityClassCount(Class<?> entityClass) {
-		return globalCreatureClassCount.getOrPutIfAbsent(entityClass.getSimpleName(), 0).get();
-	}
-	
-	public int getGlobalEntityClassCount(String entityClassSimpleName) {
-		return globalCreatureClassCount.getOrPutIfAbsent(entityClassSimpleName, 0).get();
+		return getGlobalEntityClassCount(countIndex.classIndex(entityClass));
 	}
 
-	public Set<String> getGlobalEntityClassCountKeysSet() {
-		return globalCreatureClassCount.keySet();
+	public int getGlobalEntityClassCount(int classIndex) {
+		return classIndex >= 0 ? globalCreatureClassCount[classIndex] : 0;
 	}
 
 	public int getEntitiesSpawnedThisLoop() {
@@ -108,20 +279,39 @@ public final class CountInfo {
 	 * Counts Entities off
 	 */
 	public int getClodEntityCount(ChunkCoordIntPair chunkCoord, String creatureTypeID) {
-		// ClodSize could be customizable, but other values in testing didn't seem to work well
-		final int clodSize = 2;
+		return getClodEntityCount(ChunkKey.of(chunkCoord), countIndex.typeIndex(creatureTypeID));
+	}
+
+	public int getClodEntityCount(long chunkKey, String creatureTypeID) {
+		return getClodEntityCount(chunkKey, countIndex.typeIndex(creatureTypeID));
+	}
+
+	public int getClodEntityCount(long chunkKey, int typeIndex) {
+		if (clodGrid == null) {
+			clodGrid = new ClodGrid(eligibleChunksForSpawning, CLOD_SIZE, countIndex.typeCount());
+		}
+		int clodCount = clodGrid.getClodEntityCount(chunkKey, typeIndex);
+		return clodCount >= 0 ? clodCount : countClod(chunkKey, typeIndex);
+	}
+
+	/**
+	 * Walks the neighbourhood of a chunk that is not itself eligible, which the ClodGrid does not cover
+	 */
+	private int countClod(long chunkKey, int typeIndex) {
+		final int clodSize = CLOD_SIZE;
+		final int chunkX = ChunkKey.chunkX(chunkKey);
+		final int chunkZ = ChunkKey.chunkZ(chunkKey);
 		int entityTotal = 0;
 		int chunksActiallyCounted = 0;
 		for (int i = -clodSize; i <= clodSize; i++) {
 			for (int k = -clodSize; k <= clodSize; k++) {
-				ChunkCoordIntPair coord = new ChunkCoordIntPair(chunkCoord.chunkXPos + i, chunkCoord.chunkZPos + k);
-				ChunkStat chunkStat = eligibleChunksForSpawning.get(coord);
+				ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkX + i, chunkZ + k);
 				if (chunkStat != null) {
-					entityTotal += chunkStat.entityTypeCount.getOrPutIfAbsent(creatureTypeID, 0).get();
+					entityTotal += chunkStat.getEntityTypeCount(typeIndex);
 					chunksActiallyCounted++;
 				}
 			}
 		}
 		return (int) ((entityTotal) * (2f * clodSize + 1) * (2f * clodSize + 1) / chunksActiallyCounted);
 	}
-}
\ No newline at end of file
+}
@@ -3,17 +3,17 @@ package jas.spawner.modern.spawner;
 import jas.common.JASLog;
 import jas.common.global.BiomeBlacklist;
 import jas.spawner.modern.MVELProfile;
-import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+import jas.spawner.modern.spawner.CandidateEvaluator.Batch;
+import jas.spawner.modern.spawner.ChunkStatMap.KeyPermutation;
 import jas.spawner.modern.spawner.Counter.SpawnCounter;
-import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.modern.spawner.creature.entry.BiomeSpawnListRegistry;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
+import jas.spawner.modern.spawner.creature.entry.SpawnTables;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 import jas.spawner.modern.spawner.creature.type.CreatureType;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -21,7 +21,6 @@ import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.IEntityLivingData;
 import net.minecraft.util.ChunkCoordinates;
-import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.ChunkPosition;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
@@ -34,6 +33,9 @@ import cpw.mods.fml.common.eventhandler.Event.Result;
 
 public class CustomSpawner {
 	public static SpawnCounter spawnCounter = new SpawnCounter();
+	/* Deadline passed to spawnCreaturesInChunks to run a cycle to completion */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+	public static CandidateEvaluator candidateEvaluator = new CandidateEvaluator();
 
 	/**
 	 * Performs Actual Creature Spawning inside eligibleChunks. {@link determineChunksForSpawnering} needs to be run to
@@ -44,172 +46,241 @@ public class CustomSpawner {
 	 */
 	public static final void spawnCreaturesInChunks(WorldServer worldServer,
 			LivingHandlerRegistry livingHandlerRegistry, BiomeSpawnListRegistry biomeSpawnListRegistry,
-			CreatureType creatureType, BiomeBlacklist blacklist, CountInfo countInfo) {		
-		final int entityTypeCap = creatureType.maxNumberOfCreature * countInfo.eligibleChunkLocations().size() / 256;
-		int globalEntityTypeCount = countInfo.getGlobalEntityTypeCount(creatureType.typeID);
+			CreatureType creatureType, BiomeBlacklist blacklist, CountInfo countInfo) {
+		spawnCreaturesInChunks(worldServer, livingHandlerRegistry, biomeSpawnListRegistry,
+				biomeSpawnListRegistry.spawnTables(), creatureType, blacklist, countInfo, countInfo.eligibleChunks()
+						.randomOrder(worldServer.rand), NO_DEADLINE);
+	}
+
+	/**
+	 * Resumable form of {@link #spawnCreaturesInChunks}. Chunks are taken from chunkCursor until it is exhausted or
+	 * System.nanoTime() passes the deadline; at least one chunk is visited per call so a cycle always progresses. The
+	 * creature type cap is checked again on every call.
+	 * 
+	 * @param spawnTables
+	 *            Spawn tables of the cycle, the same tables should be passed on every call of a cycle
+	 * @param chunkCursor
+	 *            Random order of countInfo.eligibleChunks(), left at the next chunk to visit when paused
+	 * @param deadline
+	 *            System.nanoTime() at which to pause, {@link #NO_DEADLINE} to run to completion
+	 * @return False if paused by the deadline with chunks remaining, true once the cycle is complete
+	 */
+	public static final boolean spawnCreaturesInChunks(WorldServer worldServer,
+			LivingHandlerRegistry livingHandlerRegistry, BiomeSpawnListRegistry biomeSpawnListRegistry,
+			SpawnTables spawnTables, CreatureType creatureType, BiomeBlacklist blacklist, CountInfo countInfo,
+			KeyPermutation chunkCursor, long deadline) {
+		final int entityTypeCap = creatureType.maxNumberOfCreature * countInfo.eligibleChunkCount() / 256;
+		int globalEntityTypeCount = countInfo.getGlobalEntityTypeCount(creatureType.typeIndex);
 		if (globalEntityTypeCount > entityTypeCap) {
-			return;
+			return true;
 		}
 		ChunkCoordinates serverOriginPoint = worldServer.getSpawnPoint();
-		List<ChunkCoordIntPair> eligibleChunksForSpawning = new ArrayList<ChunkCoordIntPair>(
-				countInfo.eligibleChunkLocations());
-		Collections.shuffle(eligibleChunksForSpawning);
-		labelChunkStart: for (ChunkCoordIntPair chunkCoord : eligibleChunksForSpawning) {
-			ChunkStat chunkStat = countInfo.getChunkStat(chunkCoord);
-			if (chunkStat.isEdge) {
+		BlockView blocks = BlockView.of(worldServer);
+		/* Rebound for every expression evaluated by the cycle */
+		Tags tags = new Tags(worldServer, countInfo, 0, 0, 0);
+		blocks.beginCycle();
+		try {
+			boolean isPrefetching = candidateEvaluator.hasWorkers();
+			Batch pending = candidateEvaluator.nextBatch(worldServer, creatureType, blacklist, countInfo, chunkCursor);
+			while (pending != null) {
+				Batch batch = pending;
+				pending = null;
+				if (isPrefetching && canContinue(chunkCursor, deadline)) {
+					/* Evaluated by the workers while this batch is spawned */
+					pending = candidateEvaluator.nextBatch(worldServer, creatureType, blacklist, countInfo,
+							chunkCursor);
+				}
+				for (SpawnCandidates candidates : batch.await()) {
+					if (!spawnInChunk(worldServer, livingHandlerRegistry, biomeSpawnListRegistry, spawnTables,
+							creatureType, blacklist, countInfo, serverOriginPoint, candidates, tags)) {
+						return true;
+					}
+				}
+				if (!isPrefetching && canContinue(chunkCursor, deadline)) {
+					/* Drawn only once the previous chunk is spawned, no draws are wasted when a cap ends the cycle */
+					pending = candidateEvaluator.nextBatch(worldServer, creatureType, blacklist, countInfo,
+							chunkCursor);
+				}
+			}
+			return !chunkCursor.hasNext();
+		} finally {
+			blocks.endCycle();
+		}
+	}
+
+	private static boolean canContinue(KeyPermutation chunkCursor, long deadline) {
+		return chunkCursor.hasNext() && (deadline == NO_DEADLINE || System.nanoTime() - deadline < 0);
+	}
+
+	/**
+	 * Spawns a pack at up to each start point of the chunk's candidates, in the order they were drawn
+	 * 
+	 * @return False if spawning should stop for the rest of the cycle
+	 */
+	private static boolean spawnInChunk(WorldServer worldServer, LivingHandlerRegistry livingHandlerRegistry,
+			BiomeSpawnListRegistry biomeSpawnListRegistry, SpawnTables spawnTables, CreatureType creatureType,
+			BiomeBlacklist blacklist, CountInfo countInfo, ChunkCoordinates serverOriginPoint,
+			SpawnCandidates candidates, Tags tags) {
+		countInfo.resetEntitiesSpawnedThisLoop();
+		for (int numLocAttempts = 0; numLocAttempts < candidates.startCount(); ++numLocAttempts) {
+			IEntityLivingData entitylivingdata = null;
+			int startIndex = candidates.startIndex(numLocAttempts);
+
+			SpawnListEntry spawnlistentry = null;
+			Class<? extends EntityLiving> livingToSpawn = null;
+			LivingHandler handler = null;
+			countInfo.resetEntitiesPackCount();
+			if (!canSpawnAtCandidate(worldServer, countInfo, creatureType, blacklist, candidates, startIndex, tags)) {
 				continue;
 			}
-			countInfo.resetEntitiesSpawnedThisLoop();
-			for (int numLocAttempts = 0; numLocAttempts < creatureType.iterationsPerChunk; ++numLocAttempts) {
-				IEntityLivingData entitylivingdata = null;
-				ChunkPosition startSpawningPoint = creatureType.getRandomSpawningPointInChunk(worldServer,
-						chunkCoord.chunkXPos, chunkCoord.chunkZPos);
-				
-				SpawnListEntry spawnlistentry = null;
-				Class<? extends EntityLiving> livingToSpawn = null;
-				LivingHandler handler = null;
-				countInfo.resetEntitiesPackCount();
-				if (!creatureType.canSpawnHere(worldServer, countInfo, startSpawningPoint)) {
+			// Randomized on Each Attempt, but horizontally to allow a 'Pack' to spawn near each other
+			for (int candidate = startIndex + 1; candidate <= startIndex + candidates.packSize(); ++candidate) {
+				// Biome BlackList
+				if (candidates.state(candidate, worldServer, creatureType, blacklist, candidateEvaluator) == SpawnCandidates.BLACKLISTED) {
+					break;
+				}
+				ChunkPosition spawningPoint = candidates.position(candidate);
+
+				if (isNearPlayerOrOrigin(worldServer, serverOriginPoint, spawningPoint.chunkPosX,
+						spawningPoint.chunkPosY, spawningPoint.chunkPosZ)) {
 					continue;
 				}
-				for (int numEntAttempts = 0; numEntAttempts < creatureType.iterationsPerPack; ++numEntAttempts) {
-					// Randomized on Each Attempt, but horizontally to allow a 'Pack' to spawn near each other
-					final int horVar = 10;
-					final int verVar = 3;
-					ChunkPosition spawningPoint = new ChunkPosition(
-						startSpawningPoint.chunkPosX + worldServer.rand.nextInt(horVar) - worldServer.rand.nextInt(horVar),
-						startSpawningPoint.chunkPosY + worldServer.rand.nextInt(verVar) - worldServer.rand.nextInt(verVar),
-						startSpawningPoint.chunkPosZ + worldServer.rand.nextInt(horVar) - worldServer.rand.nextInt(horVar));
-					// Biome BlackList
-					if (blacklist.isBlacklisted(worldServer.getBiomeGenForCoords(spawningPoint.chunkPosX,
-							spawningPoint.chunkPosY))) {
-						break;
-					}
 
-					if (isNearPlayerOrOrigin(worldServer, serverOriginPoint, spawningPoint.chunkPosX,
-							spawningPoint.chunkPosY, spawningPoint.chunkPosZ)) {
-						continue;
-					}
-					
-                    if (!creatureType.canSpawnHere(worldServer, countInfo, spawningPoint)) {
-                        continue;
-                    }
+				if (!canSpawnAtCandidate(worldServer, countInfo, creatureType, blacklist, candidates, candidate, tags)) {
+					continue;
+				}
 
-					// Set SpawnList Specific attributes, set only for outer loop (when SpawnListEntry == null), is done
-					// in inner loop after creatureType.canSpawnHere for performance reasons
-					// (regsitry.getSpawnListEntryToSpawn is not cheap)
+				// Set SpawnList Specific attributes, set only for outer loop (when SpawnListEntry == null), is done
+				// in inner loop after creatureType.canSpawnHere for performance reasons
+				// (regsitry.getSpawnListEntryToSpawn is not cheap)
+				if (spawnlistentry == null) {
+					spawnlistentry = biomeSpawnListRegistry.getSpawnListEntryToSpawn(spawnTables, worldServer,
+							creatureType, spawningPoint.chunkPosX, spawningPoint.chunkPosY, spawningPoint.chunkPosZ);
 					if (spawnlistentry == null) {
-						spawnlistentry = biomeSpawnListRegistry.getSpawnListEntryToSpawn(worldServer, creatureType,
-								spawningPoint.chunkPosX, spawningPoint.chunkPosY,
-								spawningPoint.chunkPosZ);
-						if (spawnlistentry == null) {
-							break;
-						}
-						Tags tags = new Tags(worldServer, countInfo, spawningPoint.chunkPosX,
-								spawningPoint.chunkPosY, spawningPoint.chunkPosZ);
-						livingToSpawn = livingHandlerRegistry.getRandomEntity(spawnlistentry.livingGroupID,
-								worldServer.rand, tags);
-						if (livingToSpawn == null) {
-							break;
-						}
-						handler = livingHandlerRegistry.getLivingHandler(spawnlistentry.livingGroupID);
+						break;
 					}
+					tags.reset(worldServer, countInfo, spawningPoint.chunkPosX, spawningPoint.chunkPosY,
+							spawningPoint.chunkPosZ);
+					livingToSpawn = livingHandlerRegistry.getRandomEntity(spawnlistentry.livingGroupID,
+							worldServer.rand, tags);
+					if (livingToSpawn == null) {
+						break;
+					}
+					handler = livingHandlerRegistry.getLivingHandler(spawnlistentry.livingGroupID);
+				}
 
-					// LivingCap
-					{
-						int globalEntityClassCount = countInfo.getGlobalEntityClassCount(livingToSpawn);
-						int livingCap = handler.getLivingCap();
+				// LivingCap
+				{
+					int globalEntityClassCount = countInfo.getGlobalEntityClassCount(livingToSpawn);
+					int livingCap = handler.getLivingCap();
 
-						if (livingCap > 0 && globalEntityClassCount >= livingCap) {
-							spawnlistentry = null;
-							break;
-						}
+					if (livingCap > 0 && globalEntityClassCount >= livingCap) {
+						spawnlistentry = null;
+						break;
 					}
+				}
 
 
-					
-					/* Spawn is Centered Version of blockSpawn such that entity is not placed in Corner */
-					float spawnX = spawningPoint.chunkPosX + 0.5F;
-					float spawnY = spawningPoint.chunkPosY;
-					float spawnZ = spawningPoint.chunkPosZ + 0.5F;
-					EntityLiving entityliving;
-					try {
-						entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-								new Object[] { worldServer });
-					} catch (Exception exception) {
-						exception.printStackTrace();
-						return;
+				
+				/* Spawn is Centered Version of blockSpawn such that entity is not placed in Corner */
+				float spawnX = spawningPoint.chunkPosX + 0.5F;
+				float spawnY = spawningPoint.chunkPosY;
+				float spawnZ = spawningPoint.chunkPosZ + 0.5F;
+				EntityLiving entityliving = EntityFactory.construct(livingToSpawn, worldServer);
+				if (entityliving == null) {
+					return false;
+				}
+				entityliving.setLocationAndAngles(spawnX, spawnY, spawnZ, worldServer.rand.nextFloat() * 360.0F,
+						0.0F);
+				
+				if (spawnlistentry.getLivingHandler().getCanSpawnHere(entityliving, spawnlistentry, countInfo)) {
+					worldServer.spawnEntityInWorld(entityliving);
+					if (!ForgeEventFactory.doSpecialSpawn(entityliving, worldServer, spawnX, spawnY, spawnZ)) {
+						entitylivingdata = entityliving.onSpawnWithEgg(entitylivingdata);
 					}
-					entityliving.setLocationAndAngles(spawnX, spawnY, spawnZ, worldServer.rand.nextFloat() * 360.0F,
-							0.0F);
+					/* Entities may alter blocks as they are added to the world */
+					BlockView.of(worldServer).invalidate();
 					
-					if (spawnlistentry.getLivingHandler().getCanSpawnHere(entityliving, spawnlistentry, countInfo)) {
-						worldServer.spawnEntityInWorld(entityliving);
-						if (!ForgeEventFactory.doSpecialSpawn(entityliving, worldServer, spawnX, spawnY, spawnZ)) {
-							entitylivingdata = entityliving.onSpawnWithEgg(entitylivingdata);
-						}
-						
-						if(JASLog.log().isLogNearbyBlocksEnabled()) {
-							int[] horRange = {0, 1, -1}; // Order determines log order
-							int[] verRange = {0, 1, -1}; // Order determines log order
-							int totalBlocksCounted = (horRange.length*2+1) * (verRange.length*2+1);
-							ArrayList<Integer> nearbyX = new ArrayList<Integer>(totalBlocksCounted);
-							ArrayList<Integer> nearbyY = new ArrayList<Integer>(totalBlocksCounted);
-							ArrayList<Integer> nearbyZ = new ArrayList<Integer>(totalBlocksCounted);
-							ArrayList<String> nearbyNames = new ArrayList<String>(totalBlocksCounted);
+					if(JASLog.log().isLogNearbyBlocksEnabled()) {
+						int[] horRange = {0, 1, -1}; // Order determines log order
+						int[] verRange = {0, 1, -1}; // Order determines log order
+						int totalBlocksCounted = (horRange.length*2+1) * (verRange.length*2+1);
+						ArrayList<Integer> nearbyX = new ArrayList<Integer>(totalBlocksCounted);
+						ArrayList<Integer> nearbyY = new ArrayList<Integer>(totalBlocksCounted);
+						ArrayList<Integer> nearbyZ = new ArrayList<Integer>(totalBlocksCounted);
+						ArrayList<String> nearbyNames = new ArrayList<String>(totalBlocksCounted);
 
-                            for (Integer x : horRange) {
-                                for (Integer z : horRange) {
-                                    for (Integer y : verRange) {
-                                        nearbyNames.add(entityliving.worldObj
-                                                .getBlock((int) spawnX + x, (int) spawnY + y, (int) spawnZ + z)
-                                                .getLocalizedName());
-                                        nearbyX.add(x);
-                                        nearbyY.add(y);
-                                        nearbyZ.add(z);
-                                    }
+                        for (Integer x : horRange) {
+                            for (Integer z : horRange) {
+                                for (Integer y : verRange) {
+                                    nearbyNames.add(entityliving.worldObj
+                                            .getBlock((int) spawnX + x, (int) spawnY + y, (int) spawnZ + z)
+                                            .getLocalizedName());
+                                    nearbyX.add(x);
+                                    nearbyY.add(y);
+                                    nearbyZ.add(z);
                                 }
                             }
-							
-							JASLog.log().logSpawn(
-									false,
-									(String) EntityList.classToStringMapping.get(entityliving.getClass()),
-									spawnlistentry.getLivingHandler().creatureTypeID,
-									(int) entityliving.posX,
-									(int) entityliving.posY,
-									(int) entityliving.posZ,
-									BiomeHelper.getPackageName(entityliving.worldObj.getBiomeGenForCoords(
-											(int) entityliving.posX, (int) entityliving.posZ)), nearbyX, nearbyY, nearbyZ, nearbyNames);
+                        }
+						
+						JASLog.log().logSpawn(
+								false,
+								(String) EntityList.classToStringMapping.get(entityliving.getClass()),
+								spawnlistentry.getLivingHandler().creatureTypeID,
+								(int) entityliving.posX,
+								(int) entityliving.posY,
+								(int) entityliving.posZ,
+								MVELProfile.worldSettings().biomeGroupRegistry().pckgNameOf(
+										entityliving.worldObj.getBiomeGenForCoords((int) entityliving.posX, (int) entityliving.posZ)), nearbyX, nearbyY, nearbyZ, nearbyNames);
 
-						} else {
-							JASLog.log().logSpawn(
-									false,
-									(String) EntityList.classToStringMapping.get(entityliving.getClass()),
-									spawnlistentry.getLivingHandler().creatureTypeID,
-									(int) entityliving.posX,
-									(int) entityliving.posY,
-									(int) entityliving.posZ,
-									BiomeHelper.getPackageName(entityliving.worldObj.getBiomeGenForCoords(
-											(int) entityliving.posX, (int) entityliving.posZ)));
+					} else {
+						JASLog.log().logSpawn(
+								false,
+								(String) EntityList.classToStringMapping.get(entityliving.getClass()),
+								spawnlistentry.getLivingHandler().creatureTypeID,
+								(int) entityliving.posX,
+								(int) entityliving.posY,
+								(int) entityliving.posZ,
+								MVELProfile.worldSettings().biomeGroupRegistry().pckgNameOf(
+										entityliving.worldObj.getBiomeGenForCoords((int) entityliving.posX, (int) entityliving.posZ)));
 
-						}
-						
-						spawnlistentry.getLivingHandler().postSpawnEntity(entityliving, spawnlistentry, countInfo);
-						countInfo.countSpawn(entityliving, creatureType.typeID);
-						
-						// Living PackSize
-						if (countInfo.getEntitiesSpawnedThisLoop() >= spawnlistentry.packSize) {
-							continue labelChunkStart;
-						}
+					}
+					
+					spawnlistentry.getLivingHandler().postSpawnEntity(entityliving, spawnlistentry, countInfo);
+					countInfo.countSpawn(entityliving, creatureType.typeIndex);
+					
+					// Living PackSize
+					if (countInfo.getEntitiesSpawnedThisLoop() >= spawnlistentry.packSize) {
+						return true;
 					}
 				}
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Equivalent of CreatureType.canSpawnHere using the candidate's evaluated location checks
+	 */
+	private static boolean canSpawnAtCandidate(World world, CountInfo countInfo, CreatureType creatureType,
+			BiomeBlacklist blacklist, SpawnCandidates candidates, int candidate, Tags tags) {
+		int xCoord = candidates.x(candidate);
+		int yCoord = candidates.y(candidate);
+		int zCoord = candidates.z(candidate);
+		if (!creatureType.isWithinCaps(world, countInfo, xCoord, zCoord)) {
+			return false;
+		}
+		if (candidates.state(candidate, world, creatureType, blacklist, candidateEvaluator) != SpawnCandidates.VALID) {
+			return false;
+		}
+		return !creatureType.hasSpawnExpression()
+				|| creatureType.canSpawnAtLocation(world, tags.reset(world, countInfo, xCoord, yCoord, zCoord), xCoord,
+						yCoord, zCoord);
 	}
 
 	private static boolean isNearPlayerOrOrigin(World world, ChunkCoordinates serverSpawnPoint, int originX,
 			int originY, int originZ) {
-		if (world.getClosestPlayer(originX, originY, originZ, 24.0D) == null) {
+		if (!PlayerIndex.of(world).isPlayerWithin(originX, originY, originZ, 24.0D)) {
 			float xOffset = originX - serverSpawnPoint.posX;
 			float yOffset = originY - serverSpawnPoint.posY;
 			float zOffset = originZ - serverSpawnPoint.posZ;
@@ -249,9 +320,10 @@ public class CustomSpawner {
 			int i1 = spawnListEntry.minChunkPack
 					+ random.nextInt(1 + spawnListEntry.maxChunkPack - spawnListEntry.minChunkPack);
 			CountInfo countInfo = CustomSpawner.spawnCounter.countEntities(world);
+			Tags tags = new Tags(world, countInfo, j1, topHeight, k1);
 			for (int j2 = 0; j2 < i1; ++j2) {
 				boolean flag = false;
-				Tags tags = new Tags(world, countInfo, j1, topHeight, k1);
+				tags.reset(world, countInfo, j1, topHeight, k1);
 				Class<? extends EntityLiving> livingToSpawn = livingHandlerRegistry.getRandomEntity(
 						spawnListEntry.livingGroupID, world.rand, tags);
 				if (livingToSpawn == null) {
@@ -260,17 +332,12 @@ public class CustomSpawner {
 				}
 				for (int k2 = 0; !flag && k2 < 4; ++k2) {
 					int l2 = world.getTopSolidOrLiquidBlock(j1, k1);
-					if (creatureType.canSpawnAtLocation(world, new Tags(world, countInfo, j1, l2, k1), j1, l2, k1)) {
+					if (creatureType.canSpawnAtLocation(world, tags.reset(world, countInfo, j1, l2, k1), j1, l2, k1)) {
 						float f = j1 + 0.5F;
 						float f1 = l2;
 						float f2 = k1 + 0.5F;
-						EntityLiving entityliving;
-
-						try {
-							entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-									new Object[] { world });
-						} catch (Exception exception) {
-							exception.printStackTrace();
+						EntityLiving entityliving = EntityFactory.construct(livingToSpawn, world);
+						if (entityliving == null) {
 							continue;
 						}
 						entityliving.setLocationAndAngles(f, f1, f2, random.nextFloat() * 360.0F, 0.0F);
@@ -282,14 +349,14 @@ public class CustomSpawner {
 									(int) entityliving.posX,
 									(int) entityliving.posY,
 									(int) entityliving.posZ,
-									BiomeHelper.getPackageName(entityliving.worldObj.getBiomeGenForCoords(
-											(int) entityliving.posX, (int) entityliving.posZ)));
+									MVELProfile.worldSettings().biomeGroupRegistry().pckgNameOf(
+											entityliving.worldObj.getBiomeGenForCoords((int) entityliving.posX, (int) entityliving.posZ)));
 							world.spawnEntityInWorld(entityliving);
 							if (!ForgeEventFactory.doSpecialSpawn(entityliving, world, f, f1, f2)) {
 								entitylivingdata = entityliving.onSpawnWithEgg(entitylivingdata);
 							}
 							spawnListEntry.getLivingHandler().postSpawnEntity(entityliving, spawnListEntry, countInfo);
-							countInfo.countSpawn(entityliving, creatureType.typeID);
+							countInfo.countSpawn(entityliving, creatureType.typeIndex);
 							flag = true;
 						}
 					} else {
@@ -0,0 +1,210 @@
+package jas.spawner.modern.spawner;
+
+import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+
+/**
+ * Chunks within chunkDistance of any player in a world, cached across ticks and only recomputed when a player crosses
+ * a chunk boundary, joins or leaves.
+ *
+ * The union of the player squares and their edge flags are computed on bitmaps, one per group of overlapping squares.
+ * A chunk is an edge chunk only if it is on the edge of every square that contains it, matching vanilla where the
+ * interior of one player's square is never marked as an edge by a neighbouring player.
+ */
+public final class EligibleChunks {
+	private static final Map<World, List<EligibleChunks>> trackers = new WeakHashMap<World, List<EligibleChunks>>();
+
+	private final int chunkDistance;
+	/* Player chunk positions the layout was built from */
+	private int playerCount = -1;
+	private int[] playerChunkX = new int[0];
+	private int[] playerChunkZ = new int[0];
+	/* Eligible chunks mapped to ChunkStats carrying only the edge flag; never handed out, see chunksForSpawning */
+	private ChunkStatMap layout = new ChunkStatMap();
+	/* Map of a released count, reset and handed out again while the layout is unchanged */
+	private ChunkStatMap spare;
+	private int rebuildCount;
+
+	/**
+	 * @return Eligible chunk tracker for the world and distance, updated to the current player positions
+	 */
+	public static EligibleChunks of(World world, int chunkDistance) {
+		List<EligibleChunks> worldTrackers = trackers.get(world);
+		if (worldTrackers == null) {
+			worldTrackers = new ArrayList<EligibleChunks>(2);
+			trackers.put(world, worldTrackers);
+		}
+		EligibleChunks eligibleChunks = null;
+		for (EligibleChunks tracker : worldTrackers) {
+			if (tracker.chunkDistance == chunkDistance) {
+				eligibleChunks = tracker;
+				break;
+			}
+		}
+		if (eligibleChunks == null) {
+			eligibleChunks = new EligibleChunks(chunkDistance);
+			worldTrackers.add(eligibleChunks);
+		}
+		eligibleChunks.update(world);
+		return eligibleChunks;
+	}
+
+	private EligibleChunks(int chunkDistance) {
+		this.chunkDistance = Math.max(chunkDistance, 0);
+	}
+
+	/**
+	 * @return Map of the eligible chunks with empty ChunkStats, ready to be counted into. The map of a released count
+	 *         is reset and reused if the eligible chunks have not changed since, otherwise the layout is copied.
+	 */
+	public ChunkStatMap chunksForSpawning() {
+		ChunkStatMap chunks = spare;
+		spare = null;
+		if (chunks != null && chunks.sourceLayout == layout) {
+			chunks.resetCounts();
+			return chunks;
+		}
+		chunks = layout.withNewChunkStats();
+		chunks.source = this;
+		chunks.sourceLayout = layout;
+		return chunks;
+	}
+
+	/**
+	 * Keeps a map handed out by {@link #chunksForSpawning()} for reuse, once nothing reads it any more
+	 */
+	static void release(ChunkStatMap chunks) {
+		if (chunks.source != null && chunks.sourceLayout == chunks.source.layout) {
+			chunks.source.spare = chunks;
+		}
+	}
+
+	public int size() {
+		return layout.size();
+	}
+
+	/**
+	 * @return Number of times the eligible chunks have been recomputed
+	 */
+	public int rebuildCount() {
+		return rebuildCount;
+	}
+
+	private void update(World world) {
+		int size = world.playerEntities.size();
+		boolean isChanged = size != playerCount;
+		if (isChanged) {
+			playerChunkX = new int[size];
+			playerChunkZ = new int[size];
+			playerCount = size;
+		}
+		for (int i = 0; i < size; i++) {
+			EntityPlayer player = (EntityPlayer) world.playerEntities.get(i);
+			int chunkX = MathHelper.floor_double(player.posX / 16.0D);
+			int chunkZ = MathHelper.floor_double(player.posZ / 16.0D);
+			if (isChanged || playerChunkX[i] != chunkX || playerChunkZ[i] != chunkZ) {
+				playerChunkX[i] = chunkX;
+				playerChunkZ[i] = chunkZ;
+				isChanged = true;
+			}
+		}
+		if (isChanged) {
+			rebuild();
+		}
+	}
+
+	private void rebuild() {
+		rebuildCount++;
+		int side = 2 * chunkDistance + 1;
+		ChunkStatMap eligible = new ChunkStatMap(Math.min(side * side * playerCount, 1 << 16));
+		for (int[] bounds : groupBounds()) {
+			int minX = bounds[0], minZ = bounds[1], width = bounds[2] - minX + 1, depth = bounds[3] - minZ + 1;
+			long[] covered = new long[(width * depth + 63) >>> 6];
+			long[] interior = new long[covered.length];
+			for (int i = 0; i < playerCount; i++) {
+				int localX = playerChunkX[i] - minX;
+				int localZ = playerChunkZ[i] - minZ;
+				if (localX < 0 || localX >= width || localZ < 0 || localZ >= depth) {
+					continue;
+				}
+				for (int z = localZ - chunkDistance; z <= localZ + chunkDistance; z++) {
+					int row = z * width;
+					setRange(covered, row + localX - chunkDistance, row + localX + chunkDistance);
+					if (z > localZ - chunkDistance && z < localZ + chunkDistance && chunkDistance > 0) {
+						setRange(interior, row + localX - chunkDistance + 1, row + localX + chunkDistance - 1);
+					}
+				}
+			}
+			for (int z = 0; z < depth; z++) {
+				for (int x = 0; x < width; x++) {
+					int bit = z * width + x;
+					if (isSet(covered, bit)) {
+						eligible.put(ChunkKey.of(minX + x, minZ + z), new ChunkStat(!isSet(interior, bit)));
+					}
+				}
+			}
+		}
+		layout = eligible;
+	}
+
+	/**
+	 * Bounds {minX, minZ, maxX, maxZ} of each group of overlapping player squares. Separate groups are kept apart so
+	 * players far from each other do not produce one large mostly empty bitmap.
+	 */
+	private List<int[]> groupBounds() {
+		List<int[]> bounds = new ArrayList<int[]>();
+		for (int i = 0; i < playerCount; i++) {
+			bounds.add(new int[] { playerChunkX[i] - chunkDistance, playerChunkZ[i] - chunkDistance,
+					playerChunkX[i] + chunkDistance, playerChunkZ[i] + chunkDistance });
+		}
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int i = 0; i < bounds.size() && !merged; i++) {
+				for (int j = i + 1; j < bounds.size(); j++) {
+					int[] a = bounds.get(i);
+					int[] b = bounds.get(j);
+					if (a[0] <= b[2] && b[0] <= a[2] && a[1] <= b[3] && b[1] <= a[3]) {
+						a[0] = Math.min(a[0], b[0]);
+						a[1] = Math.min(a[1], b[1]);
+						a[2] = Math.max(a[2], b[2]);
+						a[3] = Math.max(a[3], b[3]);
+						bounds.remove(j);
+						merged = true;
+						break;
+					}
+				}
+			}
+		}
+		return bounds;
+	}
+
+	/* Sets bits [from, to] inclusive */
+	private static void setRange(long[] bits, int from, int to) {
+		int fromWord = from >>> 6;
+		int toWord = to >>> 6;
+		long fromMask = -1L << (from & 63);
+		long toMask = -1L >>> (63 - (to & 63));
+		if (fromWord == toWord) {
+			bits[fromWord] |= fromMask & toMask;
+			return;
+		}
+		bits[fromWord] |= fromMask;
+		for (int word = fromWord + 1; word < toWord; word++) {
+			bits[word] = -1L;
+		}
+		bits[toWord] |= toMask;
+	}
+
+	private static boolean isSet(long[] bits, int bit) {
+		return (bits[bit >>> 6] & (1L << (bit & 63))) != 0;
+	}
+}
@@ -0,0 +1,299 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.JASLog;
+import jas.spawner.modern.MVELProfile;
+import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Persistent per-world entity counts, kept up to date from entity and chunk events instead of walking
+ * world.loadedEntityList every time counts are needed. Movement between chunks does not raise an event and is picked up
+ * by {@link #reconcile()}.
+ *
+ * Counts are built against a CountIndex and are rebuilt from scratch whenever the active CountIndex changes, i.e.
+ * after the settings are reloaded.
+ */
+public final class EntityCountIndex {
+	private final World world;
+	/* CountIndex the counts were built with, null until the first build */
+	private CountIndex countIndex;
+	private final ChunkStatMap chunkCounts = new ChunkStatMap(1024);
+	private final IdentityHashMap<Entity, TrackedEntity> trackedEntities = new IdentityHashMap<Entity, TrackedEntity>();
+	private int[] totalTypeCount;
+	private int[] totalClassCount;
+
+	private static final class TrackedEntity {
+		long chunkKey;
+		final int classIndex;
+		final int[] typeIndices;
+
+		TrackedEntity(long chunkKey, int classIndex, int[] typeIndices) {
+			this.chunkKey = chunkKey;
+			this.classIndex = classIndex;
+			this.typeIndices = typeIndices;
+		}
+	}
+
+	public EntityCountIndex(World world) {
+		this.world = world;
+	}
+
+	public World world() {
+		return world;
+	}
+
+	public int trackedCount() {
+		return trackedEntities.size();
+	}
+
+	/**
+	 * @return True if the counts are built against the current settings
+	 */
+	public boolean isCurrent() {
+		return countIndex != null && MVELProfile.worldSettings() != null
+				&& countIndex == MVELProfile.worldSettings().countIndex();
+	}
+
+	/**
+	 * Discards all counts and recounts every entity loaded in the world
+	 */
+	public void rebuild() {
+		chunkCounts.clear();
+		trackedEntities.clear();
+		countIndex = MVELProfile.worldSettings().countIndex();
+		totalTypeCount = new int[countIndex.typeCount()];
+		totalClassCount = new int[countIndex.classCount()];
+		for (Object object : world.loadedEntityList) {
+			track((Entity) object);
+		}
+	}
+
+	/**
+	 * Start counting the entity or, if it is already counted, update the chunk it is counted in
+	 */
+	public void track(Entity entity) {
+		if (countIndex == null || !isCountable(entity)) {
+			return;
+		}
+		long chunkKey = ChunkKey.ofEntity(entity);
+		TrackedEntity trackedEntity = trackedEntities.get(entity);
+		if (trackedEntity != null) {
+			move(trackedEntity, chunkKey);
+			return;
+		}
+		int classIndex = countIndex.classIndex(entity.getClass());
+		int[] typeIndices = typeIndices(entity.getClass());
+		if (classIndex == CountIndex.UNKNOWN && typeIndices.length == 0) {
+			return;
+		}
+		trackedEntity = new TrackedEntity(chunkKey, classIndex, typeIndices);
+		trackedEntities.put(entity, trackedEntity);
+		add(trackedEntity);
+	}
+
+	/**
+	 * Stop counting the entity. Entities that are not counted are ignored.
+	 */
+	public void untrack(Entity entity) {
+		TrackedEntity trackedEntity = trackedEntities.remove(entity);
+		if (trackedEntity != null) {
+			remove(trackedEntity);
+		}
+	}
+
+	public void loadChunk(Chunk chunk) {
+		if (countIndex == null) {
+			return;
+		}
+		for (List<?> entityList : chunk.entityLists) {
+			for (Object object : entityList) {
+				track((Entity) object);
+			}
+		}
+	}
+
+	public void unloadChunk(Chunk chunk) {
+		if (countIndex == null) {
+			return;
+		}
+		for (List<?> entityList : chunk.entityLists) {
+			for (Object object : entityList) {
+				untrack((Entity) object);
+			}
+		}
+		chunkCounts.remove(ChunkKey.of(chunk.xPosition, chunk.zPosition));
+	}
+
+	/**
+	 * Rebuilds if the settings have changed. Otherwise drops entities that have died or left the world and moves
+	 * entities that have changed chunks.
+	 */
+	public void reconcile() {
+		if (!isCurrent()) {
+			rebuild();
+			return;
+		}
+		Iterator<Entry<Entity, TrackedEntity>> iterator = trackedEntities.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<Entity, TrackedEntity> entry = iterator.next();
+			Entity entity = entry.getKey();
+			if (entity.worldObj != world || !isCountable(entity)) {
+				iterator.remove();
+				remove(entry.getValue());
+			} else {
+				move(entry.getValue(), ChunkKey.ofEntity(entity));
+			}
+		}
+	}
+
+	/**
+	 * Compares the counts against a full rescan of the world. Mismatches are logged and the counts are rebuilt.
+	 *
+	 * @return Number of chunks whose counts did not match
+	 */
+	public int selfCheck() {
+		if (!isCurrent()) {
+			rebuild();
+			return 0;
+		}
+		/* Entities that moved since the last reconcile are not drift */
+		reconcile();
+		ChunkStatMap expectedCounts = new ChunkStatMap(chunkCounts.size());
+		for (Object object : world.loadedEntityList) {
+			Entity entity = (Entity) object;
+			if (!isCountable(entity)) {
+				continue;
+			}
+			long chunkKey = ChunkKey.ofEntity(entity);
+			ChunkStat expected = expectedCounts.get(chunkKey);
+			if (expected == null) {
+				expected = new ChunkStat(false);
+				expectedCounts.put(chunkKey, expected);
+			}
+			int classIndex = countIndex.classIndex(entity.getClass());
+			if (classIndex != CountIndex.UNKNOWN) {
+				expected.incrementEntityClassCount(classIndex);
+			}
+			for (int typeIndex : typeIndices(entity.getClass())) {
+				expected.incrementEntityTypeCount(typeIndex);
+			}
+		}
+
+		ChunkStat empty = new ChunkStat(false);
+		List<Long> mismatches = new ArrayList<Long>();
+		for (int i = 0; i < expectedCounts.size(); i++) {
+			ChunkStat actual = chunkCounts.get(expectedCounts.keyAt(i));
+			if (!expectedCounts.valueAt(i).hasSameCounts(actual != null ? actual : empty)) {
+				mismatches.add(expectedCounts.keyAt(i));
+			}
+		}
+		for (int i = 0; i < chunkCounts.size(); i++) {
+			if (!expectedCounts.containsKey(chunkCounts.keyAt(i)) && !chunkCounts.valueAt(i).hasSameCounts(empty)) {
+				mismatches.add(chunkCounts.keyAt(i));
+			}
+		}
+
+		if (!mismatches.isEmpty()) {
+			for (Long chunkKey : mismatches) {
+				JASLog.log().warning("Entity count for chunk [%s, %s] in dimension %s has drifted from the world.",
+						ChunkKey.chunkX(chunkKey), ChunkKey.chunkZ(chunkKey), world.provider.dimensionId);
+			}
+			rebuild();
+		}
+		return mismatches.size();
+	}
+
+	/**
+	 * Creates a CountInfo from the maintained counts. Only chunks in the provided maps are visited.
+	 *
+	 * @param eligibleChunksForSpawning Chunks to receive local counts
+	 * @param countedChunks Chunks that contribute to the global counts, null to count every loaded chunk
+	 */
+	public CountInfo countInfo(ChunkStatMap eligibleChunksForSpawning, ChunkStatMap countedChunks) {
+		if (!isCurrent()) {
+			rebuild();
+		}
+		CountInfo countInfo = new CountInfo(eligibleChunksForSpawning, countIndex);
+		for (int i = 0; i < eligibleChunksForSpawning.size(); i++) {
+			ChunkStat counts = chunkCounts.get(eligibleChunksForSpawning.keyAt(i));
+			if (counts != null) {
+				eligibleChunksForSpawning.valueAt(i).addCounts(counts);
+			}
+		}
+		if (countedChunks == null) {
+			countInfo.addGlobalCounts(totalTypeCount, totalClassCount);
+		} else {
+			for (int i = 0; i < countedChunks.size(); i++) {
+				ChunkStat counts = chunkCounts.get(countedChunks.keyAt(i));
+				if (counts != null) {
+					countInfo.addGlobalCounts(counts);
+				}
+			}
+		}
+		return countInfo;
+	}
+
+	private void move(TrackedEntity trackedEntity, long chunkKey) {
+		if (trackedEntity.chunkKey != chunkKey) {
+			remove(trackedEntity);
+			trackedEntity.chunkKey = chunkKey;
+			add(trackedEntity);
+		}
+	}
+
+	private void add(TrackedEntity trackedEntity) {
+		ChunkStat counts = chunkCounts.get(trackedEntity.chunkKey);
+		if (counts == null) {
+			counts = new ChunkStat(false);
+			chunkCounts.put(trackedEntity.chunkKey, counts);
+		}
+		if (trackedEntity.classIndex != CountIndex.UNKNOWN) {
+			counts.incrementEntityClassCount(trackedEntity.classIndex);
+			totalClassCount[trackedEntity.classIndex]++;
+		}
+		for (int typeIndex : trackedEntity.typeIndices) {
+			counts.incrementEntityTypeCount(typeIndex);
+			totalTypeCount[typeIndex]++;
+		}
+	}
+
+	private void remove(TrackedEntity trackedEntity) {
+		/* Null if the chunk has been unloaded, its local counts were already discarded */
+		ChunkStat counts = chunkCounts.get(trackedEntity.chunkKey);
+		if (trackedEntity.classIndex != CountIndex.UNKNOWN) {
+			if (counts != null) {
+				counts.decrementEntityClassCount(trackedEntity.classIndex);
+			}
+			totalClassCount[trackedEntity.classIndex]--;
+		}
+		for (int typeIndex : trackedEntity.typeIndices) {
+			if (counts != null) {
+				counts.decrementEntityTypeCount(typeIndex);
+			}
+			totalTypeCount[typeIndex]--;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int[] typeIndices(Class<?> entityClass) {
+		return MVELProfile.worldSettings().livingHandlerRegistry()
+				.getClassHandlers((Class<? extends EntityLiving>) entityClass).typeIndices();
+	}
+
+	/**
+	 * Only living entities that are alive are counted; dying entities remain loaded for a short time after death.
+	 */
+	private static boolean isCountable(Entity entity) {
+		return entity instanceof EntityLiving && !entity.isDead && ((EntityLiving) entity).getHealth() > 0;
+	}
+}
@@ -0,0 +1,114 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.JASLog;
+import jas.common.JustAnotherSpawner;
+import jas.spawner.modern.MVELProfile;
+
+import java.util.HashMap;
+
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.living.LivingDeathEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import cpw.mods.fml.common.eventhandler.EventPriority;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+import cpw.mods.fml.common.gameevent.TickEvent.Phase;
+import cpw.mods.fml.common.gameevent.TickEvent.WorldTickEvent;
+import cpw.mods.fml.relauncher.Side;
+
+/**
+ * Maintains an EntityCountIndex for each loaded server world. Needs to be registered to both the Forge and FML event
+ * buses.
+ */
+public class EntityCountTracker {
+	private final HashMap<Integer, EntityCountIndex> countIndices = new HashMap<Integer, EntityCountIndex>();
+
+	/**
+	 * @return Count index for the world, null if incremental counting is disabled or the world is not a server world
+	 */
+	public EntityCountIndex getIndex(World world) {
+		if (world.isRemote || !JustAnotherSpawner.globalSettings().useEntityCountIndex
+				|| MVELProfile.worldSettings() == null) {
+			return null;
+		}
+		EntityCountIndex countIndex = countIndices.get(world.provider.dimensionId);
+		if (countIndex == null || countIndex.world() != world) {
+			countIndex = new EntityCountIndex(world);
+			countIndices.put(world.provider.dimensionId, countIndex);
+		}
+		return countIndex;
+	}
+
+	/* Counts are only maintained for worlds that have been counted at least once, others are built on first use */
+	private EntityCountIndex getExistingIndex(World world) {
+		if (world.isRemote) {
+			return null;
+		}
+		EntityCountIndex countIndex = countIndices.get(world.provider.dimensionId);
+		return countIndex != null && countIndex.world() == world && countIndex.isCurrent() ? countIndex : null;
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void entityJoinWorld(EntityJoinWorldEvent event) {
+		EntityCountIndex countIndex = getExistingIndex(event.world);
+		if (countIndex != null) {
+			countIndex.track(event.entity);
+		}
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void livingDeath(LivingDeathEvent event) {
+		EntityCountIndex countIndex = getExistingIndex(event.entityLiving.worldObj);
+		if (countIndex != null) {
+			countIndex.untrack(event.entityLiving);
+		}
+	}
+
+	@SubscribeEvent
+	public void chunkLoad(ChunkEvent.Load event) {
+		EntityCountIndex countIndex = getExistingIndex(event.world);
+		if (countIndex != null) {
+			countIndex.loadChunk(event.getChunk());
+		}
+	}
+
+	@SubscribeEvent
+	public void chunkUnload(ChunkEvent.Unload event) {
+		EntityCountIndex countIndex = getExistingIndex(event.world);
+		if (countIndex != null) {
+			countIndex.unloadChunk(event.getChunk());
+		}
+	}
+
+	@SubscribeEvent
+	public void worldUnload(WorldEvent.Unload event) {
+		EntityCountIndex countIndex = countIndices.get(event.world.provider.dimensionId);
+		if (countIndex != null && countIndex.world() == event.world) {
+			countIndices.remove(event.world.provider.dimensionId);
+		}
+	}
+
+	@SubscribeEvent
+	public void worldTick(WorldTickEvent event) {
+		if (event.side != Side.SERVER || event.phase != Phase.END) {
+			return;
+		}
+		EntityCountIndex countIndex = countIndices.get(event.world.provider.dimensionId);
+		if (countIndex == null || countIndex.world() != event.world || MVELProfile.worldSettings() == null) {
+			return;
+		}
+		long worldTime = event.world.getTotalWorldTime();
+		int selfCheckTicks = JustAnotherSpawner.globalSettings().entityCountSelfCheckTicks;
+		int reconcileTicks = Math.max(1, JustAnotherSpawner.globalSettings().entityCountReconcileTicks);
+		if (selfCheckTicks > 0 && worldTime % selfCheckTicks == 0) {
+			int mismatches = countIndex.selfCheck();
+			if (mismatches > 0) {
+				JASLog.log().warning("Entity count self-check found %s drifted chunks in dimension %s; counts rebuilt.",
+						mismatches, event.world.provider.dimensionId);
+			}
+		} else if (worldTime % reconcileTicks == 0) {
+			countIndex.reconcile();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.JASLog;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.world.World;
+
+/**
+ * Registry of resolved (World) constructors keyed by entity class. The constructor lookup is performed once per class
+ * instead of on every spawn attempt; classes without a usable constructor are remembered so they are not looked up
+ * again.
+ *
+ * Invalidated whenever the LivingGroupRegistry reloads its entity mappings.
+ */
+public final class EntityFactory {
+	private static final ConcurrentHashMap<Class<? extends EntityLiving>, Factory> factories = new ConcurrentHashMap<Class<? extends EntityLiving>, Factory>();
+
+	public static final class Factory {
+		public final Class<? extends EntityLiving> entityClass;
+		/* Null if the entity class has no usable (World) constructor */
+		private final Constructor<? extends EntityLiving> constructor;
+
+		private long constructedCount;
+		private long failedCount;
+		private long constructionNanos;
+
+		private Factory(Class<? extends EntityLiving> entityClass, Constructor<? extends EntityLiving> constructor) {
+			this.entityClass = entityClass;
+			this.constructor = constructor;
+		}
+
+		public boolean isConstructable() {
+			return constructor != null;
+		}
+
+		/**
+		 * Create a new instance of the entity
+		 *
+		 * @return New entity instance, null if the entity could not be constructed
+		 */
+		public EntityLiving construct(World world) {
+			if (constructor == null) {
+				return null;
+			}
+			long startTime = System.nanoTime();
+			try {
+				EntityLiving entity = constructor.newInstance(world);
+				constructedCount++;
+				return entity;
+			} catch (InvocationTargetException exception) {
+				failedCount++;
+				JASLog.log().severe("Entity %s could not be constructed due to %s", entityClass.getSimpleName(),
+						exception.getCause());
+			} catch (NoClassDefFoundError exception) {
+				failedCount++;
+				JASLog.log().severe("Entity %s references classes that do not exist.", entityClass.getSimpleName());
+			} catch (Exception exception) {
+				failedCount++;
+				JASLog.log().severe("Entity %s could not be constructed due to %s", entityClass.getSimpleName(),
+						exception);
+			} finally {
+				constructionNanos += System.nanoTime() - startTime;
+			}
+			return null;
+		}
+
+		public long getConstructedCount() {
+			return constructedCount;
+		}
+
+		public long getFailedCount() {
+			return failedCount;
+		}
+
+		/**
+		 * Total time spent in the entity constructor, including failed attempts
+		 */
+		public long getConstructionNanos() {
+			return constructionNanos;
+		}
+
+		public long getAverageConstructionNanos() {
+			long attempts = constructedCount + failedCount;
+			return attempts > 0 ? constructionNanos / attempts : 0;
+		}
+	}
+
+	private EntityFactory() {
+	}
+
+	/**
+	 * Gets the Factory for the provided class, resolving its constructor if this is the first request
+	 */
+	public static Factory getFactory(Class<? extends EntityLiving> entityClass) {
+		Factory factory = factories.get(entityClass);
+		if (factory == null) {
+			factory = resolveFactory(entityClass);
+			Factory previous = factories.putIfAbsent(entityClass, factory);
+			if (previous != null) {
+				factory = previous;
+			}
+		}
+		return factory;
+	}
+
+	/**
+	 * Create a new instance of the provided entity class
+	 *
+	 * @return New entity instance, null if the entity could not be constructed
+	 */
+	public static EntityLiving construct(Class<? extends EntityLiving> entityClass, World world) {
+		return getFactory(entityClass).construct(world);
+	}
+
+	/**
+	 * Clears all resolved constructors and timings. Constructors will be resolved again on next use.
+	 */
+	public static void invalidate() {
+		factories.clear();
+	}
+
+	public static Collection<Factory> getFactories() {
+		return Collections.unmodifiableCollection(factories.values());
+	}
+
+	private static Factory resolveFactory(Class<? extends EntityLiving> entityClass) {
+		try {
+			Constructor<? extends EntityLiving> constructor = entityClass.getConstructor(World.class);
+			constructor.setAccessible(true);
+			return new Factory(entityClass, constructor);
+		} catch (NoSuchMethodException exception) {
+			JASLog.log().severe("Entity %s does not have a constructor accepting a World and cannot be spawned.",
+					entityClass.getSimpleName());
+		} catch (NoClassDefFoundError exception) {
+			JASLog.log().severe("Entity %s references classes that do not exist.", entityClass.getSimpleName());
+		} catch (SecurityException exception) {
+			JASLog.log().severe("Entity %s constructor could not be accessed due to %s", entityClass.getSimpleName(),
+					exception.getMessage());
+		}
+		return new Factory(entityClass, null);
+	}
+}
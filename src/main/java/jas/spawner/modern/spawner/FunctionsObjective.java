@@ -51,7 +51,7 @@ public class FunctionsObjective implements TagsObjective {
 	}
 
 	public String material() {
-		return parent.util().material(world.getBlock(parent.posX(), parent.posY(), parent.posZ()).getMaterial());
+		return parent.util().material(parent.wrld().materialAt(parent.posX(), parent.posY(), parent.posZ()));
 	}
 
 	public int difficulty() {
@@ -12,6 +12,7 @@ import net.minecraft.world.World;
  */
 public class FunctionsUtility implements TagsUtility {
 	private World world;
+	private BlockView blocks;
 	private Context parent;
 
 	public static abstract class Conditional {
@@ -20,6 +21,7 @@ public class FunctionsUtility implements TagsUtility {
 
 	public FunctionsUtility(World world, Context parent) {
 		this.world = world;
+		this.blocks = BlockView.of(world);
 		this.parent = parent;
 	}
 
@@ -149,7 +151,7 @@ public class FunctionsUtility implements TagsUtility {
 
 	public boolean blockFoot(String[] blockKeys, Integer[] metas) {
 		Block blockID = parent.wrld().blockAt(parent.posX(), parent.posY() - 1, parent.posZ());
-		int meta = world.getBlockMetadata(parent.posX(), parent.posY() - 1, parent.posZ());
+		int meta = blocks.getBlockMetadata(parent.posX(), parent.posY() - 1, parent.posZ());
 		for (String blockKey : blockKeys) {
 			Block searchBlock = Block.getBlockFromName(blockKey);
 			if (searchBlock != null) {
@@ -0,0 +1,137 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.JASLog;
+import jas.common.helper.ExpressionCompiler;
+import jas.common.helper.ExpressionCompiler.ExpressionMembers;
+import jas.common.helper.MVELHelper;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+
+import net.minecraft.world.World;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Boolean expression evaluated with {@link Tags}. Expressions that only read the position and the state of the world at
+ * the current tick, such as blocks, light, biomes and time, are evaluated once per position each tick and their result
+ * reused: pack attempts of a spawn cycle often land on the same block.
+ *
+ * The members an expression reads are found when it is compiled. Expressions reading entities, counts, random numbers,
+ * NBT or anything that could not be traced back to the Tags are evaluated every time.
+ */
+public final class MemoizedExpression {
+	/* Members whose value only depends on the position, the world and the tick */
+	private static final Set<String> POSITIONAL_MEMBERS = ImmutableSet.of("posX", "posY", "posZ", "sky", "block",
+			"blockFoot", "normal", "liquid", "solidside", "opaque", "ground", "biome", "obj", "obj.block", "obj.light",
+			"obj.torchlight", "obj.sky", "obj.ground", "obj.origin", "obj.material", "obj.difficulty",
+			"obj.highestResistentBlock", "lgcy", "lgcy.height", "lgcy.light", "lgcy.torchlight", "lgcy.origin",
+			"lgcy.top", "lgcy.filler", "lgcy.dimension", "lgcy.location", "lgcy.difficulty", "wrld", "wrld.lightAt",
+			"wrld.torchlightAt", "wrld.blockNameAt", "wrld.blockAt", "wrld.biomeAt", "wrld.biomeTop",
+			"wrld.biomeFiller", "wrld.materialAt", "wrld.originPos", "wrld.skyVisibleAt", "wrld.originDis",
+			"wrld.dimension", "wrld.totalTime", "wrld.timeOfDay", "wrld.isClearWeather", "time", "time.worldTime",
+			"time.day", "time.timeOfDay", "time.isMidnight", "time.isAfternoon", "time.isDawn", "time.isDusk",
+			"time.moonPhase", "time.isFullMoon", "time.isWaningGibbous", "time.isLastQuarter", "time.isWaningCrescent",
+			"time.isNewMoon", "time.isWaxingCrescent", "time.isFirstQuarter", "time.isWaxingGibbous", "search",
+			"search.block", "search.blockFoot", "search.normal", "search.liquid", "search.solidside", "search.opaque",
+			"search.biome", "util", "util.inRange", "util.blockFoot", "util.material");
+	/* Look-ups between hit rate summaries written to the debug log */
+	private static final int LOG_INTERVAL = 100000;
+
+	public final String expression;
+	public final Serializable compiled;
+	/* Whether results may be reused for the same position within a tick */
+	public final boolean isPositional;
+	private final String source;
+
+	private WeakReference<World> cachedWorld = new WeakReference<World>(null);
+	private long cachedTick;
+	/* Results of the cached tick by packed position */
+	private final PositionResultTable results = new PositionResultTable();
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param source Description of where the expression was read from, used for diagnostics
+	 */
+	public MemoizedExpression(String expression, String source) {
+		this.expression = expression;
+		this.source = source;
+		this.compiled = ExpressionCompiler.compile(expression, Tags.class, source);
+		ExpressionMembers members = ExpressionCompiler.members(expression, Tags.class);
+		this.isPositional = members.isComplete && POSITIONAL_MEMBERS.containsAll(members.paths);
+	}
+
+	/**
+	 * Equivalent to {@link MVELHelper#executeExpression(Object, Object, String...)} with the Tags, which must be
+	 * positioned in the provided world
+	 */
+	public boolean evaluate(World world, Tags tags, String... errorMessage) {
+		if (!isPositional) {
+			return MVELHelper.executeExpression(compiled, tags, errorMessage);
+		}
+		long key = (long) (tags.posX & 0x3FFFFFF) << 34 | (long) (tags.posZ & 0x3FFFFFF) << 8 | (tags.posY & 255);
+		long tick = world.getTotalWorldTime();
+		synchronized (results) {
+			if (cachedWorld.get() != world || cachedTick != tick) {
+				results.clear();
+				cachedWorld = new WeakReference<World>(world);
+				cachedTick = tick;
+			}
+			byte result = results.get(key);
+			if (result != PositionResultTable.ABSENT) {
+				hits++;
+				logHitRate();
+				return result == PositionResultTable.TRUE;
+			}
+		}
+		boolean result = MVELHelper.executeExpression(compiled, tags, errorMessage);
+		synchronized (results) {
+			if (cachedWorld.get() == world && cachedTick == tick) {
+				results.put(key, result);
+			}
+			misses++;
+			logHitRate();
+		}
+		return result;
+	}
+
+	private void logHitRate() {
+		long lookups = hits + misses;
+		if (lookups % LOG_INTERVAL == 0) {
+			JASLog.log().debug(Level.INFO, "Memoized %s: %s of %s evaluations reused (%.1f%%)", source, hits, lookups,
+					100.0D * hits / lookups);
+		}
+	}
+
+	/**
+	 * @return Evaluations answered from a result computed earlier in the tick
+	 */
+	public long getHits() {
+		synchronized (results) {
+			return hits;
+		}
+	}
+
+	/**
+	 * @return Evaluations of a positional expression that had to be computed
+	 */
+	public long getMisses() {
+		synchronized (results) {
+			return misses;
+		}
+	}
+
+	/**
+	 * @return Fraction of evaluations answered from an earlier result, 0 if there were none
+	 */
+	public double getHitRate() {
+		synchronized (results) {
+			long lookups = hits + misses;
+			return lookups > 0 ? (double) hits / lookups : 0;
+		}
+	}
+}
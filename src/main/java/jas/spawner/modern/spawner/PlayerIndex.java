@@ -0,0 +1,222 @@
+package jas.spawner.modern.spawner;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+
+/**
+ * Snapshot of player positions in a world bucketed by chunk, used in place of World.getClosestPlayer and loops over
+ * world.playerEntities. A snapshot is built on first use each tick and reused by every query during that tick.
+ *
+ * Distances follow World.getClosestPlayer: a radius below zero is unlimited.
+ *
+ * An index references the world through its players, so it is removed by {@link #unload(World)} when the world
+ * unloads rather than left to the weak map.
+ */
+public final class PlayerIndex {
+	private static final int EMPTY = -1;
+	private static final Map<World, PlayerIndex> indices = new WeakHashMap<World, PlayerIndex>();
+
+	private final long worldTime;
+	private final int playerCount;
+	private final EntityPlayer[] players;
+	private final double[] posX;
+	private final double[] posY;
+	private final double[] posZ;
+
+	/* Open addressing map from chunk key to the first player in the chunk, further players are chained via next */
+	private final long[] cellKeys;
+	private final int[] cellHeads;
+	private final int cellMask;
+	private final int[] next;
+
+	/* Chunk bounds containing every player, used to limit unbounded searches */
+	private int minChunkX = Integer.MAX_VALUE;
+	private int minChunkZ = Integer.MAX_VALUE;
+	private int maxChunkX = Integer.MIN_VALUE;
+	private int maxChunkZ = Integer.MIN_VALUE;
+
+	/**
+	 * @return Player index for the world for the current tick
+	 */
+	public static synchronized PlayerIndex of(World world) {
+		PlayerIndex index = indices.get(world);
+		if (index == null || index.worldTime != world.getTotalWorldTime()
+				|| index.playerCount != world.playerEntities.size()) {
+			index = new PlayerIndex(world);
+			indices.put(world, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Drops the index of the world, called when the world unloads
+	 */
+	public static synchronized void unload(World world) {
+		indices.remove(world);
+	}
+
+	private PlayerIndex(World world) {
+		this.worldTime = world.getTotalWorldTime();
+		this.playerCount = world.playerEntities.size();
+		this.players = new EntityPlayer[playerCount];
+		this.posX = new double[playerCount];
+		this.posY = new double[playerCount];
+		this.posZ = new double[playerCount];
+		this.next = new int[playerCount];
+
+		int capacity = 16;
+		while (capacity < playerCount * 2) {
+			capacity <<= 1;
+		}
+		this.cellKeys = new long[capacity];
+		this.cellHeads = new int[capacity];
+		this.cellMask = capacity - 1;
+		Arrays.fill(cellHeads, EMPTY);
+
+		for (int i = 0; i < playerCount; i++) {
+			EntityPlayer player = (EntityPlayer) world.playerEntities.get(i);
+			players[i] = player;
+			posX[i] = player.posX;
+			posY[i] = player.posY;
+			posZ[i] = player.posZ;
+
+			int chunkX = MathHelper.floor_double(player.posX) >> 4;
+			int chunkZ = MathHelper.floor_double(player.posZ) >> 4;
+			minChunkX = Math.min(minChunkX, chunkX);
+			minChunkZ = Math.min(minChunkZ, chunkZ);
+			maxChunkX = Math.max(maxChunkX, chunkX);
+			maxChunkZ = Math.max(maxChunkZ, chunkZ);
+
+			long chunkKey = ChunkKey.of(chunkX, chunkZ);
+			int slot = slotFor(chunkKey);
+			while (cellHeads[slot] != EMPTY && cellKeys[slot] != chunkKey) {
+				slot = (slot + 1) & cellMask;
+			}
+			cellKeys[slot] = chunkKey;
+			next[i] = cellHeads[slot];
+			cellHeads[slot] = i;
+		}
+	}
+
+	public int playerCount() {
+		return playerCount;
+	}
+
+	/**
+	 * @return True if any player is within radius of the point
+	 */
+	public boolean isPlayerWithin(double x, double y, double z, double radius) {
+		return closestPlayerIndex(x, y, z, radius, false) != EMPTY;
+	}
+
+	/**
+	 * As {@link #isPlayerWithin(double, double, double, double)} ignoring height
+	 */
+	public boolean isPlayerWithinHorizontal(double x, double z, double radius) {
+		return closestPlayerIndex(x, 0, z, radius, true) != EMPTY;
+	}
+
+	/**
+	 * @return Closest player within radius of the point, null if there is none
+	 */
+	public EntityPlayer getClosestPlayer(double x, double y, double z, double radius) {
+		int closest = closestPlayerIndex(x, y, z, radius, false);
+		return closest != EMPTY ? players[closest] : null;
+	}
+
+	/**
+	 * @return Squared distance to the closest player within radius of the point, -1 if there is none
+	 */
+	public double getClosestPlayerDistanceSq(double x, double y, double z, double radius) {
+		int closest = closestPlayerIndex(x, y, z, radius, false);
+		return closest != EMPTY ? distanceSq(closest, x, y, z, false) : -1.0D;
+	}
+
+	private int closestPlayerIndex(double x, double y, double z, double radius, boolean horizontal) {
+		if (playerCount == 0) {
+			return EMPTY;
+		}
+		int centerX = MathHelper.floor_double(x) >> 4;
+		int centerZ = MathHelper.floor_double(z) >> 4;
+		/* Rings beyond this contain no players */
+		int maxRing = Math.max(Math.max(Math.abs(centerX - minChunkX), Math.abs(centerX - maxChunkX)),
+				Math.max(Math.abs(centerZ - minChunkZ), Math.abs(centerZ - maxChunkZ)));
+		if (radius >= 0) {
+			maxRing = Math.min(maxRing, (int) Math.ceil(radius / 16.0D) + 1);
+		}
+		/* Scanning the cells would visit more cells than there are players */
+		if ((2L * maxRing + 1) * (2L * maxRing + 1) > playerCount * 4L) {
+			return closestPlayerLinear(x, y, z, radius, horizontal);
+		}
+
+		double limitSq = radius < 0 ? Double.MAX_VALUE : radius * radius;
+		int closest = EMPTY;
+		double closestSq = Double.MAX_VALUE;
+		for (int ring = 0; ring <= maxRing; ring++) {
+			/* Every point in the ring is at least (ring - 1) chunks away horizontally */
+			double ringDistance = Math.max(0, ring - 1) * 16.0D;
+			if (closest != EMPTY && ringDistance * ringDistance > closestSq) {
+				break;
+			}
+			for (int cellX = centerX - ring; cellX <= centerX + ring; cellX++) {
+				boolean isEdgeColumn = cellX == centerX - ring || cellX == centerX + ring;
+				for (int cellZ = centerZ - ring; cellZ <= centerZ + ring; cellZ += isEdgeColumn ? 1 : 2 * ring) {
+					for (int i = head(ChunkKey.of(cellX, cellZ)); i != EMPTY; i = next[i]) {
+						double distSq = distanceSq(i, x, y, z, horizontal);
+						if (distSq < limitSq && distSq < closestSq) {
+							closest = i;
+							closestSq = distSq;
+						}
+					}
+					if (ring == 0) {
+						break;
+					}
+				}
+			}
+		}
+		return closest;
+	}
+
+	private int closestPlayerLinear(double x, double y, double z, double radius, boolean horizontal) {
+		double limitSq = radius < 0 ? Double.MAX_VALUE : radius * radius;
+		int closest = EMPTY;
+		double closestSq = Double.MAX_VALUE;
+		for (int i = 0; i < playerCount; i++) {
+			double distSq = distanceSq(i, x, y, z, horizontal);
+			if (distSq < limitSq && distSq < closestSq) {
+				closest = i;
+				closestSq = distSq;
+			}
+		}
+		return closest;
+	}
+
+	private double distanceSq(int player, double x, double y, double z, boolean horizontal) {
+		double xDist = posX[player] - x;
+		double yDist = horizontal ? 0 : posY[player] - y;
+		double zDist = posZ[player] - z;
+		return xDist * xDist + yDist * yDist + zDist * zDist;
+	}
+
+	private int head(long chunkKey) {
+		int slot = slotFor(chunkKey);
+		int head;
+		while ((head = cellHeads[slot]) != EMPTY) {
+			if (cellKeys[slot] == chunkKey) {
+				return head;
+			}
+			slot = (slot + 1) & cellMask;
+		}
+		return EMPTY;
+	}
+
+	private int slotFor(long chunkKey) {
+		long hash = chunkKey * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & cellMask;
+	}
+}
@@ -0,0 +1,94 @@
+package jas.spawner.modern.spawner;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing table from packed block positions to boolean results, used in place of a HashMap keyed by Long so
+ * look-ups neither box the key nor allocate an entry. Entries are never removed individually, only cleared together.
+ */
+final class PositionResultTable {
+	/* Results returned by get and stored in the state of each slot */
+	static final byte ABSENT = 0;
+	static final byte FALSE = 1;
+	static final byte TRUE = 2;
+	private static final int MIN_CAPACITY = 64;
+
+	private long[] keys;
+	/* ABSENT marks an empty slot */
+	private byte[] states;
+	private int mask;
+	private int size;
+
+	PositionResultTable() {
+		allocate(MIN_CAPACITY);
+	}
+
+	/**
+	 * @return TRUE or FALSE if a result is stored for the position, ABSENT otherwise
+	 */
+	byte get(long position) {
+		int slot = slotFor(position);
+		byte state;
+		while ((state = states[slot]) != ABSENT) {
+			if (keys[slot] == position) {
+				return state;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return ABSENT;
+	}
+
+	void put(long position, boolean result) {
+		byte state = result ? TRUE : FALSE;
+		int slot = slotFor(position);
+		while (states[slot] != ABSENT) {
+			if (keys[slot] == position) {
+				states[slot] = state;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = position;
+		states[slot] = state;
+		if (++size * 2 > states.length) {
+			rehash(states.length * 2);
+		}
+	}
+
+	/**
+	 * Drops every result, keeping the capacity reached so the next tick does not grow the table again
+	 */
+	void clear() {
+		if (size > 0) {
+			Arrays.fill(states, ABSENT);
+			size = 0;
+		}
+	}
+
+	private int slotFor(long position) {
+		long hash = position * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		byte[] oldStates = states;
+		allocate(capacity);
+		for (int i = 0; i < oldStates.length; i++) {
+			if (oldStates[i] != ABSENT) {
+				int slot = slotFor(oldKeys[i]);
+				while (states[slot] != ABSENT) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				states[slot] = oldStates[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		states = new byte[capacity];
+		mask = capacity - 1;
+	}
+}
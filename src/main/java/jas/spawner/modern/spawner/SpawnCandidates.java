@@ -0,0 +1,180 @@
+package jas.spawner.modern.spawner;
+
+import jas.common.global.BiomeBlacklist;
+import jas.spawner.modern.spawner.creature.type.CreatureType;
+
+import net.minecraft.world.ChunkPosition;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.BiomeGenBase;
+
+/**
+ * Spawn positions drawn for one chunk of a spawn cycle: iterationsPerChunk start points, each followed by
+ * iterationsPerPack pack points scattered around it. Positions are drawn up front on the main thread so their location
+ * checks can be evaluated by {@link CandidateEvaluator} before the main thread replays them in order.
+ *
+ * Location checks are those that only read blocks and biomes: the biome blacklist (pack points only), the valid medium
+ * and the default surface checks. Candidates not evaluated ahead of time are evaluated against the world when first
+ * requested.
+ */
+public final class SpawnCandidates {
+	public static final byte UNKNOWN = 0;
+	public static final byte VALID = 1;
+	public static final byte INVALID = 2;
+	/* Pack point in a blacklisted biome, ends the pack */
+	public static final byte BLACKLISTED = 3;
+
+	/* Pack spread around the start point, matching vanilla */
+	private static final int HORIZONTAL_VARIANCE = 10;
+	private static final int VERTICAL_VARIANCE = 3;
+
+	public final long chunkKey;
+	private final int startCount;
+	private final int packSize;
+	private final int[] posX;
+	private final int[] posY;
+	private final int[] posZ;
+	private final byte[] states;
+	/* Whether the state was evaluated against the live world rather than a snapshot */
+	private final boolean[] isLive;
+
+	private SpawnCandidates(long chunkKey, int startCount, int packSize) {
+		this.chunkKey = chunkKey;
+		this.startCount = startCount;
+		this.packSize = packSize;
+		int size = startCount * (packSize + 1);
+		this.posX = new int[size];
+		this.posY = new int[size];
+		this.posZ = new int[size];
+		this.states = new byte[size];
+		this.isLive = new boolean[size];
+	}
+
+	/**
+	 * Draws the spawn positions for the chunk using the world random
+	 */
+	public static SpawnCandidates draw(World world, CreatureType creatureType, long chunkKey) {
+		SpawnCandidates candidates = new SpawnCandidates(chunkKey, creatureType.iterationsPerChunk,
+				creatureType.iterationsPerPack);
+		for (int start = 0; start < candidates.startCount; start++) {
+			ChunkPosition startPoint = creatureType.getRandomSpawningPointInChunk(world, ChunkKey.chunkX(chunkKey),
+					ChunkKey.chunkZ(chunkKey));
+			int index = candidates.startIndex(start);
+			candidates.set(index, startPoint.chunkPosX, startPoint.chunkPosY, startPoint.chunkPosZ);
+			for (int pack = 1; pack <= candidates.packSize; pack++) {
+				candidates.set(index + pack,
+						startPoint.chunkPosX + world.rand.nextInt(HORIZONTAL_VARIANCE)
+								- world.rand.nextInt(HORIZONTAL_VARIANCE),
+						startPoint.chunkPosY + world.rand.nextInt(VERTICAL_VARIANCE)
+								- world.rand.nextInt(VERTICAL_VARIANCE),
+						startPoint.chunkPosZ + world.rand.nextInt(HORIZONTAL_VARIANCE)
+								- world.rand.nextInt(HORIZONTAL_VARIANCE));
+			}
+		}
+		return candidates;
+	}
+
+	private void set(int index, int x, int y, int z) {
+		posX[index] = x;
+		posY[index] = y;
+		posZ[index] = z;
+	}
+
+	public int startCount() {
+		return startCount;
+	}
+
+	public int packSize() {
+		return packSize;
+	}
+
+	/**
+	 * Index of the start point; its pack points follow at index + 1 to index + packSize
+	 */
+	public int startIndex(int start) {
+		return start * (packSize + 1);
+	}
+
+	public boolean isPackPoint(int index) {
+		return index % (packSize + 1) != 0;
+	}
+
+	public int x(int index) {
+		return posX[index];
+	}
+
+	public int y(int index) {
+		return posY[index];
+	}
+
+	public int z(int index) {
+		return posZ[index];
+	}
+
+	public ChunkPosition position(int index) {
+		return new ChunkPosition(posX[index], posY[index], posZ[index]);
+	}
+
+	/**
+	 * Copies the blocks and biomes the candidates read into the snapshot. Candidates in chunks that are not loaded are
+	 * left out.
+	 */
+	void addTo(SpawnSnapshot snapshot) {
+		for (int i = 0; i < states.length; i++) {
+			snapshot.addColumn(posX[i], posY[i] - 1, posY[i] + 1, posZ[i]);
+			if (isPackPoint(i)) {
+				snapshot.addBiomes(posX[i], posZ[i]);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the location checks of every candidate that lies within the snapshot. Called from worker threads.
+	 */
+	void evaluate(SpawnSnapshot snapshot, CreatureType creatureType, BiomeBlacklist blacklist) {
+		for (int start = 0; start < startCount; start++) {
+			int index = startIndex(start);
+			if (snapshot.contains(posX[index], posZ[index])) {
+				states[index] = evaluate(snapshot, null, creatureType, blacklist, index);
+			}
+			for (int pack = index + 1; pack <= index + packSize; pack++) {
+				/* Chunks that were not loaded when the snapshot was taken are left to the main thread */
+				if (!snapshot.contains(posX[pack], posZ[pack])) {
+					continue;
+				}
+				states[pack] = evaluate(snapshot, snapshot.getBiome(posX[pack], posZ[pack]), creatureType, blacklist,
+						pack);
+				if (states[pack] == BLACKLISTED) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * State of the candidate's location checks. Candidates that were not evaluated ahead of time, or all candidates
+	 * when verifying, are evaluated against the world.
+	 */
+	public byte state(int index, World world, CreatureType creatureType, BiomeBlacklist blacklist,
+			CandidateEvaluator evaluator) {
+		byte state = states[index];
+		if (!isLive[index] && (state == UNKNOWN || evaluator.isVerifying())) {
+			BiomeGenBase biome = isPackPoint(index) ? world.getBiomeGenForCoords(posX[index], posZ[index]) : null;
+			byte liveState = evaluate(BlockView.of(world), biome, creatureType, blacklist, index);
+			if (state != UNKNOWN) {
+				evaluator.recordVerification(state == liveState);
+			}
+			state = states[index] = liveState;
+			isLive[index] = true;
+		}
+		return state;
+	}
+
+	private byte evaluate(IBlockAccess blockAccess, BiomeGenBase biome, CreatureType creatureType,
+			BiomeBlacklist blacklist, int index) {
+		if (biome != null && blacklist.isBlacklisted(biome)) {
+			return BLACKLISTED;
+		}
+		return creatureType.isValidLocation(blockAccess, posX[index], posY[index], posZ[index]) ? VALID : INVALID;
+	}
+}
@@ -0,0 +1,226 @@
+package jas.spawner.modern.spawner;
+
+import java.util.HashMap;
+
+import net.minecraft.block.Block;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.common.util.ForgeDirection;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Copy of the block, metadata and biome arrays of selected chunk sections, taken on the main thread so location checks
+ * can be evaluated by worker threads. Only the sections spawn candidates touch are copied. Light is not copied as none
+ * of the location checks read it.
+ *
+ * Instances are filled on the main thread and then only read; they must be published to workers through a
+ * synchronizing hand-off such as an ExecutorService.
+ */
+public final class SpawnSnapshot implements IBlockAccess {
+	private static final int SECTIONS = 16;
+	/* Marks a section that was copied but holds no blocks, as opposed to null for a section that was not copied */
+	private static final Section EMPTY_SECTION = new Section(null, null, null);
+
+	private final World world;
+	private final HashMap<Long, ChunkData> chunks = new HashMap<Long, ChunkData>();
+
+	private static final class ChunkData {
+		final Section[] sections = new Section[SECTIONS];
+		byte[] biomes;
+	}
+
+	private static final class Section {
+		final byte[] blockLSB;
+		/* Null if no block in the section has an ID above 255 */
+		final byte[] blockMSB;
+		final byte[] metadata;
+
+		Section(byte[] blockLSB, byte[] blockMSB, byte[] metadata) {
+			this.blockLSB = blockLSB;
+			this.blockMSB = blockMSB;
+			this.metadata = metadata;
+		}
+	}
+
+	public SpawnSnapshot(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Copies the sections covering blocks minY to maxY of the chunk containing the block column. Chunks that are not
+	 * loaded are skipped rather than loaded.
+	 *
+	 * @return True if the blocks are available in the snapshot
+	 */
+	public boolean addColumn(int blockX, int minY, int maxY, int blockZ) {
+		int chunkX = blockX >> 4;
+		int chunkZ = blockZ >> 4;
+		long chunkKey = ChunkKey.of(chunkX, chunkZ);
+		ChunkData chunkData = chunks.get(chunkKey);
+		if (chunkData == null) {
+			if (!world.getChunkProvider().chunkExists(chunkX, chunkZ)) {
+				return false;
+			}
+			chunkData = new ChunkData();
+			chunks.put(chunkKey, chunkData);
+		}
+		Chunk chunk = null;
+		for (int section = Math.max(minY, 0) >> 4; section <= Math.min(maxY, 255) >> 4; section++) {
+			if (chunkData.sections[section] == null) {
+				chunk = chunk != null ? chunk : world.getChunkFromChunkCoords(chunkX, chunkZ);
+				chunkData.sections[section] = copy(chunk.getBlockStorageArray()[section]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the biome array of the chunk containing the block column, resolving any biomes that have not been
+	 * generated yet
+	 *
+	 * @return True if the biome is available in the snapshot
+	 */
+	public boolean addBiomes(int blockX, int blockZ) {
+		int chunkX = blockX >> 4;
+		int chunkZ = blockZ >> 4;
+		long chunkKey = ChunkKey.of(chunkX, chunkZ);
+		ChunkData chunkData = chunks.get(chunkKey);
+		if (chunkData == null) {
+			if (!world.getChunkProvider().chunkExists(chunkX, chunkZ)) {
+				return false;
+			}
+			chunkData = new ChunkData();
+			chunks.put(chunkKey, chunkData);
+		}
+		if (chunkData.biomes == null) {
+			Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+			byte[] biomes = chunk.getBiomeArray();
+			for (int i = 0; i < biomes.length; i++) {
+				if ((biomes[i] & 255) == 255) {
+					/* Fills in the chunk's biome array */
+					chunk.getBiomeGenForWorldCoords(i & 15, i >> 4, world.getWorldChunkManager());
+				}
+			}
+			chunkData.biomes = biomes.clone();
+		}
+		return true;
+	}
+
+	/**
+	 * @return True if the chunk containing the block column was loaded and added to the snapshot
+	 */
+	public boolean contains(int blockX, int blockZ) {
+		return chunks.containsKey(ChunkKey.of(blockX >> 4, blockZ >> 4));
+	}
+
+	private static Section copy(ExtendedBlockStorage storage) {
+		if (storage == null || storage.isEmpty()) {
+			return EMPTY_SECTION;
+		}
+		NibbleArray blockMSB = storage.getBlockMSBArray();
+		return new Section(storage.getBlockLSBArray().clone(), blockMSB != null ? blockMSB.data.clone() : null,
+				storage.getMetadataArray().data.clone());
+	}
+
+	private Section section(int x, int y, int z) {
+		if (y < 0 || y >= 256) {
+			return EMPTY_SECTION;
+		}
+		ChunkData chunkData = chunks.get(ChunkKey.of(x >> 4, z >> 4));
+		Section section = chunkData != null ? chunkData.sections[y >> 4] : null;
+		/* Only reached by neighbour lookups of custom blocks; candidates are only evaluated within added columns */
+		return section != null ? section : EMPTY_SECTION;
+	}
+
+	private static int nibble(byte[] data, int index) {
+		return (index & 1) == 0 ? data[index >> 1] & 15 : data[index >> 1] >> 4 & 15;
+	}
+
+	@Override
+	public Block getBlock(int x, int y, int z) {
+		Section section = section(x, y, z);
+		if (section.blockLSB == null) {
+			return Blocks.air;
+		}
+		int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+		int blockID = section.blockLSB[index] & 255;
+		if (section.blockMSB != null) {
+			blockID |= nibble(section.blockMSB, index) << 8;
+		}
+		return Block.getBlockById(blockID);
+	}
+
+	@Override
+	public int getBlockMetadata(int x, int y, int z) {
+		Section section = section(x, y, z);
+		return section.metadata != null ? nibble(section.metadata, (y & 15) << 8 | (z & 15) << 4 | (x & 15)) : 0;
+	}
+
+	/**
+	 * Biome of the block column, null if the biomes of the chunk were not copied
+	 */
+	public BiomeGenBase getBiome(int x, int z) {
+		ChunkData chunkData = chunks.get(ChunkKey.of(x >> 4, z >> 4));
+		if (chunkData == null || chunkData.biomes == null) {
+			return null;
+		}
+		return BiomeGenBase.getBiome(chunkData.biomes[(z & 15) << 4 | (x & 15)] & 255);
+	}
+
+	/**
+	 * Tile entities are not copied
+	 */
+	@Override
+	public TileEntity getTileEntity(int x, int y, int z) {
+		return null;
+	}
+
+	@Override
+	public int isBlockProvidingPowerTo(int x, int y, int z, int side) {
+		return 0;
+	}
+
+	@Override
+	public boolean isAirBlock(int x, int y, int z) {
+		return getBlock(x, y, z).isAir(this, x, y, z);
+	}
+
+	@Override
+	public boolean isSideSolid(int x, int y, int z, ForgeDirection side, boolean _default) {
+		if (x < -30000000 || z < -30000000 || x >= 30000000 || z >= 30000000) {
+			return _default;
+		}
+		return getBlock(x, y, z).isSideSolid(this, x, y, z, side);
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public int getLightBrightnessForSkyBlocks(int x, int y, int z, int minBlockLight) {
+		return 0;
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public BiomeGenBase getBiomeGenForCoords(int x, int z) {
+		return getBiome(x, z);
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public int getHeight() {
+		return 256;
+	}
+
+	@Override
+	@SideOnly(Side.CLIENT)
+	public boolean extendedLevelsInChunkCache() {
+		return false;
+	}
+}
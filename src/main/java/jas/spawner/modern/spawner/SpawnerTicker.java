@@ -1,18 +1,26 @@
 package jas.spawner.modern.spawner;
 
+import jas.common.JASLog;
+import jas.common.JustAnotherSpawner;
 import jas.common.global.BiomeBlacklist;
 import jas.spawner.modern.MVELProfile;
-import jas.spawner.modern.spawner.creature.entry.BiomeSpawnListRegistry;
-import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
+import jas.spawner.modern.spawner.ChunkStatMap.KeyPermutation;
+import jas.spawner.modern.spawner.creature.entry.SpawnTables;
 import jas.spawner.modern.spawner.creature.type.CreatureType;
+import jas.spawner.modern.world.WorldSettings;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
+
+import org.apache.logging.log4j.Level;
+
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.TickEvent.Phase;
 import cpw.mods.fml.common.gameevent.TickEvent.ServerTickEvent;
@@ -21,6 +29,40 @@ import cpw.mods.fml.relauncher.Side;
 public class SpawnerTicker {
 
 	private BiomeBlacklist blacklist;
+	/* Spawn cycles paused by the tick budget, by dimension, resumed in order on the following ticks */
+	private final HashMap<Integer, List<SpawnCycle>> pendingCycles = new HashMap<Integer, List<SpawnCycle>>();
+	private long deferredTicks;
+	private long deferredChunks;
+	private long abandonedCycles;
+
+	/**
+	 * Spawning of one CreatureType over the eligible chunks of one count, possibly spread across several ticks
+	 */
+	private static final class SpawnCycle {
+		final WorldServer world;
+		final WorldSettings worldSettings;
+		/* Version of the settings the cycle was started with, the cycle is discarded once they change */
+		final long settingsVersion;
+		/* Spawn tables the cycle was started with and spawns by until it completes */
+		final SpawnTables spawnTables;
+		final CreatureType creatureType;
+		final CountInfo countInfo;
+		/* Created when the cycle first runs, cycles sharing a CountInfo must not have cursors open at once */
+		KeyPermutation chunkCursor;
+
+		SpawnCycle(WorldServer world, WorldSettings worldSettings, CreatureType creatureType, CountInfo countInfo) {
+			this.world = world;
+			this.worldSettings = worldSettings;
+			this.settingsVersion = worldSettings.version();
+			this.spawnTables = worldSettings.biomeSpawnListRegistry().spawnTables();
+			this.creatureType = creatureType;
+			this.countInfo = countInfo;
+		}
+
+		int remainingChunks() {
+			return chunkCursor != null ? chunkCursor.remaining() : countInfo.eligibleChunkCount();
+		}
+	}
 
 	public SpawnerTicker(BiomeBlacklist blacklist) {
 		this.blacklist = blacklist;
@@ -34,9 +76,12 @@ public class SpawnerTicker {
 		MinecraftServer server = MinecraftServer.getServer();
 		/** Perform Spawning */
 		Integer[] ids = DimensionManager.getIDs(server.getTickCounter() % 200 == 0);
+		if (!pendingCycles.isEmpty()) {
+			/* Drop cycles of dimensions that have been unloaded */
+			pendingCycles.keySet().retainAll(Arrays.asList(ids));
+		}
 		for (int x = 0; x < ids.length; x++) {
 			int id = ids[x];
-			long j = System.nanoTime();
 			if (id == 0 || server.getAllowNether()) {
 				WorldServer worldserver = DimensionManager.getWorld(id);
 				performSpawningInWorld(worldserver);
@@ -46,7 +91,33 @@ public class SpawnerTicker {
 		MVELProfile.worldSettings().applyChanges();
 	}
 
+	/**
+	 * @return Number of world ticks in which spawning ran out of budget and was continued on a later tick
+	 */
+	public long getDeferredTicks() {
+		return deferredTicks;
+	}
+
+	/**
+	 * @return Total chunks, summed over every paused cycle, that were left for a later tick
+	 */
+	public long getDeferredChunks() {
+		return deferredChunks;
+	}
+
+	/**
+	 * @return Number of paused cycles discarded before completing, because their type became ready again or the
+	 *         settings were reloaded
+	 */
+	public long getAbandonedCycles() {
+		return abandonedCycles;
+	}
+
 	private void performSpawningInWorld(WorldServer world) {
+		long tickBudget = JustAnotherSpawner.globalSettings().spawnerTickBudgetNanos;
+		long deadline = tickBudget > 0 ? System.nanoTime() + tickBudget : CustomSpawner.NO_DEADLINE;
+		List<SpawnCycle> cycles = takePendingCycles(world);
+		List<SpawnCycle> startedCycles = new ArrayList<SpawnCycle>(cycles);
 		if (!world.getGameRules().hasRule("doCustomMobSpawning")
 				|| world.getGameRules().getGameRuleBooleanValue("doCustomMobSpawning")) {
 
@@ -60,20 +131,111 @@ public class SpawnerTicker {
 				}
 			}
 
-			if (readyCreatureTypes.isEmpty()) {
-				return;
+			if (!readyCreatureTypes.isEmpty()) {
+				/* A type that is ready again restarts from a fresh count rather than finishing its stale cycle */
+				Iterator<SpawnCycle> cycleIterator = cycles.iterator();
+				while (cycleIterator.hasNext()) {
+					if (isTypeReady(readyCreatureTypes, cycleIterator.next().creatureType)) {
+						cycleIterator.remove();
+						abandonedCycles++;
+					}
+				}
+				CountInfo countInfo = CustomSpawner.spawnCounter.countEntities(world);
+				for (CreatureType creatureType : readyCreatureTypes) {
+					SpawnCycle cycle = new SpawnCycle(world, MVELProfile.worldSettings(), creatureType, countInfo);
+					cycles.add(cycle);
+					startedCycles.add(cycle);
+				}
 			}
-			CountInfo countInfo = CustomSpawner.spawnCounter.countEntities(world);
-			for (CreatureType creatureType : readyCreatureTypes) {
-				if (creatureType.isReady(world)) {
-					LivingHandlerRegistry livingHandlerRegistry = MVELProfile.worldSettings()
-							.livingHandlerRegistry();
-					BiomeSpawnListRegistry biomeSpawnListRegistry = MVELProfile.worldSettings()
-							.biomeSpawnListRegistry();
-					CustomSpawner.spawnCreaturesInChunks(world, livingHandlerRegistry, biomeSpawnListRegistry,
-							creatureType, blacklist, countInfo);
+
+			for (int i = 0; i < cycles.size(); i++) {
+				if (!runCycle(cycles.get(i), deadline)) {
+					deferCycles(world, cycles.subList(i, cycles.size()));
+					break;
 				}
 			}
+		} else if (!cycles.isEmpty()) {
+			abandonedCycles += cycles.size();
+		}
+		releaseCounts(world, startedCycles);
+	}
+
+	/**
+	 * Releases the counts of the cycles that no paused cycle still reads, so their chunk maps are reused by the next
+	 * count instead of being copied again
+	 */
+	private void releaseCounts(WorldServer world, List<SpawnCycle> cycles) {
+		List<SpawnCycle> pausedCycles = pendingCycles.get(world.provider.dimensionId);
+		for (SpawnCycle cycle : cycles) {
+			if (!isCountRead(pausedCycles, cycle.countInfo)) {
+				cycle.countInfo.release();
+			}
+		}
+	}
+
+	private boolean isCountRead(List<SpawnCycle> pausedCycles, CountInfo countInfo) {
+		if (pausedCycles != null) {
+			for (SpawnCycle pausedCycle : pausedCycles) {
+				if (pausedCycle.countInfo == countInfo) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isTypeReady(List<CreatureType> readyCreatureTypes, CreatureType creatureType) {
+		for (CreatureType readyType : readyCreatureTypes) {
+			if (readyType.typeID.equals(creatureType.typeID)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return True if the cycle completed, false if it was paused by the deadline
+	 */
+	private boolean runCycle(SpawnCycle cycle, long deadline) {
+		if (cycle.chunkCursor == null) {
+			cycle.chunkCursor = cycle.countInfo.eligibleChunks().randomOrder(cycle.world.rand);
+		}
+		return CustomSpawner.spawnCreaturesInChunks(cycle.world, cycle.worldSettings.livingHandlerRegistry(),
+				cycle.worldSettings.biomeSpawnListRegistry(), cycle.spawnTables, cycle.creatureType, blacklist,
+				cycle.countInfo, cycle.chunkCursor, deadline);
+	}
+
+	private void deferCycles(WorldServer world, List<SpawnCycle> remainingCycles) {
+		int remainingChunks = 0;
+		for (SpawnCycle cycle : remainingCycles) {
+			remainingChunks += cycle.remainingChunks();
+		}
+		deferredTicks++;
+		deferredChunks += remainingChunks;
+		JASLog.log().debug(Level.INFO,
+				"Spawning in dimension %s ran out of time; %s chunks of %s creature types deferred to the next tick",
+				world.provider.dimensionId, remainingChunks, remainingCycles.size());
+		pendingCycles.put(world.provider.dimensionId, new ArrayList<SpawnCycle>(remainingCycles));
+	}
+
+	/**
+	 * Removes and returns the cycles paused in the world, discarding any started against a previous world instance or
+	 * settings that have since been loaded or changed
+	 */
+	private List<SpawnCycle> takePendingCycles(WorldServer world) {
+		List<SpawnCycle> cycles = pendingCycles.remove(world.provider.dimensionId);
+		if (cycles == null) {
+			return new ArrayList<SpawnCycle>();
+		}
+		Iterator<SpawnCycle> iterator = cycles.iterator();
+		while (iterator.hasNext()) {
+			SpawnCycle cycle = iterator.next();
+			if (cycle.world != world || cycle.worldSettings != MVELProfile.worldSettings()
+					|| cycle.settingsVersion != cycle.worldSettings.version()) {
+				iterator.remove();
+				abandonedCycles++;
+			}
 		}
+		return cycles;
 	}
 }
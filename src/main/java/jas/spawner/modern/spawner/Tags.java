@@ -9,7 +9,6 @@ import jas.spawner.modern.spawner.FunctionsUtility.Conditional;
 import jas.spawner.modern.spawner.TagsEntity.FunctionsEntity;
 import jas.spawner.modern.spawner.TagsNBT.FunctionsNBT;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
-import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.modern.spawner.creature.handler.parsing.NBTWriter;
 import jas.spawner.modern.spawner.tags.TagsCount;
 import jas.spawner.modern.spawner.tags.TagsLegacy;
@@ -32,31 +31,82 @@ import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraftforge.common.util.ForgeDirection;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.ImmutableMultimap;
 
 /**
  * Passed to MVEL to be evaluated
+ * 
+ * Instances may be reused for many evaluations by rebinding them with {@link #reset}, which only allocates when the
+ * world or entity changes. A reused instance must not be shared between threads.
  */
 public class Tags extends CommonContext {
 	public Optional<EntityLiving> entity;
 	public final CountAccessor count;
-	public final TagsEntity ent; // Only Valid if Entity is present
-	public final TagsNBT nbt; // Only Valid if Entity is present
+	public TagsEntity ent; // Only Valid if Entity is present
+	public TagsNBT nbt; // Only Valid if Entity is present
+	/* Kept while no entity is bound so they can be rebound rather than recreated */
+	private FunctionsEntity entityFunctions;
+	private FunctionsNBT nbtFunctions;
 
 	public Tags(World world, CountInfo countInfo, int posX, int posY, int posZ) {
 		super(world, posX, posY, posZ);
 		entity = Optional.absent();
 		count = new CountAccessor(countInfo, this);
-		ent = entity.isPresent() ? new FunctionsEntity(this, entity.get()) : null;
-		nbt = entity.isPresent() ? new FunctionsNBT(this, world, entity.get()) : null;
+		ent = null;
+		nbt = null;
 	}
 
 	public Tags(World world, CountInfo countInfo, int posX, int posY, int posZ, @Nonnull EntityLiving entity) {
 		super(world, posX, posY, posZ);
 		this.entity = Optional.of(entity);
 		count = new CountAccessor(countInfo, this);
-		ent = this.entity.isPresent() ? new FunctionsEntity(this, this.entity.get()) : null;
-		nbt = this.entity.isPresent() ? new FunctionsNBT(this, world, this.entity.get()) : null;
+		ent = entityFunctions = new FunctionsEntity(this, entity);
+		nbt = nbtFunctions = new FunctionsNBT(this, world, entity);
+	}
+
+	/**
+	 * Rebinds the Tags to the provided position without an entity
+	 * 
+	 * @return this
+	 */
+	public Tags reset(World world, CountInfo countInfo, int posX, int posY, int posZ) {
+		return reset(world, countInfo, posX, posY, posZ, null);
+	}
+
+	/**
+	 * Rebinds the Tags to the provided position and entity, equivalent to constructing new Tags with them
+	 * 
+	 * @param entity Entity being evaluated, null if none
+	 * @return this
+	 */
+	public Tags reset(World world, CountInfo countInfo, int posX, int posY, int posZ, EntityLiving entity) {
+		setPosition(world, posX, posY, posZ);
+		count.setCountInfo(countInfo);
+		if (entity == null) {
+			this.entity = Optional.absent();
+			ent = null;
+			nbt = null;
+		} else {
+			if (!this.entity.isPresent() || this.entity.get() != entity) {
+				this.entity = Optional.of(entity);
+			}
+			if (entityFunctions == null) {
+				entityFunctions = new FunctionsEntity(this, entity);
+				nbtFunctions = new FunctionsNBT(this, world, entity);
+			} else {
+				entityFunctions.setEntity(entity);
+				nbtFunctions.setEntity(world, entity);
+			}
+			ent = entityFunctions;
+			nbt = nbtFunctions;
+		}
+		return this;
+	}
+
+	/**
+	 * @return True if the Tags are bound to the provided world
+	 */
+	boolean isBoundTo(World world) {
+		return this.world == world;
 	}
 
 	@Deprecated
@@ -103,7 +153,7 @@ public class Tags extends CommonContext {
 				for (String blockKey : blockKeys) {
 					for (Integer metaValue : metas) {
 						if (Block.getBlockFromName(blockKey) == wrld.blockAt(xCoord, yCoord, zCoord)
-								&& metaValue.equals(world.getBlockMetadata(xCoord, yCoord, zCoord))) {
+								&& metaValue.equals(blocks.getBlockMetadata(xCoord, yCoord, zCoord))) {
 							return true;
 						}
 					}
@@ -130,7 +180,7 @@ public class Tags extends CommonContext {
 	@Deprecated
 	public boolean blockFoot(String[] blockKeys, Integer[] metas) {
 		Block blockID = wrld.blockAt(posX, posY - 1, posZ);
-		int meta = world.getBlockMetadata(posX, posY - 1, posZ);
+		int meta = blocks.getBlockMetadata(posX, posY - 1, posZ);
 		for (String blockKey : blockKeys) {
 			Block searchBlock = Block.getBlockFromName(blockKey);
 			if (searchBlock != null) {
@@ -177,7 +227,7 @@ public class Tags extends CommonContext {
 
 			@Override
 			public boolean isMatch(World world, int xCoord, int yCoord, int zCoord) {
-				return wrld.blockAt(xCoord, yCoord, zCoord).isSideSolid(world, xCoord, yCoord, zCoord,
+				return wrld.blockAt(xCoord, yCoord, zCoord).isSideSolid(blocks, xCoord, yCoord, zCoord,
 						ForgeDirection.getOrientation(side));
 			}
 		}.init(side), searchRange, searchOffsets);
@@ -260,13 +310,11 @@ public class Tags extends CommonContext {
 				BiomeGenBase biome = wrld.biomeAt(xCoord, zCoord);
 				BiomeGroupRegistry registry = MVELProfile.worldSettings().biomeGroupRegistry();
 				if (type.equals("GROUP")) {
-					ImmutableMultimap<String, String> packgToBiomeGroupID = registry.packgNameToGroupIDs();
-					if (packgToBiomeGroupID.get(BiomeHelper.getPackageName(biome)).contains(biomeName.substring(2))) {
+					if (registry.groupIDsOf(biome).contains(biomeName.substring(2))) {
 						return true;
 					}
 				} else if (type.equals("ATTRIBUTE")) {
-					ImmutableMultimap<String, String> packgToAttributeID = registry.packgNameToAttribIDs();
-					if (packgToAttributeID.get(BiomeHelper.getPackageName(biome)).contains(biomeName.substring(2))) {
+					if (registry.attribIDsOf(biome).contains(biomeName.substring(2))) {
 						return true;
 					}
 				} else if (type.equals("MAPPING")) {
@@ -24,6 +24,10 @@ public interface TagsEntity {
 			this.entity = entity;
 		}
 
+		void setEntity(EntityLiving entity) {
+			this.entity = entity;
+		}
+
 		/** Entity Tags */
 		public boolean modspawn() {
 			return entity.getCanSpawnHere();
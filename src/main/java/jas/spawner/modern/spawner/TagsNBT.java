@@ -26,6 +26,11 @@ public interface TagsNBT {
 			this.entity = entity;
 		}
 
+		void setEntity(World world, EntityLiving entity) {
+			this.world = world;
+			this.entity = entity;
+		}
+
 		// Extract to NBT
 		public boolean writenbt(String[] nbtOperations) {
 			try {
@@ -5,7 +5,6 @@ import jas.common.JASLog;
 import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.spawner.FunctionsUtility.Conditional;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
-import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.modern.spawner.creature.handler.parsing.NBTWriter;
 import jas.spawner.modern.spawner.tags.Context;
 
@@ -21,7 +20,6 @@ import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraftforge.common.util.ForgeDirection;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.ImmutableMultimap;
 
 public interface TagsSearch {
 
@@ -77,10 +75,12 @@ public interface TagsSearch {
 
 		// Tagparent.obj()ect where usual working parameters such as pos are found
 		private World world;
+		private BlockView blocks;
 		public Context parent;
 
 		public FunctionsSearch(World world, Context parent) {
 			this.world = world;
+			this.blocks = BlockView.of(world);
 			this.parent = parent;
 		}
 
@@ -234,7 +234,7 @@ public interface TagsSearch {
 					for (String blockKey : blockKeys) {
 						for (Integer metaValue : metas) {
 							if (Block.getBlockFromName(blockKey) == parent.wrld().blockAt(xCoord, yCoord, zCoord)
-									&& metaValue.equals(world.getBlockMetadata(xCoord, yCoord, zCoord))) {
+									&& metaValue.equals(blocks.getBlockMetadata(xCoord, yCoord, zCoord))) {
 								return true;
 							}
 						}
@@ -317,7 +317,7 @@ public interface TagsSearch {
 				@Override
 				public boolean isMatch(World world, int xCoord, int yCoord, int zCoord) {
 					return parent.wrld().blockAt(xCoord, yCoord, zCoord)
-							.isSideSolid(world, xCoord, yCoord, zCoord, ForgeDirection.getOrientation(side));
+							.isSideSolid(blocks, xCoord, yCoord, zCoord, ForgeDirection.getOrientation(side));
 				}
 			}.init(side), searchRange, searchOffsets);
 		}
@@ -378,13 +378,11 @@ public interface TagsSearch {
 					BiomeGenBase biome = parent.wrld().biomeAt(xCoord, zCoord);
 					BiomeGroupRegistry registry = MVELProfile.worldSettings().biomeGroupRegistry();
 					if (type.equals("GROUP")) {
-						ImmutableMultimap<String, String> packgToBiomeGroupID = registry.packgNameToGroupIDs();
-						if (packgToBiomeGroupID.get(BiomeHelper.getPackageName(biome)).contains(biomeName.substring(2))) {
+						if (registry.groupIDsOf(biome).contains(biomeName.substring(2))) {
 							return true;
 						}
 					} else if (type.equals("ATTRIBUTE")) {
-						ImmutableMultimap<String, String> packgToAttributeID = registry.packgNameToAttribIDs();
-						if (packgToAttributeID.get(BiomeHelper.getPackageName(biome)).contains(biomeName.substring(2))) {
+						if (registry.attribIDsOf(biome).contains(biomeName.substring(2))) {
 							return true;
 						}
 					} else if (type.equals("MAPPING")) {
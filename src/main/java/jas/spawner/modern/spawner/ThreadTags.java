@@ -0,0 +1,57 @@
+package jas.spawner.modern.spawner;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import net.minecraft.world.World;
+
+/**
+ * Tags reused by the evaluations of each thread, so evaluations do not allocate new Tags. Reused Tags reference the
+ * world, the count and the entity they were last bound to, so the Tags bound to a world are dropped by
+ * {@link #unload(World)} when it unloads rather than kept alive by the threads that evaluated them.
+ */
+public final class ThreadTags {
+	/* Slots of every thread, weak so a slot is collected with its thread */
+	private static final Set<Slot> slots = Collections.newSetFromMap(new WeakHashMap<Slot, Boolean>());
+
+	private final ThreadLocal<Slot> threadSlot = new ThreadLocal<Slot>() {
+		@Override
+		protected Slot initialValue() {
+			Slot slot = new Slot();
+			synchronized (slots) {
+				slots.add(slot);
+			}
+			return slot;
+		}
+	};
+
+	private static final class Slot {
+		volatile Tags tags;
+	}
+
+	/**
+	 * @return Tags of the calling thread, null if it has none yet or they were dropped
+	 */
+	public Tags get() {
+		return threadSlot.get().tags;
+	}
+
+	public void set(Tags tags) {
+		threadSlot.get().tags = tags;
+	}
+
+	/**
+	 * Drops the Tags of every thread bound to the world
+	 */
+	public static void unload(World world) {
+		synchronized (slots) {
+			for (Slot slot : slots) {
+				Tags tags = slot.tags;
+				if (tags != null && tags.isBoundTo(world)) {
+					slot.tags = null;
+				}
+			}
+		}
+	}
+}
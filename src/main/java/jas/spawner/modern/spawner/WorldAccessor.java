@@ -14,9 +14,11 @@ import net.minecraft.world.biome.BiomeGenBase;
  */
 public class WorldAccessor implements TagsWorld {
 	private World world;
+	private BlockView blocks;
 
 	public WorldAccessor(World world) {
 		this.world = world;
+		this.blocks = BlockView.of(world);
 	}
 
 	public int lightAt(int coordX, int coordY, int coordZ) {
@@ -32,7 +34,7 @@ public class WorldAccessor implements TagsWorld {
 	}
 
 	public Block blockAt(int coordX, int coordY, int coordZ) {
-		return world.getBlock(coordX, coordY, coordZ);
+		return blocks.getBlock(coordX, coordY, coordZ);
 	}
 
 	public BiomeGenBase biomeAt(int coordX, int coordZ) {
@@ -48,7 +50,7 @@ public class WorldAccessor implements TagsWorld {
 	}
 
 	public Material materialAt(int coordX, int coordY, int coordZ) {
-		return world.getBlock(coordX, coordY, coordZ).getMaterial();
+		return blocks.getBlock(coordX, coordY, coordZ).getMaterial();
 	}
 
 	public ChunkCoordinates originPos() {
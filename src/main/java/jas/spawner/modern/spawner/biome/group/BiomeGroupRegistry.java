@@ -2,6 +2,7 @@ package jas.spawner.modern.spawner.biome.group;
 
 import jas.common.JASLog;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.common.helper.sort.TopologicalSort;
 import jas.common.helper.sort.TopologicalSortingException;
@@ -9,15 +10,18 @@ import jas.common.helper.sort.TopologicalSort.DirectedGraph;
 import jas.spawner.modern.math.SetAlgebra;
 import jas.spawner.modern.math.SetAlgebra.OPERATION;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupSaveObject.BiomeGroupSaveObjectSerializer;
+import jas.spawner.modern.world.CompiledRulesCache;
 import jas.spawner.modern.world.WorldProperties;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +35,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
@@ -41,6 +46,11 @@ import com.google.gson.Gson;
 import cpw.mods.fml.common.toposort.ModSortingException.SortingExceptionData;
 
 public class BiomeGroupRegistry {
+	/* Resolved groups, kept beside the BiomeGroups configuration */
+	private static final String CACHE_FILE = "BiomeGroups.bin";
+	private static final String ATTRIBUTE_SECTION = "BiomeAttributes";
+	private static final String GROUP_SECTION = "BiomeGroups";
+
 	private ImmutableMap<String, BiomeGroup> iDToGroup;
 
 	/** New Mappings added the Last Time BiomeGroupRegistry.load() was run */
@@ -103,6 +113,43 @@ public class BiomeGroupRegistry {
 		return iDToAttribute;
 	}
 
+	/*
+	 * Look-ups indexed by BiomeID of the package name, group and attribute maps so spawn checks do not resolve the
+	 * package name of a biome. Rebuilt whenever the groups change.
+	 */
+	private String[] biomeIDToPckgName = new String[0];
+	private ImmutableList<String>[] biomeIDToGroupIDs = newListArray(0);
+	private ImmutableList<String>[] biomeIDToAttribIDs = newListArray(0);
+	/* Incremented whenever the groups are rebuilt */
+	private int version;
+
+	/** Package name of the Biome, see {@link BiomeHelper#getPackageName(BiomeGenBase)} */
+	public String pckgNameOf(BiomeGenBase biome) {
+		String[] pckgNames = biomeIDToPckgName;
+		if (biome.biomeID < pckgNames.length && pckgNames[biome.biomeID] != null) {
+			return pckgNames[biome.biomeID];
+		}
+		return BiomeHelper.getPackageName(biome);
+	}
+
+	/** All Groups the Biome is In, equivalent to packgNameToGroupIDs().get(packageName) */
+	public ImmutableList<String> groupIDsOf(BiomeGenBase biome) {
+		ImmutableList<String>[] groupIDs = biomeIDToGroupIDs;
+		if (biome.biomeID < groupIDs.length && groupIDs[biome.biomeID] != null) {
+			return groupIDs[biome.biomeID];
+		}
+		return packgNameToGroupIDs.get(BiomeHelper.getPackageName(biome));
+	}
+
+	/** All Attributes the Biome is In, equivalent to packgNameToAttribIDs().get(packageName) */
+	public ImmutableList<String> attribIDsOf(BiomeGenBase biome) {
+		ImmutableList<String>[] attribIDs = biomeIDToAttribIDs;
+		if (biome.biomeID < attribIDs.length && attribIDs[biome.biomeID] != null) {
+			return attribIDs[biome.biomeID];
+		}
+		return packgNameToAttribIDs.get(BiomeHelper.getPackageName(biome));
+	}
+
 	private final WorldProperties worldProperties;
 
 	public BiomeGroupRegistry(WorldProperties worldProperties) {
@@ -211,10 +258,137 @@ public class BiomeGroupRegistry {
 			}
 		}
 		pckgNameToBiomeID = ImmutableListMultimap.<String, Integer> builder().putAll(pckgNameToBiomeIDBuilder).build();
-		
+
+		File cacheFile = new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
+				+ CACHE_FILE);
+		byte[] cacheKey = cacheKey(gsonBiomeFile);
+		CompiledRulesCache cache = cacheKey != null ? CompiledRulesCache.read(cacheFile, cacheKey) : null;
 		newMappings = new HashSet<String>(loadMappings(savedStats));
-		loadAttributes(savedStats);
-		loadBiomeGroups(savedStats, newMappings);
+		List<BiomeGroup> attributes = loadAttributes(savedStats,
+				cache != null ? cache.section(ATTRIBUTE_SECTION) : null);
+		List<BiomeGroup> groups = loadBiomeGroups(savedStats, newMappings,
+				cache != null ? cache.section(GROUP_SECTION) : null);
+		buildBiomeIDLookups();
+		if (cache != null) {
+			JASLog.log().info("Resolved BiomeGroups from %s", CACHE_FILE);
+		} else if (cacheKey != null) {
+			Map<String, Map<String, Set<String>>> sections = new HashMap<String, Map<String, Set<String>>>();
+			sections.put(ATTRIBUTE_SECTION, resolvedNames(attributes));
+			sections.put(GROUP_SECTION, resolvedNames(groups));
+			CompiledRulesCache.write(cacheFile, cacheKey, sections);
+		}
+	}
+
+	/**
+	 * Key of everything the groups are resolved from: the group configuration, the registered biomes and the
+	 * BiomeDictionary types the default attributes are made from
+	 * 
+	 * @return Key of the cache, null if the configuration could not be read
+	 */
+	private static byte[] cacheKey(File gsonBiomeFile) {
+		CompiledRulesCache.KeyBuilder key = new CompiledRulesCache.KeyBuilder();
+		try {
+			key.putFile(gsonBiomeFile);
+		} catch (IOException e) {
+			JASLog.log().warning("Unable to read %s to check the cached BiomeGroups: %s", gsonBiomeFile.getName(),
+					e.getMessage());
+			return null;
+		}
+		for (BiomeGenBase biome : BiomeGenBase.getBiomeGenArray()) {
+			if (biome != null) {
+				key.putInt(biome.biomeID).putString(BiomeHelper.getPackageName(biome)).putString(biome.biomeName);
+			}
+		}
+		for (Type type : BiomeDictionary.Type.values()) {
+			key.putString(type.toString());
+			for (BiomeGenBase biome : BiomeDictionary.getBiomesForType(type)) {
+				key.putInt(biome.biomeID);
+			}
+		}
+		return key.build();
+	}
+
+	/**
+	 * @return Package names of each group, in the order the groups were resolved
+	 */
+	private static Map<String, Set<String>> resolvedNames(List<BiomeGroup> groups) {
+		Map<String, Set<String>> resolved = new LinkedHashMap<String, Set<String>>();
+		for (BiomeGroup group : groups) {
+			resolved.put(group.groupID, group.pckgNames);
+		}
+		return resolved;
+	}
+
+	/**
+	 * Groups in the order to resolve them in: the order they were cached in if every group is cached, else sorted
+	 * such that groups come after the groups they contain
+	 */
+	private List<BiomeGroup> getResolveOrder(Collection<BiomeGroup> groups, Map<String, List<String>> cached) {
+		if (cached != null && cached.size() == groups.size()) {
+			Map<String, BiomeGroup> iDToGroup = new HashMap<String, BiomeGroup>();
+			for (BiomeGroup group : groups) {
+				iDToGroup.put(group.groupID, group);
+			}
+			List<BiomeGroup> ordered = new ArrayList<BiomeGroup>(groups.size());
+			for (String groupID : cached.keySet()) {
+				BiomeGroup group = iDToGroup.get(groupID);
+				if (group == null) {
+					break;
+				}
+				ordered.add(group);
+			}
+			if (ordered.size() == groups.size()) {
+				return ordered;
+			}
+		}
+		return getSortedGroups(groups);
+	}
+
+	/**
+	 * Fills in the package names of the group from the cache if present there, else by evaluating its contents
+	 */
+	private void resolveGroup(BiomeGroup biomeGroup, Map<String, List<String>> cached,
+			Map<String, BiomeGroup> iDToGroupBuilder, Map<String, BiomeGroup> iDToAttributeBuilder) {
+		List<String> cachedNames = cached != null ? cached.get(biomeGroup.groupID) : null;
+		if (cachedNames != null) {
+			biomeGroup.pckgNames.addAll(cachedNames);
+		} else {
+			parseGroupContents(biomeGroup, iDToGroupBuilder, iDToAttributeBuilder);
+		}
+	}
+
+	/**
+	 * Rebuilds the BiomeID indexed look-ups from the package name maps. Each array is replaced in a single assignment.
+	 */
+	private void buildBiomeIDLookups() {
+		BiomeGenBase[] biomes = BiomeGenBase.getBiomeGenArray();
+		String[] pckgNames = new String[biomes.length];
+		ImmutableList<String>[] groupIDs = newListArray(biomes.length);
+		ImmutableList<String>[] attribIDs = newListArray(biomes.length);
+		for (BiomeGenBase biome : biomes) {
+			if (biome != null) {
+				String pckgName = BiomeHelper.getPackageName(biome);
+				pckgNames[biome.biomeID] = pckgName;
+				groupIDs[biome.biomeID] = packgNameToGroupIDs.get(pckgName);
+				attribIDs[biome.biomeID] = packgNameToAttribIDs.get(pckgName);
+			}
+		}
+		biomeIDToPckgName = pckgNames;
+		biomeIDToGroupIDs = groupIDs;
+		biomeIDToAttribIDs = attribIDs;
+		version++;
+	}
+
+	/**
+	 * @return Stamp that changes whenever the groups are loaded, added, removed or updated
+	 */
+	public int version() {
+		return version;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ImmutableList<String>[] newListArray(int length) {
+		return new ImmutableList[length];
 	}
 
 	/**
@@ -258,7 +432,11 @@ public class BiomeGroupRegistry {
 		return newMappings;
 	}
 
-	private void loadAttributes(BiomeGroupSaveObject savedStats) {
+	/**
+	 * @param cached Package names of each attribute as cached, null to evaluate every attribute
+	 * @return Attributes in the order they were resolved
+	 */
+	private List<BiomeGroup> loadAttributes(BiomeGroupSaveObject savedStats, Map<String, List<String>> cached) {
 		Set<BiomeGroup> attributeGroups = new HashSet<BiomeGroup>();
 		if (savedStats.getConfigNameToAttributeGroups().isPresent()) {
 			for (TreeMap<String, BiomeGroup> entries : savedStats.getConfigNameToAttributeGroups().get().values()) {
@@ -279,14 +457,14 @@ public class BiomeGroupRegistry {
 			}
 		}
 		HashMap<String, BiomeGroup> iDToAttributeBuilder = new HashMap<String, BiomeGroup>();
-		List<BiomeGroup> sortedAttributes = getSortedGroups(attributeGroups);
+		List<BiomeGroup> sortedAttributes = getResolveOrder(attributeGroups, cached);
 		ListMultimap<String, String> packgNameToAttribIDsBuilder = ArrayListMultimap.create();
 
 		/*
 		 * Evaluate and register groups. i.e. from group form A|allbiomes,&Jungle to individual jasNames
 		 */
 		for (BiomeGroup biomeGroup : sortedAttributes) {
-			parseGroupContents(biomeGroup, null, iDToAttributeBuilder);
+			resolveGroup(biomeGroup, cached, null, iDToAttributeBuilder);
 			// JASLog.log().info("Registering Attribute %s",
 			// biomeGroup.toString());
 			iDToAttributeBuilder.put(biomeGroup.groupID, biomeGroup);
@@ -297,9 +475,15 @@ public class BiomeGroupRegistry {
 		packgNameToAttribIDs = ImmutableListMultimap.<String, String> builder().putAll(packgNameToAttribIDsBuilder)
 				.build();
 		iDToAttribute = ImmutableMap.<String, BiomeGroup> builder().putAll(iDToAttributeBuilder).build();
+		return sortedAttributes;
 	}
 
-	private void loadBiomeGroups(BiomeGroupSaveObject savedStats, Set<String> newMappings) {
+	/**
+	 * @param cached Package names of each group as cached, null to evaluate every group
+	 * @return Groups in the order they were resolved
+	 */
+	private List<BiomeGroup> loadBiomeGroups(BiomeGroupSaveObject savedStats, Set<String> newMappings,
+			Map<String, List<String>> cached) {
 		Set<BiomeGroup> biomeGroups = new HashSet<BiomeGroup>();
 		if (savedStats.getConfigNameToBiomeGroups().isPresent()) {
 			for (TreeMap<String, BiomeGroup> entries : savedStats.getConfigNameToBiomeGroups().get().values()) {
@@ -317,7 +501,7 @@ public class BiomeGroupRegistry {
 			biomeGroups.add(group);
 		}
 		
-		List<BiomeGroup> sortedGroups = getSortedGroups(biomeGroups);
+		List<BiomeGroup> sortedGroups = getResolveOrder(biomeGroups, cached);
 		HashMap<String, BiomeGroup> iDToGroupBuilder = new HashMap<String, BiomeGroup>();
 		ListMultimap<String, String> packgNameToGroupIDsBuilder = ArrayListMultimap.create();
 
@@ -325,7 +509,7 @@ public class BiomeGroupRegistry {
 		 * Evaluate and register groups. i.e. from group form A|allbiomes,&Jungle to individual jasNames
 		 */
 		for (BiomeGroup biomeGroup : sortedGroups) {
-			parseGroupContents(biomeGroup, iDToGroupBuilder, iDToAttribute);
+			resolveGroup(biomeGroup, cached, iDToGroupBuilder, iDToAttribute);
 			if (biomeGroup.pckgNames.size() > 0) {
 				JASLog.log().info("Registering BiomeGroup %s", biomeGroup.toString());
 				iDToGroupBuilder.put(biomeGroup.groupID, biomeGroup);
@@ -338,6 +522,7 @@ public class BiomeGroupRegistry {
 		packgNameToGroupIDs = ImmutableListMultimap.<String, String> builder().putAll(packgNameToGroupIDsBuilder)
 				.build();
 		iDToGroup = ImmutableMap.<String, BiomeGroup> builder().putAll(iDToGroupBuilder).build();
+		return sortedGroups;
 	}
 
 	private List<BiomeGroup> getSortedGroups(Collection<BiomeGroup> groupsToSort) {
@@ -433,7 +618,7 @@ public class BiomeGroupRegistry {
 	 * 
 	 * If config settings are already present, they will be overwritten
 	 */
-	public void saveToConfig(File configDirectory) {
+	public void saveToConfig(File configDirectory, FileWriteBatch writes) {
 		// Gson gson = new
 		// GsonBuilder().setVersion(DefaultProps.GSON_VERSION).setPrettyPrinting().create();
 		Gson gson = GsonHelper.createGson(true, new java.lang.reflect.Type[] { BiomeGroupSaveObject.class },
@@ -442,7 +627,7 @@ public class BiomeGroupRegistry {
 				worldProperties.getFolderConfiguration().saveName);
 		BiomeGroupSaveObject biomeGroupAuthor = new BiomeGroupSaveObject(biomePckgToMapping, iDToAttribute.values(),
 				iDToGroup.values());
-		GsonHelper.writeToGson(FileUtilities.createWriter(gsonBiomeFile, true), biomeGroupAuthor, gson);
+		GsonHelper.writeToGson(writes, gsonBiomeFile, biomeGroupAuthor, gson);
 	}
 
 	public void addBiomeGroup(String groupName, ArrayList<String> contents) {
@@ -490,6 +675,7 @@ public class BiomeGroupRegistry {
 		packgNameToGroupIDs = ImmutableListMultimap.<String, String> builder().putAll(packgNameToGroupIDsBuilder)
 				.build();
 		iDToGroup = ImmutableMap.<String, BiomeGroup> builder().putAll(iDToGroupBuilder).build();
+		buildBiomeIDLookups();
 	}
 
 	public void removeBiomeGroup(String biomeGroupID) {
@@ -521,6 +707,7 @@ public class BiomeGroupRegistry {
 		packgNameToGroupIDs = ImmutableListMultimap.<String, String> builder().putAll(packgNameToGroupIDsBuilder)
 				.build();
 		iDToGroup = ImmutableMap.<String, BiomeGroup> builder().putAll(iDToGroupBuilder).build();
+		buildBiomeIDLookups();
 	}
 
 	public void updateBiomeGroup(String prevBiomeGroupId, String groupName, ArrayList<String> contents) {
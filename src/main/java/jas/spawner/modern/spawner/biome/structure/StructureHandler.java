@@ -5,6 +5,7 @@ import jas.common.JASLog;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntryBuilder;
+import jas.spawner.modern.spawner.creature.entry.SpawnListSampler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 import jas.spawner.modern.spawner.creature.type.CreatureTypeRegistry;
@@ -27,6 +28,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 
 public class StructureHandler {
@@ -36,6 +38,8 @@ public class StructureHandler {
 	private ImmutableListMultimap<String, SpawnListEntry> structureKeysToSpawnList;
 	/* Tracks valid entries that are currently ignore (weight ==0 or type==NONE) but need to be kept in the config */
 	private ImmutableListMultimap<String, SpawnListEntry> structureKeysToDisabledpawnList;
+	/* Samplers of structureKeysToSpawnList, replaced together with it */
+	private volatile ImmutableMap<String, SpawnListSampler> structureKeysToSampler = ImmutableMap.of();
 
 	public StructureHandler(StructureInterpreter interpreter) {
 		Builder<String> builder = ImmutableList.builder();
@@ -71,6 +75,22 @@ public class StructureHandler {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Sampler of {@link #getStructureSpawnList(World, int, int, int)}
+	 * 
+	 * @return Sampler of the structure's SpawnList. Empty if none.
+	 */
+	public SpawnListSampler getStructureSampler(World world, int xCoord, int yCoord, int zCoord) {
+		String structureKey = interpreter.areCoordsStructure(world, xCoord, yCoord, zCoord);
+		if (structureKey != null) {
+			SpawnListSampler sampler = structureKeysToSampler.get(structureKey);
+			if (sampler != null) {
+				return sampler;
+			}
+		}
+		return SpawnListSampler.EMPTY;
+	}
+
 	public String getStructure(World world, int xCoord, int yCoord, int zCoord) {
 		return interpreter.areCoordsStructure(world, xCoord, yCoord, zCoord);
 	}
@@ -145,11 +165,21 @@ public class StructureHandler {
 			}
 
 		}
+		setSpawnLists(structureKeysToSpawnList, structureKeysToDisabledpawnList);
+        JASLog.log().info("Finished loading and configuring Structure SpawnListEntry data");
+	}
+
+	private void setSpawnLists(ListMultimap<String, SpawnListEntry> structureKeysToSpawnList,
+			ListMultimap<String, SpawnListEntry> structureKeysToDisabledpawnList) {
 		this.structureKeysToSpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
 				.putAll(structureKeysToSpawnList).build();
 		this.structureKeysToDisabledpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
 				.putAll(structureKeysToDisabledpawnList).build();
-        JASLog.log().info("Finished loading and configuring Structure SpawnListEntry data");
+		ImmutableMap.Builder<String, SpawnListSampler> samplers = ImmutableMap.builder();
+		for (String structureKey : this.structureKeysToSpawnList.keySet()) {
+			samplers.put(structureKey, SpawnListSampler.of(this.structureKeysToSpawnList.get(structureKey)));
+		}
+		this.structureKeysToSampler = samplers.build();
 	}
 
 	public static File getFile(File configDirectory, String saveName) {
@@ -191,10 +221,7 @@ public class StructureHandler {
 				}
 			}
 		}
-		this.structureKeysToSpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
-				.putAll(structureKeysToSpawnList).build();
-		this.structureKeysToDisabledpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
-				.putAll(structureKeysToDisabledpawnList).build();
+		setSpawnLists(structureKeysToSpawnList, structureKeysToDisabledpawnList);
 	}
 
 	public void removeSpawnListEntry(LivingHandlerRegistry livingHandlerRegistry, String livingGroupID) {
@@ -231,9 +258,6 @@ public class StructureHandler {
 			}
 		}
 
-		this.structureKeysToSpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
-				.putAll(structureKeysToSpawnList).build();
-		this.structureKeysToDisabledpawnList = ImmutableListMultimap.<String, SpawnListEntry> builder()
-				.putAll(structureKeysToDisabledpawnList).build();
+		setSpawnLists(structureKeysToSpawnList, structureKeysToDisabledpawnList);
 	}
 }
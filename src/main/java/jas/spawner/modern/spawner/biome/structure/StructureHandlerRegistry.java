@@ -2,9 +2,11 @@ package jas.spawner.modern.spawner.biome.structure;
 
 import jas.api.StructureInterpreter;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntryBuilder;
+import jas.spawner.modern.spawner.creature.entry.SpawnListSampler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 import jas.spawner.modern.world.WorldProperties;
 
@@ -65,12 +67,12 @@ public class StructureHandlerRegistry {
      * 
      * If config settings are already present, they will be overwritten
      */
-    public void saveCurrentToConfig(File configDirectory) {
+    public void saveCurrentToConfig(File configDirectory, FileWriteBatch writes) {
         File structureFile = StructureHandler.getFile(configDirectory,
                 worldProperties.getFolderConfiguration().saveName);
         Gson gson = GsonHelper.createGson(true, new Type[] { StructureSaveObject.class },
                 new Object[] { new StructureSaveObject.Serializer() });
-        GsonHelper.writeToGson(FileUtilities.createWriter(structureFile, true), new StructureSaveObject(
+        GsonHelper.writeToGson(writes, structureFile, new StructureSaveObject(
                 livingHandlerRegistry, structureHandlers), gson);
     }
 
@@ -88,4 +90,21 @@ public class StructureHandlerRegistry {
         }
         return Collections.emptyList();
     }
+
+    /**
+     * Sampler of {@link #getSpawnListAt(World, int, int, int)}
+     */
+    public SpawnListSampler getSamplerAt(World world, int xCoord, int yCoord, int zCoord) {
+        Iterator<StructureHandler> iterator = this.handlers().iterator();
+        while (iterator.hasNext()) {
+            StructureHandler handler = iterator.next();
+            if (handler.doesHandlerApply(world, xCoord, yCoord, zCoord)) {
+                SpawnListSampler sampler = handler.getStructureSampler(world, xCoord, yCoord, zCoord);
+                if (!sampler.isEmpty()) {
+                    return sampler;
+                }
+            }
+        }
+        return SpawnListSampler.EMPTY;
+    }
 }
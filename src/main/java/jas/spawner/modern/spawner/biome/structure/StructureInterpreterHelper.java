@@ -1,23 +1,72 @@
 package jas.spawner.modern.spawner.biome.structure;
 
-import jas.common.helper.ReflectionHelper;
+import jas.common.JASLog;
+
+import java.lang.reflect.Field;
+
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.gen.ChunkProviderGenerate;
 import net.minecraft.world.gen.ChunkProviderServer;
 
 public class StructureInterpreterHelper {
+    /* Resolved once, the lookup by name is far more expensive than reading the field */
+    private static final Field currentChunkProvider = findField(ChunkProviderServer.class, "field_73246_d",
+            "currentChunkProvider");
+    private static final Field mapFeaturesEnabled = findField(ChunkProviderGenerate.class, "field_73229_q",
+            "mapFeaturesEnabled");
 
     @SuppressWarnings("unchecked")
     public static <T> T getInnerChunkProvider(World world, Class<T> chunkClass) {
         ChunkProviderServer chunkprovider = (ChunkProviderServer) world.getChunkProvider();
-        IChunkProvider currentChunkProvider;
+        IChunkProvider currentChunkProvider = getFieldValue(StructureInterpreterHelper.currentChunkProvider,
+                chunkprovider, IChunkProvider.class);
+        return currentChunkProvider != null && chunkClass.isAssignableFrom(currentChunkProvider.getClass()) ? (T) currentChunkProvider
+                : null;
+    }
+
+    public static boolean areMapFeaturesEnabled(ChunkProviderGenerate chunkProviderGenerate) {
+        Boolean areMapFeaturesEnabled = getFieldValue(mapFeaturesEnabled, chunkProviderGenerate, Boolean.class);
+        return areMapFeaturesEnabled != null && areMapFeaturesEnabled;
+    }
+
+    /**
+     * Resolves a field declared by the class, trying the obfuscated name before the deobfuscated name
+     *
+     * @return Accessible field, null if neither name exists
+     */
+    public static Field findField(Class<?> declaringClass, String obfName, String fieldName) {
+        Field field;
         try {
-            currentChunkProvider = ReflectionHelper.getCatchableFieldFromReflection("field_73246_d", chunkprovider,
-                    IChunkProvider.class);
+            field = declaringClass.getDeclaredField(obfName);
         } catch (NoSuchFieldException e) {
-            currentChunkProvider = ReflectionHelper.getFieldFromReflection("currentChunkProvider", chunkprovider,
-                    IChunkProvider.class);
+            try {
+                field = declaringClass.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e1) {
+                JASLog.log().severe(
+                        "Obfuscation needs to be updated to access the %s %s. Please notify modmaker Immediately.",
+                        fieldName, declaringClass.getSimpleName());
+                return null;
+            }
+        }
+        field.setAccessible(true);
+        return field;
+    }
+
+    /**
+     * @return Value of the field resolved by {@link #findField(Class, String, String)}, null if it could not be read
+     */
+    public static <T> T getFieldValue(Field field, Object containterInstance, Class<T> type) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            return type.cast(field.get(containterInstance));
+        } catch (IllegalAccessException e) {
+            JASLog.log().severe(
+                    "Obfuscation needs to be updated to access the %s %s. Please notify modmaker Immediately.",
+                    field.getName(), type.getSimpleName());
+            return null;
         }
-        return chunkClass.isAssignableFrom(currentChunkProvider.getClass()) ? (T) currentChunkProvider : null;
     }
 }
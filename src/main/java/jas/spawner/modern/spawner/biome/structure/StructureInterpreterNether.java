@@ -1,12 +1,9 @@
 package jas.spawner.modern.spawner.biome.structure;
 
 import jas.api.StructureInterpreter;
-import jas.common.helper.ReflectionHelper;
 
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 
 import net.minecraft.entity.monster.EntityBlaze;
 import net.minecraft.entity.monster.EntityMagmaCube;
@@ -18,10 +15,7 @@ import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
 import net.minecraft.world.biome.BiomeGenHell;
 import net.minecraft.world.gen.ChunkProviderHell;
 import net.minecraft.world.gen.ChunkProviderServer;
-import net.minecraft.world.gen.structure.MapGenNetherBridge;
 import net.minecraft.world.gen.structure.MapGenStructure;
-import net.minecraftforge.event.world.WorldEvent;
-import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 
 public class StructureInterpreterNether implements StructureInterpreter {
 
@@ -48,26 +42,15 @@ public class StructureInterpreterNether implements StructureInterpreter {
 
 	@Override
 	public String areCoordsStructure(World world, int xCoord, int yCoord, int zCoord) {
-		MapGenStructure genNetherBridge = null;
-		if (genNetherBridge == null) {
-			BiomeGenBase biome = world.getBiomeGenForCoords(xCoord, zCoord);
-			ChunkProviderServer chunkprovider = (ChunkProviderServer) world.getChunkProvider();
-			ChunkProviderHell chunkProviderHell = chunkprovider.currentChunkProvider instanceof ChunkProviderHell ? (ChunkProviderHell) chunkprovider.currentChunkProvider
-					: null;
-			if (chunkProviderHell == null || !(biome instanceof BiomeGenHell)) {
-				return null;
-			}
-			genNetherBridge = chunkProviderHell.genNetherBridge;
-			try {
-				genNetherBridge = ReflectionHelper.getCatchableFieldFromReflection("field_73172_c", chunkProviderHell,
-						MapGenNetherBridge.class);
-			} catch (NoSuchFieldException e) {
-				genNetherBridge = ReflectionHelper.getFieldFromReflection("genNetherBridge", chunkProviderHell,
-						MapGenNetherBridge.class);
-			}
+		BiomeGenBase biome = world.getBiomeGenForCoords(xCoord, zCoord);
+		ChunkProviderServer chunkprovider = (ChunkProviderServer) world.getChunkProvider();
+		ChunkProviderHell chunkProviderHell = chunkprovider.currentChunkProvider instanceof ChunkProviderHell ? (ChunkProviderHell) chunkprovider.currentChunkProvider
+				: null;
+		if (chunkProviderHell == null || !(biome instanceof BiomeGenHell)) {
+			return null;
 		}
-
-		if (genNetherBridge != null && genNetherBridge.hasStructureAt(xCoord, yCoord, zCoord)) {
+		MapGenStructure genNetherBridge = chunkProviderHell.genNetherBridge;
+		if (genNetherBridge != null && StructureStartIndex.hasStructureAt(genNetherBridge, xCoord, yCoord, zCoord)) {
 			return "NetherBridge";
 		}
 		return null;
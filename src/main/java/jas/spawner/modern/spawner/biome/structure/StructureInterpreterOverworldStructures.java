@@ -1,10 +1,9 @@
 package jas.spawner.modern.spawner.biome.structure;
 
 import jas.api.StructureInterpreter;
-import jas.common.JASLog;
-import jas.common.helper.ReflectionHelper;
 
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -13,9 +12,7 @@ import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
 import net.minecraft.world.gen.ChunkProviderGenerate;
-import net.minecraft.world.gen.ChunkProviderHell;
 import net.minecraft.world.gen.ChunkProviderServer;
-import net.minecraft.world.gen.MapGenBase;
 import net.minecraft.world.gen.structure.MapGenMineshaft;
 import net.minecraft.world.gen.structure.MapGenStronghold;
 import net.minecraft.world.gen.structure.MapGenStructure;
@@ -30,6 +27,11 @@ public class StructureInterpreterOverworldStructures implements StructureInterpr
 	private WeakReference<MapGenStructure> strongholdRef = new WeakReference(null);
 	private WeakReference<MapGenStructure> mineshaftRef = new WeakReference(null);
 
+	private static final Field strongholdGenerator = StructureInterpreterHelper.findField(
+			ChunkProviderGenerate.class, "field_73225_u", "strongholdGenerator");
+	private static final Field mineshaftGenerator = StructureInterpreterHelper.findField(ChunkProviderGenerate.class,
+			"field_73223_w", "mineshaftGenerator");
+
 	@Override
 	public Collection<String> getStructureKeys() {
 		return Arrays.asList(STRONGHOLD_KEY, MINESHAFT_KEY);
@@ -48,14 +50,15 @@ public class StructureInterpreterOverworldStructures implements StructureInterpr
 			ChunkProviderServer chunkprovider = (ChunkProviderServer) world.getChunkProvider();
 			ChunkProviderGenerate chunkProviderGenerate = chunkprovider.currentChunkProvider instanceof ChunkProviderGenerate ? (ChunkProviderGenerate) chunkprovider.currentChunkProvider
 					: null;
-			if (chunkProviderGenerate == null || !areMapFeaturesEnabled(chunkProviderGenerate)) {
+			if (chunkProviderGenerate == null
+					|| !StructureInterpreterHelper.areMapFeaturesEnabled(chunkProviderGenerate)) {
 				return null;
 			}
 			if (strongholdGen == null) {
-				refreshStronghold(chunkProviderGenerate);
+				strongholdGen = refreshStronghold(chunkProviderGenerate);
 			}
-			if (strongholdGen == null) {
-				refreshMineshaft(chunkProviderGenerate);
+			if (mineshaftGen == null) {
+				mineshaftGen = refreshMineshaft(chunkProviderGenerate);
 			}
 		}
 
@@ -72,61 +75,22 @@ public class StructureInterpreterOverworldStructures implements StructureInterpr
 	}
 
 	private MapGenStructure refreshStronghold(ChunkProviderGenerate chunkProviderGenerate) {
-		MapGenStructure structure = getStructure(chunkProviderGenerate, MapGenStronghold.class, "strongholdGenerator",
-				"field_73225_u");
+		MapGenStructure structure = StructureInterpreterHelper.getFieldValue(strongholdGenerator,
+				chunkProviderGenerate, MapGenStronghold.class);
 		strongholdRef = new WeakReference(structure);
 		return structure;
 	}
 
 	private MapGenStructure refreshMineshaft(ChunkProviderGenerate chunkProviderGenerate) {
-		MapGenStructure structure = getStructure(chunkProviderGenerate, MapGenMineshaft.class, "mineshaftGenerator",
-				"field_73223_w");
+		MapGenStructure structure = StructureInterpreterHelper.getFieldValue(mineshaftGenerator,
+				chunkProviderGenerate, MapGenMineshaft.class);
 		mineshaftRef = new WeakReference(structure);
 		return structure;
 	}
 
-	private boolean areMapFeaturesEnabled(ChunkProviderGenerate chunkProviderGenerate) {
-		Boolean areMapFeaturesEnabled = false;
-		if (chunkProviderGenerate != null) {
-			try {
-				areMapFeaturesEnabled = ReflectionHelper.getCatchableFieldFromReflection("field_73229_q",
-						ChunkProviderGenerate.class, chunkProviderGenerate, Boolean.class);
-			} catch (NoSuchFieldException e) {
-				areMapFeaturesEnabled = ReflectionHelper.getFieldFromReflection("mapFeaturesEnabled",
-						ChunkProviderGenerate.class, chunkProviderGenerate, Boolean.class);
-			}
-		}
-		return areMapFeaturesEnabled;
-	}
-	
-	private MapGenStructure getStructure(ChunkProviderGenerate chunkProviderGenerate,
-			Class<? extends MapGenStructure> fieldClass, String fieldName, String obfName) {
-		MapGenStructure structure;
-		try {
-			structure = ReflectionHelper.getCatchableFieldFromReflection(obfName, ChunkProviderGenerate.class,
-					chunkProviderGenerate, fieldClass);
-		} catch (NoSuchFieldException e) {
-			structure = ReflectionHelper.getFieldFromReflection(fieldName, ChunkProviderGenerate.class,
-					chunkProviderGenerate, fieldClass);
-		}
-		return structure;
-	}
-
 	private String isLocationStructure(MapGenStructure structure, String structureKey, int xCoord, int yCoord,
 			int zCoord) {
-		if (structure == null) {
-			return null;
-		}
-		World structureWorld;
-		try {
-			structureWorld = ReflectionHelper.getCatchableFieldFromReflection("field_75039_c", MapGenBase.class,
-					structure, World.class);
-		} catch (NoSuchFieldException e) {
-			structureWorld = ReflectionHelper.getFieldFromReflection("worldObj", MapGenBase.class, structure,
-					World.class);
-		}
-
-		if (structureWorld != null && structure.hasStructureAt(xCoord, yCoord, zCoord)) {
+		if (structure != null && StructureStartIndex.hasStructureAt(structure, xCoord, yCoord, zCoord)) {
 			return structureKey;
 		} else {
 			return null;
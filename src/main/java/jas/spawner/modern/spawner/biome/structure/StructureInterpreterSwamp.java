@@ -1,9 +1,9 @@
 package jas.spawner.modern.spawner.biome.structure;
 
 import jas.api.StructureInterpreter;
-import jas.common.helper.ReflectionHelper;
 
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -18,13 +18,14 @@ import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
 import net.minecraft.world.biome.BiomeGenSwamp;
 import net.minecraft.world.gen.ChunkProviderGenerate;
 import net.minecraft.world.gen.ChunkProviderServer;
-import net.minecraft.world.gen.MapGenBase;
 import net.minecraft.world.gen.structure.MapGenScatteredFeature;
 import net.minecraft.world.gen.structure.MapGenStructure;
 import net.minecraftforge.event.world.WorldEvent;
 
 public class StructureInterpreterSwamp implements StructureInterpreter {
 	private HashMap<Integer, WeakReference<MapGenStructure>> structureRefs = new HashMap<Integer, WeakReference<MapGenStructure>>();
+	private static final Field scatteredFeatureGenerator = StructureInterpreterHelper.findField(
+			ChunkProviderGenerate.class, "field_73233_x", "scatteredFeatureGenerator");
 
 	@Override
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -53,50 +54,22 @@ public class StructureInterpreterSwamp implements StructureInterpreter {
 			ChunkProviderGenerate chunkProviderGenerate = chunkprovider.currentChunkProvider instanceof ChunkProviderGenerate ? (ChunkProviderGenerate) chunkprovider.currentChunkProvider
 					: null;
 			if (chunkProviderGenerate == null || !(biome instanceof BiomeGenSwamp)
-					|| !areMapFeaturesEnabled(chunkProviderGenerate)) {
+					|| !StructureInterpreterHelper.areMapFeaturesEnabled(chunkProviderGenerate)) {
 				return null;
 			}
-			try {
-				mapGenScatteredFeature = ReflectionHelper.getCatchableFieldFromReflection("field_73233_x",
-						chunkProviderGenerate, MapGenScatteredFeature.class);
-			} catch (NoSuchFieldException e) {
-				mapGenScatteredFeature = ReflectionHelper.getFieldFromReflection("scatteredFeatureGenerator",
-						chunkProviderGenerate, MapGenScatteredFeature.class);
-			}
+			mapGenScatteredFeature = StructureInterpreterHelper.getFieldValue(scatteredFeatureGenerator,
+					chunkProviderGenerate, MapGenScatteredFeature.class);
 			structureRefs.put(world.provider.dimensionId, new WeakReference(mapGenScatteredFeature));
 		}
 		
 		if (mapGenScatteredFeature == null) {
 			return null;
 		}
-		World structureWorld;
-		try {
-			structureWorld = ReflectionHelper.getCatchableFieldFromReflection("field_75039_c", MapGenBase.class,
-					mapGenScatteredFeature, World.class);
-		} catch (NoSuchFieldException e) {
-			structureWorld = ReflectionHelper.getFieldFromReflection("worldObj", MapGenBase.class,
-					mapGenScatteredFeature, World.class);
-		}
-
-		if (structureWorld != null && mapGenScatteredFeature.hasStructureAt(xCoord, yCoord, zCoord)) {
+		if (StructureStartIndex.hasStructureAt(mapGenScatteredFeature, xCoord, yCoord, zCoord)) {
 			return "WitchHut";
 		}
 		return null;
 	}
-	
-	private boolean areMapFeaturesEnabled(ChunkProviderGenerate chunkProviderGenerate) {
-		Boolean areMapFeaturesEnabled = false;
-		if (chunkProviderGenerate != null) {
-			try {
-				areMapFeaturesEnabled = ReflectionHelper.getCatchableFieldFromReflection("field_73229_q",
-						ChunkProviderGenerate.class, chunkProviderGenerate, Boolean.class);
-			} catch (NoSuchFieldException e) {
-				areMapFeaturesEnabled = ReflectionHelper.getFieldFromReflection("mapFeaturesEnabled",
-						ChunkProviderGenerate.class, chunkProviderGenerate, Boolean.class);
-			}
-		}
-		return areMapFeaturesEnabled;
-	}
 
 	private WeakReference<MapGenStructure> getOrDefault(int dimensionID) {
 		WeakReference<MapGenStructure> ref = structureRefs.get(dimensionID);
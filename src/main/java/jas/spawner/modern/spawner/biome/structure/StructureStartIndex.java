@@ -0,0 +1,114 @@
+package jas.spawner.modern.spawner.biome.structure;
+
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkKeyMap;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import net.minecraft.world.World;
+import net.minecraft.world.gen.MapGenBase;
+import net.minecraft.world.gen.structure.MapGenStructure;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import net.minecraft.world.gen.structure.StructureComponent;
+import net.minecraft.world.gen.structure.StructureStart;
+
+/**
+ * StructureStarts of a MapGenStructure bucketed by the chunks their bounding boxes cover, so a position outside of every
+ * structure is rejected with a single look-up instead of iterating every start in the world. Positions within a bucket
+ * are checked against the components of its starts the same way MapGenStructure.hasStructureAt does.
+ *
+ * A MapGenStructure only ever gains starts, new starts are indexed whenever the number of starts changes. Each
+ * MapGenStructure belongs to a single world, and is only used on the thread that owns it. An index does not reference
+ * its MapGenStructure, so the index is dropped along with the structure and the world it belongs to.
+ */
+public final class StructureStartIndex {
+	private static final Map<MapGenStructure, StructureStartIndex> indexes = new WeakHashMap<MapGenStructure, StructureStartIndex>();
+	private static final Field worldObj = StructureInterpreterHelper.findField(MapGenBase.class, "field_75039_c",
+			"worldObj");
+	private static final Field structureMap = StructureInterpreterHelper.findField(MapGenStructure.class,
+			"field_75053_d", "structureMap");
+
+	/* Starts of the structure, keyed by the chunk they started in; null until the saved structures are loaded */
+	private Map<?, ?> starts;
+	private final Set<Object> indexedStarts = new HashSet<Object>();
+	private final ChunkKeyMap<ArrayList<StructureStart>> chunkToStarts = new ChunkKeyMap<ArrayList<StructureStart>>();
+
+	private StructureStartIndex() {
+	}
+
+	/**
+	 * Equivalent to MapGenStructure.hasStructureAt, false until the structure has been assigned a world
+	 */
+	public static boolean hasStructureAt(MapGenStructure structure, int xCoord, int yCoord, int zCoord) {
+		return indexOf(structure).isStructureAt(structure, xCoord, yCoord, zCoord);
+	}
+
+	private static synchronized StructureStartIndex indexOf(MapGenStructure structure) {
+		StructureStartIndex index = indexes.get(structure);
+		if (index == null) {
+			index = new StructureStartIndex();
+			indexes.put(structure, index);
+		}
+		return index;
+	}
+
+	private boolean isStructureAt(MapGenStructure structure, int xCoord, int yCoord, int zCoord) {
+		if (starts == null) {
+			if (StructureInterpreterHelper.getFieldValue(worldObj, structure, World.class) == null) {
+				return false;
+			}
+			/* The vanilla check loads the saved structures of the world on first use */
+			boolean hasStructure = structure.hasStructureAt(xCoord, yCoord, zCoord);
+			starts = StructureInterpreterHelper.getFieldValue(structureMap, structure, Map.class);
+			return hasStructure;
+		}
+		if (starts.size() != indexedStarts.size()) {
+			indexNewStarts();
+		}
+
+		ArrayList<StructureStart> chunkStarts = chunkToStarts.get(ChunkKey.ofBlock(xCoord, zCoord));
+		if (chunkStarts == null) {
+			return false;
+		}
+		for (StructureStart start : chunkStarts) {
+			if (start.isSizeableStructure() && start.getBoundingBox().intersectsWith(xCoord, zCoord, xCoord, zCoord)) {
+				for (Object component : start.getComponents()) {
+					if (((StructureComponent) component).getBoundingBox().isVecInside(xCoord, yCoord, zCoord)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private void indexNewStarts() {
+		for (Entry<?, ?> entry : starts.entrySet()) {
+			if (!indexedStarts.add(entry.getKey())) {
+				continue;
+			}
+			StructureStart start = (StructureStart) entry.getValue();
+			StructureBoundingBox boundingBox = start.getBoundingBox();
+			if (boundingBox == null) {
+				continue;
+			}
+			for (int chunkX = boundingBox.minX >> 4; chunkX <= boundingBox.maxX >> 4; chunkX++) {
+				for (int chunkZ = boundingBox.minZ >> 4; chunkZ <= boundingBox.maxZ >> 4; chunkZ++) {
+					long chunkKey = ChunkKey.of(chunkX, chunkZ);
+					ArrayList<StructureStart> chunkStarts = chunkToStarts.get(chunkKey);
+					if (chunkStarts == null) {
+						chunkStarts = new ArrayList<StructureStart>(1);
+						chunkToStarts.put(chunkKey, chunkStarts);
+					}
+					chunkStarts.add(start);
+				}
+			}
+		}
+	}
+}
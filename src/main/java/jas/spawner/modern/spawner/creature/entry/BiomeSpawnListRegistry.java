@@ -4,7 +4,9 @@ import jas.common.JASLog;
 import jas.common.JustAnotherSpawner;
 import jas.common.global.ImportedSpawnList;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
+import jas.common.helper.ParallelConfigReader;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
 import jas.spawner.modern.spawner.biome.group.BiomeHelper;
@@ -29,11 +31,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
 import java.util.Set;
 
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.util.WeightedRandom;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 
@@ -43,16 +43,16 @@ import com.google.common.base.CharMatcher;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
 import com.google.gson.Gson;
 
 public final class BiomeSpawnListRegistry {
 
-    /* Contains Mapping between BiomeGroupID, LivingType to valid SpawnListEntry */
-    private ImmutableTable<String, String, Set<SpawnListEntry>> validSpawnListEntries;
-    /* Contains Mapping Between BiomeGroupID, LivingType to invalid SpawnListEntry i.e. spawnWeight <=0 etc. */
-    private ImmutableTable<String, String, Set<SpawnListEntry>> invalidSpawnListEntries;
+    /* Entries and samplers, replaced together in a single assignment whenever the entries change */
+    private volatile SpawnTables spawnTables = SpawnTables.EMPTY;
 
     private boolean addSpawn(SpawnListEntry spawnListEntry,
             Table<String, String, Set<SpawnListEntry>> validSpawnListEntries,
@@ -113,6 +113,7 @@ public final class BiomeSpawnListRegistry {
      */
     public ImmutableCollection<SpawnListEntry> getSpawnListFor(String creatureType, String biomePackageName) {
         ImmutableCollection<String> groupIDList = biomeGroupRegistry.packgNameToGroupIDs().get(biomePackageName);
+        ImmutableTable<String, String, Set<SpawnListEntry>> validSpawnListEntries = spawnTables.validEntries;
         ArrayList<SpawnListEntry> biomeSpawnList = new ArrayList<SpawnListEntry>(30);
         for (String groupID : groupIDList) {
             Collection<SpawnListEntry> spawnList = validSpawnListEntries.get(groupID, creatureType);
@@ -132,6 +133,7 @@ public final class BiomeSpawnListRegistry {
      */
     public ImmutableCollection<SpawnListEntry> getSpawnListFor(String biomePackageName) {
         ImmutableCollection<String> groupIDList = biomeGroupRegistry.packgNameToGroupIDs().get(biomePackageName);
+        ImmutableTable<String, String, Set<SpawnListEntry>> validSpawnListEntries = spawnTables.validEntries;
         ArrayList<SpawnListEntry> biomeSpawnList = new ArrayList<SpawnListEntry>(30);
         for (String groupID : groupIDList) {
             for (Set<SpawnListEntry> biomeIDtoSpawnList : validSpawnListEntries.row(groupID).values()) {
@@ -166,58 +168,80 @@ public final class BiomeSpawnListRegistry {
      */
     public SpawnListEntry getSpawnListEntryToSpawn(World world, CreatureType creatureType, int xCoord, int yCoord,
             int zCoord) {
-        Collection<SpawnListEntry> structureSpawnList = structureHandlerRegistry.getSpawnListAt(world, xCoord, yCoord,
-                zCoord);
-        if (!structureSpawnList.isEmpty()) {
+        return getSpawnListEntryToSpawn(spawnTables, world, creatureType, xCoord, yCoord, zCoord);
+    }
+
+    /**
+     * Draws from the provided tables, such as those a spawn cycle started with, rather than the current ones
+     */
+    public SpawnListEntry getSpawnListEntryToSpawn(SpawnTables tables, World world, CreatureType creatureType,
+            int xCoord, int yCoord, int zCoord) {
+        SpawnListSampler structureSampler = structureHandlerRegistry.getSamplerAt(world, xCoord, yCoord, zCoord);
+        if (!structureSampler.isEmpty()) {
             JASLog.log().debug(Level.INFO, "Structure SpawnListEntry found for ChunkSpawning at %s, %s, %s", xCoord, yCoord,
                     zCoord);
-            SpawnListEntry spawnListEntry = (SpawnListEntry) WeightedRandom.getRandomItem(world.rand,
-                    structureSpawnList);
-            return creatureType.isEntityOfType(livingHandlerRegistry, spawnListEntry.livingGroupID) ? spawnListEntry
+            SpawnListEntry spawnListEntry = structureSampler.getRandomEntry(world.rand);
+            return spawnListEntry != null
+                    && creatureType.isEntityOfType(livingHandlerRegistry, spawnListEntry.livingGroupID) ? spawnListEntry
                     : null;
         }
-        ImmutableCollection<String> groupIDList = biomeGroupRegistry.packgNameToGroupIDs().get(
-                BiomeHelper.getPackageName(world.getBiomeGenForCoords(xCoord, zCoord)));
-        return getRandomValidEntry(world.rand, groupIDList, creatureType.typeID);
+        SpawnListSampler biomeSampler = getSampler(tables, world.getBiomeGenForCoords(xCoord, zCoord),
+                creatureType.typeID);
+        return biomeSampler.getRandomEntry(world.rand);
     }
 
-    private SpawnListEntry getRandomValidEntry(Random random, ImmutableCollection<String> groupIDList,
-            String creatureType) {
-        int totalWeight = 0;
+    /**
+     * @return Entries and samplers as they currently are; never modified, later changes replace them instead
+     */
+    public SpawnTables spawnTables() {
+        return spawnTables;
+    }
 
-        for (String groupID : groupIDList) {
-            Collection<SpawnListEntry> spawnList = validSpawnListEntries.get(groupID, creatureType);
-            if (spawnList == null) {
-                continue;
-            }
+    private SpawnListSampler getSampler(SpawnTables tables, BiomeGenBase biome, String creatureType) {
+        SpawnListSampler[] samplers = tables.biomeSamplers.get(creatureType);
+        if (samplers == null) {
+            return SpawnListSampler.EMPTY;
+        }
+        if (biome.biomeID >= 0 && biome.biomeID < samplers.length && samplers[biome.biomeID] != null) {
+            return samplers[biome.biomeID];
+        }
+        /* Biome not registered in the biome array, build its list on demand */
+        return buildSampler(tables.validEntries, biome, creatureType);
+    }
 
-            for (SpawnListEntry spawnListEntry : spawnList) {
-                totalWeight += spawnListEntry.itemWeight;
+    /**
+     * Flattens the valid SpawnListEntries of every BiomeGroup the biome belongs to, in BiomeGroup order
+     */
+    private SpawnListSampler buildSampler(Table<String, String, Set<SpawnListEntry>> validSpawnListEntries,
+            BiomeGenBase biome, String creatureType) {
+        ImmutableCollection<String> groupIDList = biomeGroupRegistry.groupIDsOf(biome);
+        ArrayList<SpawnListEntry> spawnList = new ArrayList<SpawnListEntry>();
+        for (String groupID : groupIDList) {
+            Collection<SpawnListEntry> groupSpawnList = validSpawnListEntries.get(groupID, creatureType);
+            if (groupSpawnList != null) {
+                spawnList.addAll(groupSpawnList);
             }
         }
+        return SpawnListSampler.of(spawnList);
+    }
 
-        if (totalWeight <= 0) {
-            return null;
-        } else {
-            int selectedWeight = random.nextInt(totalWeight) + 1;
-            SpawnListEntry resultEntry = null;
-
-            for (String groupID : groupIDList) {
-                Collection<SpawnListEntry> spawnList = validSpawnListEntries.get(groupID, creatureType);
-                if (spawnList == null) {
-                    continue;
-                }
-
-                for (SpawnListEntry spawnListEntry : spawnList) {
-                    resultEntry = spawnListEntry;
-                    selectedWeight -= spawnListEntry.itemWeight;
-                    if (selectedWeight <= 0) {
-                        return resultEntry;
-                    }
+    /**
+     * Builds the samplers of every biome from the valid entries
+     */
+    private ImmutableMap<String, SpawnListSampler[]> buildSamplers(
+            Table<String, String, Set<SpawnListEntry>> validSpawnListEntries) {
+        BiomeGenBase[] biomes = BiomeGenBase.getBiomeGenArray();
+        ImmutableMap.Builder<String, SpawnListSampler[]> builder = ImmutableMap.builder();
+        for (String creatureType : validSpawnListEntries.columnKeySet()) {
+            SpawnListSampler[] samplers = new SpawnListSampler[biomes.length];
+            for (int biomeID = 0; biomeID < biomes.length; biomeID++) {
+                if (biomes[biomeID] != null) {
+                    samplers[biomeID] = buildSampler(validSpawnListEntries, biomes[biomeID], creatureType);
                 }
             }
-            return resultEntry;
+            builder.put(creatureType, samplers);
         }
+        return builder.build();
     }
 
     public void loadFromConfig(File configDirectory, ImportedSpawnList importedSpawnList) {
@@ -234,10 +258,8 @@ public final class BiomeSpawnListRegistry {
                 worldProperties.getFolderConfiguration().saveName, "");
         File[] files = FileUtilities.getFileInDirectory(entriesDir, ".cfg");
         JASLog.log().info("Starting to load and configure Biome SpawnListEntry data");
-        for (File entriesFile : files) {
-            BiomeSpawnsSaveObject saveObject = GsonHelper.readOrCreateFromGson(
-                    FileUtilities.createReader(entriesFile, false), BiomeSpawnsSaveObject.class, gson,
-                    worldProperties.getFolderConfiguration().sortCreatureByBiome);
+        for (BiomeSpawnsSaveObject saveObject : ParallelConfigReader.readAll(files, BiomeSpawnsSaveObject.class, gson,
+                "SpawnListEntry", worldProperties.getFolderConfiguration().sortCreatureByBiome)) {
             Set<SpawnListEntryBuilder> builders = saveObject.getBuilders();
             for (SpawnListEntryBuilder builder : builders) {
                 // isBiomeGroup&EntityGroupValid(SpawnListBuidler) ? addSpawn(build()) : ignore
@@ -302,10 +324,7 @@ public final class BiomeSpawnListRegistry {
 			}
 		}
 
-        this.validSpawnListEntries = ImmutableTable.<String, String, Set<SpawnListEntry>> builder()
-                .putAll(validEntriesBuilder).build();
-        this.invalidSpawnListEntries = ImmutableTable.<String, String, Set<SpawnListEntry>> builder()
-                .putAll(invalidEntriesBuilder).build();
+        setEntries(validEntriesBuilder, invalidEntriesBuilder);
         JASLog.log().info("Finished loading and configuring Biome SpawnListEntry data");
     }
 
@@ -377,18 +396,19 @@ public final class BiomeSpawnListRegistry {
         return new SpawnListEntryBuilder(livingHandler.livingID, group.groupID).build();
     }
 
-    public void saveToConfig(File configDirectory) {
+    public void saveToConfig(File configDirectory, FileWriteBatch writes) {
         Gson gson = GsonHelper.createGson(true, new Type[] { BiomeSpawnsSaveObject.class },
                 new Object[] { new BiomeSpawnsSaveObjectSerializer(
                         worldProperties.getFolderConfiguration().sortCreatureByBiome) });
         HashMap<String, Table<String, String, Set<SpawnListEntry>>> saveFileToEntries = new HashMap<String, Table<String, String, Set<SpawnListEntry>>>();
-        extractSaveEntriesFromSpawnList(saveFileToEntries, validSpawnListEntries);
-        extractSaveEntriesFromSpawnList(saveFileToEntries, invalidSpawnListEntries);
+        SpawnTables tables = spawnTables;
+        extractSaveEntriesFromSpawnList(saveFileToEntries, tables.validEntries);
+        extractSaveEntriesFromSpawnList(saveFileToEntries, tables.invalidEntries);
         for (Entry<String, Table<String, String, Set<SpawnListEntry>>> entrySet : saveFileToEntries.entrySet()) {
             File saveFile = BiomeSpawnListRegistry.getFile(configDirectory,
                     worldProperties.getFolderConfiguration().saveName, entrySet.getKey());
             boolean sortCreatureByBiome = worldProperties.getFolderConfiguration().sortCreatureByBiome;
-            GsonHelper.writeToGson(FileUtilities.createWriter(saveFile, true),
+            GsonHelper.writeToGson(writes, saveFile,
                     new BiomeSpawnsSaveObject(entrySet.getValue(), sortCreatureByBiome), gson);
         }
 	}
@@ -408,41 +428,20 @@ public final class BiomeSpawnListRegistry {
 	}
 
 	public void addSpawnListEntry(Collection<SpawnListEntryBuilder> builders) {
-		Collection<SpawnListEntry> newEntries = new ArrayList<SpawnListEntry>(builders.size());
+		Table<String, String, Set<SpawnListEntry>> validEntries = mutableCopy(spawnTables.validEntries);
+		Table<String, String, Set<SpawnListEntry>> invalidEntries = mutableCopy(spawnTables.invalidEntries);
 		for (SpawnListEntryBuilder builder : builders) {
-			newEntries.add(builder.build());
-		}
-
-		for (SpawnListEntry newEntry : newEntries) {
+			SpawnListEntry newEntry = builder.build();
 			LivingHandler handler = livingHandlerRegistry.getLivingHandler(newEntry.livingGroupID);
 			String creatureTypeId = handler != null ? handler.creatureTypeID : CreatureTypeRegistry.NONE;
 
-			boolean isAlreadyPresent = false;
-			for (Set<SpawnListEntry> allSpawnLists : validSpawnListEntries.row(newEntry.locationGroup).values()) {
-				for (SpawnListEntry spawnListEntry : allSpawnLists) {
-					if (spawnListEntry.livingGroupID.equalsIgnoreCase(newEntry.livingGroupID)) {
-						isAlreadyPresent = true;
-					}
-				}
-			}
-			for (Set<SpawnListEntry> allSpawnLists : invalidSpawnListEntries.row(newEntry.locationGroup).values()) {
-				for (SpawnListEntry spawnListEntry : allSpawnLists) {
-					if (spawnListEntry.livingGroupID.equalsIgnoreCase(newEntry.livingGroupID)) {
-						isAlreadyPresent = true;
-					}
-				}
-			}
+			boolean isAlreadyPresent = isPresent(validEntries, newEntry.livingGroupID, newEntry.locationGroup)
+					|| isPresent(invalidEntries, newEntry.livingGroupID, newEntry.locationGroup);
 			if (!isAlreadyPresent && !creatureTypeId.equalsIgnoreCase(CreatureTypeRegistry.NONE)) {
-				if (isSpawnListValid(newEntry)) {
-					Set<SpawnListEntry> validList = validSpawnListEntries.get(newEntry.locationGroup, creatureTypeId);
-					validList.add(newEntry);
-				} else {
-					Set<SpawnListEntry> invalidList = invalidSpawnListEntries.get(newEntry.locationGroup,
-							creatureTypeId);
-					invalidList.add(newEntry);
-				}
+				putEntry(isSpawnListValid(newEntry) ? validEntries : invalidEntries, newEntry, creatureTypeId);
 			}
 		}
+		setEntries(validEntries, invalidEntries);
 	}
 
 	public void removeSpawnListEntry(SpawnListEntryBuilder builder) {
@@ -450,27 +449,92 @@ public final class BiomeSpawnListRegistry {
 	}
 
 	public boolean removeSpawnListEntry(String livingGroupId, String biomeGroupId) {
-		ImmutableCollection<String> validSpawnListKeys = validSpawnListEntries.row(biomeGroupId).keySet();
-		boolean wasPresent = false;
-		for (String creatureTypeKey : validSpawnListKeys) {
-			Set<SpawnListEntry> validSpawnList = validSpawnListEntries.get(biomeGroupId, creatureTypeKey);
-			Iterator<SpawnListEntry> iterator = validSpawnList.iterator();
-			while (iterator.hasNext()) {
-				SpawnListEntry spawnListEntry = iterator.next();
+		Table<String, String, Set<SpawnListEntry>> validEntries = mutableCopy(spawnTables.validEntries);
+		Table<String, String, Set<SpawnListEntry>> invalidEntries = mutableCopy(spawnTables.invalidEntries);
+		boolean wasPresent = removeEntries(validEntries, livingGroupId, biomeGroupId);
+		wasPresent |= removeEntries(invalidEntries, livingGroupId, biomeGroupId);
+		setEntries(validEntries, invalidEntries);
+		return wasPresent;
+	}
+
+	public void updateSpawnListEntry(String prevLivingGroupId, String prevBiomeGroupId, SpawnListEntryBuilder newBuilder) {
+		if (removeSpawnListEntry(prevLivingGroupId, prevBiomeGroupId)) {
+			addSpawnListEntry(newBuilder);
+		}
+	}
+
+	/**
+	 * Sorts every entry again into valid and invalid against the current LivingHandlers and BiomeGroups, as loading
+	 * them from the configuration would. Entries whose LivingHandler or BiomeGroup no longer exists are dropped.
+	 */
+	public void reclassifyEntries() {
+		Table<String, String, Set<SpawnListEntry>> validEntries = HashBasedTable.create();
+		Table<String, String, Set<SpawnListEntry>> invalidEntries = HashBasedTable.create();
+		SpawnTables tables = spawnTables;
+		List<Set<SpawnListEntry>> spawnLists = new ArrayList<Set<SpawnListEntry>>(tables.validEntries.values());
+		spawnLists.addAll(tables.invalidEntries.values());
+		for (Set<SpawnListEntry> spawnList : spawnLists) {
+			for (SpawnListEntry spawnListEntry : spawnList) {
+				LivingHandler handler = livingHandlerRegistry.getLivingHandler(spawnListEntry.livingGroupID);
+				if (handler == null || biomeGroupRegistry.getBiomeGroup(spawnListEntry.locationGroup) == null) {
+					JASLog.log().debug(Level.INFO, "Dropping SpawnListEntry %s as its group no longer exists",
+							spawnListEntry);
+					continue;
+				}
+				putEntry(isSpawnListValid(spawnListEntry) ? validEntries : invalidEntries, spawnListEntry,
+						handler.creatureTypeID);
+			}
+		}
+		setEntries(validEntries, invalidEntries);
+	}
+
+	/**
+	 * Replaces the entries and their samplers in a single assignment, readers see either the old or the new tables
+	 */
+	private void setEntries(Table<String, String, Set<SpawnListEntry>> validEntries,
+			Table<String, String, Set<SpawnListEntry>> invalidEntries) {
+		ImmutableTable<String, String, Set<SpawnListEntry>> validTable = SpawnTables.copyOf(validEntries);
+		this.spawnTables = new SpawnTables(validTable, SpawnTables.copyOf(invalidEntries), buildSamplers(validTable));
+	}
+
+	private static Table<String, String, Set<SpawnListEntry>> mutableCopy(
+			Table<String, String, Set<SpawnListEntry>> entries) {
+		Table<String, String, Set<SpawnListEntry>> copy = HashBasedTable.create();
+		for (Cell<String, String, Set<SpawnListEntry>> cell : entries.cellSet()) {
+			copy.put(cell.getRowKey(), cell.getColumnKey(), new HashSet<SpawnListEntry>(cell.getValue()));
+		}
+		return copy;
+	}
+
+	private static void putEntry(Table<String, String, Set<SpawnListEntry>> entries, SpawnListEntry spawnListEntry,
+			String creatureTypeId) {
+		Set<SpawnListEntry> spawnList = entries.get(spawnListEntry.locationGroup, creatureTypeId);
+		if (spawnList == null) {
+			spawnList = new HashSet<SpawnListEntry>();
+			entries.put(spawnListEntry.locationGroup, creatureTypeId, spawnList);
+		}
+		spawnList.add(spawnListEntry);
+	}
+
+	private static boolean isPresent(Table<String, String, Set<SpawnListEntry>> entries, String livingGroupId,
+			String biomeGroupId) {
+		for (Set<SpawnListEntry> spawnList : entries.row(biomeGroupId).values()) {
+			for (SpawnListEntry spawnListEntry : spawnList) {
 				if (spawnListEntry.livingGroupID.equalsIgnoreCase(livingGroupId)) {
-					iterator.remove();
-					wasPresent = true;
+					return true;
 				}
 			}
 		}
+		return false;
+	}
 
-		ImmutableCollection<String> invalidSpawnListKeys = invalidSpawnListEntries.row(biomeGroupId).keySet();
-		for (String creatureTypeKey : invalidSpawnListKeys) {
-			Set<SpawnListEntry> invalidSpawnList = invalidSpawnListEntries.get(biomeGroupId, creatureTypeKey);
-			Iterator<SpawnListEntry> iterator = invalidSpawnList.iterator();
+	private static boolean removeEntries(Table<String, String, Set<SpawnListEntry>> entries, String livingGroupId,
+			String biomeGroupId) {
+		boolean wasPresent = false;
+		for (Set<SpawnListEntry> spawnList : entries.row(biomeGroupId).values()) {
+			Iterator<SpawnListEntry> iterator = spawnList.iterator();
 			while (iterator.hasNext()) {
-				SpawnListEntry spawnListEntry = iterator.next();
-				if (spawnListEntry.livingGroupID.equalsIgnoreCase(livingGroupId)) {
+				if (iterator.next().livingGroupID.equalsIgnoreCase(livingGroupId)) {
 					iterator.remove();
 					wasPresent = true;
 				}
@@ -478,10 +542,4 @@ public final class BiomeSpawnListRegistry {
 		}
 		return wasPresent;
 	}
-
-	public void updateSpawnListEntry(String prevLivingGroupId, String prevBiomeGroupId, SpawnListEntryBuilder newBuilder) {
-		if (removeSpawnListEntry(prevLivingGroupId, prevBiomeGroupId)) {
-			addSpawnListEntry(newBuilder);
-		}
-	}
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package jas.spawner.modern.spawner.creature.entry;
 
+import jas.common.helper.ExpressionCompiler;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.MVELProfile;
+import jas.spawner.modern.spawner.Tags;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
 import jas.spawner.modern.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
 
@@ -12,8 +14,6 @@ import net.minecraft.util.WeightedRandom;
 import net.minecraftforge.common.config.ConfigCategory;
 import net.minecraftforge.common.config.Configuration;
 
-import org.mvel2.MVEL;
-
 import com.google.common.base.Optional;
 
 /**
@@ -59,10 +59,12 @@ public class SpawnListEntry extends WeightedRandom.Item {
         this.spawnOperand = builder.getSpawnOperand();
 		this.spawnExpression = builder.getSpawnExpression();
 		this.postspawnExpression = builder.getPostSpawnExpression();
-		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(spawnExpression)) : Optional.<Serializable> absent();
-		this.compPostSpawnExpression = !postspawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(postspawnExpression)) : Optional.<Serializable> absent();
+		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(ExpressionCompiler.compile(
+				spawnExpression, Tags.class, "SpawnListEntry " + livingGroupID + " in " + locationGroup
+						+ " SpawnExpression")) : Optional.<Serializable> absent();
+		this.compPostSpawnExpression = !postspawnExpression.trim().equals("") ? Optional.of(ExpressionCompiler.compile(
+				postspawnExpression, Tags.class, "SpawnListEntry " + livingGroupID + " in " + locationGroup
+						+ " PostSpawnExpression")) : Optional.<Serializable> absent();
     }
 
     // TODO: Remove This. Hidden static dependency bad. Unnecessary. Alternatively, pass in livingHandlerRegistry
@@ -0,0 +1,72 @@
+package jas.spawner.modern.spawner.creature.entry;
+
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Immutable spawn list flattened into an array with running weight totals, so a weighted entry is selected with one
+ * random draw and a binary search.
+ *
+ * Selection matches WeightedRandom.getRandomItem over the same entries in the same order: for the same random draw
+ * the same entry is chosen.
+ */
+public final class SpawnListSampler {
+	public static final SpawnListSampler EMPTY = new SpawnListSampler(new SpawnListEntry[0], new int[0]);
+
+	private final SpawnListEntry[] entries;
+	/* Total weight of entries 0 to i */
+	private final int[] cumulativeWeights;
+
+	private SpawnListSampler(SpawnListEntry[] entries, int[] cumulativeWeights) {
+		this.entries = entries;
+		this.cumulativeWeights = cumulativeWeights;
+	}
+
+	/**
+	 * @param spawnList Entries in the order they would be iterated by WeightedRandom
+	 */
+	public static SpawnListSampler of(Collection<SpawnListEntry> spawnList) {
+		if (spawnList.isEmpty()) {
+			return EMPTY;
+		}
+		SpawnListEntry[] entries = spawnList.toArray(new SpawnListEntry[spawnList.size()]);
+		int[] cumulativeWeights = new int[entries.length];
+		int totalWeight = 0;
+		for (int i = 0; i < entries.length; i++) {
+			totalWeight += entries[i].itemWeight;
+			cumulativeWeights[i] = totalWeight;
+		}
+		return new SpawnListSampler(entries, cumulativeWeights);
+	}
+
+	public boolean isEmpty() {
+		return entries.length == 0;
+	}
+
+	public int totalWeight() {
+		return entries.length > 0 ? cumulativeWeights[entries.length - 1] : 0;
+	}
+
+	/**
+	 * @return Weighted random entry, null if the total weight is not positive
+	 */
+	public SpawnListEntry getRandomEntry(Random random) {
+		int totalWeight = totalWeight();
+		if (totalWeight <= 0) {
+			return null;
+		}
+		int selectedWeight = random.nextInt(totalWeight);
+		/* First entry whose running total exceeds the selected weight */
+		int low = 0;
+		int high = entries.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (cumulativeWeights[mid] > selectedWeight) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return entries[low];
+	}
+}
@@ -0,0 +1,44 @@
+package jas.spawner.modern.spawner.creature.entry;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+
+/**
+ * SpawnListEntries of every BiomeGroup and the samplers built from them. Never modified once built: a change to the
+ * entries builds new tables, so a reader holding these sees the entries and samplers as they were together.
+ */
+public final class SpawnTables {
+	public static final SpawnTables EMPTY = new SpawnTables(ImmutableTable.<String, String, Set<SpawnListEntry>> of(),
+			ImmutableTable.<String, String, Set<SpawnListEntry>> of(), ImmutableMap.<String, SpawnListSampler[]> of());
+
+	/* Contains Mapping between BiomeGroupID, LivingType to valid SpawnListEntry */
+	public final ImmutableTable<String, String, Set<SpawnListEntry>> validEntries;
+	/* Contains Mapping Between BiomeGroupID, LivingType to invalid SpawnListEntry i.e. spawnWeight <=0 etc. */
+	public final ImmutableTable<String, String, Set<SpawnListEntry>> invalidEntries;
+	/* Valid SpawnListEntries for each LivingType by biome ID; arrays are shared and not to be modified */
+	final ImmutableMap<String, SpawnListSampler[]> biomeSamplers;
+
+	SpawnTables(ImmutableTable<String, String, Set<SpawnListEntry>> validEntries,
+			ImmutableTable<String, String, Set<SpawnListEntry>> invalidEntries,
+			ImmutableMap<String, SpawnListSampler[]> biomeSamplers) {
+		this.validEntries = validEntries;
+		this.invalidEntries = invalidEntries;
+		this.biomeSamplers = biomeSamplers;
+	}
+
+	/**
+	 * @return Immutable copy of the entries, including the sets they are grouped in
+	 */
+	static ImmutableTable<String, String, Set<SpawnListEntry>> copyOf(Table<String, String, Set<SpawnListEntry>> entries) {
+		ImmutableTable.Builder<String, String, Set<SpawnListEntry>> builder = ImmutableTable.builder();
+		for (Cell<String, String, Set<SpawnListEntry>> cell : entries.cellSet()) {
+			builder.put(cell.getRowKey(), cell.getColumnKey(), ImmutableSet.copyOf(cell.getValue()));
+		}
+		return builder.build();
+	}
+}
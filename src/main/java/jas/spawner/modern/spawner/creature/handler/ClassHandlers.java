@@ -0,0 +1,90 @@
+package jas.spawner.modern.spawner.creature.handler;
+
+import jas.spawner.modern.spawner.CountIndex;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * LivingHandlers of one entity class, resolved once for each version of the LivingHandlerRegistry along with the
+ * creature types they assign, so per-entity checks do not go through the group and handler maps.
+ */
+public final class ClassHandlers {
+	/* Version of the LivingHandlerRegistry the handlers were resolved under */
+	final int version;
+	private final LivingHandler[] handlers;
+	private final ImmutableList<LivingHandler> handlerList;
+	/* Distinct typeIndex of the handlers in handler order, excluding handlers without a type */
+	private final int[] typeIndices;
+	private final BitSet types = new BitSet();
+	private final boolean isDespawnable;
+
+	ClassHandlers(int version, List<LivingHandler> livingHandlers) {
+		this.version = version;
+		this.handlers = livingHandlers.toArray(new LivingHandler[livingHandlers.size()]);
+		this.handlerList = ImmutableList.copyOf(handlers);
+		boolean isDespawnable = false;
+		for (LivingHandler handler : handlers) {
+			if (handler.creatureTypeIndex != CountIndex.UNKNOWN) {
+				types.set(handler.creatureTypeIndex);
+			}
+			isDespawnable |= handler.getDespawning() != null && handler.getDespawning().isPresent();
+		}
+		this.isDespawnable = isDespawnable;
+		int[] resolved = new int[types.cardinality()];
+		int size = 0;
+		for (LivingHandler handler : handlers) {
+			int typeIndex = handler.creatureTypeIndex;
+			if (typeIndex != CountIndex.UNKNOWN && indexOf(resolved, size, typeIndex) < 0) {
+				resolved[size++] = typeIndex;
+			}
+		}
+		this.typeIndices = resolved;
+	}
+
+	private static int indexOf(int[] values, int size, int value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int size() {
+		return handlers.length;
+	}
+
+	public LivingHandler get(int index) {
+		return handlers[index];
+	}
+
+	public ImmutableList<LivingHandler> asList() {
+		return handlerList;
+	}
+
+	/**
+	 * @return True if any of the handlers assigns the CreatureType with the typeIndex
+	 */
+	public boolean isOfType(int typeIndex) {
+		return typeIndex >= 0 && types.get(typeIndex);
+	}
+
+	/**
+	 * Entities with multiple LivingHandlers of the same type are only counted once per type
+	 *
+	 * @return Distinct typeIndex of the handlers, shared and not to be modified
+	 */
+	public int[] typeIndices() {
+		return typeIndices;
+	}
+
+	/**
+	 * @return True if any of the handlers has a despawn expression
+	 */
+	public boolean isDespawnable() {
+		return isDespawnable;
+	}
+}
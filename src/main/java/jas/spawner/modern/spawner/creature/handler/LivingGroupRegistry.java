@@ -2,16 +2,20 @@ package jas.spawner.modern.spawner.creature.handler;
 
 import jas.common.JASLog;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.common.helper.sort.TopologicalSort;
 import jas.common.helper.sort.TopologicalSortingException;
 import jas.common.helper.sort.TopologicalSort.DirectedGraph;
 import jas.spawner.modern.math.SetAlgebra;
 import jas.spawner.modern.math.SetAlgebra.OPERATION;
+import jas.spawner.modern.spawner.EntityFactory;
 import jas.spawner.modern.spawner.creature.handler.LivingGroupSaveObject.LivingGroupSaveObjectSerializer;
+import jas.spawner.modern.world.CompiledRulesCache;
 import jas.spawner.modern.world.WorldProperties;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -19,7 +23,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
@@ -32,6 +38,7 @@ import org.apache.logging.log4j.Level;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
@@ -39,6 +46,9 @@ import com.google.gson.Gson;
 import cpw.mods.fml.common.toposort.ModSortingException.SortingExceptionData;
 
 public class LivingGroupRegistry {
+	/* Resolved attributes, kept beside the LivingGroups configuration */
+	private static final String CACHE_FILE = "LivingGroups.bin";
+	private static final String ATTRIBUTE_SECTION = "LivingAttributes";
 
 	/* Contains packages with known prefixes apriori such as net.minecraft.entity should have vanilla prefix */
 	public static final HashMap<String, String> entityPackageToPrefix;
@@ -75,6 +85,13 @@ public class LivingGroupRegistry {
 		return JASNametoEntityClass;
 	}
 
+	/**
+	 * @return Mapped entity classes in mapping order; the position of a class is used as its dense count index
+	 */
+	public ImmutableList<Class<? extends EntityLiving>> entityClassesByIndex() {
+		return EntityClasstoJASName.keySet().asList();
+	}
+
 	private WorldProperties worldProperties;
 
 	public LivingGroupRegistry(WorldProperties worldProperties) {
@@ -192,7 +209,53 @@ public class LivingGroupRegistry {
 				FileUtilities.createReader(gsonBiomeFile, false), LivingGroupSaveObject.class, gson);
 
 		newJASNames = new HashSet<String>((loadMappings(savedStats)));
-		loadAttributes(savedStats);
+		File cacheFile = new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
+				+ CACHE_FILE);
+		byte[] cacheKey = cacheKey(gsonBiomeFile);
+		CompiledRulesCache cache = cacheKey != null ? CompiledRulesCache.read(cacheFile, cacheKey) : null;
+		List<LivingGroup> attributes = loadAttributes(savedStats,
+				cache != null ? cache.section(ATTRIBUTE_SECTION) : null);
+		if (cache != null) {
+			JASLog.log().info("Resolved LivingGroups from %s", CACHE_FILE);
+		} else if (cacheKey != null) {
+			Map<String, Map<String, Set<String>>> sections = new HashMap<String, Map<String, Set<String>>>();
+			sections.put(ATTRIBUTE_SECTION, resolvedNames(attributes));
+			CompiledRulesCache.write(cacheFile, cacheKey, sections);
+		}
+		EntityFactory.invalidate();
+	}
+
+	/**
+	 * Key of everything the attributes are resolved from: the group configuration and the entity mappings, which are
+	 * in turn made from the configuration and the entities registered with FML. Must be called after the mappings are
+	 * loaded.
+	 * 
+	 * @return Key of the cache, null if the configuration could not be read
+	 */
+	private byte[] cacheKey(File gsonLivingFile) {
+		CompiledRulesCache.KeyBuilder key = new CompiledRulesCache.KeyBuilder();
+		try {
+			key.putFile(gsonLivingFile);
+		} catch (IOException e) {
+			JASLog.log().warning("Unable to read %s to check the cached LivingGroups: %s", gsonLivingFile.getName(),
+					e.getMessage());
+			return null;
+		}
+		for (Entry<Class<? extends EntityLiving>, String> entry : EntityClasstoJASName.entrySet()) {
+			key.putString(entry.getKey().getName()).putString(entry.getValue());
+		}
+		return key.build();
+	}
+
+	/**
+	 * @return JAS names of each group, in the order the groups were resolved
+	 */
+	private static Map<String, Set<String>> resolvedNames(List<LivingGroup> groups) {
+		Map<String, Set<String>> resolved = new LinkedHashMap<String, Set<String>>();
+		for (LivingGroup group : groups) {
+			resolved.put(group.groupID, group.entityJASNames);
+		}
+		return resolved;
 	}
 
 	private List<String> loadMappings(LivingGroupSaveObject savedStats) {
@@ -270,7 +333,11 @@ public class LivingGroupRegistry {
 		return newJASNames;
 	}
 
-	private void loadAttributes(LivingGroupSaveObject savedStats) {
+	/**
+	 * @param cached JAS names of each attribute as cached, null to evaluate every attribute
+	 * @return Attributes in the order they were resolved
+	 */
+	private List<LivingGroup> loadAttributes(LivingGroupSaveObject savedStats, Map<String, List<String>> cached) {
 		Set<LivingGroup> attributeGroups = new HashSet<LivingGroup>();
 		if (savedStats.configNameToAttributeGroups.isPresent()) {
 			Collection<TreeMap<String, LivingGroup>> mapOfGroups = savedStats.configNameToAttributeGroups.get()
@@ -283,14 +350,53 @@ public class LivingGroupRegistry {
 				}
 			}
 		}
-		List<LivingGroup> sortedAttributes = getSortedGroups(attributeGroups);
+		List<LivingGroup> sortedAttributes = getResolveOrder(attributeGroups, cached);
 		HashMap<String, LivingGroup> iDToAttributeBuilder = new HashMap<String, LivingGroup>();
 		for (LivingGroup livingGroup : sortedAttributes) {
-			parseGroupContents(livingGroup);
+			resolveGroup(livingGroup, cached, iDToAttributeBuilder);
 			iDToAttributeBuilder.put(livingGroup.groupID, livingGroup);
 		}
 		this.iDToAttribute = ImmutableMap.<String, LivingGroupRegistry.LivingGroup> builder()
 				.putAll(iDToAttributeBuilder).build();
+		return sortedAttributes;
+	}
+
+	/**
+	 * Groups in the order to resolve them in: the order they were cached in if every group is cached, else sorted
+	 * such that groups come after the groups they contain
+	 */
+	private List<LivingGroup> getResolveOrder(Collection<LivingGroup> groups, Map<String, List<String>> cached) {
+		if (cached != null && cached.size() == groups.size()) {
+			Map<String, LivingGroup> iDToGroup = new HashMap<String, LivingGroup>();
+			for (LivingGroup group : groups) {
+				iDToGroup.put(group.groupID, group);
+			}
+			List<LivingGroup> ordered = new ArrayList<LivingGroup>(groups.size());
+			for (String groupID : cached.keySet()) {
+				LivingGroup group = iDToGroup.get(groupID);
+				if (group == null) {
+					break;
+				}
+				ordered.add(group);
+			}
+			if (ordered.size() == groups.size()) {
+				return ordered;
+			}
+		}
+		return getSortedGroups(groups);
+	}
+
+	/**
+	 * Fills in the JAS names of the group from the cache if present there, else by evaluating its contents
+	 */
+	private void resolveGroup(LivingGroup livingGroup, Map<String, List<String>> cached,
+			Map<String, LivingGroup> iDToAttributeBuilder) {
+		List<String> cachedNames = cached != null ? cached.get(livingGroup.groupID) : null;
+		if (cachedNames != null) {
+			livingGroup.entityJASNames.addAll(cachedNames);
+		} else {
+			parseGroupContents(livingGroup, iDToAttributeBuilder);
+		}
 	}
 
 //	@Deprecated
@@ -397,7 +503,7 @@ public class LivingGroupRegistry {
 	/**
 	 * Evaluate build instructions (i.e. A|allbiomes,&Jungle) of group and evalute them into jasNames
 	 */
-	private void parseGroupContents(LivingGroup livingGroup) {
+	private void parseGroupContents(LivingGroup livingGroup, Map<String, LivingGroup> iDToAttributeBuilder) {
 		/* Evaluate contents and fill in jasNames */
 		for (String contentComponent : livingGroup.contents) {
 			OPERATION operation;
@@ -415,7 +521,7 @@ public class LivingGroupRegistry {
 			}
 			
 			if (contentComponent.startsWith("A|")) {
-				LivingGroup groupToAdd = iDToAttribute.get(contentComponent.substring(2));
+				LivingGroup groupToAdd = iDToAttributeBuilder.get(contentComponent.substring(2));
 				if (groupToAdd != null) {
 					SetAlgebra.operate(livingGroup.entityJASNames, groupToAdd.entityJASNames, operation);
 					continue;
@@ -429,7 +535,7 @@ public class LivingGroupRegistry {
 		}
 	}
 
-	public void saveToConfig(File configDirectory) {
+	public void saveToConfig(File configDirectory, FileWriteBatch writes) {
 		Gson gson = GsonHelper.createGson(true, new java.lang.reflect.Type[] { LivingGroupSaveObject.class },
 				new Object[] { new LivingGroupSaveObjectSerializer() });
 
@@ -438,6 +544,6 @@ public class LivingGroupRegistry {
 
 		LivingGroupSaveObject biomeGroupAuthor = new LivingGroupSaveObject(EntityClasstoJASName,
 				iDToAttribute.values(), Collections.<LivingGroup> emptyList());
-		GsonHelper.writeToGson(FileUtilities.createWriter(gsonBiomeFile, true), biomeGroupAuthor, gson);
+		GsonHelper.writeToGson(writes, gsonBiomeFile, biomeGroupAuthor, gson);
 	}
 }
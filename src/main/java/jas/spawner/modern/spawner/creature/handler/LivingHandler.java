@@ -2,14 +2,20 @@ package jas.spawner.modern.spawner.creature.handler;
 
 import jas.common.JASLog;
 import jas.common.JustAnotherSpawner;
+import jas.common.helper.ExpressionCompiler;
 import jas.common.helper.MVELHelper;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.EntityProperties;
 import jas.spawner.modern.MVELProfile;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.modern.spawner.CountInfo;
+import jas.spawner.modern.spawner.MemoizedExpression;
+import jas.spawner.modern.spawner.PlayerIndex;
 import jas.spawner.modern.spawner.Tags;
+import jas.spawner.modern.spawner.ThreadTags;
 import jas.spawner.modern.spawner.creature.entry.SpawnListEntry;
 import jas.spawner.modern.spawner.creature.handler.parsing.settings.OptionalSettings.Operand;
+import jas.spawner.modern.spawner.creature.type.CreatureType;
 import jas.spawner.modern.spawner.creature.type.CreatureTypeRegistry;
 
 import java.io.File;
@@ -21,7 +27,6 @@ import net.minecraft.util.MathHelper;
 import net.minecraftforge.event.ForgeEventFactory;
 
 import org.apache.logging.log4j.Level;
-import org.mvel2.MVEL;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
@@ -33,6 +38,8 @@ public class LivingHandler {
 
 	public final String livingID;
 	public final String creatureTypeID;
+	/* typeIndex of the CreatureType, CountIndex.UNKNOWN if the handler has no type i.e. NONE */
+	public final int creatureTypeIndex;
 	public final boolean shouldSpawn;
 	public final CreatureTypeRegistry creatureTypeRegistry;
 
@@ -49,7 +56,7 @@ public class LivingHandler {
 	public final Optional<Integer> despawnAge;
 	public final Optional<Integer> despawnRate;
 	public final Optional<Operand> spawnOperand;
-	private Optional<Serializable> compSpawnExpression;
+	private Optional<MemoizedExpression> compSpawnExpression;
 	private Optional<Serializable> compChunkSpawnExpression;
 	private Optional<Serializable> compDespawnExpression;
 	private Optional<Serializable> compInstantDespawnExpression;
@@ -60,6 +67,9 @@ public class LivingHandler {
 	public transient final ImmutableSet<String> namedJASSpawnables; // Resulting list of entities that this LH should be
 																	// able to spawn
 
+	/* Rebound for each expression evaluated by a LivingHandler, so evaluations do not allocate new Tags */
+	private static final ThreadTags evaluationTags = new ThreadTags();
+
 	public Optional<Serializable> getDespawning() {
 		return compDespawnExpression;
 	}
@@ -67,8 +77,9 @@ public class LivingHandler {
 	public LivingHandler(CreatureTypeRegistry creatureTypeRegistry, LivingHandlerBuilder builder) {
 		this.creatureTypeRegistry = creatureTypeRegistry;
 		this.livingID = builder.getHandlerId();
-		this.creatureTypeID = creatureTypeRegistry.getCreatureType(builder.getCreatureTypeId()) != null ? builder
-				.getCreatureTypeId() : CreatureTypeRegistry.NONE;
+		CreatureType creatureType = creatureTypeRegistry.getCreatureType(builder.getCreatureTypeId());
+		this.creatureTypeID = creatureType != null ? builder.getCreatureTypeId() : CreatureTypeRegistry.NONE;
+		this.creatureTypeIndex = creatureType != null ? creatureType.typeIndex : CountIndex.UNKNOWN;
 		this.shouldSpawn = builder.getShouldSpawn();
 		this.contents = ImmutableList.<String> builder().addAll(builder.contents).build();
 		this.namedJASSpawnables = ImmutableSet.<String> builder().addAll(builder.getNamedJASSpawnables()).build();
@@ -84,19 +95,20 @@ public class LivingHandler {
 		this.despawnAge = builder.getDespawnAge();
 		this.despawnRate = builder.getDespawnRate();
 		this.spawnOperand = builder.getSpawnOperand();
-		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(spawnExpression)) : Optional.<Serializable> absent();
-		this.compChunkSpawnExpression = !chunkSpawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(chunkSpawnExpression)) : Optional.<Serializable> absent();
-		this.compDespawnExpression = !despawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(despawnExpression)) : Optional.<Serializable> absent();
-		this.compInstantDespawnExpression = !instantdespawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(instantdespawnExpression)) : Optional.<Serializable> absent();
-
-		this.compPostSpawnExpression = !postspawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(postspawnExpression)) : Optional.<Serializable> absent();
-		this.compEntityExpression = !entityExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(entityExpression)) : Optional.<Serializable> absent();
+		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(new MemoizedExpression(
+				spawnExpression, "LivingHandler " + livingID + " SpawnExpression")) : Optional
+				.<MemoizedExpression> absent();
+		this.compChunkSpawnExpression = compile(chunkSpawnExpression, "ChunkSpawnExpression");
+		this.compDespawnExpression = compile(despawnExpression, "DespawnExpression");
+		this.compInstantDespawnExpression = compile(instantdespawnExpression, "InstantDespawnExpression");
+
+		this.compPostSpawnExpression = compile(postspawnExpression, "PostSpawnExpression");
+		this.compEntityExpression = compile(entityExpression, "EntityExpression");
+	}
+
+	private Optional<Serializable> compile(String expression, String expressionName) {
+		return !expression.trim().equals("") ? Optional.of(ExpressionCompiler.compile(expression, Tags.class,
+				"LivingHandler " + livingID + " " + expressionName)) : Optional.<Serializable> absent();
 	}
 
 	public final int getLivingCap() {
@@ -139,7 +151,8 @@ public class LivingHandler {
 		if (!getDespawning().isPresent()) {
 			return LivingHelper.canDespawn(entity);
 		}
-		EntityPlayer entityplayer = entity.worldObj.getClosestPlayerToEntity(entity, -1.0D);
+		EntityPlayer entityplayer = PlayerIndex.of(entity.worldObj).getClosestPlayer(entity.posX, entity.posY,
+				entity.posZ, -1.0D);
 		int xCoord = MathHelper.floor_double(entity.posX);
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
@@ -150,7 +163,7 @@ public class LivingHandler {
 			double d2 = entityplayer.posZ - entity.posZ;
 			double d3 = d0 * d0 + d1 * d1 + d2 * d2;
 
-			Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+			Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
 			boolean canDespawn = !MVELHelper.executeExpression(getDespawning().get(), tags,
 					"Error processing canDespawn compiled expression for " + livingID + ": " + despawnExpression);
 
@@ -171,7 +184,14 @@ public class LivingHandler {
 	 * @param entity
 	 */
 	public final void despawnEntity(EntityLiving entity, CountInfo info) {
-		EntityPlayer entityplayer = entity.worldObj.getClosestPlayerToEntity(entity, -1.0D);
+		despawnEntity(entity, info, PlayerIndex.of(entity.worldObj));
+	}
+
+	/**
+	 * As {@link #despawnEntity(EntityLiving, CountInfo)} with the players of the entity's world for the current tick
+	 */
+	public final void despawnEntity(EntityLiving entity, CountInfo info, PlayerIndex players) {
+		EntityPlayer entityplayer = players.getClosestPlayer(entity.posX, entity.posY, entity.posZ, -1.0D);
 		int xCoord = MathHelper.floor_double(entity.posX);
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
@@ -186,7 +206,7 @@ public class LivingHandler {
 					.getExtendedProperties(EntityProperties.JAS_PROPERTIES);
 			entityProps.incrementAge(60);
 
-			Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+			Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
 
 			boolean canDespawn = !MVELHelper.executeExpression(getDespawning().get(), tags,
 					"Error processing canSpawn compiled expression for " + livingID + ": " + despawnExpression);
@@ -244,8 +264,8 @@ public class LivingHandler {
 		int xCoord = MathHelper.floor_double(entity.posX);
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
-		Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
-		boolean canLivingSpawn = !MVELHelper.executeExpression(compSpawnExpression.get(), tags,
+		Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
+		boolean canLivingSpawn = !compSpawnExpression.get().evaluate(entity.worldObj, tags,
 				"Error processing compiled spawn expression for " + livingID + ": " + spawnExpression);
 
 		return canLivingSpawn && entity.worldObj.checkNoEntityCollision(entity.boundingBox)
@@ -261,7 +281,7 @@ public class LivingHandler {
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
 
-		Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+		Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
 		boolean canSpawnListSpawn = !MVELHelper.executeExpression(spawnListEntry.getOptionalSpawning().get(), tags,
 				"Error processing compiled spawnListSpawn expression for " + livingID + ": " + spawnListEntry.spawnExpression);
 
@@ -275,7 +295,7 @@ public class LivingHandler {
 			int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 			int zCoord = MathHelper.floor_double(entity.posZ);
 
-			Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+			Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
 			MVELHelper.executeExpression(compPostSpawnExpression.get(), tags,
 					"Error processing compiled handler postSpawn expression for " + livingID + ": "
 							+ postspawnExpression);
@@ -286,12 +306,25 @@ public class LivingHandler {
 			int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 			int zCoord = MathHelper.floor_double(entity.posZ);
 
-			Tags tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+			Tags tags = evaluationTags(entity, info, xCoord, yCoord, zCoord);
 			MVELHelper.executeExpression(spawnListEntry.getOptionalPostSpawning().get(), tags,
 					"Error processing compiled spawnlistentry postSpawn expression for " + livingID);
 		}
 	}
 
+	/**
+	 * Tags of the calling thread rebound to the entity. Only valid until the next call on the same thread.
+	 */
+	private static Tags evaluationTags(EntityLiving entity, CountInfo info, int xCoord, int yCoord, int zCoord) {
+		Tags tags = evaluationTags.get();
+		if (tags == null) {
+			tags = new Tags(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+			evaluationTags.set(tags);
+			return tags;
+		}
+		return tags.reset(entity.worldObj, info, xCoord, yCoord, zCoord, entity);
+	}
+
 	public static File getFile(File configDirectory, String saveName, String fileName) {
 		String filePath = saveName + "/" + DefaultProps.ENTITYHANDLERDIR;
 		if (fileName != null && !fileName.equals("")) {
@@ -3,8 +3,10 @@ package jas.spawner.modern.spawner.creature.handler;
 import jas.common.JASLog;
 import jas.common.global.ImportedSpawnList;
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.common.helper.MVELHelper;
+import jas.common.helper.ParallelConfigReader;
 import jas.spawner.modern.spawner.Tags;
 import jas.spawner.modern.spawner.creature.type.CreatureType;
 import jas.spawner.modern.spawner.creature.type.CreatureTypeRegistry;
@@ -20,6 +22,7 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EnumCreatureType;
@@ -40,6 +43,10 @@ public class LivingHandlerRegistry {
 	/* Map from a Content entry (JASName) to LivingHandler Key */
 	private ImmutableMultimap<String, String> jasNameToHandler = ImmutableSetMultimap.<String, String> builder()
 			.build();
+	/* Incremented whenever the set of handlers is replaced */
+	private volatile int version;
+	/* Handlers by entity class; Class does not override equals so look-ups are by identity */
+	private final ConcurrentHashMap<Class<?>, ClassHandlers> classHandlers = new ConcurrentHashMap<Class<?>, ClassHandlers>();
 
 	public LivingHandler getLivingHandler(String handlerID) {
 		return livingHandlers.get(handlerID);
@@ -57,9 +64,21 @@ public class LivingHandlerRegistry {
 	}
 
 	public List<LivingHandler> getLivingHandlers(Class<? extends EntityLiving> entityClass) {
-		List<LivingHandler> list = new ArrayList<LivingHandler>();
-		String jasName = livingGroupRegistry.EntityClasstoJASName.get(entityClass);
-		return getLivingHandlers(jasName);
+		return getClassHandlers(entityClass).asList();
+	}
+
+	/**
+	 * @return Handlers of the entity class, resolved once until the handlers are next loaded or changed
+	 */
+	public ClassHandlers getClassHandlers(Class<? extends EntityLiving> entityClass) {
+		int currentVersion = version;
+		ClassHandlers handlers = classHandlers.get(entityClass);
+		if (handlers == null || handlers.version != currentVersion) {
+			String jasName = livingGroupRegistry.EntityClasstoJASName.get(entityClass);
+			handlers = new ClassHandlers(currentVersion, getLivingHandlers(jasName));
+			classHandlers.put(entityClass, handlers);
+		}
+		return handlers;
 	}
 
 	public Class<? extends EntityLiving> getRandomEntity(String livingID, Random random, Tags tags) {
@@ -87,6 +106,14 @@ public class LivingHandlerRegistry {
 		return null;
 	}
 
+	/**
+	 * @return Stamp that changes whenever handlers are loaded, added, removed or updated; handlers resolved under an
+	 *         older stamp may no longer be registered
+	 */
+	public int version() {
+		return version;
+	}
+
 	/**
 	 * Creates a Immutable copy of registered livinghandlers
 	 * 
@@ -124,9 +151,8 @@ public class LivingHandlerRegistry {
 		File handlerFileFolder = LivingHandler.getFile(configDirectory,
 				worldProperties.getFolderConfiguration().saveName, "");
 		File[] files = FileUtilities.getFileInDirectory(handlerFileFolder, ".cfg");
-		for (File livingFile : files) {
-			LivingHandlerSaveObject read = GsonHelper.readOrCreateFromGson(
-					FileUtilities.createReader(livingFile, false), LivingHandlerSaveObject.class, gson);
+		for (LivingHandlerSaveObject read : ParallelConfigReader.readAll(files, LivingHandlerSaveObject.class, gson,
+				"LivingHandler")) {
 			if (read.getHandlers().isPresent()) {
 				for (LivingHandlerBuilder builder : read.getHandlers().get()) {
 					if (isHandlerValid(builder.getHandlerId(), livingGroupRegistry)) {
@@ -144,6 +170,13 @@ public class LivingHandlerRegistry {
 			builder.contents.add(mapping);
 			livingHandlers.add(builder.build(creatureTypeRegistry, livingGroupRegistry));
 		}
+		setHandlers(livingHandlers);
+	}
+
+	/**
+	 * Replaces the registered handlers, along with the mapping from their contents
+	 */
+	private void setHandlers(Collection<LivingHandler> livingHandlers) {
 		ImmutableMap.Builder<String, LivingHandler> handlerBuilder = ImmutableMap.<String, LivingHandler> builder();
 		ImmutableSetMultimap.Builder<String, String> jasNameBuilder = ImmutableSetMultimap.<String, String>builder();
 		for (LivingHandler handler : livingHandlers) {
@@ -154,6 +187,20 @@ public class LivingHandlerRegistry {
 		}
 		this.livingHandlers = handlerBuilder.build();
 		this.jasNameToHandler = jasNameBuilder.build();
+		version++;
+		/* Entries of classes not looked up again would otherwise keep the replaced handlers */
+		classHandlers.clear();
+	}
+
+	/**
+	 * Builds every handler again against the current CreatureTypes, after types were added, removed or updated
+	 */
+	public void rebuildHandlers() {
+		List<LivingHandler> rebuilt = new ArrayList<LivingHandler>(livingHandlers.size());
+		for (LivingHandler handler : livingHandlers.values()) {
+			rebuilt.add(new LivingHandlerBuilder(handler).build(creatureTypeRegistry, livingGroupRegistry));
+		}
+		setHandlers(rebuilt);
 	}
 
 	// This used to check if LivingGroup was declared before building the LivingHandler, this may be unneccesary now
@@ -219,8 +266,8 @@ public class LivingHandlerRegistry {
 		return CreatureTypeRegistry.NONE;
 	}
 
-	public void saveToConfig(File configDirectory) {
-		worldProperties.saveToConfig(configDirectory);
+	public void saveToConfig(File configDirectory, FileWriteBatch writes) {
+		worldProperties.saveToConfig(configDirectory, writes);
 		HashMap<String, HashMap<String, LivingHandlerBuilder>> fileNameToHandlerIdToHandler = new HashMap<String, HashMap<String, LivingHandlerBuilder>>();
 		for (LivingHandler handler : livingHandlers.values()) {
 			String saveName = getSaveFileName(handler.livingID);
@@ -237,8 +284,7 @@ public class LivingHandlerRegistry {
 		for (Entry<String, HashMap<String, LivingHandlerBuilder>> entry : fileNameToHandlerIdToHandler.entrySet()) {
 			File livingfile = LivingHandler.getFile(configDirectory, worldProperties.getFolderConfiguration().saveName,
 					entry.getKey());
-			GsonHelper.writeToGson(FileUtilities.createWriter(livingfile, true), new LivingHandlerSaveObject(entry
-					.getValue().values()), gson);
+			GsonHelper.writeToGson(writes, livingfile, new LivingHandlerSaveObject(entry.getValue().values()), gson);
 		}
 	}
 
@@ -248,7 +294,7 @@ public class LivingHandlerRegistry {
 		if (!map.containsKey(handler.livingID)) {
 			map.put(handler.livingID, handler);
 		}
-		livingHandlers = ImmutableMap.<String, LivingHandler> builder().putAll(map).build();
+		setHandlers(map.values());
 	}
 
 	public void removeLivingHandler(LivingHandlerBuilder builder) {
@@ -258,7 +304,7 @@ public class LivingHandlerRegistry {
 	public void removeLivingHandler(String livingID) {
 		HashMap<String, LivingHandler> map = new HashMap<String, LivingHandler>(livingHandlers);
 		if (map.remove(livingID) != null) {
-			livingHandlers = ImmutableMap.<String, LivingHandler> builder().putAll(map).build();
+			setHandlers(map.values());
 		}
 	}
 
@@ -267,6 +313,6 @@ public class LivingHandlerRegistry {
 		HashMap<String, LivingHandler> map = new HashMap<String, LivingHandler>(livingHandlers);
 		map.remove(handler.livingID);
 		map.put(handler.livingID, handler);
-		livingHandlers = ImmutableMap.<String, LivingHandler> builder().putAll(map).build();
+		setHandlers(map.values());
 	}
 }
\ No newline at end of file
@@ -71,7 +71,6 @@ public class LivingHandlerSaveObject {
 		public final String SPAWN_OPERAND_KEY = "Spawn Operand";
 
 		public final String CONTENTS_KEY = "Contents";
-		private String currentVersion;
 
 		@Override
 		public JsonElement serialize(LivingHandlerSaveObject src, Type typeOfSrc, JsonSerializationContext context) {
@@ -148,7 +147,8 @@ public class LivingHandlerSaveObject {
 				throws JsonParseException {
 			LivingHandlerSaveObject saveObject = new LivingHandlerSaveObject();
 			JsonObject endObject = GsonHelper.getAsJsonObject(json);
-			currentVersion = GsonHelper.getMemberOrDefault(endObject, FILE_VERSION_KEY, FILE_VERSION);
+			/* Local rather than a field: the serializer is shared by the threads reading the files */
+			String fileVersion = GsonHelper.getMemberOrDefault(endObject, FILE_VERSION_KEY, FILE_VERSION);
 			JsonElement handlerElement = endObject.get(HANDLERS_KEY);
 			if (handlerElement != null && handlerElement.isJsonObject()) {
 				JsonObject handlesr = handlerElement.getAsJsonObject();
@@ -156,14 +156,14 @@ public class LivingHandlerSaveObject {
 				for (Entry<String, JsonElement> entry : handlesr.entrySet()) {
 					String handlerId = entry.getKey();
 					JsonObject handler = GsonHelper.getAsJsonObject(entry.getValue());
-					LivingHandlerBuilder builder = getBuilder(handler, handlerId);
+					LivingHandlerBuilder builder = getBuilder(handler, handlerId, fileVersion);
 					saveObject.handlerIdToBuilder.get().put(builder.getHandlerId(), builder);
 				}
 			}
 			return saveObject;
 		}
 
-		private LivingHandlerBuilder getBuilder(JsonObject handler, String handlerId) {
+		private LivingHandlerBuilder getBuilder(JsonObject handler, String handlerId, String fileVersion) {
 			String stats = GsonHelper.getMemberOrDefault(handler, STATS_KEY, "NONE-true");
 			if (stats.split("-").length != 2) {
 				JASLog.log().severe("Error parsing LivingHandler %s stats data: %s is an invalid format", handlerId,
@@ -174,7 +174,7 @@ public class LivingHandlerSaveObject {
 			boolean shouldSpawn = Boolean.parseBoolean(stats.split("-")[1].trim());
 			LivingHandlerBuilder builder = new LivingHandlerBuilder(handlerId, creatureTypeId)
 					.setShouldSpawn(shouldSpawn);
-			if (currentVersion.equals("1.0")) {
+			if (fileVersion.equals("1.0")) {
 				final String optionalParameters = GsonHelper.getMemberOrDefault(handler, TAGS_KEY, "");
 				String[] parts = optionalParameters.split("\\{");
 				for (String string : optionalParameters.split("\\{")) {
@@ -238,7 +238,7 @@ public class LivingHandlerSaveObject {
 				int despawnRate = GsonHelper.getMemberOrDefault(handler, DESPAWN_RATE_KEY, -1);
 				builder.setDespawnRate(despawnRate);
 
-//				if (currentVersion.equals("2.0")) {
+//				if (fileVersion.equals("2.0")) {
 //					String chunkSpawnTag = GsonHelper.getMemberOrDefault(handler, CHUNK_SPAWN_TAG_KEY, spawnTag);
 //					builder.setChunkSpawnExpression(chunkSpawnTag);
 //				} else {
@@ -248,7 +248,7 @@ public class LivingHandlerSaveObject {
 			}
 			builder.setEntityExpression(GsonHelper.getMemberOrDefault(handler, ENTITY_EXP_KEY, ""));
 			
-			JsonArray contents = GsonHelper.getMemberOrDefault(handler, CONTENTS_KEY, getDefaultArray(handlerId));
+			JsonArray contents = GsonHelper.getMemberOrDefault(handler, CONTENTS_KEY, getDefaultArray(handlerId, fileVersion));
 			for (JsonElement jsonElement : contents) {
 				String content = GsonHelper.getAsOrDefault(jsonElement, "");
 				if (content != null && !content.trim().equals("")) {
@@ -258,9 +258,9 @@ public class LivingHandlerSaveObject {
 			return builder;
 		}
 
-		private JsonArray getDefaultArray(String handlerID) {
+		private JsonArray getDefaultArray(String handlerID, String fileVersion) {
 			JsonArray jsonArray = new JsonArray();
-			if (currentVersion.equals("1.0")) {
+			if (fileVersion.equals("1.0")) {
 				List<String> contents = livingGroupContents.get(handlerID);
 				if (contents != null) {
 					for (String content : contents) {
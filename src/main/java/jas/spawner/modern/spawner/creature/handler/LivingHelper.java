@@ -1,7 +1,7 @@
 package jas.spawner.modern.spawner.creature.handler;
 
-import jas.common.JASLog;
 import jas.common.helper.ReflectionHelper;
+import jas.spawner.modern.spawner.EntityFactory;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -20,14 +20,7 @@ public class LivingHelper {
      * @return
      */
 	public static EntityLiving createCreature(Class<? extends EntityLiving> livingClass, World world) {
-		try {
-			return instantiateEntity(livingClass, world);
-		} catch (NoClassDefFoundError exception) {
-			JASLog.log().severe("Entity %s references classes that do not exist.", livingClass.getSimpleName());
-		} catch (Exception exception) {
-			JASLog.log().warning("Entity %s could not be initialized.", livingClass.getSimpleName());
-		}
-		return null;
+		return EntityFactory.construct(livingClass, world);
 	}
 
     public static <T extends Entity> T instantiateEntity(Class<? extends T> entityClass, World world)
@@ -3,7 +3,6 @@ package jas.spawner.modern.spawner.creature.handler.parsing.keys;
 import jas.common.JASLog;
 import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
-import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.modern.spawner.creature.handler.parsing.ParsingHelper;
 import jas.spawner.modern.spawner.creature.handler.parsing.TypeValuePair;
 import jas.spawner.modern.spawner.creature.handler.parsing.settings.OptionalSettings;
@@ -16,8 +15,6 @@ import net.minecraft.entity.EntityLiving;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 
-import com.google.common.collect.ImmutableMultimap;
-
 public class KeyParserBiome extends KeyParserBase {
 
     private enum BiomeType {
@@ -154,12 +151,6 @@ public class KeyParserBiome extends KeyParserBase {
             }
 
             BiomeGroupRegistry registry = MVELProfile.worldSettings().biomeGroupRegistry();
-            ImmutableMultimap<String, String> packgToBiomeGroupID = ImmutableMultimap.of();
-            if (type == BiomeType.GROUP) {
-                // Cache Group as our only current public access is a copy method. This is already changed in DEV14
-                // builds so is a temporary evil TODO
-                packgToBiomeGroupID = registry.packgNameToGroupIDs();
-            }
 
             for (int i = -rangeX; i <= rangeX; i++) {
                 for (int k = -rangeZ; k <= rangeZ; k++) {
@@ -167,13 +158,13 @@ public class KeyParserBiome extends KeyParserBase {
                     boolean isBiome = false;
                     switch (type) {
                     case ATTRIBUTE: {
-                        if (registry.packgNameToAttribIDs().get(BiomeHelper.getPackageName(biome)).contains(biomeName)) {
+                        if (registry.attribIDsOf(biome).contains(biomeName)) {
                             isBiome = true;
                         }
                         break;
                     }
                     case GROUP: {
-                        if (packgToBiomeGroupID.get(BiomeHelper.getPackageName(biome)).contains(biomeName)) {
+                        if (registry.groupIDsOf(biome).contains(biomeName)) {
                             isBiome = true;
                         }
                         break;
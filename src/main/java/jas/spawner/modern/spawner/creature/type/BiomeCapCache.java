@@ -0,0 +1,96 @@
+package jas.spawner.modern.spawner.creature.type;
+
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkKeyMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Averaged biome cap of loaded chunks for each CreatureType, computed on first use rather than on every spawn attempt.
+ * Entries are dropped when their chunk unloads, and every entry is dropped when the CreatureTypes are rebuilt or the
+ * settings are reloaded. Only accessed from the server thread.
+ */
+public class BiomeCapCache {
+	private static final int UNCOMPUTED = Integer.MIN_VALUE;
+	private final Map<World, WorldCaps> worldCaps = new WeakHashMap<World, WorldCaps>();
+
+	private static final class WorldCaps {
+		/* Caps indexed by typeIndex */
+		final ChunkKeyMap<int[]> chunkCaps = new ChunkKeyMap<int[]>();
+		/* CreatureType the caps at each typeIndex were computed for */
+		CreatureType[] types = new CreatureType[0];
+	}
+
+	/**
+	 * Equivalent to {@link CreatureType#getChunkCap(Chunk)}
+	 */
+	public int getChunkCap(CreatureType creatureType, Chunk chunk) {
+		if (chunk == null || creatureType.defaultBiomeCap <= 0) {
+			return -1;
+		}
+		WorldCaps caps = worldCaps.get(chunk.worldObj);
+		if (caps == null) {
+			caps = new WorldCaps();
+			worldCaps.put(chunk.worldObj, caps);
+		}
+		int typeIndex = creatureType.typeIndex;
+		if (typeIndex >= caps.types.length || caps.types[typeIndex] != creatureType) {
+			if (typeIndex < caps.types.length && caps.types[typeIndex] != null) {
+				/* CreatureTypes have been rebuilt, any of their caps may have changed */
+				caps.chunkCaps.clear();
+				caps.types = new CreatureType[0];
+			}
+			if (typeIndex >= caps.types.length) {
+				caps.types = Arrays.copyOf(caps.types, typeIndex + 1);
+			}
+			caps.types[typeIndex] = creatureType;
+		}
+
+		long chunkKey = ChunkKey.of(chunk.xPosition, chunk.zPosition);
+		int[] chunkCaps = caps.chunkCaps.get(chunkKey);
+		if (chunkCaps == null || typeIndex >= chunkCaps.length) {
+			int oldLength = chunkCaps != null ? chunkCaps.length : 0;
+			chunkCaps = chunkCaps != null ? Arrays.copyOf(chunkCaps, caps.types.length) : new int[caps.types.length];
+			Arrays.fill(chunkCaps, oldLength, chunkCaps.length, UNCOMPUTED);
+			caps.chunkCaps.put(chunkKey, chunkCaps);
+		}
+		if (chunkCaps[typeIndex] == UNCOMPUTED) {
+			chunkCaps[typeIndex] = creatureType.getChunkCap(chunk);
+		}
+		return chunkCaps[typeIndex];
+	}
+
+	/**
+	 * Drops every cached cap, called when settings are reloaded
+	 */
+	public void clear() {
+		worldCaps.clear();
+	}
+
+	@SubscribeEvent
+	public void chunkUnload(ChunkEvent.Unload event) {
+		if (event.world.isRemote) {
+			return;
+		}
+		WorldCaps caps = worldCaps.get(event.world);
+		if (caps != null) {
+			Chunk chunk = event.getChunk();
+			caps.chunkCaps.remove(ChunkKey.of(chunk.xPosition, chunk.zPosition));
+		}
+	}
+
+	@SubscribeEvent
+	public void worldUnload(WorldEvent.Unload event) {
+		if (!event.world.isRemote) {
+			worldCaps.remove(event.world);
+		}
+	}
+}
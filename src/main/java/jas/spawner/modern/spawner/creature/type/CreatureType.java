@@ -1,11 +1,14 @@
 package jas.spawner.modern.spawner.creature.type;
 
 import jas.common.JustAnotherSpawner;
-import jas.common.helper.MVELHelper;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.MVELProfile;
+import jas.spawner.modern.spawner.BlockView;
+import jas.spawner.modern.spawner.ChunkKey;
 import jas.spawner.modern.spawner.CountInfo;
+import jas.spawner.modern.spawner.MemoizedExpression;
 import jas.spawner.modern.spawner.Tags;
+import jas.spawner.modern.spawner.ThreadTags;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
 import jas.spawner.modern.spawner.creature.handler.LivingHandler;
 import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
@@ -14,10 +17,9 @@ import jas.spawner.modern.spawner.creature.handler.parsing.keys.Key;
 import jas.spawner.modern.spawner.creature.handler.parsing.settings.OptionalSettingsCreatureTypeSpawn;
 
 import java.io.File;
-import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Map;
-
-import org.mvel2.MVEL;
+import java.util.Map.Entry;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockSlab;
@@ -26,20 +28,21 @@ import net.minecraft.block.material.Material;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.init.Blocks;
-import net.minecraft.util.MathHelper;
-import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.ChunkPosition;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.util.ForgeDirection;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.ImmutableMap;
 
 // TODO: Large Constructor could probably use Factory OR String optionalParameters to consolidate unused properties
 public class CreatureType {
 	public final String typeID;
+	/* Dense index of this type within the CreatureTypeRegistry, used to address array based counts */
+	public final int typeIndex;
 	public final int spawnRate;
 	public final int maxNumberOfCreature;
 	public final float chunkSpawnChance;
@@ -49,15 +52,20 @@ public class CreatureType {
 	public final int iterationsPerChunk;
 	public final int iterationsPerPack;
 
-	private Optional<Serializable> compSpawnExpression = Optional.absent();
+	private Optional<MemoizedExpression> compSpawnExpression = Optional.absent();
 	public final BiomeGroupRegistry biomeGroupRegistry;
 
 	public final int defaultBiomeCap;
-	public final ImmutableMap<Integer, Integer> biomeCaps;
+	/* Biome cap by biome ID, NO_BIOME_CAP for biomes that use the defaultBiomeCap */
+	private final int[] biomeCaps;
+	public static final int NO_BIOME_CAP = Integer.MIN_VALUE;
+	/* Rebound for each {spawn} tag evaluated by canSpawnHere */
+	private static final ThreadTags spawnTags = new ThreadTags();
 
-	public CreatureType(BiomeGroupRegistry biomeGroupRegistry, CreatureTypeBuilder builder) {
+	public CreatureType(BiomeGroupRegistry biomeGroupRegistry, CreatureTypeBuilder builder, int typeIndex) {
 		this.biomeGroupRegistry = biomeGroupRegistry;
 		this.typeID = builder.typeID;
+		this.typeIndex = typeIndex;
 		this.maxNumberOfCreature = builder.maxNumberOfCreature;
 		this.spawnRate = builder.spawnRate;
 		this.spawnMedium = builder.getSpawnMedium();
@@ -65,14 +73,25 @@ public class CreatureType {
 		this.defaultBiomeCap = builder.getDefaultBiomeCap();
 		Map<Integer, Integer> biomeCaps = CreatureTypeBuilder.capMapMappingToBiomeId(builder.getBiomeCaps(),
 				biomeGroupRegistry.biomeMappingToPckg(), biomeGroupRegistry.pckgNameToBiomeID());
-		this.biomeCaps = ImmutableMap.<Integer, Integer> builder().putAll(biomeCaps).build();
+		this.biomeCaps = new int[BiomeGenBase.getBiomeGenArray().length];
+		Arrays.fill(this.biomeCaps, NO_BIOME_CAP);
+		for (Entry<Integer, Integer> biomeCap : biomeCaps.entrySet()) {
+			this.biomeCaps[biomeCap.getKey()] = biomeCap.getValue();
+		}
 		this.spawnExpression = builder.getSpawnExpression();
-		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(MVEL
-				.compileExpression(spawnExpression)) : Optional.<Serializable> absent();
+		this.compSpawnExpression = !spawnExpression.trim().equals("") ? Optional.of(new MemoizedExpression(
+				spawnExpression, "CreatureType " + typeID + " SpawnExpression")) : Optional.<MemoizedExpression> absent();
 		this.iterationsPerChunk = builder.getIterationsPerChunk();
 		this.iterationsPerPack = builder.getIterationsPerPack();
 	}
 
+	/**
+	 * @return Copy of the biome caps by biome ID, NO_BIOME_CAP for biomes that use the defaultBiomeCap
+	 */
+	public int[] getBiomeCaps() {
+		return biomeCaps.clone();
+	}
+
 	public boolean isReady(WorldServer world) {
 		return world.getWorldInfo().getWorldTotalTime() % spawnRate == 0L;
 	}
@@ -113,12 +132,7 @@ public class CreatureType {
 	 * @return
 	 */
 	public boolean isEntityOfType(LivingHandlerRegistry livingHandlerRegistry, Class<? extends EntityLiving> entity) {
-		for (LivingHandler handler : livingHandlerRegistry.getLivingHandlers(entity)) {
-			if (handler.creatureTypeID.equals(this.typeID)) {
-				return true;
-			}
-		}
-		return false;
+		return livingHandlerRegistry.getClassHandlers(entity).isOfType(typeIndex);
 	}
 
 	public boolean isEntityOfType(LivingHandlerRegistry livingHandlerRegistry, String groupID) {
@@ -135,19 +149,30 @@ public class CreatureType {
 	 * @param zCoord
 	 * @return
 	 */
-	public boolean isValidMedium(World world, int xCoord, int yCoord, int zCoord) {
+	public boolean isValidMedium(IBlockAccess world, int xCoord, int yCoord, int zCoord) {
 		Block block = world.getBlock(xCoord, yCoord, zCoord);
 		if (spawnMedium == Material.air) {
-			return !world.getBlock(xCoord, yCoord, zCoord).isNormalCube()
-					&& (world.getBlock(xCoord, yCoord, zCoord).getMaterial() == spawnMedium || (!world
-							.getBlock(xCoord, yCoord, zCoord).getMaterial().blocksMovement() && !world
-							.getBlock(xCoord, yCoord, zCoord).getMaterial().isLiquid()));
+			return !block.isNormalCube()
+					&& (block.getMaterial() == spawnMedium || (!block.getMaterial().blocksMovement() && !block
+							.getMaterial().isLiquid()));
 		} else {
-			return !world.getBlock(xCoord, yCoord, zCoord).isNormalCube()
-					&& world.getBlock(xCoord, yCoord, zCoord).getMaterial() == spawnMedium;
+			return !block.isNormalCube() && block.getMaterial() == spawnMedium;
 		}
 	}
 
+	public boolean hasSpawnExpression() {
+		return compSpawnExpression.isPresent();
+	}
+
+	/**
+	 * Location only checks: the valid medium and, when there is no spawnExpression, the default surface checks. Blocks
+	 * are only read through the provided IBlockAccess so this may be evaluated against a snapshot off the main thread.
+	 */
+	public boolean isValidLocation(IBlockAccess world, int xCoord, int yCoord, int zCoord) {
+		return isValidMedium(world, xCoord, yCoord, zCoord)
+				&& (hasSpawnExpression() || canSpawnOnSurface(world, xCoord, yCoord, zCoord));
+	}
+
 	/**
 	 * Called by CustomSpawner the location is valid for determining if the Chunk Postion is a valid location to spawn
 	 * 
@@ -159,25 +184,33 @@ public class CreatureType {
 	 */
 	public boolean canSpawnAtLocation(World world, Tags tags, int xCoord, int yCoord, int zCoord) {
 		if (compSpawnExpression.isPresent()) {
-			return !MVELHelper.executeExpression(compSpawnExpression.get(), tags,
+			return !compSpawnExpression.get().evaluate(world, tags,
 					"Error processing spawnExpression compiled expression for " + typeID + ": " + spawnExpression);
 		} else {
-			if (spawnMedium == Material.water) {
-				return world.getBlock(xCoord, yCoord, zCoord).getMaterial().isLiquid()
-						&& world.getBlock(xCoord, yCoord - 1, zCoord).getMaterial().isLiquid()
-						&& !world.getBlock(xCoord, yCoord + 1, zCoord).isNormalCube();
-			} else if (!World.doesBlockHaveSolidTopSurface(world, xCoord, yCoord - 1, zCoord)) {
-				return false;
-			} else {
-				Block l = world.getBlock(xCoord, yCoord - 1, zCoord);
-				boolean spawnBlock = (l != null && canCreatureSpawn(l, world, xCoord, yCoord - 1, zCoord));
-				return spawnBlock && l != Blocks.bedrock && !world.getBlock(xCoord, yCoord, zCoord).isNormalCube()
-						&& !world.getBlock(xCoord, yCoord, zCoord).getMaterial().isLiquid()
-						&& !world.getBlock(xCoord, yCoord + 1, zCoord).isNormalCube();
-			}
+			return canSpawnOnSurface(BlockView.of(world), xCoord, yCoord, zCoord);
 		}
 	}
 
+	private boolean canSpawnOnSurface(IBlockAccess world, int xCoord, int yCoord, int zCoord) {
+		if (spawnMedium == Material.water) {
+			return world.getBlock(xCoord, yCoord, zCoord).getMaterial().isLiquid()
+					&& world.getBlock(xCoord, yCoord - 1, zCoord).getMaterial().isLiquid()
+					&& !world.getBlock(xCoord, yCoord + 1, zCoord).isNormalCube();
+		} else if (!World.doesBlockHaveSolidTopSurface(world, xCoord, yCoord - 1, zCoord)) {
+			return false;
+		} else {
+			Block l = world.getBlock(xCoord, yCoord - 1, zCoord);
+			boolean spawnBlock = (l != null && canCreatureSpawn(l, world, xCoord, yCoord - 1, zCoord));
+			return spawnBlock && l != Blocks.bedrock && !world.getBlock(xCoord, yCoord, zCoord).isNormalCube()
+					&& !world.getBlock(xCoord, yCoord, zCoord).getMaterial().isLiquid()
+					&& !world.getBlock(xCoord, yCoord + 1, zCoord).isNormalCube();
+		}
+	}
+
+	/**
+	 * Biome cap of the chunk averaged over its columns. Prefer {@link BiomeCapCache#getChunkCap} which only computes
+	 * it once per loaded chunk.
+	 */
 	public int getChunkCap(Chunk chunk) {
 		if (chunk == null || defaultBiomeCap <= 0) {
 			return -1;
@@ -187,9 +220,8 @@ public class CreatureType {
 		byte[] biomeArray = chunk.getBiomeArray();
 		for (int i = 0; i < biomeArray.length; i++) {
 			int biomeID = biomeArray[i] & 255;
-			Integer columnCap = biomeCaps.get(biomeID);
-			columnCap = columnCap != null ? columnCap : defaultBiomeCap;
-			chunkCap += columnCap;
+			int columnCap = biomeID < biomeCaps.length ? biomeCaps[biomeID] : NO_BIOME_CAP;
+			chunkCap += columnCap != NO_BIOME_CAP ? columnCap : defaultBiomeCap;
 			counter++;
 		}
 		return counter > 0 ? chunkCap / counter : -1;
@@ -209,7 +241,7 @@ public class CreatureType {
 	 * @param zCoord
 	 * @return
 	 */
-	private boolean canCreatureSpawn(Block block, World world, int xCoord, int yCoord, int zCoord) {
+	private boolean canCreatureSpawn(Block block, IBlockAccess world, int xCoord, int yCoord, int zCoord) {
 		int meta = world.getBlockMetadata(xCoord, yCoord, zCoord);
 		if (block instanceof BlockSlab) {
 			return (((meta & 8) == 8) || block.func_149730_j());
@@ -224,34 +256,52 @@ public class CreatureType {
 	}
 
 	public boolean canSpawnHere(World worldServer, CountInfo countInfo, ChunkPosition spawningPoint) {
-		Tags tags = new Tags(worldServer, countInfo, spawningPoint.chunkPosX, spawningPoint.chunkPosY,
-				spawningPoint.chunkPosZ);
-		// Max of Type: Moved back to beggining of CustomSpawner for performance
-		final int entityTypeCap = this.maxNumberOfCreature * countInfo.eligibleChunkLocations().size() / 256;
-		int globalEntityTypeCount = countInfo.getGlobalEntityTypeCount(this.typeID);
-		if (globalEntityTypeCount > entityTypeCap) {
-			return false;
-		}
-
-		// BiomeCap
-		ChunkCoordIntPair chunkCoord = new ChunkCoordIntPair(MathHelper.floor_double(spawningPoint.chunkPosX / 16.0D),
-				MathHelper.floor_double(spawningPoint.chunkPosZ / 16.0D));
-		int biomeCap = this
-				.getChunkCap(worldServer.getChunkFromChunkCoords(chunkCoord.chunkXPos, chunkCoord.chunkZPos));
-		if (biomeCap > -1 && countInfo.getClodEntityCount(chunkCoord, this.typeID) >= biomeCap) {
+		if (!isWithinCaps(worldServer, countInfo, spawningPoint.chunkPosX, spawningPoint.chunkPosZ)) {
 			return false;
 		}
 
 		// Valid Medium
-		if (!this.isValidMedium(worldServer, spawningPoint.chunkPosX, spawningPoint.chunkPosY, spawningPoint.chunkPosZ)) {
+		if (!this.isValidMedium(BlockView.of(worldServer), spawningPoint.chunkPosX, spawningPoint.chunkPosY,
+				spawningPoint.chunkPosZ)) {
 			return false;
 		}
 
 		// {spawn} Tag
+		Tags tags = spawnTags.get();
+		if (tags == null) {
+			tags = new Tags(worldServer, countInfo, spawningPoint.chunkPosX, spawningPoint.chunkPosY,
+					spawningPoint.chunkPosZ);
+			spawnTags.set(tags);
+		} else {
+			tags.reset(worldServer, countInfo, spawningPoint.chunkPosX, spawningPoint.chunkPosY,
+					spawningPoint.chunkPosZ);
+		}
 		if (!this.canSpawnAtLocation(worldServer, tags, spawningPoint.chunkPosX, spawningPoint.chunkPosY,
 				spawningPoint.chunkPosZ)) {
 			return false;
 		}
 		return true;
 	}
+
+	/**
+	 * Type and biome cap portion of {@link #canSpawnHere}
+	 */
+	public boolean isWithinCaps(World worldServer, CountInfo countInfo, int xCoord, int zCoord) {
+		// Max of Type: Moved back to beggining of CustomSpawner for performance
+		final int entityTypeCap = this.maxNumberOfCreature * countInfo.eligibleChunkCount() / 256;
+		int globalEntityTypeCount = countInfo.getGlobalEntityTypeCount(this.typeIndex);
+		if (globalEntityTypeCount > entityTypeCap) {
+			return false;
+		}
+
+		// BiomeCap
+		int chunkX = xCoord >> 4;
+		int chunkZ = zCoord >> 4;
+		int biomeCap = MVELProfile.biomeCapCache().getChunkCap(this,
+				worldServer.getChunkFromChunkCoords(chunkX, chunkZ));
+		if (biomeCap > -1 && countInfo.getClodEntityCount(ChunkKey.of(chunkX, chunkZ), this.typeIndex) >= biomeCap) {
+			return false;
+		}
+		return true;
+	}
 }
@@ -55,7 +55,7 @@ public class CreatureTypeBuilder {
 			this.spawnMedium = "air";
 		}
 		this.defaultBiomeCap = creatureType.defaultBiomeCap;
-		this.biomeMappingToCap = CreatureTypeBuilder.capMapBiomeIdToMapping(creatureType.biomeCaps,
+		this.biomeMappingToCap = CreatureTypeBuilder.capMapBiomeIdToMapping(creatureType.getBiomeCaps(),
 				creatureType.biomeGroupRegistry.biomePckgToMapping());
 		this.spawnExpression = creatureType.spawnExpression;
 		this.iterationsPerChunk = creatureType.iterationsPerChunk;
@@ -155,20 +155,23 @@ public class CreatureTypeBuilder {
 		return this;
 	}
 
-	public CreatureType build(BiomeGroupRegistry biomeGroupRegistry) {
+	public CreatureType build(BiomeGroupRegistry biomeGroupRegistry, int typeIndex) {
 		if (typeID == null) {
 			throw new IllegalArgumentException("Cannot build creature type with null typeId");
 		}
-		return new CreatureType(biomeGroupRegistry, this);
+		return new CreatureType(biomeGroupRegistry, this, typeIndex);
 	}
 
-	public static HashMap<String, Integer> capMapBiomeIdToMapping(Map<Integer, Integer> biomeCaps,
+	public static HashMap<String, Integer> capMapBiomeIdToMapping(int[] biomeCaps,
 			Map<String, String> biomePackageToMapping) {
 		HashMap<String, Integer> mappingBiomeCaps = new HashMap<String, Integer>();
-		for (Entry<Integer, Integer> entry : biomeCaps.entrySet()) {
-			String packageName = BiomeHelper.getPackageName(BiomeGenBase.getBiomeGenArray()[entry.getKey()]);
+		for (int biomeID = 0; biomeID < biomeCaps.length; biomeID++) {
+			if (biomeCaps[biomeID] == CreatureType.NO_BIOME_CAP) {
+				continue;
+			}
+			String packageName = BiomeHelper.getPackageName(BiomeGenBase.getBiomeGenArray()[biomeID]);
 			String mappingName = biomePackageToMapping.get(packageName);
-			mappingBiomeCaps.put(mappingName, entry.getValue());
+			mappingBiomeCaps.put(mappingName, biomeCaps[biomeID]);
 		}
 		return mappingBiomeCaps;
 	}
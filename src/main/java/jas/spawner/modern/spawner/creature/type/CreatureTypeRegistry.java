@@ -1,6 +1,7 @@
 package jas.spawner.modern.spawner.creature.type;
 
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.spawner.modern.serializer.CreatureTypeSaveObject;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
@@ -9,16 +10,19 @@ import jas.spawner.modern.spawner.biome.group.BiomeGroupSaveObject.BiomeGroupSav
 import jas.spawner.modern.world.WorldProperties;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
 import net.minecraft.block.material.Material;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
@@ -40,6 +44,10 @@ public class CreatureTypeRegistry {
 	}
 	/** Hashmap containing Creature Types. */
 	private ImmutableMap<String, CreatureType> types;
+	/** Creature Types addressed by {@link CreatureType#typeIndex} */
+	private ImmutableList<CreatureType> typesByIndex;
+	/* Incremented whenever the types are rebuilt */
+	private int version;
 
 	/**
 	 * Default Category Keys. Note that 'NONE' is not a Type but the absence of, i.e. null. This is NOT placed inside
@@ -57,6 +65,28 @@ public class CreatureTypeRegistry {
 		return types.get(typeID.toUpperCase());
 	}
 
+	public CreatureType getCreatureType(int typeIndex) {
+		return typesByIndex.get(typeIndex);
+	}
+
+	/**
+	 * Number of registered Creature Types. Valid type indices are [0, typeCount)
+	 */
+	public int typeCount() {
+		return typesByIndex.size();
+	}
+
+	/**
+	 * @return TypeIDs ordered by their typeIndex
+	 */
+	public List<String> getTypeIDsByIndex() {
+		List<String> typeIDs = new ArrayList<String>(typesByIndex.size());
+		for (CreatureType type : typesByIndex) {
+			typeIDs.add(type.typeID);
+		}
+		return typeIDs;
+	}
+
 	public CreatureTypeRegistry(BiomeGroupRegistry biomeGroupRegistry, WorldProperties worldProperties) {
 		this.biomeGroupRegistry = biomeGroupRegistry;
 		this.worldProperties = worldProperties;
@@ -103,11 +133,40 @@ public class CreatureTypeRegistry {
 			readTypes.put(underground.typeID, underground);
 			readTypes.put(watercreature.typeID, watercreature);
 		}
+		buildTypes(readTypes.values());
+	}
+
+	/**
+	 * Builds the Creature Types, assigning typeIndex in iteration order so indices are always dense
+	 */
+	private void buildTypes(Collection<CreatureTypeBuilder> builders) {
 		ImmutableMap.Builder<String, CreatureType> builder = ImmutableMap.<String, CreatureType> builder();
-		for (CreatureTypeBuilder creatureBuilder : readTypes.values()) {
-			builder.put(creatureBuilder.typeID, creatureBuilder.build(biomeGroupRegistry));
+		ImmutableList.Builder<CreatureType> indexBuilder = ImmutableList.<CreatureType> builder();
+		int typeIndex = 0;
+		for (CreatureTypeBuilder creatureBuilder : builders) {
+			CreatureType type = creatureBuilder.build(biomeGroupRegistry, typeIndex++);
+			builder.put(type.typeID, type);
+			indexBuilder.add(type);
 		}
 		types = builder.build();
+		typesByIndex = indexBuilder.build();
+		version++;
+	}
+
+	/**
+	 * @return Stamp that changes whenever types are loaded, added, removed or updated; CreatureTypes and typeIndices
+	 *         obtained under an older stamp may no longer be current
+	 */
+	public int version() {
+		return version;
+	}
+
+	private LinkedHashMap<String, CreatureTypeBuilder> currentBuilders() {
+		LinkedHashMap<String, CreatureTypeBuilder> builders = new LinkedHashMap<String, CreatureTypeBuilder>();
+		for (CreatureType type : typesByIndex) {
+			builders.put(type.typeID, new CreatureTypeBuilder(type));
+		}
+		return builders;
 	}
 
 	/**
@@ -115,28 +174,27 @@ public class CreatureTypeRegistry {
 	 * 
 	 * If config settings are already present, they will be overwritten
 	 */
-	public void saveCurrentToConfig(File configDirectory) {
+	public void saveCurrentToConfig(File configDirectory, FileWriteBatch writes) {
 		Gson gson = GsonHelper.createGson(true, new java.lang.reflect.Type[] { CreatureTypeSaveObject.class },
 				new Object[] { new CreatureTypeSaveObject.CreatureTypeSaveObjectSerializer() });
 		File creatureTypeFile = CreatureType
 				.getFile(configDirectory, worldProperties.getFolderConfiguration().saveName);
-		GsonHelper.writeToGson(FileUtilities.createWriter(creatureTypeFile, true), new CreatureTypeSaveObject(this),
+		GsonHelper.writeToGson(writes, creatureTypeFile, new CreatureTypeSaveObject(this),
 				gson);
 	}
 
 	public void addCreatureType(CreatureTypeBuilder builder) {
-		CreatureType type = builder.build(biomeGroupRegistry);
-		LinkedHashMap<String, CreatureType> typeMap = new LinkedHashMap<String, CreatureType>();
-		if (!typeMap.containsKey(type.typeID)) {
-			typeMap.put(type.typeID, type);
-			types = ImmutableMap.<String, CreatureType> builder().putAll(typeMap).build();
+		LinkedHashMap<String, CreatureTypeBuilder> typeMap = currentBuilders();
+		if (!typeMap.containsKey(builder.typeID)) {
+			typeMap.put(builder.typeID, builder);
+			buildTypes(typeMap.values());
 		}
 	}
 
 	public void removeCreatureType(String typeID) {
-		LinkedHashMap<String, CreatureType> typeMap = new LinkedHashMap<String, CreatureType>();
+		LinkedHashMap<String, CreatureTypeBuilder> typeMap = currentBuilders();
 		if (typeMap.remove(typeID) != null) {
-			types = ImmutableMap.<String, CreatureType> builder().putAll(typeMap).build();
+			buildTypes(typeMap.values());
 		}
 	}
 
@@ -145,11 +203,8 @@ public class CreatureTypeRegistry {
 	}
 
 	public void updateCreatureType(CreatureTypeBuilder builder) {
-		CreatureType type = builder.build(biomeGroupRegistry);
-		
-		LinkedHashMap<String, CreatureType> typeMap = new LinkedHashMap<String, CreatureType>();
-		typeMap.remove(type.typeID);
-		typeMap.put(type.typeID, type);
-		types = ImmutableMap.<String, CreatureType> builder().putAll(typeMap).build();
-	}
-}
\ No newline at end of file
+		LinkedHashMap<String, CreatureTypeBuilder> typeMap = currentBuilders();
+		typeMap.put(builder.typeID, builder);
+		buildTypes(typeMap.values());
+	}
+}
@@ -0,0 +1,231 @@
+package jas.spawner.modern.world;
+
+import jas.common.JASLog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Results of resolving the configuration that only change when the configuration files or the registered biomes and
+ * entities do, kept in a binary file so they need not be resolved again on the next start.
+ *
+ * The file starts with a key, a hash of everything the results were resolved from. It is followed by named sections,
+ * each mapping a group ID to the names it resolved to. A file whose key does not match is ignored and is replaced once
+ * the results have been resolved in full.
+ */
+public final class CompiledRulesCache {
+	private static final int MAGIC = 0x4A415352;
+	/* Increment whenever the layout of the file changes */
+	private static final int FORMAT_VERSION = 1;
+
+	private final HashMap<String, Map<String, List<String>>> sections;
+
+	private CompiledRulesCache(HashMap<String, Map<String, List<String>>> sections) {
+		this.sections = sections;
+	}
+
+	/**
+	 * @return Names each group resolved to, null if the section was not written
+	 */
+	public Map<String, List<String>> section(String name) {
+		return sections.get(name);
+	}
+
+	/**
+	 * Reads the cache by mapping the file into memory
+	 *
+	 * @return The cache, null if the file is absent, unreadable or was written for a different key
+	 */
+	public static CompiledRulesCache read(File file, byte[] key) {
+		if (!file.isFile()) {
+			return null;
+		}
+		RandomAccessFile randomAccessFile = null;
+		try {
+			randomAccessFile = new RandomAccessFile(file, "r");
+			FileChannel channel = randomAccessFile.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				return null;
+			}
+			byte[] fileKey = new byte[buffer.getInt()];
+			buffer.get(fileKey);
+			if (!Arrays.equals(fileKey, key)) {
+				return null;
+			}
+			HashMap<String, Map<String, List<String>>> sections = new HashMap<String, Map<String, List<String>>>();
+			/* Groups are kept in the order they were written, which is the order they were resolved in */
+			int sectionCount = buffer.getInt();
+			for (int i = 0; i < sectionCount; i++) {
+				String sectionName = readString(buffer);
+				int groupCount = buffer.getInt();
+				Map<String, List<String>> groups = new LinkedHashMap<String, List<String>>(groupCount * 2);
+				for (int j = 0; j < groupCount; j++) {
+					String groupID = readString(buffer);
+					int nameCount = buffer.getInt();
+					List<String> names = new ArrayList<String>(nameCount);
+					for (int k = 0; k < nameCount; k++) {
+						names.add(readString(buffer));
+					}
+					groups.put(groupID, names);
+				}
+				sections.put(sectionName, groups);
+			}
+			return new CompiledRulesCache(sections);
+		} catch (IOException e) {
+			JASLog.log().warning("Unable to read compiled rules from %s: %s", file.getName(), e.getMessage());
+			return null;
+		} catch (BufferUnderflowException e) {
+			JASLog.log().warning("Compiled rules in %s are truncated and will be rebuilt", file.getName());
+			return null;
+		} finally {
+			close(randomAccessFile);
+		}
+	}
+
+	/**
+	 * Replaces the file with the provided sections. Failing to write is logged, the cache is only an optimization.
+	 *
+	 * @param sections Names each group resolved to, by section name
+	 */
+	public static void write(File file, byte[] key,
+			Map<String, ? extends Map<String, ? extends Collection<String>>> sections) {
+		File tempFile = new File(file.getPath() + ".tmp");
+		DataOutputStream output = null;
+		try {
+			file.getParentFile().mkdirs();
+			output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			output.writeInt(key.length);
+			output.write(key);
+			output.writeInt(sections.size());
+			for (Entry<String, ? extends Map<String, ? extends Collection<String>>> section : sections.entrySet()) {
+				writeString(output, section.getKey());
+				output.writeInt(section.getValue().size());
+				for (Entry<String, ? extends Collection<String>> group : section.getValue().entrySet()) {
+					writeString(output, group.getKey());
+					output.writeInt(group.getValue().size());
+					for (String name : group.getValue()) {
+						writeString(output, name);
+					}
+				}
+			}
+			output.close();
+			output = null;
+			/* A mapping of the previous file may still be open until collected, which prevents deleting it on Windows */
+			if (!tempFile.renameTo(file) && (!file.delete() || !tempFile.renameTo(file))) {
+				JASLog.log().warning("Unable to replace compiled rules in %s", file.getName());
+				tempFile.delete();
+			}
+		} catch (IOException e) {
+			JASLog.log().warning("Unable to write compiled rules to %s: %s", file.getName(), e.getMessage());
+			close(output);
+			tempFile.delete();
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, Charsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(Charsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				JASLog.log().warning("Error closing compiled rules: %s", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Builds the key of a cache from everything its contents are resolved from
+	 */
+	public static final class KeyBuilder {
+		private final MessageDigest digest;
+
+		public KeyBuilder() {
+			try {
+				digest = MessageDigest.getInstance("SHA-1");
+			} catch (NoSuchAlgorithmException e) {
+				/* Every Java platform is required to provide SHA-1 */
+				throw new IllegalStateException(e);
+			}
+			putInt(FORMAT_VERSION);
+		}
+
+		public KeyBuilder putInt(int value) {
+			digest.update(new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+					(byte) value });
+			return this;
+		}
+
+		public KeyBuilder putString(String value) {
+			if (value == null) {
+				return putInt(-1);
+			}
+			byte[] bytes = value.getBytes(Charsets.UTF_8);
+			putInt(bytes.length);
+			digest.update(bytes);
+			return this;
+		}
+
+		/**
+		 * Adds the name and contents of the file, or only its name if it does not exist
+		 */
+		public KeyBuilder putFile(File file) throws IOException {
+			putString(file.getName());
+			if (!file.isFile()) {
+				return putInt(-1);
+			}
+			putInt((int) file.length());
+			InputStream input = new FileInputStream(file);
+			try {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = input.read(buffer)) != -1) {
+					digest.update(buffer, 0, read);
+				}
+			} finally {
+				input.close();
+			}
+			return this;
+		}
+
+		public byte[] build() {
+			return digest.digest();
+		}
+	}
+}
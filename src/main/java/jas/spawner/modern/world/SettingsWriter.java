@@ -0,0 +1,104 @@
+package jas.spawner.modern.world;
+
+import jas.common.JASLog;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the settings to disk on a background thread, so applying a change does not wait on the file system. Saves
+ * requested while one is still queued are merged into it; the queued save writes the settings as they are when it
+ * runs. Saves run one at a time in the order they were requested.
+ */
+public final class SettingsWriter {
+	/* Seconds the writer thread is kept alive without saves to write */
+	private static final long KEEP_ALIVE_SECONDS = 5;
+
+	private final Runnable save;
+	private final ThreadPoolExecutor executor;
+	private final AtomicBoolean isSaveQueued = new AtomicBoolean();
+	private volatile Future<?> lastSave;
+
+	/**
+	 * @param save Writes the settings, run on the writer thread
+	 */
+	public SettingsWriter(Runnable save) {
+		this.save = save;
+		this.executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new WriterThreadFactory());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Queues a save, unless one is already queued and has not yet started
+	 */
+	public void requestSave() {
+		if (isSaveQueued.compareAndSet(false, true)) {
+			lastSave = executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					isSaveQueued.set(false);
+					writeSettings();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Saves the settings as they are now and waits for them to be written, after any save requested earlier
+	 */
+	public void saveNow() {
+		Future<?> currentSave = executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				writeSettings();
+			}
+		});
+		lastSave = currentSave;
+		await(currentSave);
+	}
+
+	/**
+	 * Waits for the last requested save to be written
+	 */
+	public void flush() {
+		Future<?> pendingSave = lastSave;
+		if (pendingSave != null) {
+			await(pendingSave);
+		}
+	}
+
+	private void writeSettings() {
+		long startTime = System.nanoTime();
+		try {
+			save.run();
+		} catch (RuntimeException e) {
+			JASLog.log().severe(e, "Error saving settings: %s", e.getMessage());
+			return;
+		}
+		JASLog.log().info("Settings saved in %sms", (System.nanoTime() - startTime) / 1000000);
+	}
+
+	private void await(Future<?> save) {
+		try {
+			save.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			JASLog.log().severe(e.getCause(), "Error saving settings: %s", e.getCause());
+		}
+	}
+
+	private static final class WriterThreadFactory implements ThreadFactory {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			/* Not a daemon, so the server does not exit in the middle of writing the settings */
+			return new Thread(runnable, "JAS Settings Writer");
+		}
+	}
+}
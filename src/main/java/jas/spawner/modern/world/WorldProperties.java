@@ -1,6 +1,7 @@
 package jas.spawner.modern.world;
 
 import jas.common.helper.FileUtilities;
+import jas.common.helper.FileWriteBatch;
 import jas.common.helper.GsonHelper;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.world.FolderConfiguration.WorldStats;
@@ -57,17 +58,13 @@ public final class WorldProperties {
                 WorldGlobalSettings.class, gson);
     }
 
-    public void saveToConfig(File configDirectory) {
+    public void saveToConfig(File configDirectory, FileWriteBatch writes) {
         Gson gson = new GsonBuilder().setVersion(DefaultProps.GSON_VERSION).setPrettyPrinting().create();
-        GsonHelper.writeToGson(FileUtilities.createWriter(FolderConfiguration.getFile(configDirectory), true),
-                folderConfiguration, gson);
-        GsonHelper.writeToGson(
-                FileUtilities.createWriter(
-                        SavedFolderConfiguration.getFile(configDirectory, getFolderConfiguration().saveName), true),
+        GsonHelper.writeToGson(writes, FolderConfiguration.getFile(configDirectory), folderConfiguration, gson);
+        GsonHelper.writeToGson(writes,
+                SavedFolderConfiguration.getFile(configDirectory, getFolderConfiguration().saveName),
                 savedConfguration, gson);
-        GsonHelper.writeToGson(
-                FileUtilities.createWriter(
-                        WorldGlobalSettings.getFile(configDirectory, getFolderConfiguration().saveName), true),
+        GsonHelper.writeToGson(writes, WorldGlobalSettings.getFile(configDirectory, getFolderConfiguration().saveName),
                 worldGlobalProperties, gson);
     }
 }
@@ -1,12 +1,15 @@
 package jas.spawner.modern.world;
 
+import jas.common.JASLog;
 import jas.common.JustAnotherSpawner;
 import jas.common.global.ImportedSpawnList;
+import jas.common.helper.FileWriteBatch;
 import jas.spawner.modern.DefaultProps;
 import jas.spawner.modern.MVELProfile;
 import jas.spawner.modern.eventspawn.EventSpawnRegistry;
 import jas.spawner.modern.modification.ModLoadConfig;
 import jas.spawner.modern.modification.Modification;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.modern.spawner.biome.group.BiomeGroupRegistry;
 import jas.spawner.modern.spawner.biome.structure.StructureHandlerRegistry;
 import jas.spawner.modern.spawner.creature.entry.BiomeSpawnListRegistry;
@@ -15,8 +18,9 @@ import jas.spawner.modern.spawner.creature.handler.LivingHandlerRegistry;
 import jas.spawner.modern.spawner.creature.type.CreatureTypeRegistry;
 
 import java.io.File;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import net.minecraft.server.MinecraftServer;
@@ -34,6 +38,9 @@ public final class WorldSettings {
 	private StructureHandlerRegistry structureHandlerRegistry;
 	private BiomeSpawnListRegistry biomeSpawnListRegistry;
 	private LivingGroupRegistry livingGroupRegistry;
+	private CountIndex countIndex;
+	/* Increased after every load and every applied batch of changes */
+	private volatile long version;
 	
 	private ImportedSpawnList importedSpawnList;
 
@@ -50,49 +57,86 @@ public final class WorldSettings {
 		loadWorldSettings(configDirectory, world);
 	}
 
+	/**
+	 * Writes the settings to the directory. The settings are only locked while they are serialized, not while the files
+	 * are written.
+	 */
 	public void saveWorldSettings(File configDirectory, World world) {
+		FileWriteBatch writes;
+		synchronized (settingsLock) {
+			writes = serializeWorldSettings(configDirectory);
+		}
+		writes.write();
+	}
+
+	/**
+	 * @return Files the settings are saved to, to be written once the settings may change again
+	 */
+	private FileWriteBatch serializeWorldSettings(File configDirectory) {
+		FileWriteBatch writes = new FileWriteBatch();
 		if (worldProperties.getSavedFileConfiguration().universalDirectory != worldProperties.getFolderConfiguration().universalDirectory) {
 			worldProperties.setSavedUniversalDirectory(worldProperties.getFolderConfiguration().universalDirectory);
-			File entityFolder = new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
-					+ DefaultProps.ENTITYHANDLERDIR);
-			File[] entityFileList = entityFolder.listFiles();
-			if (entityFileList != null) {
-				for (File file : entityFolder.listFiles()) {
-					file.delete();
-				}
-			}
-
-			File spawnFolder = new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
-					+ DefaultProps.ENTITYSPAWNRDIR);
-			File[] spawnFileList = entityFolder.listFiles();
-			if (spawnFileList != null) {
-				for (File file : spawnFolder.listFiles()) {
-					file.delete();
-				}
-			}
+			writes.clearDirectory(new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
+					+ DefaultProps.ENTITYHANDLERDIR));
+			writes.clearDirectory(new File(configDirectory, worldProperties.getFolderConfiguration().saveName + "/"
+					+ DefaultProps.ENTITYSPAWNRDIR));
 		}
-		worldProperties.saveToConfig(configDirectory);
-		eventSpawnRegistry.saveToConfig(configDirectory);
-		biomeGroupRegistry.saveToConfig(configDirectory);
-		livingGroupRegistry.saveToConfig(configDirectory);
-		creatureTypeRegistry.saveCurrentToConfig(configDirectory);
-		livingHandlerRegistry.saveToConfig(configDirectory);
-		structureHandlerRegistry.saveCurrentToConfig(configDirectory);
-		biomeSpawnListRegistry.saveToConfig(configDirectory);
+		worldProperties.saveToConfig(configDirectory, writes);
+		eventSpawnRegistry.saveToConfig(configDirectory, writes);
+		biomeGroupRegistry.saveToConfig(configDirectory, writes);
+		livingGroupRegistry.saveToConfig(configDirectory, writes);
+		creatureTypeRegistry.saveCurrentToConfig(configDirectory, writes);
+		livingHandlerRegistry.saveToConfig(configDirectory, writes);
+		structureHandlerRegistry.saveCurrentToConfig(configDirectory, writes);
+		biomeSpawnListRegistry.saveToConfig(configDirectory, writes);
+		return writes;
 	}
 
+	/**
+	 * Loads every registry in dependency order; the files of each registry are read in parallel by the registry
+	 */
 	public void loadWorldSettings(File modConfigDirectoryFile, World world) {
+		long startTime = System.nanoTime();
+		long stepTime = startTime;
 		worldProperties.loadFromConfig(modConfigDirectoryFile, world);
+		stepTime = logLoadTime("WorldProperties", stepTime);
 		eventSpawnRegistry.loadFromConfig(modConfigDirectoryFile);
+		stepTime = logLoadTime("EventSpawns", stepTime);
 		biomeGroupRegistry.loadFromConfig(modConfigDirectoryFile);
+		stepTime = logLoadTime("BiomeGroups", stepTime);
 		livingGroupRegistry.loadFromConfig(modConfigDirectoryFile);
+		stepTime = logLoadTime("LivingGroups", stepTime);
 		creatureTypeRegistry.loadFromConfig(modConfigDirectoryFile);
+		stepTime = logLoadTime("CreatureTypes", stepTime);
 		livingHandlerRegistry.loadFromConfig(modConfigDirectoryFile, world, importedSpawnList);
+		stepTime = logLoadTime("LivingHandlers", stepTime);
 		structureHandlerRegistry.loadFromConfig(modConfigDirectoryFile, world);
+		stepTime = logLoadTime("StructureHandlers", stepTime);
 
 		biomeSpawnListRegistry = new BiomeSpawnListRegistry(worldProperties, biomeGroupRegistry, livingGroupRegistry,
 				creatureTypeRegistry, livingHandlerRegistry, structureHandlerRegistry);
 		biomeSpawnListRegistry.loadFromConfig(modConfigDirectoryFile, importedSpawnList);
+		logLoadTime("SpawnListEntries", stepTime);
+		countIndex = new CountIndex(creatureTypeRegistry.getTypeIDsByIndex(),
+				livingGroupRegistry.entityClassesByIndex());
+		version++;
+		JASLog.log().info("Loaded settings in %sms", (System.nanoTime() - startTime) / 1000000);
+	}
+
+	/**
+	 * @return Time the step ended, when the next step starts
+	 */
+	private static long logLoadTime(String step, long stepStartTime) {
+		long endTime = System.nanoTime();
+		JASLog.log().info("Loaded %s in %sms", step, (endTime - stepStartTime) / 1000000);
+		return endTime;
+	}
+
+	/**
+	 * @return Number of times the settings have been loaded or changed, to detect changes since an earlier call
+	 */
+	public long version() {
+		return version;
 	}
 
 	public WorldProperties worldProperties() {
@@ -127,12 +171,66 @@ public final class WorldSettings {
 		return biomeSpawnListRegistry;
 	}
 
+	/**
+	 * Dense creature type and entity class indices used to size entity counts
+	 */
+	public CountIndex countIndex() {
+		return countIndex;
+	}
+
 	private Queue<Modification> modifications = new LinkedList<Modification>();
+	/* Held while the registries are modified or serialized, so a save never sees a change half applied */
+	private final Object settingsLock = new Object();
+	private final SettingsWriter settingsWriter = new SettingsWriter(new Runnable() {
+		@Override
+		public void run() {
+			saveWorldSettings(profileDirectory(), MinecraftServer.getServer().worldServers[0]);
+		}
+	});
+
+	/**
+	 * Applies the queued modifications to the registries in memory and rebuilds the tables derived from the registries
+	 * they changed. The settings are then saved in the background; they are only loaded again on an explicit reload.
+	 * Modifications queued before a reload are saved before the files are read back, so the reload keeps them.
+	 */
+	public void applyChanges() {
+		List<Modification> pending;
+		synchronized (this) {
+			if (modifications.isEmpty()) {
+				return;
+			}
+			pending = new ArrayList<Modification>(modifications);
+			modifications.clear();
+		}
+		int unapplied = 0;
+		for (int i = 0; i < pending.size(); i++) {
+			Modification modification = pending.get(i);
+			if (modification instanceof ModLoadConfig) {
+				applyModifications(pending.subList(unapplied, i));
+				settingsWriter.saveNow();
+				synchronized (settingsLock) {
+					modification.applyModification(this);
+				}
+				unapplied = i + 1;
+			}
+		}
+		applyModifications(pending.subList(unapplied, pending.size()));
+		settingsWriter.requestSave();
+	}
 
-	public synchronized void applyChanges() {
-		if(!modifications.isEmpty()) {
-			while (!modifications.isEmpty()) {
-				Modification modification = modifications.poll();
+	/**
+	 * Applies modifications that do not reload the settings, then rebuilds what they invalidated and increases the
+	 * version
+	 */
+	private void applyModifications(List<Modification> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		synchronized (settingsLock) {
+			int previousBiomeGroupVersion = biomeGroupRegistry.version();
+			int previousCreatureTypeVersion = creatureTypeRegistry.version();
+			int previousLivingHandlerVersion = livingHandlerRegistry.version();
+			for (Modification modification : batch) {
 				modification.applyModification(biomeGroupRegistry);
 				modification.applyModification(livingGroupRegistry);
 				modification.applyModification(creatureTypeRegistry);
@@ -141,24 +239,43 @@ public final class WorldSettings {
 				modification.applyModification(biomeSpawnListRegistry);
 				modification.applyModification(this);
 			}
-			File profileDir = new File(JustAnotherSpawner.getModConfigDirectory(), DefaultProps.MODDIR
-					+ DefaultProps.WORLDSETTINGSDIR + MVELProfile.PROFILE_FOLDER);
-
-			this.saveWorldSettings(profileDir, MinecraftServer.getServer().worldServers[0]);
-			this.loadWorldSettings(profileDir, MinecraftServer.getServer().worldServers[0]);
-
-			//TODO? update: To ensure changes propagate, such as disabled entities are removed from SpawnListRegistry
-			// Better than relying on save/load to clear out trash
-			//biomeGroupRegistry.reprocess();
-			//livingGroupRegistry.regen();
-			//creatureTypeRegistry.regen();
-			//livingHandlerRegistry.regen();
-			//structureHandlerRegistry.regen();
-			//structureHandlerRegistry.regen();
+
+			boolean isTypeChanged = creatureTypeRegistry.version() != previousCreatureTypeVersion;
+			if (isTypeChanged) {
+				/* Handlers hold the index and settings of their CreatureType */
+				livingHandlerRegistry.rebuildHandlers();
+				countIndex = new CountIndex(creatureTypeRegistry.getTypeIDsByIndex(),
+						livingGroupRegistry.entityClassesByIndex());
+			}
+			if (isTypeChanged || livingHandlerRegistry.version() != previousLivingHandlerVersion
+					|| biomeGroupRegistry.version() != previousBiomeGroupVersion) {
+				biomeSpawnListRegistry.reclassifyEntries();
+			}
+			version++;
 		}
 	}
 
+	/**
+	 * Queues a save of the settings on the writer thread
+	 */
+	public void requestSave() {
+		settingsWriter.requestSave();
+	}
+
+	/**
+	 * Applies the queued modifications and waits until the settings have been written, such as before the server stops
+	 */
+	public void flushSaves() {
+		applyChanges();
+		settingsWriter.flush();
+	}
+
 	public synchronized void addChange(Modification modification) {
 		modifications.add(modification);
 	}
+
+	private static File profileDirectory() {
+		return new File(JustAnotherSpawner.getModConfigDirectory(), DefaultProps.MODDIR
+				+ DefaultProps.WORLDSETTINGSDIR + MVELProfile.PROFILE_FOLDER);
+	}
 }
\ No newline at end of file
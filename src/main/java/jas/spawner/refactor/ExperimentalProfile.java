@@ -12,6 +12,7 @@ import java.io.File;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import cpw.mods.fml.common.event.FMLServerStartingEvent;
+import cpw.mods.fml.common.event.FMLServerStoppingEvent;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 
 /**
@@ -48,6 +49,10 @@ public class ExperimentalProfile implements Profile {
 		loadFromConfig(JustAnotherSpawner.getModConfigDirectory(), event.getServer().worldServers[0]);
 	}
 
+	@Override
+	public void serverStop(FMLServerStoppingEvent event) {
+	}
+
 	@Override
 	public void loadFromConfig(File configDirectory, World world) {
 		File profileDir = new File(configDirectory, DefaultProps.WORLDSETTINGSDIR + PROFILE_FOLDER);
@@ -2,6 +2,7 @@ package jas.spawner.refactor;
 
 import jas.common.JustAnotherSpawner;
 import jas.common.global.ImportedSpawnList;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.refactor.biome.BiomeAttributes;
 import jas.spawner.refactor.biome.BiomeDictionaryGroups;
 import jas.spawner.refactor.biome.BiomeGroupBuilder;
@@ -23,6 +24,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import net.minecraft.entity.EntityList;
 import net.minecraft.world.World;
 
 /**
@@ -38,6 +40,7 @@ public class SpawnSettings {
 
 	private StructureHandlers structureHandlers;
 	private BiomeSpawnLists biomeGroupRegistry;
+	private CountIndex countIndex;
 
 	public static class BiomeSettings {
 		private BiomeMappings biomeMappings;
@@ -129,6 +132,10 @@ public class SpawnSettings {
 		this.structureHandlers = new StructureHandlers(world, loader, livingSettings);
 		this.biomeGroupRegistry = new BiomeSpawnLists(world, loader, worldProperties, livingSettings, biomeSettings,
 				livingTypes, JustAnotherSpawner.importedSpawnList());
+		@SuppressWarnings("unchecked")
+		Collection<Class<?>> entityClasses = EntityList.classToStringMapping.keySet();
+		this.countIndex = new CountIndex(new ArrayList<String>(livingTypes.types().keySet()),
+				new ArrayList<Class<?>>(entityClasses));
 	}
 
 	public void saveToConfig(World world, WorldProperties worldProperties, File settingsDirectory) {
@@ -145,6 +152,10 @@ public class SpawnSettings {
 		return livingTypes;
 	}
 
+	public CountIndex countIndex() {
+		return countIndex;
+	}
+
 	public DespawnRules despawnRules() {
 		return despawnRules;
 	}
@@ -5,9 +5,15 @@ import jas.common.JustAnotherSpawner;
 import jas.common.global.BiomeBlacklist;
 import jas.common.helper.MVELHelper;
 import jas.spawner.modern.EntityProperties;
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkStatMap;
+import jas.spawner.modern.spawner.ChunkStatMap.KeyPermutation;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.modern.spawner.CountInfo;
 import jas.spawner.modern.spawner.CountInfo.ChunkStat;
-import jas.spawner.modern.spawner.EntityCounter;
+import jas.spawner.modern.spawner.EligibleChunks;
+import jas.spawner.modern.spawner.EntityFactory;
+import jas.spawner.modern.spawner.PlayerIndex;
 import jas.spawner.modern.spawner.Tags;
 import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.refactor.LivingTypeBuilder.LivingType;
@@ -23,8 +29,6 @@ import jas.spawner.refactor.structure.StructureHandlers;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import net.minecraft.entity.Entity;
@@ -34,7 +38,6 @@ import net.minecraft.entity.IEntityLivingData;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.ChunkCoordinates;
 import net.minecraft.util.MathHelper;
-import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.ChunkPosition;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -82,61 +85,32 @@ public class SpawnerHelper {
 			@Override
 			public CountInfo countEntities(World world, int spawnChunkDistance, int countChunkDistance) {
 				// JustAnotherSpawner.globalSettings().chunkSpawnDistance
-				HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = determineChunksForSpawning(world,
-						spawnChunkDistance);
+				ChunkStatMap eligibleChunksForSpawning = determineChunksForSpawning(world, spawnChunkDistance);
 				return countInfo(world, eligibleChunksForSpawning, countChunkDistance);
 			}
 
-			private HashMap<ChunkCoordIntPair, ChunkStat> determineChunksForSpawning(World world, int chunkDistance) {
-				HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = new HashMap<ChunkCoordIntPair, ChunkStat>();
-				for (int i = 0; i < world.playerEntities.size(); ++i) {
-					EntityPlayer entityplayer = (EntityPlayer) world.playerEntities.get(i);
-					int posX = MathHelper.floor_double(entityplayer.posX / 16.0D);
-					int posZ = MathHelper.floor_double(entityplayer.posZ / 16.0D);
-
-					for (int xOffset = -chunkDistance; xOffset <= chunkDistance; ++xOffset) {
-						for (int zOffset = -chunkDistance; zOffset <= chunkDistance; ++zOffset) {
-							boolean flag3 = xOffset == -chunkDistance || xOffset == chunkDistance
-									|| zOffset == -chunkDistance || zOffset == chunkDistance;
-							ChunkCoordIntPair chunkcoordintpair = new ChunkCoordIntPair(xOffset + posX, zOffset + posZ);
-							eligibleChunksForSpawning.put(chunkcoordintpair, new ChunkStat(flag3));
-						}
-					}
-				}
-				return eligibleChunksForSpawning;
+			private ChunkStatMap determineChunksForSpawning(World world, int chunkDistance) {
+				return EligibleChunks.of(world, chunkDistance).chunksForSpawning();
 			}
 
-			private CountInfo countInfo(World world, HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning,
-					int countChunkDistance) {
-				EntityCounter creatureTypeCount = new EntityCounter();
-				EntityCounter creatureCount = new EntityCounter();
+			private CountInfo countInfo(World world, ChunkStatMap eligibleChunksForSpawning, int countChunkDistance) {
+				SpawnSettings spawnSettings = ExperimentalProfile.worldSettings().getSpawnSettings(world);
+				CountIndex countIndex = spawnSettings.countIndex();
+				CountInfo countInfo = new CountInfo(eligibleChunksForSpawning, countIndex);
 
 				for (Object object : world.loadedEntityList) {
 					Entity entity = (Entity) object;
-					EntityPlayer player = world.getClosestPlayerToEntity(entity, countChunkDistance * 16);
 					if (isPlayerClose(world, entity, countChunkDistance * 16)) {
-						ChunkCoordIntPair chunkPos = new ChunkCoordIntPair(
-								MathHelper.floor_double(entity.posX / 16.0D),
-								MathHelper.floor_double(entity.posZ / 16.0D));
-						SpawnSettings spawnSettings = ExperimentalProfile.worldSettings().getSpawnSettings(world);
-						Collection<String> livingTypes = ExperimentalProfile.worldSettings().getSpawnSettings(world)
-								.biomeGroupRegistry()
-								.livingTypesForEntity(world, entity, spawnSettings.livingSettings());
-						creatureCount.incrementOrPutIfAbsent(entity.getClass().getSimpleName(), 1);
+						Collection<String> livingTypes = spawnSettings.biomeGroupRegistry().livingTypesForEntity(world,
+								entity, spawnSettings.livingSettings());
+						long chunkKey = ChunkKey.ofEntity(entity);
+						countInfo.countEntityClass(chunkKey, countIndex.classIndex(entity.getClass()));
 						for (String creatureTypeID : livingTypes) {
-							creatureTypeCount.incrementOrPutIfAbsent(creatureTypeID, 1);
-						}
-
-						ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkPos);
-						if (chunkStat != null) {
-							chunkStat.entityClassCount.incrementOrPutIfAbsent(entity.getClass().getSimpleName(), 1);
-							for (String creatureTypeID : livingTypes) {
-								chunkStat.entityTypeCount.incrementOrPutIfAbsent(creatureTypeID, 1);
-							}
+							countInfo.countEntityType(chunkKey, countIndex.typeIndex(creatureTypeID));
 						}
 					}
 				}
-				return new CountInfo(eligibleChunksForSpawning, creatureTypeCount, creatureCount);
+				return countInfo;
 			}
 
 			public Collection<Entity> countLoadedEntities(World world) {
@@ -160,16 +134,7 @@ public class SpawnerHelper {
 			}
 
 			private boolean isPlayerClose(World world, Entity entity, double cutoffDist) {
-				for (int i = 0; i < world.playerEntities.size(); ++i) {
-					EntityPlayer player = (EntityPlayer) world.playerEntities.get(i);
-					double xDist = player.posX - entity.posX;
-					double zDist = player.posZ - entity.posZ;
-					double curDist = (xDist * xDist + zDist * zDist);
-					if ((cutoffDist < 0.0D || curDist < cutoffDist * cutoffDist)) {
-						return true;
-					}
-				}
-				return false;
+				return PlayerIndex.of(world).isPlayerWithinHorizontal(entity.posX, entity.posZ, cutoffDist);
 			}
 		}
 	}
@@ -179,7 +144,8 @@ public class SpawnerHelper {
 	// }
 
 	public static void despawnEntity(EntityLiving entity, Tags tags, DespawnRule despawnRule) {
-		EntityPlayer entityplayer = entity.worldObj.getClosestPlayerToEntity(entity, -1.0D);
+		EntityPlayer entityplayer = PlayerIndex.of(entity.worldObj).getClosestPlayer(entity.posX, entity.posY,
+				entity.posZ, -1.0D);
 		int xCoord = MathHelper.floor_double(entity.posX);
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
@@ -259,7 +225,8 @@ public class SpawnerHelper {
 	}
 
 	public static boolean willEntityDespawn(EntityLiving entity, Tags tags, DespawnRule despawnRule) {
-		EntityPlayer entityplayer = entity.worldObj.getClosestPlayerToEntity(entity, -1.0D);
+		EntityPlayer entityplayer = PlayerIndex.of(entity.worldObj).getClosestPlayer(entity.posX, entity.posY,
+				entity.posZ, -1.0D);
 		int xCoord = MathHelper.floor_double(entity.posX);
 		int yCoord = MathHelper.floor_double(entity.boundingBox.minY);
 		int zCoord = MathHelper.floor_double(entity.posZ);
@@ -293,19 +260,18 @@ public class SpawnerHelper {
 			BiomeSettings biomeSettings, LivingSettings livingSettings, BiomeSpawnLists biomesSpawns,
 			StructureHandlers structureSpawns) {
 		ChunkCoordinates serverOriginPoint = world.getSpawnPoint();
-		List<ChunkCoordIntPair> eligibleChunksForSpawning = new ArrayList<ChunkCoordIntPair>(
-				countInfo.eligibleChunkLocations());
-		Collections.shuffle(eligibleChunksForSpawning);
-		labelChunkStart: for (ChunkCoordIntPair chunkCoord : eligibleChunksForSpawning) {
-			ChunkStat chunkStat = countInfo.getChunkStat(chunkCoord);
+		KeyPermutation eligibleChunksForSpawning = countInfo.eligibleChunks().randomOrder(world.rand);
+		labelChunkStart: while (eligibleChunksForSpawning.hasNext()) {
+			long chunkKey = eligibleChunksForSpawning.nextKey();
+			ChunkStat chunkStat = countInfo.getChunkStat(chunkKey);
 			if (chunkStat.isEdge) {
 				continue;
 			}
 			countInfo.resetEntitiesSpawnedThisLoop();
 			for (int numLocAttempts = 0; numLocAttempts < livingType.iterationsPerChunk; ++numLocAttempts) {
 				IEntityLivingData entitylivingdata = null;
-				ChunkPosition startSpawningPoint = getRandomSpawningPointInChunk(world, chunkCoord.chunkXPos,
-						chunkCoord.chunkZPos);
+				ChunkPosition startSpawningPoint = getRandomSpawningPointInChunk(world, ChunkKey.chunkX(chunkKey),
+						ChunkKey.chunkZ(chunkKey));
 
 				SpawnListEntry spawnlistentry = null;
 				Class<? extends EntityLiving> livingToSpawn = null;
@@ -376,12 +342,8 @@ public class SpawnerHelper {
 					float spawnX = spawningPoint.chunkPosX + 0.5F;
 					float spawnY = spawningPoint.chunkPosY;
 					float spawnZ = spawningPoint.chunkPosZ + 0.5F;
-					EntityLiving entityliving;
-					try {
-						entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-								new Object[] { world });
-					} catch (Exception exception) {
-						exception.printStackTrace();
+					EntityLiving entityliving = EntityFactory.construct(livingToSpawn, world);
+					if (entityliving == null) {
 						return;
 					}
 					entityliving.setLocationAndAngles(spawnX, spawnY, spawnZ, world.rand.nextFloat() * 360.0F, 0.0F);
@@ -434,7 +396,7 @@ public class SpawnerHelper {
 
 	private static boolean isNearPlayerOrOrigin(World world, ChunkCoordinates serverSpawnPoint, int originX,
 			int originY, int originZ) {
-		if (world.getClosestPlayer(originX, originY, originZ, 24.0D) == null) {
+		if (!PlayerIndex.of(world).isPlayerWithin(originX, originY, originZ, 24.0D)) {
 			float xOffset = originX - serverSpawnPoint.posX;
 			float yOffset = originY - serverSpawnPoint.posY;
 			float zOffset = originZ - serverSpawnPoint.posZ;
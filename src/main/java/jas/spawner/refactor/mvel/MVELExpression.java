@@ -1,6 +1,7 @@
 package jas.spawner.refactor.mvel;
 
 import jas.common.JASLog;
+import jas.common.helper.ExpressionCompiler;
 import java.io.Serializable;
 import org.mvel2.MVEL;
 import com.google.common.base.Optional;
@@ -12,7 +13,8 @@ public class MVELExpression<T> {
 	public MVELExpression(String expression) {
 		this.expression = expression;
 		if (expression != null && !expression.trim().equals("")) {
-			compiled = Optional.of(MVEL.compileExpression(expression));
+			/* The context type is not known here, members are resolved when evaluated */
+			compiled = Optional.of(ExpressionCompiler.compile(expression, Object.class, "MVELExpression"));
 		} else {
 			compiled = Optional.absent();
 		}
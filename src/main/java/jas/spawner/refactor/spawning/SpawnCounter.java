@@ -1,10 +1,13 @@
 package jas.spawner.refactor.spawning;
 
 import jas.common.JustAnotherSpawner;
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkStatMap;
+import jas.spawner.modern.spawner.CountIndex;
 import jas.spawner.modern.spawner.CountInfo;
-import jas.spawner.modern.spawner.EntityCounter;
-import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+import jas.spawner.modern.spawner.EligibleChunks;
 import jas.spawner.modern.spawner.Counter;
+import jas.spawner.modern.spawner.PlayerIndex;
 import jas.spawner.refactor.BiomeSpawnLists;
 import jas.spawner.refactor.ExperimentalProfile;
 import jas.spawner.refactor.LivingHandlers;
@@ -12,16 +15,12 @@ import jas.spawner.refactor.entities.LivingHandlerBuilder.LivingHandler;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.MathHelper;
-import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
 
 public class SpawnCounter implements Counter {
@@ -39,62 +38,35 @@ public class SpawnCounter implements Counter {
 	@Override
 	public CountInfo countEntities(World world, int spawnChunkDistance, int countChunkDistance) {
 		// JustAnotherSpawner.globalSettings().chunkSpawnDistance
-		HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = determineChunksForSpawning(world,
-				spawnChunkDistance);
+		ChunkStatMap eligibleChunksForSpawning = determineChunksForSpawning(world, spawnChunkDistance);
 		return countInfo(world, eligibleChunksForSpawning, countChunkDistance);
 	}
 
-	private HashMap<ChunkCoordIntPair, ChunkStat> determineChunksForSpawning(World world, int chunkDistance) {
-		HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning = new HashMap<ChunkCoordIntPair, ChunkStat>();
-		for (int i = 0; i < world.playerEntities.size(); ++i) {
-			EntityPlayer entityplayer = (EntityPlayer) world.playerEntities.get(i);
-			int posX = MathHelper.floor_double(entityplayer.posX / 16.0D);
-			int posZ = MathHelper.floor_double(entityplayer.posZ / 16.0D);
-
-			for (int xOffset = -chunkDistance; xOffset <= chunkDistance; ++xOffset) {
-				for (int zOffset = -chunkDistance; zOffset <= chunkDistance; ++zOffset) {
-					boolean flag3 = xOffset == -chunkDistance || xOffset == chunkDistance || zOffset == -chunkDistance
-							|| zOffset == chunkDistance;
-					ChunkCoordIntPair chunkcoordintpair = new ChunkCoordIntPair(xOffset + posX, zOffset + posZ);
-					eligibleChunksForSpawning.put(chunkcoordintpair, new ChunkStat(flag3));
-				}
-			}
-		}
-		return eligibleChunksForSpawning;
+	private ChunkStatMap determineChunksForSpawning(World world, int chunkDistance) {
+		return EligibleChunks.of(world, chunkDistance).chunksForSpawning();
 	}
 
-	private CountInfo countInfo(World world, HashMap<ChunkCoordIntPair, ChunkStat> eligibleChunksForSpawning,
-			int countChunkDistance) {
-		EntityCounter creatureTypeCount = new EntityCounter();
-		EntityCounter creatureCount = new EntityCounter();
+	private CountInfo countInfo(World world, ChunkStatMap eligibleChunksForSpawning, int countChunkDistance) {
+		CountIndex countIndex = ExperimentalProfile.worldSettings().getSpawnSettings(world).countIndex();
+		CountInfo countInfo = new CountInfo(eligibleChunksForSpawning, countIndex);
 
 		for (Object object : world.loadedEntityList) {
 			Entity entity = (Entity) object;
-			EntityPlayer player = world.getClosestPlayerToEntity(entity, countChunkDistance * 16);
 			if (isPlayerClose(world, entity, countChunkDistance * 16)) {
-				ChunkCoordIntPair chunkPos = new ChunkCoordIntPair(MathHelper.floor_double(entity.posX / 16.0D),
-						MathHelper.floor_double(entity.posZ / 16.0D));
 				//LivingType will be stored in Entity along with LH
 //				biomeSpawnLists.getSpawnList().getSpawnListEntries(, livingType);
 //				Collection<LivingHandler> livingHandlers = livingHandlerRegistry
 //						.getLivingHandler((Class<? extends EntityLiving>) entity.getClass());
 				Set<String> livingTypes = getApplicableLivingTypes(null /*livingHandlers*/);
 
-				creatureCount.incrementOrPutIfAbsent(entity.getClass().getSimpleName(), 1);
+				long chunkKey = ChunkKey.ofEntity(entity);
+				countInfo.countEntityClass(chunkKey, countIndex.classIndex(entity.getClass()));
 				for (String creatureTypeID : livingTypes) {
-					creatureTypeCount.incrementOrPutIfAbsent(creatureTypeID, 1);
-				}
-
-				ChunkStat chunkStat = eligibleChunksForSpawning.get(chunkPos);
-				if (chunkStat != null) {
-					chunkStat.entityClassCount.incrementOrPutIfAbsent(entity.getClass().getSimpleName(), 1);
-					for (String creatureTypeID : livingTypes) {
-						chunkStat.entityTypeCount.incrementOrPutIfAbsent(creatureTypeID, 1);
-					}
+					countInfo.countEntityType(chunkKey, countIndex.typeIndex(creatureTypeID));
 				}
 			}
 		}
-		return new CountInfo(eligibleChunksForSpawning, creatureTypeCount, creatureCount);
+		return countInfo;
 	}
 
 	private Set<String> getApplicableLivingTypes(Collection<LivingHandler> livingHandlers) {
@@ -129,15 +101,6 @@ public class SpawnCounter implements Counter {
 	}
 
 	private boolean isPlayerClose(World world, Entity entity, double cutoffDist) {
-		for (int i = 0; i < world.playerEntities.size(); ++i) {
-			EntityPlayer player = (EntityPlayer) world.playerEntities.get(i);
-			double xDist = player.posX - entity.posX;
-			double zDist = player.posZ - entity.posZ;
-			double curDist = (xDist * xDist + zDist * zDist);
-			if ((cutoffDist < 0.0D || curDist < cutoffDist * cutoffDist)) {
-				return true;
-			}
-		}
-		return false;
+		return PlayerIndex.of(world).isPlayerWithinHorizontal(entity.posX, entity.posZ, cutoffDist);
 	}
 }
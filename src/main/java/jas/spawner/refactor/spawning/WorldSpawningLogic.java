@@ -2,9 +2,13 @@ package jas.spawner.refactor.spawning;
 
 import jas.common.JASLog;
 import jas.common.global.BiomeBlacklist;
+import jas.spawner.modern.spawner.ChunkKey;
+import jas.spawner.modern.spawner.ChunkStatMap.KeyPermutation;
 import jas.spawner.modern.spawner.CountInfo;
 import jas.spawner.modern.spawner.Tags;
 import jas.spawner.modern.spawner.CountInfo.ChunkStat;
+import jas.spawner.modern.spawner.EntityFactory;
+import jas.spawner.modern.spawner.PlayerIndex;
 import jas.spawner.modern.spawner.biome.group.BiomeHelper;
 import jas.spawner.refactor.BiomeSpawnLists;
 import jas.spawner.refactor.LivingTypeBuilder.LivingType;
@@ -19,16 +23,12 @@ import jas.spawner.refactor.mvel.MVELExpression;
 import jas.spawner.refactor.structure.StructureHandlers;
 import jas.spawner.refactor.structure.StructureHandlerBuilder.StructureHandler;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.IEntityLivingData;
 import net.minecraft.util.ChunkCoordinates;
-import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.ChunkPosition;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
@@ -53,19 +53,18 @@ public class WorldSpawningLogic implements SpawnerLogic {
 			BiomeSettings biomeSettings, LivingSettings livingSettings, BiomeSpawnLists biomesSpawns,
 			StructureHandlers structureSpawns) {
 		ChunkCoordinates serverOriginPoint = world.getSpawnPoint();
-		List<ChunkCoordIntPair> eligibleChunksForSpawning = new ArrayList<ChunkCoordIntPair>(
-				countInfo.eligibleChunkLocations());
-		Collections.shuffle(eligibleChunksForSpawning);
-		labelChunkStart: for (ChunkCoordIntPair chunkCoord : eligibleChunksForSpawning) {
-			ChunkStat chunkStat = countInfo.getChunkStat(chunkCoord);
+		KeyPermutation eligibleChunksForSpawning = countInfo.eligibleChunks().randomOrder(world.rand);
+		labelChunkStart: while (eligibleChunksForSpawning.hasNext()) {
+			long chunkKey = eligibleChunksForSpawning.nextKey();
+			ChunkStat chunkStat = countInfo.getChunkStat(chunkKey);
 			if (chunkStat.isEdge) {
 				continue;
 			}
 			countInfo.resetEntitiesSpawnedThisLoop();
 			for (int numLocAttempts = 0; numLocAttempts < livingType.iterationsPerChunk; ++numLocAttempts) {
 				IEntityLivingData entitylivingdata = null;
-				ChunkPosition startSpawningPoint = getRandomSpawningPointInChunk(world, chunkCoord.chunkXPos,
-						chunkCoord.chunkZPos);
+				ChunkPosition startSpawningPoint = getRandomSpawningPointInChunk(world, ChunkKey.chunkX(chunkKey),
+						ChunkKey.chunkZ(chunkKey));
 
 				SpawnListEntry spawnlistentry = null;
 				Class<? extends EntityLiving> livingToSpawn = null;
@@ -125,12 +124,8 @@ public class WorldSpawningLogic implements SpawnerLogic {
 					float spawnX = spawningPoint.chunkPosX + 0.5F;
 					float spawnY = spawningPoint.chunkPosY;
 					float spawnZ = spawningPoint.chunkPosZ + 0.5F;
-					EntityLiving entityliving;
-					try {
-						entityliving = livingToSpawn.getConstructor(new Class[] { World.class }).newInstance(
-								new Object[] { world });
-					} catch (Exception exception) {
-						exception.printStackTrace();
+					EntityLiving entityliving = EntityFactory.construct(livingToSpawn, world);
+					if (entityliving == null) {
 						return;
 					}
 					entityliving.setLocationAndAngles(spawnX, spawnY, spawnZ, world.rand.nextFloat() * 360.0F, 0.0F);
@@ -183,7 +178,7 @@ public class WorldSpawningLogic implements SpawnerLogic {
 
 	private static boolean isNearPlayerOrOrigin(World world, ChunkCoordinates serverSpawnPoint, int originX,
 			int originY, int originZ) {
-		if (world.getClosestPlayer(originX, originY, originZ, 24.0D) == null) {
+		if (!PlayerIndex.of(world).isPlayerWithin(originX, originY, originZ, 24.0D)) {
 			float xOffset = originX - serverSpawnPoint.posX;
 			float yOffset = originY - serverSpawnPoint.posY;
 			float zOffset = originZ - serverSpawnPoint.posZ;